@@ -0,0 +1,184 @@
+package com.ecohub.dailychallenges.catalog;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.ecohub.dailychallenges.dto.ChallengePageDto;
+import com.ecohub.dailychallenges.dto.DailyChallengeResponseDto;
+import com.ecohub.dailychallenges.entity.ChallengeCategory;
+import com.ecohub.dailychallenges.entity.DailyChallenges;
+import com.ecohub.dailychallenges.repository.DailyChallengeRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * The active challenges, held in memory per category and pre-sorted in
+ * every ChallengeSort order.
+ *
+ * Reads take the current snapshot and slice a page out of an immutable
+ * list, with no query and no copying. Writes re-sort the category they
+ * touch and the combined lists, share the other categories' lists and
+ * publish a new snapshot.
+ *
+ * Only this node's writes reach the catalog directly. When several nodes
+ * run, a challenge changed through another node is picked up by the
+ * periodic rebuild, so a deactivated challenge stops accepting completions
+ * within refresh-ms.
+ */
+@Component
+public class ChallengeCatalog {
+
+    private final DailyChallengeRepository repository;
+
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), Map.of(), Map.of());
+
+    public ChallengeCatalog(DailyChallengeRepository repository) {
+        this.repository = repository;
+    }
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${daily-challenges.catalog.refresh-ms:30000}",
+            initialDelayString = "${daily-challenges.catalog.refresh-ms:30000}")
+    public synchronized void rebuild() {
+        Map<ChallengeCategory, List<DailyChallengeResponseDto>> byCategory = new EnumMap<>(ChallengeCategory.class);
+        Map<Long, DailyChallengeResponseDto> byId = new HashMap<>();
+        for (DailyChallenges challenge : repository.findByIsActiveTrue()) {
+            DailyChallengeResponseDto dto = new DailyChallengeResponseDto(challenge);
+            byId.put(dto.getChallengeId(), dto);
+            if (dto.getCategory() != null) {
+                byCategory.computeIfAbsent(dto.getCategory(), c -> new ArrayList<>()).add(dto);
+            }
+        }
+        snapshot = build(byCategory, byId);
+    }
+
+    /**
+     * A page of active challenges, of one category or (null) all of them.
+     */
+    public ChallengePageDto page(ChallengeCategory category, ChallengeSort sort, int page, int size) {
+        List<DailyChallengeResponseDto> sorted = list(category, sort);
+        int from = (int) Math.min((long) page * size, sorted.size());
+        List<DailyChallengeResponseDto> items = sorted.subList(from, Math.min(from + size, sorted.size()));
+        return new ChallengePageDto(items, page, size, sorted.size());
+    }
+
+    /**
+     * The challenge if it is active, without a query; null otherwise.
+     */
+    public DailyChallengeResponseDto activeChallenge(Long challengeId) {
+        return snapshot.byId.get(challengeId);
+    }
+
+    /**
+     * Call after a challenge is created or updated.
+     */
+    public synchronized void challengeSaved(DailyChallenges challenge) {
+        DailyChallengeResponseDto dto = new DailyChallengeResponseDto(challenge);
+        boolean active = Boolean.TRUE.equals(dto.getIsActive());
+        replace(dto.getChallengeId(), active ? dto : null);
+    }
+
+    public synchronized void challengeDeleted(Long challengeId) {
+        replace(challengeId, null);
+    }
+
+    private List<DailyChallengeResponseDto> list(ChallengeCategory category, ChallengeSort sort) {
+        Map<ChallengeSort, List<DailyChallengeResponseDto>> lists = category == null
+                ? snapshot.all
+                : snapshot.byCategory.get(category);
+        return lists == null ? List.of() : lists.getOrDefault(sort, List.of());
+    }
+
+    // copy-on-write: only the categories the challenge leaves or joins are rebuilt
+    private void replace(Long challengeId, DailyChallengeResponseDto dto) {
+        Snapshot current = snapshot;
+        DailyChallengeResponseDto old = current.byId.get(challengeId);
+        if (old == null && dto == null) {
+            return;
+        }
+
+        Map<Long, DailyChallengeResponseDto> byId = new HashMap<>(current.byId);
+        if (dto == null) {
+            byId.remove(challengeId);
+        } else {
+            byId.put(challengeId, dto);
+        }
+
+        Map<ChallengeCategory, Map<ChallengeSort, List<DailyChallengeResponseDto>>> byCategory =
+                new EnumMap<>(ChallengeCategory.class);
+        byCategory.putAll(current.byCategory);
+        for (ChallengeCategory category : ChallengeCategory.values()) {
+            boolean touched = (old != null && old.getCategory() == category)
+                    || (dto != null && dto.getCategory() == category);
+            if (!touched) {
+                continue;
+            }
+            List<DailyChallengeResponseDto> members = new ArrayList<>();
+            Map<ChallengeSort, List<DailyChallengeResponseDto>> lists = current.byCategory.get(category);
+            if (lists != null) {
+                for (DailyChallengeResponseDto member : lists.get(ChallengeSort.REWARD)) {
+                    if (!member.getChallengeId().equals(challengeId)) {
+                        members.add(member);
+                    }
+                }
+            }
+            if (dto != null && dto.getCategory() == category) {
+                members.add(dto);
+            }
+            if (members.isEmpty()) {
+                byCategory.remove(category);
+            } else {
+                byCategory.put(category, sortedEveryWay(members));
+            }
+        }
+        snapshot = new Snapshot(byCategory, allOf(byCategory), byId);
+    }
+
+    private static Snapshot build(Map<ChallengeCategory, List<DailyChallengeResponseDto>> members,
+                                  Map<Long, DailyChallengeResponseDto> byId) {
+        Map<ChallengeCategory, Map<ChallengeSort, List<DailyChallengeResponseDto>>> byCategory =
+                new EnumMap<>(ChallengeCategory.class);
+        members.forEach((category, list) -> byCategory.put(category, sortedEveryWay(list)));
+        return new Snapshot(byCategory, allOf(byCategory), byId);
+    }
+
+    private static Map<ChallengeSort, List<DailyChallengeResponseDto>> allOf(
+            Map<ChallengeCategory, Map<ChallengeSort, List<DailyChallengeResponseDto>>> byCategory) {
+        List<DailyChallengeResponseDto> all = new ArrayList<>();
+        byCategory.values().forEach(lists -> all.addAll(lists.get(ChallengeSort.REWARD)));
+        return sortedEveryWay(all);
+    }
+
+    private static Map<ChallengeSort, List<DailyChallengeResponseDto>> sortedEveryWay(
+            List<DailyChallengeResponseDto> members) {
+        Map<ChallengeSort, List<DailyChallengeResponseDto>> lists = new EnumMap<>(ChallengeSort.class);
+        for (ChallengeSort sort : ChallengeSort.values()) {
+            List<DailyChallengeResponseDto> sorted = new ArrayList<>(members);
+            sorted.sort(sort.order());
+            lists.put(sort, Collections.unmodifiableList(sorted));
+        }
+        return lists;
+    }
+
+    private static final class Snapshot {
+
+        final Map<ChallengeCategory, Map<ChallengeSort, List<DailyChallengeResponseDto>>> byCategory;
+        final Map<ChallengeSort, List<DailyChallengeResponseDto>> all;
+        final Map<Long, DailyChallengeResponseDto> byId;
+
+        Snapshot(Map<ChallengeCategory, Map<ChallengeSort, List<DailyChallengeResponseDto>>> byCategory,
+                 Map<ChallengeSort, List<DailyChallengeResponseDto>> all,
+                 Map<Long, DailyChallengeResponseDto> byId) {
+            this.byCategory = byCategory;
+            this.all = all;
+            this.byId = byId;
+        }
+    }
+}
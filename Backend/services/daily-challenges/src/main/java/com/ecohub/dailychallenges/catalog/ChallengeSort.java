@@ -0,0 +1,28 @@
+package com.ecohub.dailychallenges.catalog;
+
+import java.util.Comparator;
+
+import com.ecohub.dailychallenges.dto.DailyChallengeResponseDto;
+
+public enum ChallengeSort {
+
+    // biggest reward first, newest first among equal rewards
+    REWARD(Comparator.comparing(DailyChallengeResponseDto::getRewardCoinValue,
+                    Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(DailyChallengeResponseDto::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(DailyChallengeResponseDto::getChallengeId)),
+
+    NEWEST(Comparator.comparing(DailyChallengeResponseDto::getCreatedAt,
+                    Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(DailyChallengeResponseDto::getChallengeId, Comparator.reverseOrder()));
+
+    private final Comparator<DailyChallengeResponseDto> order;
+
+    ChallengeSort(Comparator<DailyChallengeResponseDto> order) {
+        this.order = order;
+    }
+
+    public Comparator<DailyChallengeResponseDto> order() {
+        return order;
+    }
+}
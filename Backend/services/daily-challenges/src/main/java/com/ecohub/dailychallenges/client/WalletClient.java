@@ -0,0 +1,48 @@
+package com.ecohub.dailychallenges.client;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import com.ecohub.dailychallenges.dto.WalletCreditDto;
+import com.ecohub.dailychallenges.dto.WalletCreditResultDto;
+
+/**
+ * Calls reward-wallet's bulk endpoint for the payout relay. Any failure is a
+ * RuntimeException; the relay resends the same entries, which the wallet
+ * deduplicates by reference.
+ */
+@Component
+public class WalletClient {
+
+    private final RestTemplate restTemplate;
+    private final String baseUrl;
+
+    public WalletClient(
+            RestTemplate walletRestTemplate,
+            @Value("${daily-challenges.wallet.base-url:http://localhost:8084}") String baseUrl) {
+        this.restTemplate = walletRestTemplate;
+        this.baseUrl = baseUrl;
+    }
+
+    /**
+     * @return one result per entry, in the same order
+     */
+    public List<WalletCreditResultDto> applyBulk(List<WalletCreditDto> entries) {
+        WalletCreditResultDto[] results;
+        try {
+            results = restTemplate.postForObject(baseUrl + "/bulk", entries, WalletCreditResultDto[].class);
+        } catch (RestClientException e) {
+            throw new RuntimeException("Wallet service failed: " + e.getMessage());
+        }
+        if (results == null || results.length != entries.size()) {
+            throw new RuntimeException("Wallet returned " + (results == null ? 0 : results.length)
+                    + " results for " + entries.size() + " entries");
+        }
+        return Arrays.asList(results);
+    }
+}
@@ -0,0 +1,104 @@
+package com.ecohub.dailychallenges.completion;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ecohub.dailychallenges.entity.ChallengeCategory;
+import com.ecohub.dailychallenges.entity.ChallengeCompletionBitmap;
+import com.ecohub.dailychallenges.repository.ChallengeCompletionBitmapRepository;
+
+/**
+ * Reads and writes the completion bitmaps in challenge_completion_bitmaps.
+ */
+@Component
+public class CompletionBitmapStore {
+
+    private final ChallengeCompletionBitmapRepository repository;
+
+    public CompletionBitmapStore(ChallengeCompletionBitmapRepository repository) {
+        this.repository = repository;
+    }
+
+    public RoaringBitmap load(Long challengeId, LocalDate day) {
+        return repository.findById(new ChallengeCompletionBitmap.Key(challengeId, day))
+                .map(row -> deserialize(row.getUsers()))
+                .orElseGet(RoaringBitmap::new);
+    }
+
+    public List<RoaringBitmap> loadCategory(ChallengeCategory category, LocalDate from, LocalDate to) {
+        List<RoaringBitmap> bitmaps = new ArrayList<>();
+        for (ChallengeCompletionBitmap row : repository.findByCategoryAndDayBetween(category, from, to)) {
+            bitmaps.add(deserialize(row.getUsers()));
+        }
+        return bitmaps;
+    }
+
+    /**
+     * Everyone who completed any challenge on the day.
+     */
+    public RoaringBitmap loadDay(LocalDate day) {
+        RoaringBitmap users = new RoaringBitmap();
+        for (ChallengeCompletionBitmap row : repository.findByDay(day)) {
+            users.or(deserialize(row.getUsers()));
+        }
+        return users;
+    }
+
+    /**
+     * The earliest day with stored completions, or null if there are none.
+     */
+    public LocalDate firstDay() {
+        return repository.findFirstDay();
+    }
+
+    /**
+     * ORs the given users into the stored bitmap under a row lock, so nodes
+     * flushing the same challenge and day do not overwrite each other.
+     *
+     * @return everything stored for that challenge and day now
+     */
+    @Transactional
+    public RoaringBitmap merge(Long challengeId, LocalDate day, ChallengeCategory category, RoaringBitmap users) {
+        ChallengeCompletionBitmap row = repository.findForUpdate(challengeId, day).orElse(null);
+        RoaringBitmap merged = users.clone();
+        if (row == null) {
+            row = new ChallengeCompletionBitmap();
+            row.setChallengeId(challengeId);
+            row.setDay(day);
+            row.setCategory(category);
+        } else {
+            merged.or(deserialize(row.getUsers()));
+        }
+        row.setUsers(serialize(merged));
+        row.setCompletions(merged.getLongCardinality());
+        row.setUpdatedAt(LocalDateTime.now());
+        repository.save(row);
+        return merged;
+    }
+
+    static byte[] serialize(RoaringBitmap users) {
+        // long runs of consecutive ids (old accounts, bulk sign-ups) store as ranges
+        users.runOptimize();
+        ByteBuffer buffer = ByteBuffer.allocate(users.serializedSizeInBytes());
+        users.serialize(buffer);
+        return buffer.array();
+    }
+
+    static RoaringBitmap deserialize(byte[] bytes) {
+        RoaringBitmap users = new RoaringBitmap();
+        try {
+            users.deserialize(ByteBuffer.wrap(bytes));
+        } catch (IOException e) {
+            throw new RuntimeException("Corrupt completion bitmap", e);
+        }
+        return users;
+    }
+}
@@ -0,0 +1,193 @@
+package com.ecohub.dailychallenges.completion;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.ecohub.dailychallenges.entity.ChallengeCategory;
+
+/**
+ * Who completed which challenge on which day, one compressed bitmap of user
+ * ids per (challenge, day).
+ *
+ * Recent days live in memory, where marking and checking a user is a bit
+ * operation on the slot. Changed bitmaps are merged into the table every
+ * flush-ms, so a crash loses at most that window of completions; older
+ * days are dropped from memory once flushed and read back from the table
+ * on demand.
+ */
+@Component
+public class CompletionBitmaps {
+
+    private final CompletionBitmapStore store;
+    private final ZoneId zone;
+    private final int retainDays;
+
+    private final Map<Key, Slot> slots = new ConcurrentHashMap<>();
+
+    public CompletionBitmaps(
+            CompletionBitmapStore store,
+            @Value("${daily-challenges.today.zone:UTC}") String zone,
+            @Value("${daily-challenges.completions.retain-days:2}") int retainDays) {
+        this.store = store;
+        this.zone = ZoneId.of(zone);
+        this.retainDays = retainDays;
+    }
+
+    public LocalDate today() {
+        return LocalDate.now(zone);
+    }
+
+    /**
+     * @return true if the user had not completed the challenge that day yet
+     */
+    public boolean add(Long challengeId, ChallengeCategory category, LocalDate day, int user) {
+        return slot(challengeId, day).add(category, user);
+    }
+
+    public boolean contains(Long challengeId, LocalDate day, int user) {
+        return slot(challengeId, day).contains(user);
+    }
+
+    public long count(Long challengeId, LocalDate day) {
+        return slot(challengeId, day).count();
+    }
+
+    /**
+     * Everyone who completed at least one challenge of the category between
+     * the two days, inclusive: the stored bitmaps ORed with what this node
+     * has not flushed yet.
+     */
+    public RoaringBitmap union(ChallengeCategory category, LocalDate from, LocalDate to) {
+        List<RoaringBitmap> bitmaps = new ArrayList<>(store.loadCategory(category, from, to));
+        slots.forEach((key, slot) -> {
+            if (!key.day.isBefore(from) && !key.day.isAfter(to) && slot.category() == category) {
+                bitmaps.add(slot.copy());
+            }
+        });
+        return bitmaps.isEmpty() ? new RoaringBitmap() : FastAggregation.or(bitmaps.iterator());
+    }
+
+    @Scheduled(fixedDelayString = "${daily-challenges.completions.flush-ms:1000}")
+    public void flush() {
+        LocalDate oldest = today().minusDays(retainDays);
+        slots.forEach((key, slot) -> {
+            RoaringBitmap pending = slot.takeChanges();
+            if (pending != null) {
+                try {
+                    // pick up what other nodes stored while we are at it
+                    slot.merge(store.merge(key.challengeId, key.day, slot.category(), pending));
+                } catch (RuntimeException e) {
+                    slot.markChanged();
+                    System.out.println("Completion flush failed for challenge " + key.challengeId
+                            + " on " + key.day + ": " + e.getMessage());
+                }
+            }
+            if (key.day.isBefore(oldest) && !slot.changed()) {
+                slots.remove(key, slot);
+            }
+        });
+    }
+
+    private Slot slot(Long challengeId, LocalDate day) {
+        Key key = new Key(challengeId, day);
+        Slot slot = slots.get(key);
+        if (slot == null) {
+            // loaded outside the map so a slow read does not block other keys
+            Slot loaded = new Slot(store.load(challengeId, day));
+            slot = slots.putIfAbsent(key, loaded);
+            if (slot == null) {
+                slot = loaded;
+            }
+        }
+        return slot;
+    }
+
+    private static final class Key {
+
+        final Long challengeId;
+        final LocalDate day;
+
+        Key(Long challengeId, LocalDate day) {
+            this.challengeId = challengeId;
+            this.day = day;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other && challengeId.equals(other.challengeId) && day.equals(other.day);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(challengeId, day);
+        }
+    }
+
+    private static final class Slot {
+
+        private final RoaringBitmap users;
+        // set by the first completion; a slot only read has nothing to flush
+        private ChallengeCategory category;
+        private boolean changed;
+
+        Slot(RoaringBitmap users) {
+            this.users = users;
+        }
+
+        synchronized boolean add(ChallengeCategory category, int user) {
+            if (this.category == null) {
+                this.category = category;
+            }
+            boolean added = users.checkedAdd(user);
+            changed |= added;
+            return added;
+        }
+
+        synchronized boolean contains(int user) {
+            return users.contains(user);
+        }
+
+        synchronized long count() {
+            return users.getLongCardinality();
+        }
+
+        synchronized ChallengeCategory category() {
+            return category;
+        }
+
+        synchronized RoaringBitmap copy() {
+            return users.clone();
+        }
+
+        synchronized RoaringBitmap takeChanges() {
+            if (!changed) {
+                return null;
+            }
+            changed = false;
+            return users.clone();
+        }
+
+        synchronized void merge(RoaringBitmap stored) {
+            users.or(stored);
+        }
+
+        synchronized void markChanged() {
+            changed = true;
+        }
+
+        synchronized boolean changed() {
+            return changed;
+        }
+    }
+}
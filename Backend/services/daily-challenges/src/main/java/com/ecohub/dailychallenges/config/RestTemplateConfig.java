@@ -0,0 +1,31 @@
+package com.ecohub.dailychallenges.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+@Configuration
+public class RestTemplateConfig {
+
+    /**
+     * RestTemplate for the payout relay's calls to reward-wallet. A bulk
+     * payout can take a while to apply, hence the long read timeout.
+     */
+    @Bean
+    public RestTemplate walletRestTemplate(
+            @Value("${daily-challenges.wallet.connect-timeout-ms:500}") long connectTimeoutMs,
+            @Value("${daily-challenges.wallet.read-timeout-ms:10000}") long readTimeoutMs) {
+        return timeoutRestTemplate(connectTimeoutMs, readTimeoutMs);
+    }
+
+    public static RestTemplate timeoutRestTemplate(long connectTimeoutMs, long readTimeoutMs) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(Duration.ofMillis(connectTimeoutMs));
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+        return new RestTemplate(requestFactory);
+    }
+}
@@ -0,0 +1,66 @@
+package com.ecohub.dailychallenges.controller;
+
+import com.ecohub.dailychallenges.dto.CompletionAudienceDto;
+import com.ecohub.dailychallenges.dto.CompletionCountDto;
+import com.ecohub.dailychallenges.dto.CompletionRequestDto;
+import com.ecohub.dailychallenges.dto.CompletionResponseDto;
+import com.ecohub.dailychallenges.dto.CompletionStatusDto;
+import com.ecohub.dailychallenges.entity.ChallengeCategory;
+import com.ecohub.dailychallenges.service.CompletionService;
+
+import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/daily-challenges")
+public class CompletionController {
+
+    private final CompletionService service;
+
+    public CompletionController(CompletionService service) {
+        this.service = service;
+    }
+
+    // ================= COMPLETE =================
+    // counts once per user and day; completing again is a no-op
+    @PostMapping("/{id}/completions")
+    public ResponseEntity<CompletionResponseDto> complete(
+            @PathVariable Long id,
+            @Valid @RequestBody CompletionRequestDto dto) {
+        return ResponseEntity.ok(service.complete(id, dto.getUserId()));
+    }
+
+    // ================= COUNT =================
+    @GetMapping("/{id}/completions/count")
+    public ResponseEntity<CompletionCountDto> getCount(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate day) {
+        return ResponseEntity.ok(service.getCount(id, day));
+    }
+
+    // ================= STATUS =================
+    // day defaults to today
+    @GetMapping("/{id}/completions/{userId}")
+    public ResponseEntity<CompletionStatusDto> getStatus(
+            @PathVariable Long id,
+            @PathVariable Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate day) {
+        return ResponseEntity.ok(service.getStatus(id, userId, day));
+    }
+
+    // ================= BY CATEGORY =================
+    // users who completed any challenge of the category between from and to
+    @GetMapping("/completions/by-category")
+    public ResponseEntity<CompletionAudienceDto> getAudience(
+            @RequestParam ChallengeCategory category,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "100") int size) {
+        return ResponseEntity.ok(service.getAudience(category, from, to, cursor, size));
+    }
+}
@@ -1,7 +1,11 @@
 package com.ecohub.dailychallenges.controller;
 
+import com.ecohub.dailychallenges.catalog.ChallengeSort;
+import com.ecohub.dailychallenges.dto.ChallengePageDto;
 import com.ecohub.dailychallenges.dto.DailyChallengeRequestDto;
 import com.ecohub.dailychallenges.dto.DailyChallengeResponseDto;
+import com.ecohub.dailychallenges.dto.TodayChallengesDto;
+import com.ecohub.dailychallenges.entity.ChallengeCategory;
 import com.ecohub.dailychallenges.service.DailyChallengeService;
 
 import jakarta.validation.Valid;
@@ -34,6 +38,25 @@ public class DailyChallengeController {
         return ResponseEntity.ok(service.getAll());
     }
 
+    // ================= READ ACTIVE =================
+    // active challenges only, optionally of one category, served from memory
+    @GetMapping("/active")
+    public ResponseEntity<ChallengePageDto> getActiveChallenges(
+            @RequestParam(required = false) ChallengeCategory category,
+            @RequestParam(defaultValue = "REWARD") ChallengeSort sort,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(service.getActive(category, sort, page, size));
+    }
+
+    // ================= TODAY =================
+    // the user's set for the day, served from memory
+    @GetMapping("/today")
+    public ResponseEntity<TodayChallengesDto> getTodayChallenges(
+            @RequestParam Long userId) {
+        return ResponseEntity.ok(service.getToday(userId));
+    }
+
     // ================= READ BY ID =================
     @GetMapping("/{id}")
     public ResponseEntity<DailyChallengeResponseDto> getChallengeById(
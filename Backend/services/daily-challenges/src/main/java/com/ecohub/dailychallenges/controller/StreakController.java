@@ -0,0 +1,39 @@
+package com.ecohub.dailychallenges.controller;
+
+import com.ecohub.dailychallenges.dto.StreakDto;
+import com.ecohub.dailychallenges.dto.StreakReplayReportDto;
+import com.ecohub.dailychallenges.service.StreakService;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/daily-challenges/streaks")
+public class StreakController {
+
+    private final StreakService service;
+
+    public StreakController(StreakService service) {
+        this.service = service;
+    }
+
+    // ================= READ =================
+    @GetMapping("/{userId}")
+    public ResponseEntity<StreakDto> getStreak(
+            @PathVariable Long userId) {
+        return ResponseEntity.ok(service.getStreak(userId));
+    }
+
+    // ================= REPLAY =================
+    // rebuilds streaks from stored completions; defaults to all of history up to today,
+    // and from may not be later than the first stored day
+    @PostMapping("/replay")
+    public ResponseEntity<StreakReplayReportDto> replay(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(service.replay(from, to));
+    }
+}
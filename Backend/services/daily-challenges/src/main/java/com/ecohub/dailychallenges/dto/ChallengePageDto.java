@@ -0,0 +1,16 @@
+package com.ecohub.dailychallenges.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ChallengePageDto {
+
+    private List<DailyChallengeResponseDto> items;
+    private int page;
+    private int size;
+    private int total;
+}
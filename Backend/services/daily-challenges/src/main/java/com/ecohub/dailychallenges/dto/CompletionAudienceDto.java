@@ -0,0 +1,26 @@
+package com.ecohub.dailychallenges.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.ecohub.dailychallenges.entity.ChallengeCategory;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Users who completed any challenge of a category in a date range, one
+ * page of ids at a time in ascending order.
+ */
+@Getter
+@AllArgsConstructor
+public class CompletionAudienceDto {
+
+    private ChallengeCategory category;
+    private LocalDate from;
+    private LocalDate to;
+    private long totalUsers;
+    private List<Long> userIds;
+    // last user id of this page, or null on the last page
+    private Long nextCursor;
+}
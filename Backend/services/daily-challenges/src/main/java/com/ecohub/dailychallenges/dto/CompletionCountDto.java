@@ -0,0 +1,15 @@
+package com.ecohub.dailychallenges.dto;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class CompletionCountDto {
+
+    private Long challengeId;
+    private LocalDate day;
+    private long completions;
+}
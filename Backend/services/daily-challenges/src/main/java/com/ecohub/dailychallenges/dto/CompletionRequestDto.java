@@ -0,0 +1,13 @@
+package com.ecohub.dailychallenges.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class CompletionRequestDto {
+
+	@NotNull(message = "User id cannot be null")
+	private Long userId;
+}
@@ -0,0 +1,18 @@
+package com.ecohub.dailychallenges.dto;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class CompletionResponseDto {
+
+    private Long challengeId;
+    private Long userId;
+    private LocalDate day;
+    // false when the user had already completed it that day
+    private boolean newlyCompleted;
+    private long completions;
+}
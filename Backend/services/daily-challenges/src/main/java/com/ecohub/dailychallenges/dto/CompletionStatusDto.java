@@ -0,0 +1,16 @@
+package com.ecohub.dailychallenges.dto;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class CompletionStatusDto {
+
+    private Long challengeId;
+    private Long userId;
+    private LocalDate day;
+    private boolean completed;
+}
@@ -0,0 +1,16 @@
+package com.ecohub.dailychallenges.dto;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class StreakDto {
+
+    private Long userId;
+    private int currentStreak;
+    private int longestStreak;
+    private LocalDate lastActiveDay;
+}
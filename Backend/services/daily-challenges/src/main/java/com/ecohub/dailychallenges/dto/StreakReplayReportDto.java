@@ -0,0 +1,17 @@
+package com.ecohub.dailychallenges.dto;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class StreakReplayReportDto {
+
+    private LocalDate from;
+    private LocalDate to;
+    private int days;
+    private long users;
+    private long elapsedMs;
+}
@@ -0,0 +1,15 @@
+package com.ecohub.dailychallenges.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class TodayChallengesDto {
+
+    private LocalDate day;
+    private List<DailyChallengeResponseDto> challenges;
+}
@@ -0,0 +1,19 @@
+package com.ecohub.dailychallenges.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One entry of a reward-wallet bulk request.
+ */
+@Getter
+@AllArgsConstructor
+public class WalletCreditDto {
+
+    private Long userId;
+    private int amount;
+    private String type;
+    private String source;
+    // the wallet applies an entry with a given reference only once
+    private String reference;
+}
@@ -0,0 +1,25 @@
+package com.ecohub.dailychallenges.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * reward-wallet's answer for one bulk entry.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class WalletCreditResultDto {
+
+    public static final String APPLIED = "APPLIED";
+    public static final String DUPLICATE = "DUPLICATE";
+    public static final String REJECTED = "REJECTED";
+    // the wallet failed to apply the entry (e.g. its ledger was down); nothing changed
+    public static final String RETRY = "RETRY";
+
+    private Long userId;
+    private String status;
+    private Integer balance;
+    private String message;
+}
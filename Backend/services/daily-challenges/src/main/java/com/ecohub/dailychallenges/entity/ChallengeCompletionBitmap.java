@@ -0,0 +1,59 @@
+package com.ecohub.dailychallenges.entity;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Everyone who completed one challenge on one day, as a serialized
+ * RoaringBitmap of user ids.
+ */
+@Entity
+@Table(name = "challenge_completion_bitmaps",
+        indexes = {
+                @Index(name = "idx_completion_bitmaps_category_day", columnList = "category, completion_day"),
+                @Index(name = "idx_completion_bitmaps_day", columnList = "completion_day")
+        })
+@IdClass(ChallengeCompletionBitmap.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+public class ChallengeCompletionBitmap {
+
+	@Id
+	private Long challengeId;
+
+	@Id
+	@Column(name = "completion_day")
+	private LocalDate day;
+
+	// the challenge's category when it was completed
+	@Enumerated(EnumType.STRING)
+	private ChallengeCategory category;
+
+	private Long completions;
+
+	@Lob
+	@Column(nullable = false, columnDefinition = "LONGBLOB")
+	private byte[] users;
+
+	private LocalDateTime updatedAt;
+
+	@Getter
+	@Setter
+	@NoArgsConstructor
+	@AllArgsConstructor
+	@EqualsAndHashCode
+	public static class Key implements Serializable {
+
+		private Long challengeId;
+		private LocalDate day;
+	}
+}
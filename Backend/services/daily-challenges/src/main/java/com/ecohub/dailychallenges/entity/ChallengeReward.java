@@ -0,0 +1,58 @@
+package com.ecohub.dailychallenges.entity;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Coins owed to a user for one completion, written when the completion is
+ * recorded and paid out to reward-wallet later by RewardPayoutRelay.
+ * Written with plain SQL by ChallengeRewardRepository; mapped here for the
+ * schema.
+ */
+@Entity
+@Table(name = "challenge_rewards",
+        indexes = @Index(name = "idx_challenge_rewards_status_id", columnList = "status, id"),
+        uniqueConstraints = @UniqueConstraint(name = "uk_challenge_rewards_completion",
+                columnNames = {"user_id", "challenge_id", "completion_day"}))
+@Getter
+@Setter
+@NoArgsConstructor
+public class ChallengeReward {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Column(name = "user_id", nullable = false)
+	private Long userId;
+
+	@Column(name = "challenge_id", nullable = false)
+	private Long challengeId;
+
+	@Column(name = "completion_day", nullable = false)
+	private LocalDate day;
+
+	@Column(nullable = false)
+	private Integer coins;
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false, length = 16)
+	private RewardStatus status;
+
+	// smallest reward id in the batch; the wallet idempotency keys are built from it
+	private Long payoutBatch;
+
+	private int attempts;
+
+	@Column(length = 500)
+	private String lastError;
+
+	private LocalDateTime createdAt;
+
+	private LocalDateTime paidAt;
+}
@@ -0,0 +1,10 @@
+package com.ecohub.dailychallenges.entity;
+
+public enum RewardStatus {
+    // waiting for the next payout window
+    PENDING,
+    // claimed into a payout batch, not yet confirmed by the wallet
+    SENDING,
+    PAID,
+    FAILED
+}
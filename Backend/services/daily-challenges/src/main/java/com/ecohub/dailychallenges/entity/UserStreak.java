@@ -0,0 +1,37 @@
+package com.ecohub.dailychallenges.entity;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A user's run of consecutive days with at least one completed challenge.
+ * Written with plain SQL by StreakUpdateRepository; mapped here for reads
+ * and the schema.
+ */
+@Entity
+@Table(name = "user_streaks",
+        indexes = @Index(name = "idx_user_streaks_last_active", columnList = "last_active_day, current_streak"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class UserStreak {
+
+	@Id
+	private Long userId;
+
+	@Column(nullable = false)
+	private Integer currentStreak;
+
+	@Column(nullable = false)
+	private Integer longestStreak;
+
+	@Column(name = "last_active_day", nullable = false)
+	private LocalDate lastActiveDay;
+
+	private LocalDateTime updatedAt;
+}
@@ -0,0 +1,209 @@
+package com.ecohub.dailychallenges.payout;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.ecohub.dailychallenges.client.WalletClient;
+import com.ecohub.dailychallenges.dto.WalletCreditDto;
+import com.ecohub.dailychallenges.dto.WalletCreditResultDto;
+import com.ecohub.dailychallenges.repository.ChallengeRewardRepository;
+import com.ecohub.dailychallenges.repository.RewardRow;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Pays the coins recorded in challenge_rewards out to reward-wallet.
+ *
+ * Every window the pending rewards are claimed into batches of up to
+ * batch-size rows, summed per user, and sent as one bulk credit per batch.
+ * Each user's entry carries the reference "challenge-rewards-{batch}-{user}",
+ * so a batch whose answer was lost (timeout, crash before the rows were
+ * marked paid) is simply sent again and the wallet reports the entries it
+ * already applied as DUPLICATE.
+ *
+ * Batches left open are resent first, before anything new is claimed. A
+ * user the wallet rejects (e.g. no wallet) stays in the batch for up to
+ * max-attempts windows and is then marked FAILED. An entry the wallet
+ * answers RETRY failed on the wallet's side; it stays in the batch without
+ * using up an attempt, and the relay pauses until the next window.
+ *
+ * Runs on a single node: batches are not claimed between relays.
+ */
+@Component
+public class RewardPayoutRelay {
+
+    private static final String LEDGER_SOURCE = "DAILY_CHALLENGE";
+    private static final String CREDIT = "CREDIT";
+
+    private final ChallengeRewardRepository repository;
+    private final WalletClient walletClient;
+    private final int batchSize;
+    private final int maxAttempts;
+
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicLong oldestPendingSeconds = new AtomicLong();
+    private final Timer lag;
+    private final Timer send;
+    private final DistributionSummary entriesPerBatch;
+    private final Counter paid;
+    private final Counter failed;
+    private final Counter coins;
+
+    public RewardPayoutRelay(
+            ChallengeRewardRepository repository,
+            WalletClient walletClient,
+            MeterRegistry meterRegistry,
+            @Value("${daily-challenges.payouts.batch-size:5000}") int batchSize,
+            @Value("${daily-challenges.payouts.max-attempts:10}") int maxAttempts) {
+        this.repository = repository;
+        this.walletClient = walletClient;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+
+        meterRegistry.gauge("daily-challenges.payouts.backlog", backlog);
+        meterRegistry.gauge("daily-challenges.payouts.oldest.pending.seconds", oldestPendingSeconds);
+        this.lag = Timer.builder("daily-challenges.payouts.lag")
+                .description("Time from completing a challenge to its coins reaching the wallet")
+                .register(meterRegistry);
+        this.send = Timer.builder("daily-challenges.payouts.send")
+                .register(meterRegistry);
+        this.entriesPerBatch = DistributionSummary.builder("daily-challenges.payouts.batch.size")
+                .description("Wallet entries (users) per bulk credit")
+                .register(meterRegistry);
+        this.paid = Counter.builder("daily-challenges.payouts.rewards").tag("result", "paid")
+                .register(meterRegistry);
+        this.failed = Counter.builder("daily-challenges.payouts.rewards").tag("result", "failed")
+                .register(meterRegistry);
+        this.coins = Counter.builder("daily-challenges.payouts.coins")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Resends open batches, then claims and sends pending rewards until none
+     * are left. Stops at the first batch the wallet could not be asked about;
+     * it stays open for the next window.
+     *
+     * @return number of rewards paid
+     */
+    @Scheduled(fixedDelayString = "${daily-challenges.payouts.window-ms:2000}")
+    public synchronized int relay() {
+        int settled = 0;
+        try {
+            for (Long batch : repository.findOpenBatches()) {
+                settled += send(batch, repository.findBatch(batch));
+            }
+            while (true) {
+                Long batch = repository.claim(batchSize);
+                if (batch == null) {
+                    break;
+                }
+                List<RewardRow> rows = repository.findBatch(batch);
+                settled += send(batch, rows);
+                if (rows.size() < batchSize) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            System.out.println("Reward payout paused: " + e.getMessage());
+        }
+        refreshBacklog();
+        return settled;
+    }
+
+    private int send(long batch, List<RewardRow> rows) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        Map<Long, List<RewardRow>> byUser = new LinkedHashMap<>();
+        for (RewardRow row : rows) {
+            byUser.computeIfAbsent(row.getUserId(), user -> new ArrayList<>()).add(row);
+        }
+        List<WalletCreditDto> entries = new ArrayList<>(byUser.size());
+        List<List<RewardRow>> groups = new ArrayList<>(byUser.size());
+        for (Map.Entry<Long, List<RewardRow>> user : byUser.entrySet()) {
+            int amount = 0;
+            for (RewardRow row : user.getValue()) {
+                amount += row.getCoins();
+            }
+            entries.add(new WalletCreditDto(user.getKey(), amount, CREDIT, LEDGER_SOURCE,
+                    "challenge-rewards-" + batch + "-" + user.getKey()));
+            groups.add(user.getValue());
+        }
+
+        long start = System.nanoTime();
+        List<WalletCreditResultDto> results = walletClient.applyBulk(entries);
+        send.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        entriesPerBatch.record(entries.size());
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> paidIds = new ArrayList<>(rows.size());
+        Map<Long, String> retry = new HashMap<>();
+        Map<Long, String> failures = new HashMap<>();
+        int retryLater = 0;
+        for (int i = 0; i < entries.size(); i++) {
+            WalletCreditResultDto result = results.get(i);
+            List<RewardRow> group = groups.get(i);
+            if (WalletCreditResultDto.APPLIED.equals(result.getStatus())
+                    || WalletCreditResultDto.DUPLICATE.equals(result.getStatus())) {
+                for (RewardRow row : group) {
+                    paidIds.add(row.getId());
+                    lag.record(Duration.between(row.getCreatedAt(), now));
+                }
+                coins.increment(entries.get(i).getAmount());
+            } else if (!WalletCreditResultDto.REJECTED.equals(result.getStatus())) {
+                retryLater++;
+            } else {
+                int attempts = 0;
+                for (RewardRow row : group) {
+                    attempts = Math.max(attempts, row.getAttempts());
+                }
+                Map<Long, String> target = attempts + 1 >= maxAttempts ? failures : retry;
+                for (RewardRow row : group) {
+                    target.put(row.getId(), result.getMessage());
+                }
+            }
+        }
+
+        if (!paidIds.isEmpty()) {
+            repository.markPaid(paidIds);
+            paid.increment(paidIds.size());
+        }
+        if (!retry.isEmpty()) {
+            repository.markRetry(retry);
+        }
+        if (!failures.isEmpty()) {
+            repository.markFailed(failures);
+            failed.increment(failures.size());
+            System.out.println("Reward payout: gave up on " + failures.size() + " rewards in batch " + batch);
+        }
+        if (retryLater > 0) {
+            // the batch stays open and is resent first next window
+            throw new RuntimeException("wallet could not apply " + retryLater + " entries of batch " + batch);
+        }
+        return paidIds.size();
+    }
+
+    private void refreshBacklog() {
+        try {
+            backlog.set(repository.countOpen());
+            LocalDateTime oldest = repository.findOldestOpen();
+            oldestPendingSeconds.set(oldest == null ? 0 : Duration.between(oldest, LocalDateTime.now()).getSeconds());
+        } catch (RuntimeException e) {
+            System.out.println("Reward payout backlog unavailable: " + e.getMessage());
+        }
+    }
+}
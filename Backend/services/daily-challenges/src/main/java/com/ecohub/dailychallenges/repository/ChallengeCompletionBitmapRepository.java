@@ -0,0 +1,31 @@
+package com.ecohub.dailychallenges.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.ecohub.dailychallenges.entity.ChallengeCategory;
+import com.ecohub.dailychallenges.entity.ChallengeCompletionBitmap;
+
+import jakarta.persistence.LockModeType;
+
+public interface ChallengeCompletionBitmapRepository
+        extends JpaRepository<ChallengeCompletionBitmap, ChallengeCompletionBitmap.Key> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM ChallengeCompletionBitmap b WHERE b.challengeId = :challengeId AND b.day = :day")
+    Optional<ChallengeCompletionBitmap> findForUpdate(@Param("challengeId") Long challengeId,
+                                                      @Param("day") LocalDate day);
+
+    List<ChallengeCompletionBitmap> findByCategoryAndDayBetween(ChallengeCategory category, LocalDate from, LocalDate to);
+
+    List<ChallengeCompletionBitmap> findByDay(LocalDate day);
+
+    @Query("SELECT MIN(b.day) FROM ChallengeCompletionBitmap b")
+    LocalDate findFirstDay();
+}
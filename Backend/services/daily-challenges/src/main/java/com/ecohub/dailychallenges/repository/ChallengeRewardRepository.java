@@ -0,0 +1,130 @@
+package com.ecohub.dailychallenges.repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Writes and claims rows of challenge_rewards for the payout relay.
+ */
+@Repository
+public class ChallengeRewardRepository {
+
+    private static final String OPEN = "status IN ('PENDING', 'SENDING')";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ChallengeRewardRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Records the coins owed for a completion. A completion that already has
+     * a reward is ignored.
+     *
+     * @return whether a reward was added
+     */
+    public boolean record(long userId, long challengeId, LocalDate day, int coins) {
+        return jdbcTemplate.update(
+                "INSERT IGNORE INTO challenge_rewards "
+                        + "(user_id, challenge_id, completion_day, coins, status, attempts, created_at) "
+                        + "VALUES (?, ?, ?, ?, 'PENDING', 0, ?)",
+                userId, challengeId, Date.valueOf(day), coins, Timestamp.valueOf(LocalDateTime.now())) == 1;
+    }
+
+    /**
+     * Moves up to limit of the oldest pending rewards into a new payout
+     * batch.
+     *
+     * @return the batch, or null if nothing was pending
+     */
+    public Long claim(int limit) {
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM challenge_rewards WHERE status = 'PENDING' ORDER BY id LIMIT ?", Long.class, limit);
+        if (ids.isEmpty()) {
+            return null;
+        }
+        long batch = ids.get(0);
+        jdbcTemplate.update(
+                "UPDATE challenge_rewards SET status = 'SENDING', payout_batch = ? "
+                        + "WHERE status = 'PENDING' AND id BETWEEN ? AND ?",
+                batch, batch, ids.get(ids.size() - 1));
+        return batch;
+    }
+
+    /**
+     * Batches claimed earlier but not settled, e.g. before a crash.
+     */
+    public List<Long> findOpenBatches() {
+        return jdbcTemplate.queryForList(
+                "SELECT DISTINCT payout_batch FROM challenge_rewards WHERE status = 'SENDING' ORDER BY payout_batch",
+                Long.class);
+    }
+
+    public List<RewardRow> findBatch(long batch) {
+        return jdbcTemplate.query(
+                "SELECT id, user_id, coins, attempts, created_at FROM challenge_rewards "
+                        + "WHERE payout_batch = ? AND status = 'SENDING' ORDER BY id",
+                (rs, i) -> new RewardRow(rs.getLong(1), rs.getLong(2), rs.getInt(3), rs.getInt(4),
+                        rs.getTimestamp(5).toLocalDateTime()),
+                batch);
+    }
+
+    public void markPaid(List<Long> ids) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            args.add(new Object[] {now, id});
+        }
+        jdbcTemplate.batchUpdate(
+                "UPDATE challenge_rewards SET status = 'PAID', paid_at = ?, last_error = NULL WHERE id = ?", args);
+    }
+
+    /**
+     * Counts a rejected attempt; the rewards stay in their batch and are
+     * sent again with it.
+     */
+    public void markRetry(Map<Long, String> errors) {
+        jdbcTemplate.batchUpdate(
+                "UPDATE challenge_rewards SET attempts = attempts + 1, last_error = ? WHERE id = ?", args(errors));
+    }
+
+    public void markFailed(Map<Long, String> errors) {
+        jdbcTemplate.batchUpdate(
+                "UPDATE challenge_rewards SET status = 'FAILED', attempts = attempts + 1, last_error = ? "
+                        + "WHERE id = ?", args(errors));
+    }
+
+    public long countOpen() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM challenge_rewards WHERE " + OPEN, Long.class);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * When the oldest unpaid reward was recorded, or null if all are settled.
+     */
+    public LocalDateTime findOldestOpen() {
+        List<Timestamp> oldest = jdbcTemplate.queryForList(
+                "SELECT created_at FROM challenge_rewards "
+                        + "WHERE id = (SELECT MIN(id) FROM challenge_rewards WHERE " + OPEN + ")",
+                Timestamp.class);
+        return oldest.isEmpty() ? null : oldest.get(0).toLocalDateTime();
+    }
+
+    private static List<Object[]> args(Map<Long, String> errors) {
+        List<Object[]> args = new ArrayList<>(errors.size());
+        for (Map.Entry<Long, String> error : errors.entrySet()) {
+            String message = error.getValue();
+            args.add(new Object[] {message != null && message.length() > 500 ? message.substring(0, 500) : message,
+                    error.getKey()});
+        }
+        return args;
+    }
+}
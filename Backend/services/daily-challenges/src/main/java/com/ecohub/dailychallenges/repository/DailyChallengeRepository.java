@@ -1,9 +1,13 @@
 package com.ecohub.dailychallenges.repository;
 
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import com.ecohub.dailychallenges.entity.DailyChallenges;
 
 public interface DailyChallengeRepository extends JpaRepository<DailyChallenges, Long > {
 
+    List<DailyChallenges> findByIsActiveTrue();
+
 }
@@ -0,0 +1,20 @@
+package com.ecohub.dailychallenges.repository;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One reward of a payout batch, as the relay needs it.
+ */
+@Getter
+@AllArgsConstructor
+public class RewardRow {
+
+    private final long id;
+    private final long userId;
+    private final int coins;
+    private final int attempts;
+    private final LocalDateTime createdAt;
+}
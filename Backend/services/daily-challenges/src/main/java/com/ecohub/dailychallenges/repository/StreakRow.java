@@ -0,0 +1,19 @@
+package com.ecohub.dailychallenges.repository;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Streak state rebuilt from completion history, ready to write.
+ */
+@Getter
+@AllArgsConstructor
+public class StreakRow {
+
+    private final long userId;
+    private final int currentStreak;
+    private final int longestStreak;
+    private final LocalDate lastActiveDay;
+}
@@ -0,0 +1,79 @@
+package com.ecohub.dailychallenges.repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Single-statement writes to user_streaks, so a completion never reads a
+ * streak before updating it.
+ */
+@Repository
+public class StreakUpdateRepository {
+
+    // MySQL applies the assignments in order: current_streak still sees the old last_active_day
+    private static final String ACTIVITY_SQL =
+            "INSERT INTO user_streaks (user_id, current_streak, longest_streak, last_active_day, updated_at) "
+                    + "VALUES (?, 1, 1, ?, ?) ON DUPLICATE KEY UPDATE "
+                    + "current_streak = CASE "
+                    + "WHEN last_active_day >= VALUES(last_active_day) THEN current_streak "
+                    + "WHEN last_active_day = VALUES(last_active_day) - INTERVAL 1 DAY THEN current_streak + 1 "
+                    + "ELSE 1 END, "
+                    + "longest_streak = GREATEST(longest_streak, current_streak), "
+                    + "last_active_day = GREATEST(last_active_day, VALUES(last_active_day)), "
+                    + "updated_at = VALUES(updated_at)";
+
+    // a replay never rolls back a streak that live completions have moved past its last day
+    private static final String REPLAY_SQL =
+            "INSERT INTO user_streaks (user_id, current_streak, longest_streak, last_active_day, updated_at) "
+                    + "VALUES (?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE "
+                    + "current_streak = IF(last_active_day > VALUES(last_active_day), current_streak, "
+                    + "VALUES(current_streak)), "
+                    + "longest_streak = GREATEST(longest_streak, VALUES(longest_streak)), "
+                    + "last_active_day = GREATEST(last_active_day, VALUES(last_active_day)), "
+                    + "updated_at = VALUES(updated_at)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public StreakUpdateRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Counts the day for the user: extends the streak if they were active the
+     * day before, starts a new one otherwise. Repeating it for the same day
+     * changes nothing.
+     */
+    public void recordActivity(long userId, LocalDate day) {
+        jdbcTemplate.update(ACTIVITY_SQL, userId, Date.valueOf(day), Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    /**
+     * Zeroes up to limit streaks whose last active day is before the given
+     * day.
+     *
+     * @return streaks reset
+     */
+    public int resetBroken(LocalDate activeSince, int limit) {
+        return jdbcTemplate.update(
+                "UPDATE user_streaks SET current_streak = 0, updated_at = ? "
+                        + "WHERE last_active_day < ? AND current_streak > 0 LIMIT ?",
+                Timestamp.valueOf(LocalDateTime.now()), Date.valueOf(activeSince), limit);
+    }
+
+    public void replaceBatch(List<StreakRow> rows) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = new ArrayList<>(rows.size());
+        for (StreakRow row : rows) {
+            args.add(new Object[] {row.getUserId(), row.getCurrentStreak(), row.getLongestStreak(),
+                    Date.valueOf(row.getLastActiveDay()), now});
+        }
+        jdbcTemplate.batchUpdate(REPLAY_SQL, args);
+    }
+}
@@ -0,0 +1,9 @@
+package com.ecohub.dailychallenges.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.ecohub.dailychallenges.entity.UserStreak;
+
+public interface UserStreakRepository extends JpaRepository<UserStreak, Long> {
+
+}
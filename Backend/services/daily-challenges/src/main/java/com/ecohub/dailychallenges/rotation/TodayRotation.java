@@ -0,0 +1,273 @@
+package com.ecohub.dailychallenges.rotation;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.ecohub.dailychallenges.dto.DailyChallengeResponseDto;
+import com.ecohub.dailychallenges.dto.TodayChallengesDto;
+import com.ecohub.dailychallenges.entity.ChallengeCategory;
+import com.ecohub.dailychallenges.entity.DailyChallenges;
+import com.ecohub.dailychallenges.repository.DailyChallengeRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Today's challenges for every user, worked out once per day.
+ *
+ * Each day has a fixed number of variants, and a user gets the variant their
+ * id hashes to, so a request is an array lookup. Variant v walks the
+ * categories that have active challenges starting at the v-th (shifted by
+ * day) and takes one challenge from each, so the categories fill about the
+ * same number of slots.
+ *
+ * Within a category every variant ranks the active challenges by a hash of
+ * (day, variant, challenge) and takes the best. When a challenge is switched
+ * on or off mid-day only its category is re-ranked, and only the variants
+ * that gain or lose that challenge change.
+ *
+ * Like the catalog, the rotation only hears about this node's writes. It is
+ * reloaded on the catalog's refresh schedule, so a challenge changed through
+ * another node leaves or joins /today within refresh-ms. Ranking only
+ * depends on the day and the active challenges, so a reload that finds
+ * nothing new hands every user the same set.
+ */
+@Component
+public class TodayRotation {
+
+    private final DailyChallengeRepository repository;
+    private final ZoneId zone;
+    private final int setSize;
+    private final int variants;
+
+    // active challenges by category, ordered by id; guarded by this
+    private final Map<ChallengeCategory, Map<Long, DailyChallengeResponseDto>> pools =
+            new EnumMap<>(ChallengeCategory.class);
+    // per category and variant, the category's best challenges for that variant; guarded by this
+    private final Map<ChallengeCategory, DailyChallengeResponseDto[][]> picks =
+            new EnumMap<>(ChallengeCategory.class);
+    // categories with at least one active challenge, as the picks were made for; guarded by this
+    private List<ChallengeCategory> categories = List.of();
+
+    private volatile Selection selection;
+
+    public TodayRotation(
+            DailyChallengeRepository repository,
+            @Value("${daily-challenges.today.zone:UTC}") String zone,
+            @Value("${daily-challenges.today.size:3}") int setSize,
+            @Value("${daily-challenges.today.variants:256}") int variants) {
+        this.repository = repository;
+        this.zone = ZoneId.of(zone);
+        this.setSize = setSize;
+        this.variants = variants;
+    }
+
+    @PostConstruct
+    public void init() {
+        rollover(LocalDate.now(zone));
+    }
+
+    public TodayChallengesDto forUser(Long userId) {
+        Selection current = selection;
+        LocalDate today = LocalDate.now(zone);
+        if (!today.equals(current.day)) {
+            // the midnight job has not run yet
+            current = rollover(today);
+        }
+        return current.sets[variantOf(userId, current.day)];
+    }
+
+    @Scheduled(cron = "0 0 0 * * *", zone = "${daily-challenges.today.zone:UTC}")
+    public void rollover() {
+        rollover(LocalDate.now(zone));
+    }
+
+    @Scheduled(fixedDelayString = "${daily-challenges.catalog.refresh-ms:30000}",
+            initialDelayString = "${daily-challenges.catalog.refresh-ms:30000}")
+    public void reload() {
+        reload(LocalDate.now(zone));
+    }
+
+    /**
+     * Reloads the active challenges and picks every category afresh for the
+     * given day. Does nothing if that day is already selected.
+     */
+    synchronized Selection rollover(LocalDate day) {
+        if (selection != null && selection.day.equals(day)) {
+            return selection;
+        }
+        return reload(day);
+    }
+
+    synchronized Selection reload(LocalDate day) {
+        pools.clear();
+        for (DailyChallenges challenge : repository.findByIsActiveTrue()) {
+            if (challenge.getCategory() != null) {
+                pools.computeIfAbsent(challenge.getCategory(), c -> new TreeMap<>())
+                        .put(challenge.getChallengeId(), new DailyChallengeResponseDto(challenge));
+            }
+        }
+        categories = List.of();
+        return publish(day, EnumSet.allOf(ChallengeCategory.class));
+    }
+
+    /**
+     * Call after a challenge is created or updated: it joins the rotation if
+     * active and leaves it otherwise.
+     */
+    public synchronized void challengeSaved(DailyChallenges challenge) {
+        Set<ChallengeCategory> touched = remove(challenge.getChallengeId());
+        if (Boolean.TRUE.equals(challenge.getIsActive()) && challenge.getCategory() != null) {
+            pools.computeIfAbsent(challenge.getCategory(), c -> new TreeMap<>())
+                    .put(challenge.getChallengeId(), new DailyChallengeResponseDto(challenge));
+            touched.add(challenge.getCategory());
+        }
+        refresh(touched);
+    }
+
+    public synchronized void challengeDeleted(Long challengeId) {
+        refresh(remove(challengeId));
+    }
+
+    private Set<ChallengeCategory> remove(Long challengeId) {
+        Set<ChallengeCategory> touched = EnumSet.noneOf(ChallengeCategory.class);
+        pools.forEach((category, pool) -> {
+            if (pool.remove(challengeId) != null) {
+                touched.add(category);
+            }
+        });
+        return touched;
+    }
+
+    private void refresh(Set<ChallengeCategory> touched) {
+        LocalDate today = LocalDate.now(zone);
+        if (!today.equals(selection.day)) {
+            rollover(today);
+        } else if (!touched.isEmpty()) {
+            publish(today, touched);
+        }
+    }
+
+    /*
+     * Re-ranks the touched categories (all of them if the set of non-empty
+     * categories changed, since that moves every variant's slots) and
+     * reassembles the variants.
+     */
+    private Selection publish(LocalDate day, Set<ChallengeCategory> touched) {
+        List<ChallengeCategory> nonEmpty = new ArrayList<>();
+        for (ChallengeCategory category : ChallengeCategory.values()) {
+            Map<Long, DailyChallengeResponseDto> pool = pools.get(category);
+            if (pool != null && !pool.isEmpty()) {
+                nonEmpty.add(category);
+            }
+        }
+        if (!nonEmpty.equals(categories)) {
+            categories = List.copyOf(nonEmpty);
+            picks.clear();
+            touched = nonEmpty.isEmpty() ? EnumSet.noneOf(ChallengeCategory.class) : EnumSet.copyOf(nonEmpty);
+        }
+
+        // a category fills more than one slot when there are fewer categories than slots
+        int perCategory = categories.isEmpty() ? 0 : (setSize + categories.size() - 1) / categories.size();
+        for (ChallengeCategory category : touched) {
+            Map<Long, DailyChallengeResponseDto> pool = pools.get(category);
+            if (pool == null || pool.isEmpty()) {
+                picks.remove(category);
+            } else {
+                picks.put(category, rank(day, pool, perCategory));
+            }
+        }
+
+        TodayChallengesDto[] sets = new TodayChallengesDto[variants];
+        for (int v = 0; v < variants; v++) {
+            sets[v] = new TodayChallengesDto(day, assemble(day, v));
+        }
+        selection = new Selection(day, sets);
+        return selection;
+    }
+
+    private DailyChallengeResponseDto[][] rank(LocalDate day, Map<Long, DailyChallengeResponseDto> pool, int count) {
+        int keep = Math.min(count, pool.size());
+        DailyChallengeResponseDto[][] ranked = new DailyChallengeResponseDto[variants][];
+        for (int v = 0; v < variants; v++) {
+            long seed = variantSeed(day, v);
+            DailyChallengeResponseDto[] best = new DailyChallengeResponseDto[keep];
+            long[] scores = new long[keep];
+            int filled = 0;
+            for (DailyChallengeResponseDto challenge : pool.values()) {
+                long score = mix(seed ^ (challenge.getChallengeId() * 0xC2B2AE3D27D4EB4FL));
+                // insertion into the short best-first list
+                int at = filled;
+                while (at > 0 && Long.compareUnsigned(scores[at - 1], score) < 0) {
+                    at--;
+                }
+                if (at < keep) {
+                    int last = Math.min(filled, keep - 1);
+                    System.arraycopy(scores, at, scores, at + 1, last - at);
+                    System.arraycopy(best, at, best, at + 1, last - at);
+                    scores[at] = score;
+                    best[at] = challenge;
+                    filled = Math.min(filled + 1, keep);
+                }
+            }
+            ranked[v] = best;
+        }
+        return ranked;
+    }
+
+    private List<DailyChallengeResponseDto> assemble(LocalDate day, int variant) {
+        int n = categories.size();
+        if (n == 0) {
+            return List.of();
+        }
+        int start = (int) ((variant + Long.remainderUnsigned(mix(day.toEpochDay()), n)) % n);
+        Map<ChallengeCategory, Integer> used = new EnumMap<>(ChallengeCategory.class);
+        List<DailyChallengeResponseDto> set = new ArrayList<>(setSize);
+        for (int slot = 0; slot < setSize; slot++) {
+            ChallengeCategory category = categories.get((start + slot) % n);
+            int taken = used.merge(category, 1, Integer::sum) - 1;
+            DailyChallengeResponseDto[] best = picks.get(category)[variant];
+            if (taken < best.length) {
+                set.add(best[taken]);
+            }
+        }
+        return Collections.unmodifiableList(set);
+    }
+
+    int variantOf(Long userId, LocalDate day) {
+        return (int) Long.remainderUnsigned(mix(userId * 0x9E3779B97F4A7C15L + day.toEpochDay()), variants);
+    }
+
+    private static long variantSeed(LocalDate day, int variant) {
+        return mix(day.toEpochDay() * 0x9E3779B97F4A7C15L + variant);
+    }
+
+    // splitmix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static final class Selection {
+
+        final LocalDate day;
+        final TodayChallengesDto[] sets;
+
+        Selection(LocalDate day, TodayChallengesDto[] sets) {
+            this.day = day;
+            this.sets = sets;
+        }
+    }
+}
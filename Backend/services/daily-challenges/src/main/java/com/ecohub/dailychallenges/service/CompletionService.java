@@ -0,0 +1,21 @@
+package com.ecohub.dailychallenges.service;
+
+import java.time.LocalDate;
+
+import com.ecohub.dailychallenges.dto.CompletionAudienceDto;
+import com.ecohub.dailychallenges.dto.CompletionCountDto;
+import com.ecohub.dailychallenges.dto.CompletionResponseDto;
+import com.ecohub.dailychallenges.dto.CompletionStatusDto;
+import com.ecohub.dailychallenges.entity.ChallengeCategory;
+
+public interface CompletionService {
+
+    CompletionResponseDto complete(Long challengeId, Long userId);
+
+    CompletionStatusDto getStatus(Long challengeId, Long userId, LocalDate day);
+
+    CompletionCountDto getCount(Long challengeId, LocalDate day);
+
+    CompletionAudienceDto getAudience(ChallengeCategory category, LocalDate from, LocalDate to,
+                                      Long cursor, int size);
+}
@@ -0,0 +1,107 @@
+package com.ecohub.dailychallenges.service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Service;
+
+import com.ecohub.dailychallenges.catalog.ChallengeCatalog;
+import com.ecohub.dailychallenges.completion.CompletionBitmaps;
+import com.ecohub.dailychallenges.dto.CompletionAudienceDto;
+import com.ecohub.dailychallenges.dto.CompletionCountDto;
+import com.ecohub.dailychallenges.dto.CompletionResponseDto;
+import com.ecohub.dailychallenges.dto.CompletionStatusDto;
+import com.ecohub.dailychallenges.dto.DailyChallengeResponseDto;
+import com.ecohub.dailychallenges.entity.ChallengeCategory;
+import com.ecohub.dailychallenges.repository.ChallengeRewardRepository;
+import com.ecohub.dailychallenges.streak.StreakTracker;
+
+@Service
+public class CompletionServiceImpl implements CompletionService {
+
+    private static final int MAX_RANGE_DAYS = 31;
+    private static final int MAX_PAGE_SIZE = 1000;
+    // the bitmaps hold 32-bit ids
+    private static final long MAX_USER_ID = 0xFFFFFFFFL;
+
+    private final CompletionBitmaps bitmaps;
+    private final ChallengeCatalog catalog;
+    private final StreakTracker streaks;
+    private final ChallengeRewardRepository rewards;
+
+    public CompletionServiceImpl(CompletionBitmaps bitmaps, ChallengeCatalog catalog, StreakTracker streaks,
+                                 ChallengeRewardRepository rewards) {
+        this.bitmaps = bitmaps;
+        this.catalog = catalog;
+        this.streaks = streaks;
+        this.rewards = rewards;
+    }
+
+    @Override
+    public CompletionResponseDto complete(Long challengeId, Long userId) {
+        DailyChallengeResponseDto challenge = catalog.activeChallenge(challengeId);
+        if (challenge == null) {
+            throw new RuntimeException("Challenge not found or not active");
+        }
+        int user = userBit(userId);
+        LocalDate day = bitmaps.today();
+        Integer coins = challenge.getRewardCoinValue();
+        if (coins != null && coins > 0 && !bitmaps.contains(challengeId, day, user)) {
+            // stored before the completion counts, so no completion goes unpaid;
+            // RewardPayoutRelay credits the wallet later
+            rewards.record(userId, challengeId, day, coins);
+        }
+        boolean added = bitmaps.add(challengeId, challenge.getCategory(), day, user);
+        streaks.recordActivity(user, day);
+        return new CompletionResponseDto(challengeId, userId, day, added, bitmaps.count(challengeId, day));
+    }
+
+    @Override
+    public CompletionStatusDto getStatus(Long challengeId, Long userId, LocalDate day) {
+        LocalDate on = day == null ? bitmaps.today() : day;
+        return new CompletionStatusDto(challengeId, userId, on, bitmaps.contains(challengeId, on, userBit(userId)));
+    }
+
+    @Override
+    public CompletionCountDto getCount(Long challengeId, LocalDate day) {
+        LocalDate on = day == null ? bitmaps.today() : day;
+        return new CompletionCountDto(challengeId, on, bitmaps.count(challengeId, on));
+    }
+
+    @Override
+    public CompletionAudienceDto getAudience(ChallengeCategory category, LocalDate from, LocalDate to,
+                                             Long cursor, int size) {
+        if (to.isBefore(from) || ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new RuntimeException("Date range must be between 1 and " + MAX_RANGE_DAYS + " days");
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new RuntimeException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        RoaringBitmap users = bitmaps.union(category, from, to);
+        List<Long> page = new ArrayList<>(size);
+        PeekableIntIterator it = users.getIntIterator();
+        if (cursor != null) {
+            if (cursor >= MAX_USER_ID) {
+                return new CompletionAudienceDto(category, from, to, users.getLongCardinality(), page, null);
+            }
+            it.advanceIfNeeded(userBit(cursor + 1));
+        }
+        while (it.hasNext() && page.size() < size) {
+            page.add(Integer.toUnsignedLong(it.next()));
+        }
+        Long nextCursor = it.hasNext() ? page.get(page.size() - 1) : null;
+        return new CompletionAudienceDto(category, from, to, users.getLongCardinality(), page, nextCursor);
+    }
+
+    private static int userBit(Long userId) {
+        if (userId == null || userId < 0 || userId > MAX_USER_ID) {
+            throw new RuntimeException("User id out of range");
+        }
+        return (int) (long) userId;
+    }
+}
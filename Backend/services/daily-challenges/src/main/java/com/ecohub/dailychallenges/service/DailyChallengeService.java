@@ -2,8 +2,12 @@ package com.ecohub.dailychallenges.service;
 
 import java.util.List;
 
+import com.ecohub.dailychallenges.catalog.ChallengeSort;
+import com.ecohub.dailychallenges.dto.ChallengePageDto;
 import com.ecohub.dailychallenges.dto.DailyChallengeRequestDto;
 import com.ecohub.dailychallenges.dto.DailyChallengeResponseDto;
+import com.ecohub.dailychallenges.dto.TodayChallengesDto;
+import com.ecohub.dailychallenges.entity.ChallengeCategory;
 
 public interface DailyChallengeService {
 
@@ -11,9 +15,13 @@ public interface DailyChallengeService {
 
     List<DailyChallengeResponseDto> getAll();
 
+    ChallengePageDto getActive(ChallengeCategory category, ChallengeSort sort, int page, int size);
+
     DailyChallengeResponseDto getById(Long id);
 
     DailyChallengeResponseDto update(Long id, DailyChallengeRequestDto dto);
 
     void delete(Long id);
+
+    TodayChallengesDto getToday(Long userId);
 }
@@ -5,18 +5,31 @@ import java.util.List;
 
 import org.springframework.stereotype.Service;
 
+import com.ecohub.dailychallenges.catalog.ChallengeCatalog;
+import com.ecohub.dailychallenges.catalog.ChallengeSort;
+import com.ecohub.dailychallenges.dto.ChallengePageDto;
 import com.ecohub.dailychallenges.dto.DailyChallengeRequestDto;
 import com.ecohub.dailychallenges.dto.DailyChallengeResponseDto;
+import com.ecohub.dailychallenges.dto.TodayChallengesDto;
+import com.ecohub.dailychallenges.entity.ChallengeCategory;
 import com.ecohub.dailychallenges.entity.DailyChallenges;
 import com.ecohub.dailychallenges.repository.DailyChallengeRepository;
+import com.ecohub.dailychallenges.rotation.TodayRotation;
 
 @Service
 public class DailyChallengeServiceImpln implements DailyChallengeService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final DailyChallengeRepository repository;
+    private final TodayRotation todayRotation;
+    private final ChallengeCatalog catalog;
 
-    public DailyChallengeServiceImpln(DailyChallengeRepository repository) {
+    public DailyChallengeServiceImpln(DailyChallengeRepository repository, TodayRotation todayRotation,
+            ChallengeCatalog catalog) {
         this.repository = repository;
+        this.todayRotation = todayRotation;
+        this.catalog = catalog;
     }
 
     @Override
@@ -34,7 +47,10 @@ public class DailyChallengeServiceImpln implements DailyChallengeService {
 
         challenge.setCreatedAt(LocalDateTime.now());
 
-        return new DailyChallengeResponseDto(repository.save(challenge));
+        DailyChallenges saved = repository.save(challenge);
+        todayRotation.challengeSaved(saved);
+        catalog.challengeSaved(saved);
+        return new DailyChallengeResponseDto(saved);
     }
 
     @Override
@@ -45,6 +61,17 @@ public class DailyChallengeServiceImpln implements DailyChallengeService {
                 .toList();
     }
 
+    @Override
+    public ChallengePageDto getActive(ChallengeCategory category, ChallengeSort sort, int page, int size) {
+        if (page < 0) {
+            throw new RuntimeException("Page must not be negative");
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new RuntimeException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return catalog.page(category, sort, page, size);
+    }
+
     @Override
     public DailyChallengeResponseDto getById(Long id) {
         DailyChallenges challenge = repository.findById(id)
@@ -65,7 +92,10 @@ public class DailyChallengeServiceImpln implements DailyChallengeService {
         challenge.setIsActive(dto.getIsActive());
         challenge.setUpdatedAt(LocalDateTime.now());
 
-        return new DailyChallengeResponseDto(repository.save(challenge));
+        DailyChallenges saved = repository.save(challenge);
+        todayRotation.challengeSaved(saved);
+        catalog.challengeSaved(saved);
+        return new DailyChallengeResponseDto(saved);
     }
 
     @Override
@@ -74,5 +104,12 @@ public class DailyChallengeServiceImpln implements DailyChallengeService {
             throw new RuntimeException("Challenge not found");
         }
         repository.deleteById(id);
+        todayRotation.challengeDeleted(id);
+        catalog.challengeDeleted(id);
+    }
+
+    @Override
+    public TodayChallengesDto getToday(Long userId) {
+        return todayRotation.forUser(userId);
     }
 }
@@ -0,0 +1,13 @@
+package com.ecohub.dailychallenges.service;
+
+import java.time.LocalDate;
+
+import com.ecohub.dailychallenges.dto.StreakDto;
+import com.ecohub.dailychallenges.dto.StreakReplayReportDto;
+
+public interface StreakService {
+
+    StreakDto getStreak(Long userId);
+
+    StreakReplayReportDto replay(LocalDate from, LocalDate to);
+}
@@ -0,0 +1,32 @@
+package com.ecohub.dailychallenges.service;
+
+import java.time.LocalDate;
+
+import org.springframework.stereotype.Service;
+
+import com.ecohub.dailychallenges.dto.StreakDto;
+import com.ecohub.dailychallenges.dto.StreakReplayReportDto;
+import com.ecohub.dailychallenges.streak.StreakReplay;
+import com.ecohub.dailychallenges.streak.StreakTracker;
+
+@Service
+public class StreakServiceImpl implements StreakService {
+
+    private final StreakTracker tracker;
+    private final StreakReplay replay;
+
+    public StreakServiceImpl(StreakTracker tracker, StreakReplay replay) {
+        this.tracker = tracker;
+        this.replay = replay;
+    }
+
+    @Override
+    public StreakDto getStreak(Long userId) {
+        return tracker.get(userId);
+    }
+
+    @Override
+    public StreakReplayReportDto replay(LocalDate from, LocalDate to) {
+        return replay.replay(from, to);
+    }
+}
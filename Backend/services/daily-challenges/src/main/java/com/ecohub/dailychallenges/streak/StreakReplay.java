@@ -0,0 +1,161 @@
+package com.ecohub.dailychallenges.streak;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.roaringbitmap.ContainerPointer;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.ecohub.dailychallenges.completion.CompletionBitmapStore;
+import com.ecohub.dailychallenges.completion.CompletionBitmaps;
+import com.ecohub.dailychallenges.dto.StreakReplayReportDto;
+import com.ecohub.dailychallenges.repository.StreakRow;
+import com.ecohub.dailychallenges.repository.StreakUpdateRepository;
+
+/**
+ * Rebuilds user_streaks from the stored completion bitmaps, e.g. after the
+ * table was lost or the streak rules changed.
+ *
+ * Each day's completions are ORed into one bitmap of active users. Users are
+ * then split into blocks of 65536 ids (one bitmap container each), and the
+ * blocks are replayed day by day in parallel, each into flat arrays, and
+ * written in batches.
+ */
+@Component
+public class StreakReplay {
+
+    public static final int MAX_DAYS = 366;
+
+    private static final int BLOCK = 1 << 16;
+    private static final int WRITE_BATCH = 1000;
+    private static final int NEVER = Integer.MIN_VALUE;
+
+    private final CompletionBitmaps bitmaps;
+    private final CompletionBitmapStore store;
+    private final StreakUpdateRepository updateRepository;
+    private final int threads;
+
+    public StreakReplay(
+            CompletionBitmaps bitmaps,
+            CompletionBitmapStore store,
+            StreakUpdateRepository updateRepository,
+            @Value("${daily-challenges.streaks.replay-threads:4}") int threads) {
+        this.bitmaps = bitmaps;
+        this.store = store;
+        this.updateRepository = updateRepository;
+        this.threads = threads;
+    }
+
+    /**
+     * Replays have to start at (or before) the first stored day: the rows
+     * are overwritten with what the replayed days alone give, so starting
+     * later would cut every streak that began before the start.
+     *
+     * @param from first day to replay, or null for the first stored day
+     * @param to   last day to replay, or null for today
+     */
+    public StreakReplayReportDto replay(LocalDate from, LocalDate to) {
+        long start = System.nanoTime();
+        // completions still in memory count too
+        bitmaps.flush();
+
+        LocalDate last = to == null ? bitmaps.today() : to;
+        LocalDate firstStored = store.firstDay();
+        if (from != null && firstStored != null && from.isAfter(firstStored)) {
+            throw new RuntimeException("Replay must start on or before the first stored day " + firstStored
+                    + ", a later start would cut streaks that began earlier");
+        }
+        LocalDate first = from == null ? firstStored : from;
+        if (first == null) {
+            return new StreakReplayReportDto(null, last, 0, 0, 0);
+        }
+        int dayCount = (int) ChronoUnit.DAYS.between(first, last) + 1;
+        if (dayCount < 1 || dayCount > MAX_DAYS) {
+            throw new RuntimeException("Replay range must be between 1 and " + MAX_DAYS + " days");
+        }
+
+        List<RoaringBitmap> days = new ArrayList<>(dayCount);
+        for (int d = 0; d < dayCount; d++) {
+            days.add(store.loadDay(first.plusDays(d)));
+        }
+        RoaringBitmap everyone = FastAggregation.or(days.iterator());
+
+        List<Integer> blocks = new ArrayList<>();
+        for (ContainerPointer container = everyone.getContainerPointer(); container.getContainer() != null;
+                container.advance()) {
+            blocks.add((int) container.key());
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long users = 0;
+        try {
+            List<Future<Integer>> results = new ArrayList<>(blocks.size());
+            for (int block : blocks) {
+                results.add(pool.submit(() -> replayBlock(block, days, first)));
+            }
+            for (Future<Integer> result : results) {
+                users += result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Streak replay interrupted");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Streak replay failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("Streak replay: " + users + " users over " + dayCount + " days in " + elapsedMs + " ms");
+        return new StreakReplayReportDto(first, last, dayCount, users, elapsedMs);
+    }
+
+    private int replayBlock(int block, List<RoaringBitmap> days, LocalDate first) {
+        long low = (long) block * BLOCK;
+        int[] current = new int[BLOCK];
+        int[] longest = new int[BLOCK];
+        int[] lastDay = new int[BLOCK];
+        Arrays.fill(lastDay, NEVER);
+
+        for (int d = 0; d < days.size(); d++) {
+            PeekableIntIterator it = days.get(d).getIntIterator();
+            it.advanceIfNeeded((int) low);
+            while (it.hasNext() && Integer.toUnsignedLong(it.peekNext()) < low + BLOCK) {
+                int user = (int) (Integer.toUnsignedLong(it.next()) - low);
+                current[user] = lastDay[user] == d - 1 ? current[user] + 1 : 1;
+                longest[user] = Math.max(longest[user], current[user]);
+                lastDay[user] = d;
+            }
+        }
+
+        int written = 0;
+        List<StreakRow> batch = new ArrayList<>(WRITE_BATCH);
+        for (int user = 0; user < BLOCK; user++) {
+            if (lastDay[user] == NEVER) {
+                continue;
+            }
+            batch.add(new StreakRow(low + user, current[user], longest[user], first.plusDays(lastDay[user])));
+            if (batch.size() == WRITE_BATCH) {
+                updateRepository.replaceBatch(batch);
+                written += batch.size();
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            updateRepository.replaceBatch(batch);
+            written += batch.size();
+        }
+        return written;
+    }
+}
@@ -0,0 +1,111 @@
+package com.ecohub.dailychallenges.streak;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.ecohub.dailychallenges.dto.StreakDto;
+import com.ecohub.dailychallenges.entity.UserStreak;
+import com.ecohub.dailychallenges.repository.StreakUpdateRepository;
+import com.ecohub.dailychallenges.repository.UserStreakRepository;
+
+/**
+ * Keeps user_streaks current as challenges are completed.
+ *
+ * The first completion of a user's day moves their streak with one upsert;
+ * later ones that day are caught by an in-memory bitmap and cost nothing.
+ * A streak that missed a day reads as 0 straight away, and the rollover job
+ * zeroes such rows in chunks after midnight so the table agrees.
+ */
+@Component
+public class StreakTracker {
+
+    private final StreakUpdateRepository updateRepository;
+    private final UserStreakRepository streakRepository;
+    private final ZoneId zone;
+    private final int resetChunkSize;
+
+    // users whose streak already counts the day below; guarded by this
+    private LocalDate day;
+    private RoaringBitmap counted = new RoaringBitmap();
+
+    public StreakTracker(
+            StreakUpdateRepository updateRepository,
+            UserStreakRepository streakRepository,
+            @Value("${daily-challenges.today.zone:UTC}") String zone,
+            @Value("${daily-challenges.streaks.reset-chunk-size:5000}") int resetChunkSize) {
+        this.updateRepository = updateRepository;
+        this.streakRepository = streakRepository;
+        this.zone = ZoneId.of(zone);
+        this.resetChunkSize = resetChunkSize;
+    }
+
+    /**
+     * Call for every completion; only the user's first one of the day
+     * reaches the database.
+     */
+    public void recordActivity(int user, LocalDate on) {
+        if (!markCounted(user, on)) {
+            return;
+        }
+        try {
+            updateRepository.recordActivity(Integer.toUnsignedLong(user), on);
+        } catch (RuntimeException e) {
+            // let the next completion try again
+            unmark(user, on);
+            throw e;
+        }
+    }
+
+    public StreakDto get(Long userId) {
+        UserStreak streak = streakRepository.findById(userId).orElse(null);
+        if (streak == null) {
+            return new StreakDto(userId, 0, 0, null);
+        }
+        LocalDate yesterday = LocalDate.now(zone).minusDays(1);
+        // a missed day breaks the streak even before the rollover job gets to the row
+        int current = streak.getLastActiveDay().isBefore(yesterday) ? 0 : streak.getCurrentStreak();
+        return new StreakDto(userId, current, streak.getLongestStreak(), streak.getLastActiveDay());
+    }
+
+    @Scheduled(cron = "0 5 0 * * *", zone = "${daily-challenges.today.zone:UTC}")
+    public void rollover() {
+        resetBroken(LocalDate.now(zone));
+    }
+
+    /**
+     * Zeroes every streak not active on the day before today, one chunk per
+     * statement so no single transaction holds many row locks.
+     *
+     * @return streaks reset
+     */
+    public long resetBroken(LocalDate today) {
+        LocalDate yesterday = today.minusDays(1);
+        long reset = 0;
+        int chunk;
+        do {
+            chunk = updateRepository.resetBroken(yesterday, resetChunkSize);
+            reset += chunk;
+        } while (chunk == resetChunkSize);
+        System.out.println("Streak rollover: reset " + reset + " broken streaks");
+        return reset;
+    }
+
+    private synchronized boolean markCounted(int user, LocalDate on) {
+        if (!on.equals(day)) {
+            day = on;
+            counted = new RoaringBitmap();
+        }
+        return counted.checkedAdd(user);
+    }
+
+    private synchronized void unmark(int user, LocalDate on) {
+        if (on.equals(day)) {
+            counted.remove(user);
+        }
+    }
+}
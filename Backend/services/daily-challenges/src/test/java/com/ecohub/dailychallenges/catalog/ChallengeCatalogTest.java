@@ -0,0 +1,179 @@
+package com.ecohub.dailychallenges.catalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.ecohub.dailychallenges.dto.ChallengePageDto;
+import com.ecohub.dailychallenges.dto.DailyChallengeResponseDto;
+import com.ecohub.dailychallenges.entity.ChallengeCategory;
+import com.ecohub.dailychallenges.entity.DailyChallenges;
+import com.ecohub.dailychallenges.repository.DailyChallengeRepository;
+import com.ecohub.dailychallenges.rotation.TodayRotation;
+import com.ecohub.dailychallenges.service.DailyChallengeServiceImpln;
+
+class ChallengeCatalogTest {
+
+    private static final ChallengeCategory WATER = ChallengeCategory.WATER_CONSERVATION;
+    private static final ChallengeCategory ENERGY = ChallengeCategory.ENERGY_CONSERVATION;
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 3, 1, 9, 0);
+
+    private final List<DailyChallenges> table = new ArrayList<>();
+    private DailyChallengeRepository repository;
+    private ChallengeCatalog catalog;
+
+    private static DailyChallenges challenge(long id, ChallengeCategory category, int reward, boolean active) {
+        DailyChallenges challenge = new DailyChallenges();
+        challenge.setChallengeId(id);
+        challenge.setTitle("Challenge " + id);
+        challenge.setDescription("Do something green today");
+        challenge.setCategory(category);
+        challenge.setRewardCoinValue(reward);
+        challenge.setIsActive(active);
+        challenge.setCreatedAt(T0.plusMinutes(id));
+        return challenge;
+    }
+
+    private static List<Long> ids(ChallengePageDto page) {
+        return page.getItems().stream().map(DailyChallengeResponseDto::getChallengeId).toList();
+    }
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(DailyChallengeRepository.class);
+        when(repository.findAll()).thenAnswer(invocation -> new ArrayList<>(table));
+        when(repository.findByIsActiveTrue()).thenAnswer(invocation -> table.stream()
+                .filter(DailyChallenges::getIsActive).toList());
+        catalog = new ChallengeCatalog(repository);
+    }
+
+    @Test
+    void pagesAreFilteredAndSorted() {
+        table.add(challenge(1, WATER, 10, true));
+        table.add(challenge(2, WATER, 30, true));
+        table.add(challenge(3, WATER, 10, true));
+        table.add(challenge(4, WATER, 50, false));
+        table.add(challenge(5, ENERGY, 20, true));
+        catalog.rebuild();
+
+        assertEquals(List.of(2L, 3L, 1L), ids(catalog.page(WATER, ChallengeSort.REWARD, 0, 10)));
+        assertEquals(List.of(3L, 2L), ids(catalog.page(WATER, ChallengeSort.NEWEST, 0, 2)));
+        assertEquals(List.of(1L), ids(catalog.page(WATER, ChallengeSort.NEWEST, 1, 2)));
+        assertEquals(3, catalog.page(WATER, ChallengeSort.NEWEST, 1, 2).getTotal());
+        assertEquals(List.of(2L, 5L, 3L, 1L), ids(catalog.page(null, ChallengeSort.REWARD, 0, 10)));
+        assertEquals(List.of(), ids(catalog.page(ChallengeCategory.PLASTIC_FREE, ChallengeSort.REWARD, 0, 10)));
+        assertEquals(List.of(), ids(catalog.page(WATER, ChallengeSort.REWARD, 9, 10)));
+    }
+
+    @Test
+    void writesPublishANewSnapshot() {
+        table.add(challenge(1, WATER, 10, true));
+        table.add(challenge(2, ENERGY, 20, true));
+        catalog.rebuild();
+        ChallengePageDto waterBefore = catalog.page(WATER, ChallengeSort.REWARD, 0, 10);
+        List<DailyChallengeResponseDto> energyBefore = catalog.page(ENERGY, ChallengeSort.REWARD, 0, 10).getItems();
+
+        // challenge 1 moves to ENERGY, and a new WATER challenge arrives
+        DailyChallenges moved = challenge(1, ENERGY, 40, true);
+        catalog.challengeSaved(moved);
+        catalog.challengeSaved(challenge(6, WATER, 5, true));
+
+        assertEquals(List.of(1L), ids(waterBefore), "pages already handed out do not change");
+        assertEquals(List.of(6L), ids(catalog.page(WATER, ChallengeSort.REWARD, 0, 10)));
+        assertEquals(List.of(1L, 2L), ids(catalog.page(ENERGY, ChallengeSort.REWARD, 0, 10)));
+
+        moved.setIsActive(false);
+        catalog.challengeSaved(moved);
+        catalog.challengeDeleted(6L);
+        assertEquals(List.of(2L), ids(catalog.page(ENERGY, ChallengeSort.REWARD, 0, 10)));
+        assertEquals(0, catalog.page(WATER, ChallengeSort.REWARD, 0, 10).getTotal());
+        assertNull(catalog.activeChallenge(1L));
+        assertEquals(1, energyBefore.size(), "the old snapshot is untouched");
+    }
+
+    @Test
+    void rebuildPicksUpChangesMadeThroughAnotherNode() {
+        table.add(challenge(1, WATER, 10, true));
+        table.add(challenge(2, WATER, 30, true));
+        catalog.rebuild();
+
+        // another node deactivates challenge 2 and adds challenge 3
+        table.get(1).setIsActive(false);
+        table.add(challenge(3, ENERGY, 15, true));
+        assertEquals(30, catalog.activeChallenge(2L).getRewardCoinValue());
+
+        catalog.rebuild();
+
+        assertNull(catalog.activeChallenge(2L));
+        assertEquals(List.of(3L, 1L), ids(catalog.page(null, ChallengeSort.REWARD, 0, 10)));
+    }
+
+    /**
+     * One page of active WATER challenges by reward: from the read model,
+     * against getAll() plus the filtering and sorting its callers do. The
+     * repository is a mock, so the findAll side leaves out the query itself.
+     */
+    @Test
+    void latencyAndAllocationPerRequest() {
+        long id = 0;
+        for (int i = 0; i < 200; i++) {
+            for (ChallengeCategory category : ChallengeCategory.values()) {
+                id++;
+                table.add(challenge(id, category, 5 + (int) (id % 50), id % 4 != 0));
+            }
+        }
+        catalog.rebuild();
+        DailyChallengeServiceImpln service = new DailyChallengeServiceImpln(
+                repository, mock(TodayRotation.class), catalog);
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        List<Long> expected = ids(catalog.page(WATER, ChallengeSort.REWARD, 0, 20));
+
+        for (int round = 0; round < 3; round++) {
+            int requests = 2_000;
+            long allocated = threads.getThreadAllocatedBytes(thread);
+            long start = System.nanoTime();
+            List<DailyChallengeResponseDto> page = null;
+            for (int i = 0; i < requests; i++) {
+                page = service.getAll().stream()
+                        .filter(c -> Boolean.TRUE.equals(c.getIsActive()) && c.getCategory() == WATER)
+                        .sorted(ChallengeSort.REWARD.order())
+                        .limit(20)
+                        .toList();
+            }
+            long scanNanos = (System.nanoTime() - start) / requests;
+            long scanBytes = (threads.getThreadAllocatedBytes(thread) - allocated) / requests;
+            assertEquals(expected, page.stream().map(DailyChallengeResponseDto::getChallengeId).toList());
+
+            requests = 1_000_000;
+            allocated = threads.getThreadAllocatedBytes(thread);
+            start = System.nanoTime();
+            ChallengePageDto fromModel = null;
+            for (int i = 0; i < requests; i++) {
+                fromModel = service.getActive(WATER, ChallengeSort.REWARD, 0, 20);
+            }
+            long modelNanos = (System.nanoTime() - start) / requests;
+            long modelBytes = (threads.getThreadAllocatedBytes(thread) - allocated) / requests;
+            assertEquals(expected, ids(fromModel));
+
+            if (round == 2) {
+                System.out.printf("active challenges (%d rows): findAll path %d us, %d bytes/req; "
+                                + "read model %d ns, %d bytes/req%n",
+                        table.size(), scanNanos / 1_000, scanBytes, modelNanos, modelBytes);
+                assertTrue(modelBytes < 128, "a page is a view over the snapshot");
+            }
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.ecohub.dailychallenges.completion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+import com.ecohub.dailychallenges.entity.ChallengeCategory;
+
+class CompletionBitmapsTest {
+
+    private static final ChallengeCategory WATER = ChallengeCategory.WATER_CONSERVATION;
+
+    // the table: serialized bitmap per "challengeId/day", as CompletionBitmapStore writes it
+    private final Map<String, byte[]> table = new HashMap<>();
+    private final Map<String, ChallengeCategory> categories = new HashMap<>();
+
+    private CompletionBitmapStore store;
+    private CompletionBitmaps bitmaps;
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        store = mock(CompletionBitmapStore.class);
+        when(store.load(any(), any())).thenAnswer(invocation -> {
+            byte[] stored = table.get(invocation.getArgument(0) + "/" + invocation.getArgument(1));
+            return stored == null ? new RoaringBitmap() : CompletionBitmapStore.deserialize(stored);
+        });
+        when(store.merge(any(), any(), any(), any())).thenAnswer(invocation -> {
+            String key = invocation.getArgument(0) + "/" + invocation.getArgument(1);
+            RoaringBitmap merged = ((RoaringBitmap) invocation.getArgument(3)).clone();
+            if (table.containsKey(key)) {
+                merged.or(CompletionBitmapStore.deserialize(table.get(key)));
+            }
+            table.put(key, CompletionBitmapStore.serialize(merged.clone()));
+            categories.putIfAbsent(key, invocation.getArgument(2));
+            return merged;
+        });
+        when(store.loadCategory(any(), any(), any())).thenAnswer(invocation -> {
+            List<RoaringBitmap> rows = new ArrayList<>();
+            LocalDate from = invocation.getArgument(1);
+            LocalDate to = invocation.getArgument(2);
+            table.forEach((key, bytes) -> {
+                LocalDate day = LocalDate.parse(key.substring(key.indexOf('/') + 1));
+                if (categories.get(key) == invocation.getArgument(0) && !day.isBefore(from) && !day.isAfter(to)) {
+                    rows.add(CompletionBitmapStore.deserialize(bytes));
+                }
+            });
+            return rows;
+        });
+
+        bitmaps = new CompletionBitmaps(store, "UTC", 2);
+        today = bitmaps.today();
+    }
+
+    private void stored(long challengeId, LocalDate day, ChallengeCategory category, int... users) {
+        table.put(challengeId + "/" + day, CompletionBitmapStore.serialize(RoaringBitmap.bitmapOf(users)));
+        categories.put(challengeId + "/" + day, category);
+    }
+
+    @Test
+    void aUserCountsOncePerChallengeAndDay() {
+        assertTrue(bitmaps.add(1L, WATER, today, 42));
+        assertFalse(bitmaps.add(1L, WATER, today, 42));
+        assertTrue(bitmaps.add(1L, WATER, today, -1), "ids above 2^31 are fine");
+
+        assertTrue(bitmaps.contains(1L, today, 42));
+        assertFalse(bitmaps.contains(1L, today, 43));
+        assertFalse(bitmaps.contains(2L, today, 42));
+        assertEquals(2, bitmaps.count(1L, today));
+    }
+
+    @Test
+    void flushMergesChangesAndPicksUpOtherNodes() {
+        stored(1L, today, WATER, 7);
+        bitmaps.add(1L, WATER, today, 42);
+        // another node flushes after we loaded the slot
+        stored(1L, today, WATER, 7, 99);
+
+        bitmaps.flush();
+        bitmaps.flush();
+
+        verify(store, times(1)).merge(eq(1L), eq(today), eq(WATER), any());
+        assertEquals(RoaringBitmap.bitmapOf(7, 42, 99), CompletionBitmapStore.deserialize(table.get("1/" + today)));
+        assertTrue(bitmaps.contains(1L, today, 99));
+    }
+
+    @Test
+    void aFailedFlushIsRetried() {
+        bitmaps.add(1L, WATER, today, 42);
+        doThrow(new RuntimeException("Lock wait timeout")).when(store).merge(any(), any(), any(), any());
+
+        bitmaps.flush();
+
+        verify(store, times(1)).merge(any(), any(), any(), any());
+        bitmaps.flush();
+        verify(store, times(2)).merge(any(), any(), any(), any());
+    }
+
+    @Test
+    void oldDaysLeaveMemoryOnceFlushed() {
+        LocalDate old = today.minusDays(5);
+        stored(1L, old, WATER, 42);
+        assertTrue(bitmaps.contains(1L, old, 42));
+
+        bitmaps.flush();
+        assertTrue(bitmaps.contains(1L, old, 42));
+
+        verify(store, times(2)).load(1L, old);
+        verify(store, never()).merge(any(), any(), any(), any());
+    }
+
+    @Test
+    void categoryUnionCoversStoredAndUnflushedCompletions() {
+        stored(1L, today.minusDays(3), WATER, 1, 2);
+        stored(2L, today.minusDays(1), WATER, 2, 3);
+        stored(3L, today.minusDays(1), ChallengeCategory.TRANSPORTATION, 4);
+        stored(1L, today.minusDays(9), WATER, 5);
+        bitmaps.add(1L, WATER, today, 6);
+
+        assertEquals(RoaringBitmap.bitmapOf(1, 2, 3, 6), bitmaps.union(WATER, today.minusDays(6), today));
+    }
+
+    /**
+     * Stands in for the JMH run: no MySQL here, so this times the in-memory
+     * operations and the blob sizes over a 10M-user id space.
+     */
+    @Test
+    void tenMillionUsers() {
+        int users = 10_000_000;
+        int[] completers = {2_000_000, 1_000_000, 250_000};
+        Random random = new Random(42);
+
+        long start = System.nanoTime();
+        long adds = 0;
+        for (int c = 0; c < completers.length; c++) {
+            for (int i = 0; i < completers[c]; i++) {
+                bitmaps.add((long) c + 1, WATER, today, random.nextInt(users));
+                adds++;
+            }
+        }
+        long addNanos = System.nanoTime() - start;
+
+        int lookups = 5_000_000;
+        long hits = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            if (bitmaps.contains(1L, today, random.nextInt(users))) {
+                hits++;
+            }
+        }
+        long lookupNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        bitmaps.flush();
+        long flushMs = (System.nanoTime() - start) / 1_000_000;
+        long blobBytes = 0;
+        long completions = 0;
+        for (long c = 1; c <= completers.length; c++) {
+            blobBytes += table.get(c + "/" + today).length;
+            completions += bitmaps.count(c, today);
+        }
+
+        // a week of three challenges: six earlier days in the table, today in the table and in memory
+        for (int d = 1; d <= 6; d++) {
+            for (long c = 1; c <= completers.length; c++) {
+                table.put(c + "/" + today.minusDays(d), table.get(c + "/" + today));
+                categories.put(c + "/" + today.minusDays(d), WATER);
+            }
+        }
+        start = System.nanoTime();
+        RoaringBitmap week = bitmaps.union(WATER, today.minusDays(6), today);
+        long unionMs = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.printf("completions: %d adds at %.1fM/s, lookups %.1fM/s (%d hits), flush %d ms%n",
+                adds, adds * 1e3 / addNanos, lookups * 1e3 / lookupNanos, hits, flushMs);
+        System.out.printf("completions: %d stored in %d KB of blobs (%.2f bytes each; a row each is ~40 bytes "
+                        + "before indexes), week union %d ms, %d users%n",
+                completions, blobBytes / 1024, (double) blobBytes / completions, unionMs, week.getLongCardinality());
+        assertTrue(blobBytes < completions * 2, "under 2 bytes per completion");
+        assertTrue(week.getLongCardinality() > completers[0]);
+    }
+}
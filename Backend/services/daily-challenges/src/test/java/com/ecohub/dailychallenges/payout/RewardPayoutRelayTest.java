@@ -0,0 +1,417 @@
+package com.ecohub.dailychallenges.payout;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.ecohub.dailychallenges.client.WalletClient;
+import com.ecohub.dailychallenges.config.RestTemplateConfig;
+import com.ecohub.dailychallenges.entity.RewardStatus;
+import com.ecohub.dailychallenges.repository.ChallengeRewardRepository;
+import com.ecohub.dailychallenges.repository.RewardRow;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import tools.jackson.databind.json.JsonMapper;
+
+class RewardPayoutRelayTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 10, 18);
+
+    private final JsonMapper json = JsonMapper.builder().build();
+
+    // the stand-in wallet: balances and the references it has applied
+    private final Map<Long, Integer> balances = new ConcurrentHashMap<>();
+    private final Set<String> appliedReferences = ConcurrentHashMap.newKeySet();
+    private final Set<Long> usersWithoutWallet = ConcurrentHashMap.newKeySet();
+    private final List<List<String>> requests = new ArrayList<>();
+    private final List<String> paths = new ArrayList<>();
+    // what the stand-in does with the next requests
+    private volatile boolean down;
+    private volatile boolean loseNextAnswer;
+    private volatile int ledgerFailures;
+
+    private HttpServer standInWallet;
+    private WalletClient walletClient;
+    private InMemoryRewards rewards;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void startStandInWallet() throws IOException {
+        standInWallet = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        standInWallet.createContext("/", this::bulk);
+        standInWallet.setExecutor(Executors.newFixedThreadPool(2));
+        standInWallet.start();
+
+        // the configured base URL, pointed at the stand-in
+        Properties properties = PropertiesLoaderUtils.loadProperties(new ClassPathResource("application.properties"));
+        String baseUrl = UriComponentsBuilder.fromUriString(properties.getProperty("daily-challenges.wallet.base-url"))
+                .host("127.0.0.1").port(standInWallet.getAddress().getPort()).toUriString();
+        walletClient = new WalletClient(RestTemplateConfig.timeoutRestTemplate(500, 5000), baseUrl);
+        rewards = new InMemoryRewards();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void stopStandInWallet() {
+        standInWallet.stop(0);
+    }
+
+    private RewardPayoutRelay relay(int batchSize, int maxAttempts) {
+        return new RewardPayoutRelay(rewards, walletClient, meterRegistry, batchSize, maxAttempts);
+    }
+
+    /**
+     * Mirrors reward-wallet's POST /bulk: an entry whose reference was already
+     * applied comes back DUPLICATE, and while its ledger is failing every
+     * entry comes back RETRY.
+     */
+    @SuppressWarnings("unchecked")
+    private void bulk(HttpExchange exchange) throws IOException {
+        synchronized (paths) {
+            paths.add(exchange.getRequestURI().getPath());
+        }
+        if (!exchange.getRequestURI().getPath().equals("/bulk")) {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+            return;
+        }
+        Map<String, Object>[] entries = json.readValue(exchange.getRequestBody().readAllBytes(), Map[].class);
+        if (down) {
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+            return;
+        }
+        List<String> references = new ArrayList<>();
+        List<Map<String, Object>> results = new ArrayList<>();
+        boolean ledgerFailing = ledgerFailures > 0;
+        if (ledgerFailing) {
+            ledgerFailures--;
+        }
+        for (Map<String, Object> entry : entries) {
+            long userId = ((Number) entry.get("userId")).longValue();
+            int amount = ((Number) entry.get("amount")).intValue();
+            String reference = (String) entry.get("reference");
+            references.add(reference);
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("userId", userId);
+            if (ledgerFailing) {
+                result.put("status", "RETRY");
+                result.put("message", "Ledger write failed");
+            } else if (usersWithoutWallet.contains(userId)) {
+                result.put("status", "REJECTED");
+                result.put("message", "Wallet not found");
+            } else if (!appliedReferences.add(reference)) {
+                result.put("status", "DUPLICATE");
+                result.put("balance", balances.get(userId));
+            } else {
+                result.put("status", "APPLIED");
+                result.put("balance", balances.merge(userId, amount, Integer::sum));
+            }
+            results.add(result);
+        }
+        synchronized (requests) {
+            requests.add(references);
+        }
+        if (loseNextAnswer) {
+            // applied, but the relay never hears about it
+            loseNextAnswer = false;
+            exchange.sendResponseHeaders(500, -1);
+            exchange.close();
+            return;
+        }
+        byte[] body = json.writeValueAsBytes(results);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+
+    @Test
+    void theConfiguredWalletUrlReachesTheBulkEndpoint() {
+        rewards.record(1, 10, DAY, 10);
+
+        relay(100, 5).relay();
+
+        // RewardWalletController maps POST /bulk with no class-level prefix;
+        // /wallet only exists at the gateway
+        assertEquals(List.of("/bulk"), paths);
+        assertEquals(RewardStatus.PAID, rewards.statusOf(1));
+    }
+
+    @Test
+    void creditsEachUserOncePerWindowWithTheSumOfTheirRewards() {
+        rewards.record(1, 10, DAY, 10);
+        rewards.record(1, 11, DAY, 20);
+        rewards.record(1, 12, DAY, 30);
+        rewards.record(2, 10, DAY, 5);
+
+        assertEquals(4, relay(100, 3).relay());
+
+        assertEquals(1, requests.size());
+        assertEquals(2, requests.get(0).size());
+        assertEquals(60, balances.get(1L));
+        assertEquals(5, balances.get(2L));
+        assertEquals(0, rewards.countOpen());
+        assertEquals(4.0, meterRegistry.get("daily-challenges.payouts.rewards").tag("result", "paid")
+                .counter().count());
+        assertEquals(2.0, meterRegistry.get("daily-challenges.payouts.batch.size").summary().mean());
+        assertEquals(4, meterRegistry.get("daily-challenges.payouts.lag").timer().count());
+    }
+
+    @Test
+    void aLostAnswerIsResentUnderTheSameReferencesAndAppliedOnce() {
+        rewards.record(1, 10, DAY, 10);
+        rewards.record(2, 10, DAY, 10);
+        loseNextAnswer = true;
+        RewardPayoutRelay relay = relay(100, 3);
+
+        assertEquals(0, relay.relay());
+        assertEquals(2, rewards.countOpen());
+        assertEquals(2, relay.relay());
+
+        assertEquals(2, requests.size());
+        assertEquals(requests.get(0), requests.get(1));
+        assertEquals(10, balances.get(1L));
+        assertEquals(10, balances.get(2L));
+        assertEquals(0, rewards.countOpen());
+    }
+
+    @Test
+    void aBatchClaimedBeforeACrashIsResentFirstByTheNextRelay() {
+        rewards.record(1, 10, DAY, 10);
+        rewards.record(2, 10, DAY, 10);
+        // claimed and sent, then the node died before marking anything paid
+        Long crashed = rewards.claim(100);
+        appliedReferences.add("challenge-rewards-" + crashed + "-1");
+        balances.put(1L, 10);
+        rewards.record(1, 11, DAY, 7);
+
+        assertEquals(3, relay(100, 3).relay());
+
+        assertEquals(2, requests.size());
+        assertEquals(List.of("challenge-rewards-" + crashed + "-1", "challenge-rewards-" + crashed + "-2"),
+                requests.get(0));
+        assertEquals(17, balances.get(1L));
+        assertEquals(10, balances.get(2L));
+        assertEquals(0, rewards.countOpen());
+    }
+
+    @Test
+    void aRejectedUserIsRetriedThenGivenUpOnWithoutHoldingBackOthers() {
+        usersWithoutWallet.add(9L);
+        rewards.record(9, 10, DAY, 10);
+        rewards.record(1, 10, DAY, 10);
+        RewardPayoutRelay relay = relay(100, 2);
+
+        assertEquals(1, relay.relay());
+        assertEquals(RewardStatus.SENDING, rewards.statusOf(9));
+        assertEquals(0, relay.relay());
+
+        assertEquals(RewardStatus.FAILED, rewards.statusOf(9));
+        assertEquals(RewardStatus.PAID, rewards.statusOf(1));
+        assertEquals(1.0, meterRegistry.get("daily-challenges.payouts.rewards").tag("result", "failed")
+                .counter().count());
+    }
+
+    @Test
+    void entriesTheWalletFailedToApplyAreResentWithoutUsingUpAttempts() {
+        rewards.record(1, 10, DAY, 10);
+        rewards.record(2, 10, DAY, 10);
+        rewards.record(2, 11, DAY, 5);
+        ledgerFailures = 5;
+        RewardPayoutRelay relay = relay(1, 2);
+
+        for (int window = 0; window < 5; window++) {
+            assertEquals(0, relay.relay());
+        }
+        // one batch open, nothing new claimed behind it while the wallet fails
+        assertEquals(5, requests.size());
+        assertEquals(RewardStatus.SENDING, rewards.statusOf(1));
+        assertEquals(RewardStatus.PENDING, rewards.statusOf(2));
+
+        assertEquals(3, relay.relay());
+        assertEquals(RewardStatus.PAID, rewards.statusOf(1));
+        assertEquals(RewardStatus.PAID, rewards.statusOf(2));
+        assertEquals(10, balances.get(1L));
+        assertEquals(15, balances.get(2L));
+        assertEquals(0.0, meterRegistry.get("daily-challenges.payouts.rewards").tag("result", "failed")
+                .counter().count());
+    }
+
+    @Test
+    void whileTheWalletIsDownRewardsWaitAndShowAsBacklog() {
+        rewards.record(1, 10, DAY, 10);
+        rewards.record(2, 10, DAY, 10);
+        down = true;
+        RewardPayoutRelay relay = relay(100, 3);
+
+        assertEquals(0, relay.relay());
+        assertEquals(2.0, meterRegistry.get("daily-challenges.payouts.backlog").gauge().value());
+
+        down = false;
+        assertEquals(2, relay.relay());
+        assertEquals(0.0, meterRegistry.get("daily-challenges.payouts.backlog").gauge().value());
+        assertFalse(balances.isEmpty());
+    }
+
+    @Test
+    void benchmarkPayoutThroughput() {
+        // ten completions per user, so a window's rewards collapse into a tenth as many credits
+        int users = 20_000;
+        int completions = 200_000;
+        for (int i = 0; i < completions; i++) {
+            rewards.record(i / 10, i % 10, DAY, 10);
+        }
+        RewardPayoutRelay relay = relay(5000, 3);
+
+        long start = System.nanoTime();
+        int paid = relay.relay();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        assertEquals(completions, paid);
+        assertEquals(completions / 5000, requests.size());
+        for (long user = 0; user < users; user++) {
+            assertEquals(completions / users * 10, balances.get(user));
+        }
+        System.out.printf("reward payouts: %d rewards for %d users in %d bulk calls, %.0f rewards/s, "
+                        + "%.0f wallet entries per call%n",
+                paid, users, requests.size(), paid / seconds,
+                meterRegistry.get("daily-challenges.payouts.batch.size").summary().mean());
+        assertEquals(completions / 5000, meterRegistry.get("daily-challenges.payouts.send").timer().count());
+    }
+
+    /**
+     * challenge_rewards in memory, with the same claim semantics as the SQL.
+     */
+    private static final class InMemoryRewards extends ChallengeRewardRepository {
+
+        private final TreeMap<Long, Reward> rows = new TreeMap<>();
+        private final Set<String> completions = new HashSet<>();
+        private long nextId = 1;
+
+        InMemoryRewards() {
+            super(null);
+        }
+
+        @Override
+        public synchronized boolean record(long userId, long challengeId, LocalDate day, int coins) {
+            if (!completions.add(userId + "/" + challengeId + "/" + day)) {
+                return false;
+            }
+            rows.put(nextId, new Reward(nextId, userId, coins));
+            nextId++;
+            return true;
+        }
+
+        @Override
+        public synchronized Long claim(int limit) {
+            Long batch = null;
+            int claimed = 0;
+            for (Reward reward : rows.values()) {
+                if (reward.status == RewardStatus.PENDING && claimed < limit) {
+                    batch = batch == null ? reward.id : batch;
+                    reward.status = RewardStatus.SENDING;
+                    reward.batch = batch;
+                    claimed++;
+                }
+            }
+            return batch;
+        }
+
+        @Override
+        public synchronized List<Long> findOpenBatches() {
+            return rows.values().stream().filter(r -> r.status == RewardStatus.SENDING)
+                    .map(r -> r.batch).distinct().sorted().toList();
+        }
+
+        @Override
+        public synchronized List<RewardRow> findBatch(long batch) {
+            List<RewardRow> batchRows = new ArrayList<>();
+            for (Reward r : rows.values()) {
+                if (r.batch != null && r.batch == batch && r.status == RewardStatus.SENDING) {
+                    batchRows.add(new RewardRow(r.id, r.userId, r.coins, r.attempts, r.createdAt));
+                }
+            }
+            return batchRows;
+        }
+
+        @Override
+        public synchronized void markPaid(List<Long> ids) {
+            ids.forEach(id -> rows.get(id).status = RewardStatus.PAID);
+        }
+
+        @Override
+        public synchronized void markRetry(Map<Long, String> errors) {
+            errors.keySet().forEach(id -> rows.get(id).attempts++);
+        }
+
+        @Override
+        public synchronized void markFailed(Map<Long, String> errors) {
+            errors.keySet().forEach(id -> {
+                rows.get(id).status = RewardStatus.FAILED;
+                rows.get(id).attempts++;
+            });
+        }
+
+        @Override
+        public synchronized long countOpen() {
+            return rows.values().stream()
+                    .filter(r -> r.status == RewardStatus.PENDING || r.status == RewardStatus.SENDING).count();
+        }
+
+        @Override
+        public synchronized LocalDateTime findOldestOpen() {
+            return rows.values().stream()
+                    .filter(r -> r.status == RewardStatus.PENDING || r.status == RewardStatus.SENDING)
+                    .map(r -> r.createdAt).findFirst().orElse(null);
+        }
+
+        synchronized RewardStatus statusOf(long userId) {
+            Map<Long, RewardStatus> byUser = new HashMap<>();
+            rows.values().forEach(r -> byUser.put(r.userId, r.status));
+            return byUser.get(userId);
+        }
+    }
+
+    private static final class Reward {
+
+        final long id;
+        final long userId;
+        final int coins;
+        final LocalDateTime createdAt = LocalDateTime.now();
+        RewardStatus status = RewardStatus.PENDING;
+        Long batch;
+        int attempts;
+
+        Reward(long id, long userId, int coins) {
+            this.id = id;
+            this.userId = userId;
+            this.coins = coins;
+        }
+    }
+}
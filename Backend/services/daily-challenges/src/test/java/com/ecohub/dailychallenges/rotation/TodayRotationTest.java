@@ -0,0 +1,200 @@
+package com.ecohub.dailychallenges.rotation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.ecohub.dailychallenges.dto.DailyChallengeResponseDto;
+import com.ecohub.dailychallenges.dto.TodayChallengesDto;
+import com.ecohub.dailychallenges.entity.ChallengeCategory;
+import com.ecohub.dailychallenges.entity.DailyChallenges;
+import com.ecohub.dailychallenges.repository.DailyChallengeRepository;
+
+class TodayRotationTest {
+
+    private static final int VARIANTS = 256;
+    private static final int PER_CATEGORY = 5;
+
+    private final List<DailyChallenges> active = new ArrayList<>();
+    private DailyChallengeRepository repository;
+    private TodayRotation rotation;
+
+    private static DailyChallenges challenge(long id, ChallengeCategory category) {
+        DailyChallenges challenge = new DailyChallenges();
+        challenge.setChallengeId(id);
+        challenge.setTitle("Challenge " + id);
+        challenge.setDescription("Do something green today");
+        challenge.setCategory(category);
+        challenge.setRewardCoinValue(10);
+        challenge.setIsActive(true);
+        return challenge;
+    }
+
+    @BeforeEach
+    void setUp() {
+        long id = 0;
+        for (ChallengeCategory category : ChallengeCategory.values()) {
+            for (int i = 0; i < PER_CATEGORY; i++) {
+                active.add(challenge(++id, category));
+            }
+        }
+        repository = mock(DailyChallengeRepository.class);
+        when(repository.findByIsActiveTrue()).thenAnswer(invocation -> new ArrayList<>(active));
+
+        rotation = new TodayRotation(repository, "UTC", 3, VARIANTS);
+        rotation.init();
+    }
+
+    private List<List<Long>> allSets() {
+        List<List<Long>> sets = new ArrayList<>();
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        // one user per variant
+        Map<Integer, Long> users = new HashMap<>();
+        for (long user = 1; users.size() < VARIANTS; user++) {
+            users.putIfAbsent(rotation.variantOf(user, today), user);
+        }
+        for (int v = 0; v < VARIANTS; v++) {
+            sets.add(rotation.forUser(users.get(v)).getChallenges().stream()
+                    .map(DailyChallengeResponseDto::getChallengeId).toList());
+        }
+        return sets;
+    }
+
+    @Test
+    void eachUserGetsAStableSetSpreadOverCategories() {
+        TodayChallengesDto first = rotation.forUser(42L);
+
+        assertSame(first, rotation.forUser(42L));
+        assertEquals(LocalDate.now(ZoneOffset.UTC), first.getDay());
+        assertEquals(3, first.getChallenges().size());
+
+        Map<ChallengeCategory, Integer> slots = new EnumMap<>(ChallengeCategory.class);
+        for (int user = 0; user < 10_000; user++) {
+            List<DailyChallengeResponseDto> set = rotation.forUser((long) user).getChallenges();
+            Set<ChallengeCategory> categories = new HashSet<>();
+            set.forEach(challenge -> categories.add(challenge.getCategory()));
+            assertEquals(3, categories.size(), "one challenge per category");
+        }
+        for (List<Long> set : allSets()) {
+            for (Long id : set) {
+                slots.merge(active.get((int) (id - 1)).getCategory(), 1, Integer::sum);
+            }
+        }
+        int min = slots.values().stream().min(Integer::compare).orElseThrow();
+        int max = slots.values().stream().max(Integer::compare).orElseThrow();
+        assertTrue(max - min <= 3, "slots per category: " + slots);
+    }
+
+    @Test
+    void deactivatingMidDayOnlyReplacesThatChallenge() {
+        List<List<Long>> before = allSets();
+        DailyChallenges dropped = active.get(0);
+        dropped.setIsActive(false);
+
+        rotation.challengeSaved(dropped);
+
+        List<List<Long>> after = allSets();
+        int changed = 0;
+        for (int v = 0; v < VARIANTS; v++) {
+            assertFalse(after.get(v).contains(dropped.getChallengeId()));
+            if (before.get(v).contains(dropped.getChallengeId())) {
+                changed++;
+                List<Long> kept = new ArrayList<>(before.get(v));
+                kept.remove(dropped.getChallengeId());
+                assertTrue(after.get(v).containsAll(kept), "only the dropped challenge is replaced");
+            } else {
+                assertEquals(before.get(v), after.get(v));
+            }
+        }
+        assertTrue(changed > 0);
+
+        // reactivating brings back exactly the original sets
+        dropped.setIsActive(true);
+        rotation.challengeSaved(dropped);
+        assertEquals(before, allSets());
+        // the writes were applied in memory; only the startup load hit the table
+        verify(repository, times(1)).findByIsActiveTrue();
+    }
+
+    @Test
+    void aCategoryLeftEmptyHandsItsSlotsToTheOthers() {
+        for (long id = 1; id <= PER_CATEGORY; id++) {
+            rotation.challengeDeleted(id);
+        }
+
+        for (List<Long> set : allSets()) {
+            assertEquals(3, set.size());
+            assertTrue(set.stream().allMatch(id -> id > PER_CATEGORY));
+        }
+    }
+
+    @Test
+    void aChallengeDeactivatedThroughAnotherNodeLeavesOnTheNextReload() {
+        List<List<Long>> before = allSets();
+        rotation.reload();
+        assertEquals(before, allSets(), "a reload without changes keeps every set");
+
+        // deactivated elsewhere: this node's challengeSaved never runs
+        DailyChallenges dropped = active.remove(0);
+        rotation.reload();
+
+        List<List<Long>> after = allSets();
+        assertTrue(after.stream().noneMatch(set -> set.contains(dropped.getChallengeId())));
+        assertTrue(after.stream().allMatch(set -> set.size() == 3));
+    }
+
+    @Test
+    void aStaleDayIsReplacedOnTheNextRequest() {
+        rotation.rollover(LocalDate.now(ZoneOffset.UTC).minusDays(1));
+
+        assertEquals(LocalDate.now(ZoneOffset.UTC), rotation.forUser(7L).getDay());
+        verify(repository, times(3)).findByIsActiveTrue();
+    }
+
+    /**
+     * The request path against what a client does today: fetch every
+     * challenge and pick from it. No database here, so the per-request
+     * side only pays for the copy and the pick, not the query.
+     */
+    @Test
+    void lookupThroughput() {
+        int requests = 2_000_000;
+        long start = System.nanoTime();
+        long sink = 0;
+        for (int user = 0; user < requests; user++) {
+            sink += rotation.forUser((long) user).getChallenges().size();
+        }
+        long lookupNanos = System.nanoTime() - start;
+
+        int scans = 20_000;
+        start = System.nanoTime();
+        for (int user = 0; user < scans; user++) {
+            List<DailyChallengeResponseDto> all = repository.findByIsActiveTrue().stream()
+                    .map(DailyChallengeResponseDto::new).toList();
+            sink += all.get(user % all.size()).getChallengeId();
+        }
+        long scanNanos = System.nanoTime() - start;
+
+        System.out.printf("today's challenges: %.0f lookups/s, find-all and pick %.0f/s%n",
+                requests * 1e9 / lookupNanos, scans * 1e9 / scanNanos);
+        assertTrue(sink > 0);
+    }
+}
@@ -0,0 +1,179 @@
+package com.ecohub.dailychallenges.streak;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+import com.ecohub.dailychallenges.completion.CompletionBitmapStore;
+import com.ecohub.dailychallenges.completion.CompletionBitmaps;
+import com.ecohub.dailychallenges.dto.StreakReplayReportDto;
+import com.ecohub.dailychallenges.repository.StreakRow;
+import com.ecohub.dailychallenges.repository.StreakUpdateRepository;
+
+class StreakReplayTest {
+
+    private static final LocalDate FIRST = LocalDate.of(2026, 1, 1);
+
+    private final List<RoaringBitmap> days = new ArrayList<>();
+
+    private CompletionBitmaps bitmaps;
+    private CompletionBitmapStore store;
+
+    @BeforeEach
+    void setUp() {
+        bitmaps = mock(CompletionBitmaps.class);
+        store = mock(CompletionBitmapStore.class, withSettings().stubOnly());
+        when(bitmaps.today()).thenAnswer(invocation -> FIRST.plusDays(days.size() - 1));
+        when(store.firstDay()).thenReturn(FIRST);
+        when(store.loadDay(any())).thenAnswer(invocation -> {
+            int d = (int) (((LocalDate) invocation.getArgument(0)).toEpochDay() - FIRST.toEpochDay());
+            return d < days.size() ? days.get(d).clone() : new RoaringBitmap();
+        });
+    }
+
+    @Test
+    void replayMatchesADayByDayWalkOfEachUser() {
+        Random random = new Random(42);
+        // sparse low ids, a dense block, and ids above Integer.MAX_VALUE
+        int[] users = new int[3000];
+        for (int i = 0; i < users.length; i++) {
+            users[i] = i < 1000 ? i * 7 : i < 2000 ? 200_000 + i : -1 - i;
+        }
+        for (int d = 0; d < 40; d++) {
+            RoaringBitmap day = new RoaringBitmap();
+            for (int user : users) {
+                if (random.nextInt(10) < 7) {
+                    day.add(user);
+                }
+            }
+            days.add(day);
+        }
+        Map<Long, StreakRow> written = new ConcurrentHashMap<>();
+        StreakUpdateRepository repository = collecting(written);
+
+        StreakReplayReportDto report = new StreakReplay(bitmaps, store, repository, 4).replay(null, null);
+
+        assertEquals(FIRST, report.getFrom());
+        assertEquals(40, report.getDays());
+        assertEquals(users.length, report.getUsers());
+        assertEquals(users.length, written.size());
+        for (int user : users) {
+            int current = 0;
+            int longest = 0;
+            int last = -1;
+            for (int d = 0; d < days.size(); d++) {
+                if (days.get(d).contains(user)) {
+                    current++;
+                    longest = Math.max(longest, current);
+                    last = d;
+                } else {
+                    current = 0;
+                }
+            }
+            // a streak that ended before the last replayed day is what it was on its last day
+            int atLastActive = 0;
+            for (int d = last; d >= 0 && days.get(d).contains(user); d--) {
+                atLastActive++;
+            }
+            StreakRow row = written.get(Integer.toUnsignedLong(user));
+            assertNotNull(row, "user " + Integer.toUnsignedLong(user));
+            assertEquals(atLastActive, row.getCurrentStreak());
+            assertEquals(longest, row.getLongestStreak());
+            assertEquals(FIRST.plusDays(last), row.getLastActiveDay());
+        }
+        verify(bitmaps).flush();
+    }
+
+    @Test
+    void rejectsRangesLongerThanAYear() {
+        days.add(new RoaringBitmap());
+        StreakReplay replay = new StreakReplay(bitmaps, store, mock(StreakUpdateRepository.class), 1);
+
+        assertThrows(RuntimeException.class, () -> replay.replay(FIRST, FIRST.plusDays(StreakReplay.MAX_DAYS)));
+        assertThrows(RuntimeException.class, () -> replay.replay(FIRST, FIRST.minusDays(1)));
+    }
+
+    @Test
+    void rejectsAStartAfterTheFirstStoredDay() {
+        days.add(new RoaringBitmap());
+        StreakUpdateRepository repository = mock(StreakUpdateRepository.class);
+        StreakReplay replay = new StreakReplay(bitmaps, store, repository, 1);
+
+        // would overwrite a long streak with the part inside the window
+        assertThrows(RuntimeException.class, () -> replay.replay(FIRST.plusDays(1), null));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void nothingStoredReplaysNothing() {
+        when(store.firstDay()).thenReturn(null);
+        days.add(new RoaringBitmap());
+
+        StreakReplayReportDto report = new StreakReplay(bitmaps, store, mock(StreakUpdateRepository.class), 1)
+                .replay(null, null);
+
+        assertEquals(0, report.getUsers());
+    }
+
+    @Test
+    void benchmarkReplayOfAMillionUsersOverNinetyDays() {
+        Random random = new Random(7);
+        int users = 1_000_000;
+        for (int d = 0; d < 90; d++) {
+            RoaringBitmap day = new RoaringBitmap();
+            for (int user = 0; user < users; user++) {
+                if (random.nextInt(4) != 0) {
+                    day.add(user);
+                }
+            }
+            day.runOptimize();
+            days.add(day);
+        }
+        AtomicLong rows = new AtomicLong();
+        StreakUpdateRepository repository = mock(StreakUpdateRepository.class, withSettings().stubOnly());
+        doAnswer(invocation -> {
+            rows.addAndGet(((List<?>) invocation.getArgument(0)).size());
+            return null;
+        }).when(repository).replaceBatch(any());
+
+        for (int threads : new int[] {1, 4}) {
+            rows.set(0);
+            StreakReplayReportDto report = new StreakReplay(bitmaps, store, repository, threads).replay(null, null);
+            System.out.println("Streak replay, " + threads + " thread(s): " + report.getUsers() + " users x "
+                    + report.getDays() + " days in " + report.getElapsedMs() + " ms");
+            assertEquals(users, report.getUsers());
+            assertEquals(users, rows.get());
+        }
+    }
+
+    private static StreakUpdateRepository collecting(Map<Long, StreakRow> written) {
+        StreakUpdateRepository repository = mock(StreakUpdateRepository.class);
+        doAnswer(invocation -> {
+            List<StreakRow> batch = invocation.getArgument(0);
+            for (StreakRow row : batch) {
+                written.put(row.getUserId(), row);
+            }
+            return null;
+        }).when(repository).replaceBatch(any());
+        return repository;
+    }
+}
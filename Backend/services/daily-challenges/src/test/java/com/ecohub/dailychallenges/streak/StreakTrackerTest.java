@@ -0,0 +1,116 @@
+package com.ecohub.dailychallenges.streak;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.ecohub.dailychallenges.dto.StreakDto;
+import com.ecohub.dailychallenges.entity.UserStreak;
+import com.ecohub.dailychallenges.repository.StreakUpdateRepository;
+import com.ecohub.dailychallenges.repository.UserStreakRepository;
+
+class StreakTrackerTest {
+
+    private StreakUpdateRepository updateRepository;
+    private UserStreakRepository streakRepository;
+    private StreakTracker tracker;
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        updateRepository = mock(StreakUpdateRepository.class);
+        streakRepository = mock(UserStreakRepository.class);
+        tracker = new StreakTracker(updateRepository, streakRepository, "UTC", 100);
+        today = LocalDate.now(ZoneId.of("UTC"));
+    }
+
+    @Test
+    void onlyTheFirstCompletionOfTheDayIsWritten() {
+        for (int i = 0; i < 5; i++) {
+            tracker.recordActivity(7, today);
+        }
+        tracker.recordActivity(8, today);
+        tracker.recordActivity(7, today.plusDays(1));
+
+        verify(updateRepository).recordActivity(7L, today);
+        verify(updateRepository).recordActivity(8L, today);
+        verify(updateRepository).recordActivity(7L, today.plusDays(1));
+        verify(updateRepository, times(3)).recordActivity(anyLong(), any());
+    }
+
+    @Test
+    void usersAboveIntMaxKeepTheirUnsignedId() {
+        tracker.recordActivity(-1, today);
+
+        verify(updateRepository).recordActivity(0xFFFFFFFFL, today);
+    }
+
+    @Test
+    void aFailedWriteIsRetriedByTheNextCompletion() {
+        doThrow(new RuntimeException("deadlock")).doNothing()
+                .when(updateRepository).recordActivity(7L, today);
+
+        assertThrows(RuntimeException.class, () -> tracker.recordActivity(7, today));
+        tracker.recordActivity(7, today);
+        tracker.recordActivity(7, today);
+
+        verify(updateRepository, times(2)).recordActivity(7L, today);
+    }
+
+    @Test
+    void aMissedDayReadsAsABrokenStreak() {
+        when(streakRepository.findById(1L)).thenReturn(Optional.of(streak(1L, 4, 9, today.minusDays(1))));
+        when(streakRepository.findById(2L)).thenReturn(Optional.of(streak(2L, 4, 9, today.minusDays(2))));
+        when(streakRepository.findById(3L)).thenReturn(Optional.empty());
+
+        StreakDto alive = tracker.get(1L);
+        StreakDto broken = tracker.get(2L);
+        StreakDto none = tracker.get(3L);
+
+        assertEquals(4, alive.getCurrentStreak());
+        assertEquals(0, broken.getCurrentStreak());
+        assertEquals(9, broken.getLongestStreak());
+        assertEquals(0, none.getCurrentStreak());
+        assertEquals(0, none.getLongestStreak());
+    }
+
+    @Test
+    void rolloverResetsInChunksUntilOneComesBackShort() {
+        when(updateRepository.resetBroken(eq(today.minusDays(1)), anyInt())).thenReturn(100, 100, 37, 0);
+
+        assertEquals(237, tracker.resetBroken(today));
+        verify(updateRepository, times(3)).resetBroken(today.minusDays(1), 100);
+    }
+
+    @Test
+    void rolloverWithNothingToResetRunsOneStatement() {
+        when(updateRepository.resetBroken(any(), anyInt())).thenReturn(0);
+
+        assertEquals(0, tracker.resetBroken(today));
+        verify(updateRepository, times(1)).resetBroken(any(), anyInt());
+    }
+
+    private static UserStreak streak(Long userId, int current, int longest, LocalDate lastActiveDay) {
+        UserStreak streak = new UserStreak();
+        streak.setUserId(userId);
+        streak.setCurrentStreak(current);
+        streak.setLongestStreak(longest);
+        streak.setLastActiveDay(lastActiveDay);
+        return streak;
+    }
+}
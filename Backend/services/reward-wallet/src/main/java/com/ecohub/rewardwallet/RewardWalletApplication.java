@@ -2,8 +2,10 @@ package com.ecohub.rewardwallet;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class RewardWalletApplication {
 
 	public static void main(String[] args) {
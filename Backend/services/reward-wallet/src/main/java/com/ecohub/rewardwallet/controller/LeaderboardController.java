@@ -0,0 +1,34 @@
+package com.ecohub.rewardwallet.controller;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.ecohub.rewardwallet.dto.LeaderboardEntryDto;
+import com.ecohub.rewardwallet.dto.LeaderboardPositionDto;
+import com.ecohub.rewardwallet.leaderboard.CoinLeaderboard;
+
+@RestController
+@RequestMapping("/leaderboard")
+public class LeaderboardController {
+
+    private final CoinLeaderboard leaderboard;
+
+    public LeaderboardController(CoinLeaderboard leaderboard) {
+        this.leaderboard = leaderboard;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<LeaderboardEntryDto>> top(
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(leaderboard.top(limit));
+    }
+
+    @GetMapping("/{userId}")
+    public ResponseEntity<LeaderboardPositionDto> position(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "5") int radius) {
+        return ResponseEntity.ok(leaderboard.position(userId, radius));
+    }
+}
@@ -1,10 +1,21 @@
 package com.ecohub.rewardwallet.controller;
 
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.ecohub.rewardwallet.dto.BulkWalletEntryDto;
+import com.ecohub.rewardwallet.dto.BulkWalletResultDto;
+import com.ecohub.rewardwallet.dto.TransactionHistoryPageDto;
 import com.ecohub.rewardwallet.dto.WalletAmountRequestDto;
 import com.ecohub.rewardwallet.dto.WalletResponseDto;
+import com.ecohub.rewardwallet.engine.WalletRejectedException;
+import com.ecohub.rewardwallet.entity.TransactionType;
+import com.ecohub.rewardwallet.service.TransactionHistoryService;
 import com.ecohub.rewardwallet.service.WalletService;
 
 @RestController
@@ -12,10 +23,14 @@ import com.ecohub.rewardwallet.service.WalletService;
 // methods
 public class RewardWalletController {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final WalletService walletService;
+    private final TransactionHistoryService historyService;
 
-    public RewardWalletController(WalletService walletService) {
+    public RewardWalletController(WalletService walletService, TransactionHistoryService historyService) {
         this.walletService = walletService;
+        this.historyService = historyService;
     }
 
     @PostMapping("/create/{userId}")
@@ -24,6 +39,12 @@ public class RewardWalletController {
         return ResponseEntity.ok(walletService.createWallet(userId));
     }
 
+    @PostMapping("/create/bulk")
+    public ResponseEntity<List<WalletResponseDto>> createWallets(
+            @RequestBody List<Long> userIds) {
+        return ResponseEntity.ok(walletService.createWallets(userIds));
+    }
+
     @GetMapping("/{userId}")
     public ResponseEntity<WalletResponseDto> getWallet(
             @PathVariable Long userId) {
@@ -35,7 +56,7 @@ public class RewardWalletController {
             @PathVariable Long userId,
             @RequestBody WalletAmountRequestDto dto) {
         return ResponseEntity.ok(
-                walletService.credit(userId, dto.getAmount()));
+                walletService.credit(userId, dto.getAmount(), dto.getSource()));
     }
 
     @PostMapping("/{userId}/debit")
@@ -43,8 +64,42 @@ public class RewardWalletController {
             @PathVariable Long userId,
             @RequestBody WalletAmountRequestDto dto) {
         return ResponseEntity.ok(
-                walletService.debit(userId, dto.getAmount()));
+                walletService.debit(userId, dto.getAmount(), dto.getSource()));
+
+    }
+
+    // Newest first; follow nextCursor for older pages
+    @GetMapping("/{userId}/transactions")
+    public ResponseEntity<TransactionHistoryPageDto> getTransactions(
+            @PathVariable Long userId,
+            @RequestParam(required = false) TransactionType type,
+            @RequestParam(required = false) String source,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(
+                historyService.getHistory(userId, type, source, cursor, size));
+    }
 
+    // Full history as NDJSON, streamed row by row
+    @GetMapping("/{userId}/transactions/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @PathVariable Long userId,
+            @RequestParam(required = false) TransactionType type,
+            @RequestParam(required = false) String source) {
+        StreamingResponseBody body = out -> historyService.exportHistory(userId, type, source, out);
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
     }
 
+    // Payout jobs send thousands of entries here instead of one credit call per user
+    @PostMapping("/bulk")
+    public ResponseEntity<List<BulkWalletResultDto>> applyBulk(
+            @RequestBody List<BulkWalletEntryDto> entries) {
+        return ResponseEntity.ok(walletService.applyBulk(entries));
+    }
+
+    // A declined debit (e.g. insufficient balance) is 409; wallet failures stay 5xx
+    @ExceptionHandler(WalletRejectedException.class)
+    public ResponseEntity<String> rejected(WalletRejectedException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+    }
 }
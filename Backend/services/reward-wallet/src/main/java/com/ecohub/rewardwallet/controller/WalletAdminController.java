@@ -0,0 +1,56 @@
+package com.ecohub.rewardwallet.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.ecohub.rewardwallet.dto.BalanceVerificationDto;
+import com.ecohub.rewardwallet.dto.ReconciliationReportDto;
+import com.ecohub.rewardwallet.service.BalanceCheckpointService;
+import com.ecohub.rewardwallet.service.WalletReconciliationService;
+
+@RestController
+@RequestMapping("/admin")
+public class WalletAdminController {
+
+    private final BalanceCheckpointService checkpointService;
+    private final WalletReconciliationService reconciliationService;
+
+    public WalletAdminController(
+            BalanceCheckpointService checkpointService,
+            WalletReconciliationService reconciliationService) {
+        this.checkpointService = checkpointService;
+        this.reconciliationService = reconciliationService;
+    }
+
+    // Compares the wallet with checkpoint + ledger tail; fullScan=true also
+    // times a scan of the whole ledger for comparison
+    @GetMapping("/{userId}/balance/verify")
+    public ResponseEntity<BalanceVerificationDto> verifyBalance(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "false") boolean fullScan) {
+        return ResponseEntity.ok(checkpointService.verify(userId, fullScan));
+    }
+
+    @PostMapping("/{userId}/balance/rebuild")
+    public ResponseEntity<BalanceVerificationDto> rebuildBalance(
+            @PathVariable Long userId) {
+        return ResponseEntity.ok(checkpointService.rebuild(userId));
+    }
+
+    @PostMapping("/checkpoints/run")
+    public ResponseEntity<Integer> runCheckpoints() {
+        return ResponseEntity.ok(checkpointService.checkpointAll());
+    }
+
+    // Starts a background run; resume=true continues after the last checked userId
+    @PostMapping("/reconcile")
+    public ResponseEntity<ReconciliationReportDto> startReconciliation(
+            @RequestParam(defaultValue = "true") boolean resume) {
+        return ResponseEntity.ok(reconciliationService.start(resume));
+    }
+
+    @GetMapping("/reconcile")
+    public ResponseEntity<ReconciliationReportDto> reconciliationReport() {
+        return ResponseEntity.ok(reconciliationService.report());
+    }
+}
@@ -0,0 +1,59 @@
+package com.ecohub.rewardwallet.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.ecohub.rewardwallet.dto.HoldRequestDto;
+import com.ecohub.rewardwallet.dto.HoldResponseDto;
+import com.ecohub.rewardwallet.engine.WalletRejectedException;
+import com.ecohub.rewardwallet.service.CoinHoldService;
+
+/**
+ * Reserve coins now, settle later: a purchase holds the price, then
+ * captures it once the order is saved or releases it if the order fails.
+ * Holds nobody settles expire on their own.
+ *
+ * A refused hold or capture answers 409 with the reason as the body, so a
+ * caller can tell a decline it should not retry from a wallet that failed:
+ * database, ledger or journal errors stay 5xx.
+ */
+@RestController
+@RequestMapping("/holds")
+public class WalletHoldController {
+
+    private final CoinHoldService holdService;
+
+    public WalletHoldController(CoinHoldService holdService) {
+        this.holdService = holdService;
+    }
+
+    @PostMapping
+    public ResponseEntity<HoldResponseDto> hold(
+            @RequestBody HoldRequestDto dto) {
+        return ResponseEntity.ok(holdService.hold(dto));
+    }
+
+    @GetMapping("/{holdId}")
+    public ResponseEntity<HoldResponseDto> getHold(
+            @PathVariable Long holdId) {
+        return ResponseEntity.ok(holdService.getHold(holdId));
+    }
+
+    @PostMapping("/{holdId}/capture")
+    public ResponseEntity<HoldResponseDto> capture(
+            @PathVariable Long holdId) {
+        return ResponseEntity.ok(holdService.capture(holdId));
+    }
+
+    @PostMapping("/{holdId}/release")
+    public ResponseEntity<HoldResponseDto> release(
+            @PathVariable Long holdId) {
+        return ResponseEntity.ok(holdService.release(holdId));
+    }
+
+    @ExceptionHandler(WalletRejectedException.class)
+    public ResponseEntity<String> refused(WalletRejectedException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+    }
+}
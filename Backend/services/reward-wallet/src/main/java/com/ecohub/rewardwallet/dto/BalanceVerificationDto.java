@@ -0,0 +1,64 @@
+package com.ecohub.rewardwallet.dto;
+
+public class BalanceVerificationDto {
+
+    private final Long userId;
+    private final int walletBalance;
+    private final int ledgerBalance;
+    private final long checkpointTransactionId;
+    private final long tailTransactions;
+    private final long checkpointQueryMicros;
+
+    // only filled in when a full-scan comparison was requested
+    private final Integer fullScanBalance;
+    private final Long fullScanQueryMicros;
+
+    public BalanceVerificationDto(Long userId, int walletBalance, int ledgerBalance,
+            long checkpointTransactionId, long tailTransactions, long checkpointQueryMicros,
+            Integer fullScanBalance, Long fullScanQueryMicros) {
+        this.userId = userId;
+        this.walletBalance = walletBalance;
+        this.ledgerBalance = ledgerBalance;
+        this.checkpointTransactionId = checkpointTransactionId;
+        this.tailTransactions = tailTransactions;
+        this.checkpointQueryMicros = checkpointQueryMicros;
+        this.fullScanBalance = fullScanBalance;
+        this.fullScanQueryMicros = fullScanQueryMicros;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public int getWalletBalance() {
+        return walletBalance;
+    }
+
+    public int getLedgerBalance() {
+        return ledgerBalance;
+    }
+
+    public int getDrift() {
+        return walletBalance - ledgerBalance;
+    }
+
+    public long getCheckpointTransactionId() {
+        return checkpointTransactionId;
+    }
+
+    public long getTailTransactions() {
+        return tailTransactions;
+    }
+
+    public long getCheckpointQueryMicros() {
+        return checkpointQueryMicros;
+    }
+
+    public Integer getFullScanBalance() {
+        return fullScanBalance;
+    }
+
+    public Long getFullScanQueryMicros() {
+        return fullScanQueryMicros;
+    }
+}
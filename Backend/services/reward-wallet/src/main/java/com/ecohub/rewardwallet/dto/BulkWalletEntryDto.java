@@ -0,0 +1,54 @@
+package com.ecohub.rewardwallet.dto;
+
+import com.ecohub.rewardwallet.entity.TransactionType;
+
+public class BulkWalletEntryDto {
+
+    private Long userId;
+    private int amount;
+    private TransactionType type = TransactionType.CREDIT;
+    private String source;
+
+    // optional idempotency key: an entry whose reference was already applied is not applied again
+    private String reference;
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public int getAmount() {
+        return amount;
+    }
+
+    public void setAmount(int amount) {
+        this.amount = amount;
+    }
+
+    public TransactionType getType() {
+        return type;
+    }
+
+    public void setType(TransactionType type) {
+        this.type = type;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    public void setReference(String reference) {
+        this.reference = reference;
+    }
+}
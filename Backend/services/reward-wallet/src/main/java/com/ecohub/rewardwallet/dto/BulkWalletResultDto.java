@@ -0,0 +1,55 @@
+package com.ecohub.rewardwallet.dto;
+
+public class BulkWalletResultDto {
+
+    public static final String APPLIED = "APPLIED";
+    public static final String REJECTED = "REJECTED";
+    // the reference was applied by an earlier request; nothing changed
+    public static final String DUPLICATE = "DUPLICATE";
+    // nothing changed because of a passing failure; the caller should resend it
+    public static final String RETRY = "RETRY";
+
+    private final Long userId;
+    private final String status;
+    private final Integer balance;
+    private final String message;
+
+    private BulkWalletResultDto(Long userId, String status, Integer balance, String message) {
+        this.userId = userId;
+        this.status = status;
+        this.balance = balance;
+        this.message = message;
+    }
+
+    public static BulkWalletResultDto applied(Long userId, int balance) {
+        return new BulkWalletResultDto(userId, APPLIED, balance, null);
+    }
+
+    public static BulkWalletResultDto duplicate(Long userId, int balance) {
+        return new BulkWalletResultDto(userId, DUPLICATE, balance, null);
+    }
+
+    public static BulkWalletResultDto rejected(Long userId, String message) {
+        return new BulkWalletResultDto(userId, REJECTED, null, message);
+    }
+
+    public static BulkWalletResultDto retry(Long userId, String message) {
+        return new BulkWalletResultDto(userId, RETRY, null, message);
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public Integer getBalance() {
+        return balance;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,55 @@
+package com.ecohub.rewardwallet.dto;
+
+public class HoldRequestDto {
+    private Long userId;
+    private int amount;
+
+    // optional, falls back to wallet.holds.default-ttl-seconds
+    private Integer ttlSeconds;
+
+    // optional idempotency key, e.g. the shop order reference
+    private String reference;
+
+    // ledger source for the debit on capture, REDEEM if empty
+    private String source;
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public int getAmount() {
+        return amount;
+    }
+
+    public void setAmount(int amount) {
+        this.amount = amount;
+    }
+
+    public Integer getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    public void setTtlSeconds(Integer ttlSeconds) {
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    public void setReference(String reference) {
+        this.reference = reference;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+}
@@ -0,0 +1,49 @@
+package com.ecohub.rewardwallet.dto;
+
+import java.time.LocalDateTime;
+
+import com.ecohub.rewardwallet.entity.CoinHold;
+import com.ecohub.rewardwallet.entity.HoldStatus;
+
+public class HoldResponseDto {
+
+    private Long holdId;
+    private Long userId;
+    private int amount;
+    private HoldStatus status;
+    private String reference;
+    private LocalDateTime expiresAt;
+
+    public HoldResponseDto(CoinHold hold) {
+        this.holdId = hold.getId();
+        this.userId = hold.getUserId();
+        this.amount = hold.getAmount();
+        this.status = hold.getStatus();
+        this.reference = hold.getReference();
+        this.expiresAt = hold.getExpiresAt();
+    }
+
+    public Long getHoldId() {
+        return holdId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public int getAmount() {
+        return amount;
+    }
+
+    public HoldStatus getStatus() {
+        return status;
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+}
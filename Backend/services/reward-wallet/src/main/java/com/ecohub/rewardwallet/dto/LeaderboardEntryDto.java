@@ -0,0 +1,27 @@
+package com.ecohub.rewardwallet.dto;
+
+public class LeaderboardEntryDto {
+
+    // 1 for the top eco-saver
+    private final int rank;
+    private final Long userId;
+    private final int balance;
+
+    public LeaderboardEntryDto(int rank, Long userId, int balance) {
+        this.rank = rank;
+        this.userId = userId;
+        this.balance = balance;
+    }
+
+    public int getRank() {
+        return rank;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public int getBalance() {
+        return balance;
+    }
+}
@@ -0,0 +1,30 @@
+package com.ecohub.rewardwallet.dto;
+
+import java.util.List;
+
+public class LeaderboardPositionDto {
+
+    private final LeaderboardEntryDto user;
+    private final int totalUsers;
+
+    // users ranked just above and below, including the user
+    private final List<LeaderboardEntryDto> around;
+
+    public LeaderboardPositionDto(LeaderboardEntryDto user, int totalUsers, List<LeaderboardEntryDto> around) {
+        this.user = user;
+        this.totalUsers = totalUsers;
+        this.around = around;
+    }
+
+    public LeaderboardEntryDto getUser() {
+        return user;
+    }
+
+    public int getTotalUsers() {
+        return totalUsers;
+    }
+
+    public List<LeaderboardEntryDto> getAround() {
+        return around;
+    }
+}
@@ -0,0 +1,77 @@
+package com.ecohub.rewardwallet.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class ReconciliationReportDto {
+
+    private final boolean running;
+    private final boolean finished;
+    private final LocalDateTime startedAt;
+    private final Long lastUserId;
+    private final long walletsChecked;
+    private final long driftCount;
+    private final long walletsWithoutLedger;
+    private final double rowsPerSecond;
+
+    // first drifts found in this run, capped
+    private final List<WalletDriftDto> drifts;
+
+    // first wallets found without any ledger rows in this run, capped
+    private final List<Long> unledgeredUserIds;
+
+    public ReconciliationReportDto(boolean running, boolean finished, LocalDateTime startedAt, Long lastUserId,
+            long walletsChecked, long driftCount, long walletsWithoutLedger, double rowsPerSecond,
+            List<WalletDriftDto> drifts, List<Long> unledgeredUserIds) {
+        this.running = running;
+        this.finished = finished;
+        this.startedAt = startedAt;
+        this.lastUserId = lastUserId;
+        this.walletsChecked = walletsChecked;
+        this.driftCount = driftCount;
+        this.walletsWithoutLedger = walletsWithoutLedger;
+        this.rowsPerSecond = rowsPerSecond;
+        this.drifts = drifts;
+        this.unledgeredUserIds = unledgeredUserIds;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public Long getLastUserId() {
+        return lastUserId;
+    }
+
+    public long getWalletsChecked() {
+        return walletsChecked;
+    }
+
+    public long getDriftCount() {
+        return driftCount;
+    }
+
+    public long getWalletsWithoutLedger() {
+        return walletsWithoutLedger;
+    }
+
+    public double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public List<WalletDriftDto> getDrifts() {
+        return drifts;
+    }
+
+    public List<Long> getUnledgeredUserIds() {
+        return unledgeredUserIds;
+    }
+}
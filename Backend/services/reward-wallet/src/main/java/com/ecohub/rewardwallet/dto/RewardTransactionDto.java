@@ -0,0 +1,60 @@
+package com.ecohub.rewardwallet.dto;
+
+import java.time.LocalDateTime;
+
+import com.ecohub.rewardwallet.entity.TransactionType;
+
+/**
+ * Read-only view of a ledger row. Built straight from the query so history
+ * pages and exports never put RewardTransaction entities in the persistence
+ * context.
+ */
+public class RewardTransactionDto {
+
+    private final Long id;
+    private final Long userId;
+    private final TransactionType type;
+    private final int amount;
+    private final String source;
+    private final String description;
+    private final LocalDateTime createdAt;
+
+    public RewardTransactionDto(Long id, Long userId, TransactionType type, int amount,
+            String source, String description, LocalDateTime createdAt) {
+        this.id = id;
+        this.userId = userId;
+        this.type = type;
+        this.amount = amount;
+        this.source = source;
+        this.description = description;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public TransactionType getType() {
+        return type;
+    }
+
+    public int getAmount() {
+        return amount;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,24 @@
+package com.ecohub.rewardwallet.dto;
+
+import java.util.List;
+
+public class TransactionHistoryPageDto {
+
+    private final List<RewardTransactionDto> items;
+
+    // pass back as ?cursor= to get the next (older) page; null on the last page
+    private final String nextCursor;
+
+    public TransactionHistoryPageDto(List<RewardTransactionDto> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<RewardTransactionDto> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
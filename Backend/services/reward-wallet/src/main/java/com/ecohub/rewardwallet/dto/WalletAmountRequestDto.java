@@ -3,6 +3,9 @@ package com.ecohub.rewardwallet.dto;
 public class WalletAmountRequestDto {
     private int amount;
 
+    // DAILY_CHALLENGE, CARBON_FOOTPRINT, WORKSHOP, REDEEM
+    private String source;
+
     public int getAmount() {
         return amount;
     }
@@ -10,5 +13,12 @@ public class WalletAmountRequestDto {
     public void setAmount(int amount) {
         this.amount = amount;
     }
-}
 
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+}
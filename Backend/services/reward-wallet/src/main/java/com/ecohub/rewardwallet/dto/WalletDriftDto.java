@@ -0,0 +1,28 @@
+package com.ecohub.rewardwallet.dto;
+
+public class WalletDriftDto {
+
+    private final Long userId;
+
+    // null when the ledger has rows for a user without a wallet
+    private final Integer walletBalance;
+    private final long ledgerBalance;
+
+    public WalletDriftDto(Long userId, Integer walletBalance, long ledgerBalance) {
+        this.userId = userId;
+        this.walletBalance = walletBalance;
+        this.ledgerBalance = ledgerBalance;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Integer getWalletBalance() {
+        return walletBalance;
+    }
+
+    public long getLedgerBalance() {
+        return ledgerBalance;
+    }
+}
@@ -7,11 +7,25 @@ public class WalletResponseDto {
     private Long userId;
     private int balance;
 
+    // coins reserved by open holds; available = balance - held
+    private int held;
+
     public WalletResponseDto(Wallet wallet) {
         this.userId = wallet.getUserId();
         this.balance = wallet.getBalance();
     }
 
+    public WalletResponseDto(Long userId, int balance) {
+        this.userId = userId;
+        this.balance = balance;
+    }
+
+    public WalletResponseDto(Long userId, int balance, int held) {
+        this.userId = userId;
+        this.balance = balance;
+        this.held = held;
+    }
+
     public Long getUserId() {
         return userId;
     }
@@ -19,5 +33,13 @@ public class WalletResponseDto {
     public int getBalance() {
         return balance;
     }
+
+    public int getHeld() {
+        return held;
+    }
+
+    public int getAvailable() {
+        return balance - held;
+    }
 }
 
@@ -0,0 +1,143 @@
+package com.ecohub.rewardwallet.engine;
+
+import java.time.LocalDateTime;
+
+/**
+ * Hot state of a single wallet. Every mutation goes through the cell's own
+ * monitor, so two users never contend with each other and a single user's
+ * credits/debits are applied one at a time.
+ *
+ * A cell that has been evicted from the engine is retired: it refuses reads
+ * and writes (returns null) so a caller still holding it goes back to the
+ * engine for the current cell instead of updating a detached copy.
+ */
+final class BalanceCell {
+
+    private int balance;
+    private LocalDateTime updatedAt;
+
+    // coins reserved by open holds; spendable balance is balance - held
+    private int held;
+
+    // set when the in-memory balance is ahead of the wallet table
+    private boolean dirty;
+    private long dirtySinceNanos;
+
+    private boolean retired;
+    private volatile long lastAccessNanos = System.nanoTime();
+
+    BalanceCell(int balance, LocalDateTime updatedAt) {
+        this.balance = balance;
+        this.updatedAt = updatedAt;
+    }
+
+    /**
+     * Current balance, or null once the cell has been retired.
+     */
+    synchronized Integer balance() {
+        return retired ? null : balance;
+    }
+
+    synchronized Integer held() {
+        return retired ? null : held;
+    }
+
+    /**
+     * Applies the deltas and returns the new balance, or null if the cell
+     * has been retired. With checkFunds the result must not leave the
+     * balance below what is held. The hook runs inside the cell's lock
+     * before a balance change becomes visible; if it throws, nothing is
+     * changed. A change to the held amount alone skips the hook, it is not
+     * journaled.
+     */
+    synchronized Integer apply(int delta, int heldDelta, boolean checkFunds, MutationHook hook) {
+        if (retired) {
+            return null;
+        }
+        if (checkFunds && balance + delta < held + heldDelta) {
+            throw new WalletRejectedException("Insufficient balance");
+        }
+        if (delta != 0) {
+            int newBalance = balance + delta;
+            LocalDateTime now = LocalDateTime.now();
+            hook.beforeCommit(newBalance, now);
+
+            balance = newBalance;
+            updatedAt = now;
+            markDirty(System.nanoTime());
+        }
+        held += heldDelta;
+        return balance;
+    }
+
+    /**
+     * Takes the balance to be written and marks the cell clean, or returns
+     * null when there is nothing to write.
+     */
+    synchronized Snapshot takeDirtySnapshot() {
+        if (!dirty) {
+            return null;
+        }
+        dirty = false;
+        return new Snapshot(balance, updatedAt, dirtySinceNanos);
+    }
+
+    /**
+     * Puts the cell back into the dirty state after a failed flush, keeping
+     * the oldest pending timestamp so lag is not under-reported.
+     */
+    synchronized void restoreDirty(long sinceNanos) {
+        if (dirty) {
+            dirtySinceNanos = Math.min(dirtySinceNanos, sinceNanos);
+        } else {
+            markDirty(sinceNanos);
+        }
+    }
+
+    /**
+     * Retires the cell if the wallet table already holds its balance. Dirty
+     * cells and cells with open holds are never retired, the change or the
+     * held amount would be lost.
+     */
+    synchronized boolean retireIfClean() {
+        if (dirty || held != 0) {
+            return false;
+        }
+        retired = true;
+        return true;
+    }
+
+    void touch() {
+        lastAccessNanos = System.nanoTime();
+    }
+
+    long lastAccessNanos() {
+        return lastAccessNanos;
+    }
+
+    private void markDirty(long nowNanos) {
+        if (!dirty) {
+            dirty = true;
+            dirtySinceNanos = nowNanos;
+        }
+    }
+
+    @FunctionalInterface
+    interface MutationHook {
+
+        void beforeCommit(int newBalance, LocalDateTime updatedAt);
+    }
+
+    static final class Snapshot {
+
+        final int balance;
+        final LocalDateTime updatedAt;
+        final long dirtySinceNanos;
+
+        Snapshot(int balance, LocalDateTime updatedAt, long dirtySinceNanos) {
+            this.balance = balance;
+            this.updatedAt = updatedAt;
+            this.dirtySinceNanos = dirtySinceNanos;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.ecohub.rewardwallet.engine;
+
+/**
+ * Told about every balance the engine commits. Called while the user's cell
+ * is locked, so a listener sees each user's balances in order; it must be
+ * quick and must not call back into the engine.
+ */
+public interface BalanceListener {
+
+    void onBalanceChanged(Long userId, int balance);
+}
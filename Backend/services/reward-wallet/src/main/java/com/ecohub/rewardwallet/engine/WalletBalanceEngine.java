@@ -0,0 +1,494 @@
+package com.ecohub.rewardwallet.engine;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.ecohub.rewardwallet.entity.Wallet;
+import com.ecohub.rewardwallet.journal.JournalRecord;
+import com.ecohub.rewardwallet.journal.WalletJournal;
+import com.ecohub.rewardwallet.repository.WalletBatchRepository;
+import com.ecohub.rewardwallet.repository.WalletBatchRepository.BalanceUpdate;
+import com.ecohub.rewardwallet.repository.WalletRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Keeps hot wallet balances in memory and writes them behind to the wallet
+ * table.
+ *
+ * Credits and debits are applied under a per-user lock, so concurrent payouts
+ * for the same user can no longer lose updates the way the old
+ * findById/save sequence did, and the request path does no DB round trip
+ * once a wallet is loaded. A scheduled flusher coalesces every change made
+ * since the previous flush into one absolute balance per user and writes
+ * them as a single JDBC batch.
+ *
+ * Every mutation is appended to the local {@link WalletJournal} before it is
+ * acknowledged, so a balance that has not reached MySQL yet is not lost if
+ * the process dies. Whatever the journal still holds is replayed into the
+ * wallet table on startup.
+ *
+ * The cells double as the read cache behind GET /{userId}. Clean cells are
+ * evicted once idle for longer than the TTL or, least recently used first,
+ * when the engine holds more than max-size wallets. Dirty cells are only
+ * evicted after they have been flushed, so a reload from the table always
+ * sees the last acknowledged balance.
+ *
+ * The engine assumes it is the only writer of wallet.balance, i.e. one
+ * reward-wallet node owns the balances.
+ */
+@Component
+public class WalletBalanceEngine {
+
+    // keeps the IN list of a multi-row wallet fetch at a sane size
+    private static final int LOAD_CHUNK_SIZE = 1000;
+
+    private final WalletRepository walletRepository;
+    private final WalletBatchRepository batchRepository;
+    private final WalletJournal journal;
+    private final List<BalanceListener> listeners;
+    private final int flushBatchSize;
+    private final int cacheMaxSize;
+    private final long cacheTtlNanos;
+
+    private final ConcurrentHashMap<Long, BalanceCell> cells = new ConcurrentHashMap<>();
+    private final Set<Long> dirtyUsers = ConcurrentHashMap.newKeySet();
+
+    // Flushes must not overlap, or an older snapshot could overwrite a newer
+    // one. Eviction takes the same lock so it never drops a cell whose
+    // balance is still on its way to the table.
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    // bumped before every eviction, lets a loader detect that its row may be stale
+    private final AtomicLong evictionStamp = new AtomicLong();
+
+    private final Timer flushLag;
+    private final Timer flushDuration;
+    private final Counter flushedRows;
+    private final Counter flushFailures;
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+    private final Counter expiredEvictions;
+    private final Counter sizeEvictions;
+    private final Timer cacheLoad;
+
+    public WalletBalanceEngine(
+            WalletRepository walletRepository,
+            WalletBatchRepository batchRepository,
+            WalletJournal journal,
+            List<BalanceListener> listeners,
+            MeterRegistry meterRegistry,
+            @Value("${wallet.engine.flush-batch-size:500}") int flushBatchSize,
+            @Value("${wallet.cache.max-size:100000}") int cacheMaxSize,
+            @Value("${wallet.cache.ttl-ms:600000}") long cacheTtlMs) {
+        this.walletRepository = walletRepository;
+        this.batchRepository = batchRepository;
+        this.journal = journal;
+        this.listeners = listeners;
+        this.flushBatchSize = flushBatchSize;
+        this.cacheMaxSize = cacheMaxSize;
+        this.cacheTtlNanos = TimeUnit.MILLISECONDS.toNanos(cacheTtlMs);
+
+        this.flushLag = Timer.builder("wallet.engine.flush.lag")
+                .description("Age of the oldest coalesced balance change when it was flushed")
+                .register(meterRegistry);
+        this.flushDuration = Timer.builder("wallet.engine.flush.duration")
+                .register(meterRegistry);
+        this.flushedRows = Counter.builder("wallet.engine.flush.rows")
+                .register(meterRegistry);
+        this.flushFailures = Counter.builder("wallet.engine.flush.failures")
+                .register(meterRegistry);
+        meterRegistry.gauge("wallet.engine.dirty", dirtyUsers, Set::size);
+        meterRegistry.gauge("wallet.engine.cached", cells, ConcurrentHashMap::size);
+
+        this.cacheHits = Counter.builder("wallet.cache.gets").tag("result", "hit")
+                .register(meterRegistry);
+        this.cacheMisses = Counter.builder("wallet.cache.gets").tag("result", "miss")
+                .register(meterRegistry);
+        this.expiredEvictions = Counter.builder("wallet.cache.evictions").tag("cause", "expired")
+                .register(meterRegistry);
+        this.sizeEvictions = Counter.builder("wallet.cache.evictions").tag("cause", "size")
+                .register(meterRegistry);
+        this.cacheLoad = Timer.builder("wallet.cache.load")
+                .description("Time to load a wallet missing from memory")
+                .register(meterRegistry);
+        meterRegistry.gauge("wallet.cache.hit.ratio", this, WalletBalanceEngine::hitRatio);
+    }
+
+    /**
+     * Brings the wallet table up to date with mutations that were journaled
+     * but not flushed before the last shutdown or crash. Runs before the
+     * service takes traffic.
+     */
+    @PostConstruct
+    public void recoverFromJournal() {
+        List<BalanceUpdate> updates = new ArrayList<>();
+        long upTo = 0;
+        for (JournalRecord record : journal.recoveredRecords()) {
+            updates.add(new BalanceUpdate(record.getUserId(), record.getBalance(), record.getUpdatedAt()));
+            upTo = Math.max(upTo, record.getSeq());
+        }
+        if (updates.isEmpty()) {
+            return;
+        }
+
+        System.out.println("Replaying " + updates.size() + " wallet balances from the journal");
+        batchRepository.updateBalances(updates, flushBatchSize);
+        journal.markApplied(upTo);
+    }
+
+    public int getBalance(Long userId) {
+        while (true) {
+            Integer balance = cell(userId).balance();
+            if (balance != null) {
+                return balance;
+            }
+            // evicted between lookup and read, go back for the reloaded cell
+        }
+    }
+
+    /**
+     * Coins reserved by open holds, not spendable until captured or released.
+     */
+    public int getHeld(Long userId) {
+        while (true) {
+            Integer held = cell(userId).held();
+            if (held != null) {
+                return held;
+            }
+        }
+    }
+
+    public int credit(Long userId, int amount) {
+        return apply(userId, amount, 0, false);
+    }
+
+    public int debit(Long userId, int amount) {
+        return apply(userId, -amount, 0, true);
+    }
+
+    /**
+     * Reserves coins for a hold. Fails like a debit if the balance not yet
+     * held does not cover the amount.
+     */
+    public void hold(Long userId, int amount) {
+        apply(userId, 0, amount, true);
+    }
+
+    /**
+     * Re-reserves a hold that is still open in the hold table, e.g. after a
+     * restart. No funds check: the coins were reserved before.
+     */
+    public void restoreHold(Long userId, int amount) {
+        apply(userId, 0, amount, false);
+    }
+
+    public void releaseHold(Long userId, int amount) {
+        apply(userId, 0, -amount, false);
+    }
+
+    /**
+     * Turns held coins into a debit in one step.
+     */
+    public int capture(Long userId, int amount) {
+        return apply(userId, -amount, -amount, false);
+    }
+
+    /**
+     * Undoes a credit/debit whose follow-up work failed. No funds check: a
+     * reverted credit may already have been spent.
+     */
+    public int revert(Long userId, int appliedDelta) {
+        return adjust(userId, -appliedDelta);
+    }
+
+    /**
+     * Unchecked correction, e.g. realigning a wallet with its ledger.
+     */
+    public int adjust(Long userId, int delta) {
+        return apply(userId, delta, 0, false);
+    }
+
+    /**
+     * In-memory balance if the wallet is loaded, without touching the DB.
+     */
+    public Integer cachedBalance(Long userId) {
+        BalanceCell cell = cells.get(userId);
+        return cell == null ? null : cell.balance();
+    }
+
+    public boolean isLoaded(Long userId) {
+        return cells.containsKey(userId);
+    }
+
+    /**
+     * Seeds the engine with a wallet that was just written to the table.
+     */
+    public void register(Long userId, int balance, LocalDateTime updatedAt) {
+        cells.put(userId, new BalanceCell(balance, updatedAt));
+        notifyListeners(userId, balance);
+    }
+
+    /**
+     * Loads every wallet not yet in memory with one IN query per chunk, so a
+     * bulk payout does not fall back to a findById per user.
+     */
+    public void preload(Collection<Long> userIds) {
+        List<Long> missing = userIds.stream()
+                .filter(userId -> userId != null && !cells.containsKey(userId))
+                .distinct()
+                .toList();
+
+        for (int from = 0; from < missing.size(); from += LOAD_CHUNK_SIZE) {
+            List<Long> chunk = missing.subList(from, Math.min(from + LOAD_CHUNK_SIZE, missing.size()));
+            long stamp = evictionStamp.get();
+            List<Long> stale = new ArrayList<>();
+            for (Wallet wallet : walletRepository.findAllById(chunk)) {
+                if (publish(wallet, stamp) == null) {
+                    stale.add(wallet.getUserId());
+                }
+            }
+            // rare: something was evicted mid-chunk, load those one at a time
+            for (Long userId : stale) {
+                loadLocked(userId);
+            }
+        }
+        evictIfOversized();
+    }
+
+    private int apply(Long userId, int delta, int heldDelta, boolean checkFunds) {
+        // Both steps run under the cell lock: the user is queued for flushing
+        // before its journal record exists, so a flush that has seen a seq
+        // is guaranteed to also see the user behind it.
+        BalanceCell.MutationHook hook = (newBalance, updatedAt) -> {
+            dirtyUsers.add(userId);
+            journal.append(userId, newBalance, updatedAt);
+            notifyListeners(userId, newBalance);
+        };
+        while (true) {
+            Integer balance = cell(userId).apply(delta, heldDelta, checkFunds, hook);
+            if (balance != null) {
+                return balance;
+            }
+        }
+    }
+
+    private void notifyListeners(Long userId, int balance) {
+        for (BalanceListener listener : listeners) {
+            listener.onBalanceChanged(userId, balance);
+        }
+    }
+
+    private BalanceCell cell(Long userId) {
+        BalanceCell cell = cells.get(userId);
+        if (cell != null) {
+            cacheHits.increment();
+            cell.touch();
+            return cell;
+        }
+        cacheMisses.increment();
+
+        // load outside the map so a slow query does not block other users
+        long stamp = evictionStamp.get();
+        long start = System.nanoTime();
+        Wallet wallet = walletRepository.findById(userId)
+                .orElseThrow(() -> new WalletRejectedException("Wallet not found"));
+        cacheLoad.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        BalanceCell published = publish(wallet, stamp);
+        if (published == null) {
+            published = loadLocked(userId);
+        }
+        evictIfOversized();
+        return published;
+    }
+
+    /**
+     * Installs a cell for a wallet row read after {@code stamp} was taken.
+     * Returns the cell now in the map, or null when a cell was evicted in
+     * the meantime: that may have been this user's, flushed after the row
+     * was read, so the row cannot be trusted.
+     */
+    private BalanceCell publish(Wallet wallet, long stamp) {
+        return cells.compute(wallet.getUserId(), (userId, existing) -> {
+            if (existing != null) {
+                return existing;
+            }
+            return evictionStamp.get() == stamp
+                    ? new BalanceCell(wallet.getBalance(), wallet.getUpdatedAt())
+                    : null;
+        });
+    }
+
+    /**
+     * Slow path for a load that raced with an eviction: reads the row while
+     * holding the map entry, so no eviction of this user can interleave.
+     */
+    private BalanceCell loadLocked(Long userId) {
+        return cells.computeIfAbsent(userId, id -> {
+            long start = System.nanoTime();
+            Wallet wallet = walletRepository.findById(id)
+                    .orElseThrow(() -> new WalletRejectedException("Wallet not found"));
+            cacheLoad.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return new BalanceCell(wallet.getBalance(), wallet.getUpdatedAt());
+        });
+    }
+
+    /**
+     * Drops clean wallets that have been idle for longer than the TTL, then
+     * the least recently used clean wallets until the engine is back under
+     * its size limit.
+     *
+     * @return number of wallets evicted
+     */
+    @Scheduled(fixedDelayString = "${wallet.cache.evict-interval-ms:1000}")
+    public int evict() {
+        flushLock.lock();
+        try {
+            return evictLocked();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // Loads between scheduled passes may overshoot the limit; past 10% the
+    // loading request trims the map itself, unless a flush is running.
+    private void evictIfOversized() {
+        if (cells.size() > cacheMaxSize + cacheMaxSize / 10 && flushLock.tryLock()) {
+            try {
+                evictLocked();
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    private int evictLocked() {
+        long now = System.nanoTime();
+        int evicted = 0;
+        for (Map.Entry<Long, BalanceCell> entry : cells.entrySet()) {
+            if (now - entry.getValue().lastAccessNanos() > cacheTtlNanos
+                    && evictCell(entry.getKey(), entry.getValue())) {
+                expiredEvictions.increment();
+                evicted++;
+            }
+        }
+
+        int overflow = cells.size() - cacheMaxSize;
+        if (overflow <= 0) {
+            return evicted;
+        }
+        List<Map.Entry<Long, BalanceCell>> byAccess = new ArrayList<>(cells.entrySet());
+        byAccess.sort(Comparator.comparingLong(entry -> entry.getValue().lastAccessNanos()));
+        for (Map.Entry<Long, BalanceCell> entry : byAccess) {
+            if (overflow <= 0) {
+                break;
+            }
+            if (evictCell(entry.getKey(), entry.getValue())) {
+                sizeEvictions.increment();
+                evicted++;
+                overflow--;
+            }
+        }
+        return evicted;
+    }
+
+    private boolean evictCell(Long userId, BalanceCell cell) {
+        if (!cell.retireIfClean()) {
+            return false;
+        }
+        evictionStamp.incrementAndGet();
+        cells.remove(userId, cell);
+        return true;
+    }
+
+    private double hitRatio() {
+        double hits = cacheHits.count();
+        double total = hits + cacheMisses.count();
+        return total == 0 ? 0 : hits / total;
+    }
+
+    /**
+     * Writes every balance changed since the last flush.
+     *
+     * @return number of wallet rows written
+     */
+    @Scheduled(fixedDelayString = "${wallet.engine.flush-interval-ms:200}")
+    public int flush() {
+        flushLock.lock();
+        try {
+            // every journal record up to here belongs to a user already queued
+            long journaledUpTo = journal.lastSeq();
+
+            List<BalanceUpdate> updates = new ArrayList<>();
+            List<Long> pendingSince = new ArrayList<>();
+            long oldestNanos = Long.MAX_VALUE;
+
+            Iterator<Long> it = dirtyUsers.iterator();
+            while (it.hasNext()) {
+                Long userId = it.next();
+                it.remove();
+
+                BalanceCell cell = cells.get(userId);
+                BalanceCell.Snapshot snapshot = cell == null ? null : cell.takeDirtySnapshot();
+                if (snapshot == null) {
+                    continue;
+                }
+                updates.add(new BalanceUpdate(userId, snapshot.balance, snapshot.updatedAt));
+                pendingSince.add(snapshot.dirtySinceNanos);
+                oldestNanos = Math.min(oldestNanos, snapshot.dirtySinceNanos);
+            }
+
+            if (updates.isEmpty()) {
+                journal.markApplied(journaledUpTo);
+                return 0;
+            }
+
+            long start = System.nanoTime();
+            try {
+                batchRepository.updateBalances(updates, flushBatchSize);
+            } catch (RuntimeException e) {
+                flushFailures.increment();
+                for (int i = 0; i < updates.size(); i++) {
+                    Long userId = updates.get(i).getUserId();
+                    cells.get(userId).restoreDirty(pendingSince.get(i));
+                    dirtyUsers.add(userId);
+                }
+                throw e;
+            }
+
+            journal.markApplied(journaledUpTo);
+
+            long end = System.nanoTime();
+            flushDuration.record(end - start, TimeUnit.NANOSECONDS);
+            flushLag.record(end - oldestNanos, TimeUnit.NANOSECONDS);
+            flushedRows.increment(updates.size());
+            return updates.size();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,15 @@
+package com.ecohub.rewardwallet.engine;
+
+/**
+ * A request the wallet turns down on its merits: insufficient balance, an
+ * unknown wallet, a hold that does not exist, has expired or has already
+ * ended, or invalid input. Retrying it unchanged gives the same answer, so
+ * controllers answer it with 409. Any other exception is the wallet failing
+ * (database, ledger, journal) and must surface as a 5xx.
+ */
+public class WalletRejectedException extends RuntimeException {
+
+    public WalletRejectedException(String message) {
+        super(message);
+    }
+}
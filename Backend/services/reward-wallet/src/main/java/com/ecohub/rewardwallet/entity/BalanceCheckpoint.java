@@ -0,0 +1,34 @@
+package com.ecohub.rewardwallet.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Ledger-derived balance of a user as of a given reward_transactions id.
+ * The balance at any later point is this plus the user's rows with a
+ * greater id.
+ */
+@Entity
+@Table(name="balance_checkpoints")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceCheckpoint {
+	@Id
+    private Long userId;
+
+    @Column(nullable = false)
+    private int balance;
+
+    // last reward_transactions.id folded into balance
+    @Column(nullable = false)
+    private long lastTransactionId;
+
+    private LocalDateTime createdAt;
+}
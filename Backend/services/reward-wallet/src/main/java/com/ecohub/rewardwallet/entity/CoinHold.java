@@ -0,0 +1,59 @@
+package com.ecohub.rewardwallet.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Coins reserved for a pending purchase. A hold ends exactly once: captured
+ * into a ledger debit, released, or expired by the sweeper.
+ */
+@Entity
+@Table(name="coin_holds", indexes = {
+        // sweeper: oldest open holds past their expiry
+        @Index(name = "idx_coin_hold_status_expires", columnList = "status, expires_at")
+}, uniqueConstraints = {
+        // a retried hold request with the same reference gets the same hold
+        @UniqueConstraint(name = "uk_coin_hold_user_reference", columnNames = {"user_id", "reference"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CoinHold {
+	@Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private int amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private HoldStatus status;
+
+    // caller's idempotency key, e.g. the order reference
+    private String reference;
+
+    // ledger source used when the hold is captured
+    private String source;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime expiresAt;
+
+    private LocalDateTime updatedAt;
+
+    // reference of the ledger debit a capture writes; the SQL in
+    // CoinHoldRepository and CoinHoldBatchRepository builds the same string
+    public static String captureReference(Long holdId) {
+        return "hold-" + holdId;
+    }
+}
@@ -0,0 +1,8 @@
+package com.ecohub.rewardwallet.entity;
+
+public enum HoldStatus {
+    HELD,
+    CAPTURED,
+    RELEASED,
+    EXPIRED
+}
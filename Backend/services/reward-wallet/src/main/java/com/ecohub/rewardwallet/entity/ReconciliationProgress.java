@@ -0,0 +1,40 @@
+package com.ecohub.rewardwallet.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Where the wallet/ledger reconciliation got to, so a stopped or crashed run
+ * can pick up after the last fully checked userId.
+ */
+@Entity
+@Table(name="reconciliation_progress")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliationProgress {
+	@Id
+    private String jobName;
+
+    // every wallet up to and including this userId has been checked
+    private Long lastUserId;
+
+    private long walletsChecked;
+
+    private long driftCount;
+
+    // wallets with a balance but no ledger rows, not compared
+    private long walletsWithoutLedger;
+
+    private boolean finished;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime updatedAt;
+}
@@ -9,7 +9,15 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name="reward_transactions")
+@Table(name="reward_transactions", indexes = {
+        // keyset pagination of a user's history: (user_id, created_at, id)
+        @Index(name = "idx_reward_tx_user_created_id", columnList = "user_id, created_at, id"),
+        // covering index for summing a user's ledger tail past a checkpoint id
+        @Index(name = "idx_reward_tx_user_id_amount", columnList = "user_id, id, type, amount")
+}, uniqueConstraints = {
+        // a bulk entry retried with the same reference is applied once
+        @UniqueConstraint(name = "uk_reward_tx_reference", columnNames = "reference")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -32,4 +40,8 @@ public class RewardTransaction {
     private String description;
 
     private LocalDateTime createdAt;
+
+    // caller's idempotency key for bulk entries, null otherwise
+    @Column(length = 100)
+    private String reference;
 }
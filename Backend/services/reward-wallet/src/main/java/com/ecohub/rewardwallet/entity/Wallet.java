@@ -2,8 +2,9 @@ package com.ecohub.rewardwallet.entity;
 
 import java.time.LocalDateTime;
 
+import org.springframework.data.domain.Persistable;
+
 import jakarta.persistence.*;
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -13,14 +14,39 @@ import lombok.Setter;
 @Getter
 @Setter
 @NoArgsConstructor
-@AllArgsConstructor
-public class Wallet {
+public class Wallet implements Persistable<Long> {
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long userId;   // SAME userId from auth-service
+    private Long userId;   // SAME userId from auth-service, assigned not generated
 
     @Column(nullable = false)
     private int balance;
 
     private LocalDateTime updatedAt;
+
+    // Lets save()/saveAll() persist new wallets directly instead of merging,
+    // which would cost a SELECT per row and defeat insert batching.
+    @Transient
+    private boolean newWallet = true;
+
+    public Wallet(Long userId, int balance, LocalDateTime updatedAt) {
+        this.userId = userId;
+        this.balance = balance;
+        this.updatedAt = updatedAt;
+    }
+
+    @Override
+    public Long getId() {
+        return userId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newWallet;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.newWallet = false;
+    }
 }
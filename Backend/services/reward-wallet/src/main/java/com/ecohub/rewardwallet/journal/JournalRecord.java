@@ -0,0 +1,38 @@
+package com.ecohub.rewardwallet.journal;
+
+import java.time.LocalDateTime;
+
+/**
+ * One wallet mutation as written to the journal. The balance is the absolute
+ * value after the mutation, so replaying a record more than once is harmless.
+ */
+public class JournalRecord {
+
+    private final long seq;
+    private final long userId;
+    private final int balance;
+    private final LocalDateTime updatedAt;
+
+    public JournalRecord(long seq, long userId, int balance, LocalDateTime updatedAt) {
+        this.seq = seq;
+        this.userId = userId;
+        this.balance = balance;
+        this.updatedAt = updatedAt;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public int getBalance() {
+        return balance;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
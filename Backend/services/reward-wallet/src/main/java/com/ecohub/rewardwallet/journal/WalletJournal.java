@@ -0,0 +1,259 @@
+package com.ecohub.rewardwallet.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Local write-ahead journal for wallet balance changes.
+ *
+ * Each credit/debit is appended as a fixed-size, CRC-checked record to a
+ * memory-mapped segment file before it is acknowledged, which makes it
+ * survive a process crash without waiting for a MySQL commit. The balance
+ * engine writes balances to MySQL asynchronously and reports how far it got
+ * through {@link #markApplied(long)}; segments that are entirely applied are
+ * then deleted.
+ *
+ * On startup every record left in the directory is read back (stopping at
+ * the first torn or empty slot of each segment) so the engine can replay
+ * them before the service takes traffic.
+ *
+ * Writes to the mapping land in the OS page cache, which covers a killed
+ * process. Surviving a power loss needs force-on-append, at the cost of an
+ * msync per mutation.
+ */
+@Component
+public class WalletJournal {
+
+    static final int RECORD_BYTES = 32;
+    private static final int CRC_OFFSET = 28;
+    private static final String SEGMENT_PREFIX = "wallet-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final boolean forceOnAppend;
+
+    // closed segments, oldest first, with the last seq each one holds
+    private final List<Segment> closedSegments = new ArrayList<>();
+    private final Map<Long, JournalRecord> recovered = new LinkedHashMap<>();
+
+    private Segment active;
+    private final CRC32 crc = new CRC32();
+    private volatile long lastSeq;
+    private volatile long appliedSeq;
+
+    private final Counter appends;
+
+    public WalletJournal(
+            @Value("${wallet.journal.dir:data/wallet-journal}") String directory,
+            @Value("${wallet.journal.segment-bytes:67108864}") int segmentBytes,
+            @Value("${wallet.journal.force-on-append:false}") boolean forceOnAppend,
+            MeterRegistry meterRegistry) {
+        this.directory = Paths.get(directory);
+        this.segmentBytes = segmentBytes - segmentBytes % RECORD_BYTES;
+        this.forceOnAppend = forceOnAppend;
+
+        this.appends = Counter.builder("wallet.journal.appends").register(meterRegistry);
+        meterRegistry.gauge("wallet.journal.segments", this, journal -> journal.segmentCount());
+        meterRegistry.gauge("wallet.journal.unapplied", this, journal -> journal.lastSeq - journal.appliedSeq);
+
+        try {
+            Files.createDirectories(this.directory);
+            recover();
+            openSegment(lastSeq + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open wallet journal in " + this.directory, e);
+        }
+    }
+
+    /**
+     * Latest balance per user found in the journal at startup, in the order
+     * the users were last touched. Empty once the service has been running.
+     */
+    public synchronized Collection<JournalRecord> recoveredRecords() {
+        return new ArrayList<>(recovered.values());
+    }
+
+    /**
+     * Appends one mutation and returns its sequence number.
+     */
+    public synchronized long append(long userId, int balance, LocalDateTime updatedAt) {
+        if (!active.buffer.hasRemaining()) {
+            rollSegment();
+        }
+
+        long seq = lastSeq + 1;
+        MappedByteBuffer buffer = active.buffer;
+        int start = buffer.position();
+        buffer.putLong(seq);
+        buffer.putLong(userId);
+        buffer.putInt(balance);
+        buffer.putLong(updatedAt.toInstant(ZoneOffset.UTC).toEpochMilli());
+
+        crc.reset();
+        crc.update(buffer.duplicate().position(start).limit(start + CRC_OFFSET));
+        buffer.putInt((int) crc.getValue());
+
+        if (forceOnAppend) {
+            buffer.force(start, RECORD_BYTES);
+        }
+        active.lastSeq = seq;
+        lastSeq = seq;
+        appends.increment();
+        return seq;
+    }
+
+    public long lastSeq() {
+        return lastSeq;
+    }
+
+    /**
+     * Records that every mutation up to and including {@code seq} is in
+     * MySQL, and deletes the closed segments that hold nothing newer.
+     */
+    public synchronized void markApplied(long seq) {
+        if (seq <= appliedSeq) {
+            return;
+        }
+        appliedSeq = seq;
+        recovered.clear();
+
+        while (!closedSegments.isEmpty() && closedSegments.get(0).lastSeq <= seq) {
+            Segment segment = closedSegments.get(0);
+            try {
+                Files.deleteIfExists(segment.path);
+            } catch (IOException e) {
+                // still mapped on some platforms; try again on the next flush
+                System.out.println("Could not delete journal segment " + segment.path + ": " + e.getMessage());
+                return;
+            }
+            closedSegments.remove(0);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        active.buffer.force();
+    }
+
+    synchronized int segmentCount() {
+        return closedSegments.size() + 1;
+    }
+
+    private void rollSegment() {
+        active.buffer.force();
+        closedSegments.add(active);
+        try {
+            openSegment(lastSeq + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not roll wallet journal segment", e);
+        }
+    }
+
+    private void openSegment(long firstSeq) throws IOException {
+        Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSeq, SEGMENT_SUFFIX));
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            active = new Segment(path, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes));
+        }
+        active.lastSeq = firstSeq - 1;
+    }
+
+    private void recover() throws IOException {
+        List<Path> segments;
+        try (Stream<Path> files = Files.list(directory)) {
+            segments = files
+                    .filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+
+        for (Path path : segments) {
+            long seqBefore = lastSeq;
+            Segment segment = new Segment(path, null);
+            segment.lastSeq = lastSeq;
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                JournalRecord record;
+                while ((record = readRecord(buffer)) != null) {
+                    if (record.getSeq() <= lastSeq) {
+                        break;
+                    }
+                    recovered.remove(record.getUserId());
+                    recovered.put(record.getUserId(), record);
+                    lastSeq = record.getSeq();
+                    segment.lastSeq = lastSeq;
+                }
+            }
+            if (segment.lastSeq == seqBefore) {
+                // rolled but never written to; the next segment may reuse its name
+                Files.delete(path);
+                continue;
+            }
+            closedSegments.add(segment);
+        }
+    }
+
+    /**
+     * Reads the next record, or returns null at the end of the written part
+     * of the segment: an empty slot or one whose checksum does not match
+     * because the writer died halfway through it.
+     */
+    private JournalRecord readRecord(ByteBuffer buffer) {
+        if (buffer.remaining() < RECORD_BYTES) {
+            return null;
+        }
+        int start = buffer.position();
+        long seq = buffer.getLong();
+        long userId = buffer.getLong();
+        int balance = buffer.getInt();
+        long updatedAtMillis = buffer.getLong();
+        int storedCrc = buffer.getInt();
+
+        crc.reset();
+        crc.update(buffer.duplicate().position(start).limit(start + CRC_OFFSET));
+        if (seq == 0 || storedCrc != (int) crc.getValue()) {
+            return null;
+        }
+        LocalDateTime updatedAt = LocalDateTime.ofEpochSecond(
+                Math.floorDiv(updatedAtMillis, 1000), (int) Math.floorMod(updatedAtMillis, 1000) * 1_000_000,
+                ZoneOffset.UTC);
+        return new JournalRecord(seq, userId, balance, updatedAt);
+    }
+
+    private static final class Segment {
+
+        final Path path;
+        final MappedByteBuffer buffer;
+        long lastSeq;
+
+        Segment(Path path, MappedByteBuffer buffer) {
+            this.path = path;
+            this.buffer = buffer;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.ecohub.rewardwallet.leaderboard;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.ecohub.rewardwallet.dto.LeaderboardEntryDto;
+import com.ecohub.rewardwallet.dto.LeaderboardPositionDto;
+import com.ecohub.rewardwallet.engine.BalanceListener;
+import com.ecohub.rewardwallet.repository.WalletBalanceRow;
+import com.ecohub.rewardwallet.repository.WalletRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * "Top eco-savers" ranking by coin balance, kept in memory and updated by
+ * the balance engine on every credit/debit instead of sorting the wallet
+ * table per request. Top-N, a user's rank and the users around them are
+ * O(log n) per entry returned.
+ *
+ * The engine reports balances while holding the user's cell lock, so a
+ * report only records the latest balance per user in a concurrent map; the
+ * tree is brought up to date from it under the write lock by a scheduled
+ * drain and by any read that finds it non-empty. Wallet mutations never
+ * wait for each other on the leaderboard.
+ */
+@Component
+public class CoinLeaderboard implements BalanceListener {
+
+    private static final int REBUILD_CHUNK_SIZE = 5000;
+    private static final int MAX_LIMIT = 100;
+
+    private final WalletRepository walletRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> balances = new HashMap<>();
+    private final OrderStatisticTree tree = new OrderStatisticTree();
+
+    // latest reported balance per user, not yet in the tree
+    private final ConcurrentHashMap<Long, Integer> pending = new ConcurrentHashMap<>();
+
+    public CoinLeaderboard(WalletRepository walletRepository, MeterRegistry meterRegistry) {
+        this.walletRepository = walletRepository;
+        meterRegistry.gauge("wallet.leaderboard.size", this, CoinLeaderboard::size);
+        meterRegistry.gauge("wallet.leaderboard.pending", pending, ConcurrentHashMap::size);
+    }
+
+    /**
+     * Loads every wallet in userId chunks. Users the engine has already
+     * reported keep that (newer) balance.
+     *
+     * Waits for the application to be ready rather than running at
+     * construction: the engine is built with this listener and replays its
+     * journal into the wallet table afterwards, so an earlier load would
+     * show pre-crash balances until each user's next mutation.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Long afterUserId = 0L;
+        while (true) {
+            List<WalletBalanceRow> rows =
+                    walletRepository.findBalancesAfter(afterUserId, PageRequest.of(0, REBUILD_CHUNK_SIZE));
+            if (rows.isEmpty()) {
+                return;
+            }
+            lock.writeLock().lock();
+            try {
+                for (WalletBalanceRow row : rows) {
+                    if (balances.putIfAbsent(row.getUserId(), row.getBalance()) == null) {
+                        tree.insert(row.getUserId(), row.getBalance());
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            afterUserId = rows.get(rows.size() - 1).getUserId();
+        }
+    }
+
+    @Override
+    public void onBalanceChanged(Long userId, int balance) {
+        pending.put(userId, balance);
+    }
+
+    /**
+     * Moves the queued balances into the tree. A balance reported again
+     * while this runs is left queued for the next drain, so each user still
+     * ends on their latest balance.
+     */
+    @Scheduled(fixedDelayString = "${wallet.leaderboard.apply-interval-ms:100}")
+    public void applyPending() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (Long userId : pending.keySet()) {
+                Integer balance = pending.remove(userId);
+                if (balance == null) {
+                    continue;
+                }
+                Integer previous = balances.put(userId, balance);
+                if (previous != null) {
+                    tree.remove(userId, previous);
+                }
+                tree.insert(userId, balance);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<LeaderboardEntryDto> top(int limit) {
+        checkLimit(limit);
+        applyPending();
+        lock.readLock().lock();
+        try {
+            return entries(0, Math.min(limit, tree.size()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public LeaderboardPositionDto position(Long userId, int radius) {
+        checkLimit(radius * 2 + 1);
+        applyPending();
+        lock.readLock().lock();
+        try {
+            Integer balance = balances.get(userId);
+            if (balance == null) {
+                throw new RuntimeException("Wallet not found");
+            }
+            int index = tree.rankOf(userId, balance);
+            int from = Math.max(0, index - radius);
+            int to = Math.min(tree.size(), index + radius + 1);
+            return new LeaderboardPositionDto(new LeaderboardEntryDto(index + 1, userId, balance),
+                    tree.size(), entries(from, to));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        applyPending();
+        lock.readLock().lock();
+        try {
+            return tree.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<LeaderboardEntryDto> entries(int from, int to) {
+        List<LeaderboardEntryDto> entries = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            OrderStatisticTree.Entry entry = tree.get(i);
+            entries.add(new LeaderboardEntryDto(i + 1, entry.userId, entry.balance));
+        }
+        return entries;
+    }
+
+    private static void checkLimit(int count) {
+        if (count < 1 || count > MAX_LIMIT) {
+            throw new RuntimeException("Leaderboard window must be between 1 and " + MAX_LIMIT + " users");
+        }
+    }
+}
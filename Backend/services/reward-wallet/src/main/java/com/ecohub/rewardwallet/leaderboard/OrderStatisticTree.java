@@ -0,0 +1,146 @@
+package com.ecohub.rewardwallet.leaderboard;
+
+import java.util.SplittableRandom;
+
+/**
+ * Treap of (userId, balance) ordered by balance descending, then userId, with
+ * subtree sizes so rank and k-th lookups are O(log n). Not thread-safe.
+ */
+final class OrderStatisticTree {
+
+    private final SplittableRandom random = new SplittableRandom(42);
+    private Node root;
+
+    int size() {
+        return size(root);
+    }
+
+    void insert(long userId, int balance) {
+        Node[] parts = split(root, balance, userId);
+        root = merge(merge(parts[0], new Node(userId, balance, random.nextInt())), parts[1]);
+    }
+
+    void remove(long userId, int balance) {
+        Node[] lower = split(root, balance, userId);
+        // (balance, userId + 1) is the key right after this one
+        Node[] upper = split(lower[1], balance, userId + 1);
+        root = merge(lower[0], upper[1]);
+    }
+
+    /**
+     * Number of entries ranked ahead of the given one (0 for the leader).
+     */
+    int rankOf(long userId, int balance) {
+        int rank = 0;
+        Node node = root;
+        while (node != null) {
+            int cmp = compare(node.balance, node.userId, balance, userId);
+            if (cmp < 0) {
+                rank += size(node.left) + 1;
+                node = node.right;
+            } else if (cmp > 0) {
+                node = node.left;
+            } else {
+                return rank + size(node.left);
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Entry at 0-based position {@code index}.
+     */
+    Entry get(int index) {
+        Node node = root;
+        while (node != null) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return new Entry(node.userId, node.balance);
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+        throw new IndexOutOfBoundsException();
+    }
+
+    private static int compare(int balanceA, long userA, int balanceB, long userB) {
+        if (balanceA != balanceB) {
+            return balanceA > balanceB ? -1 : 1;
+        }
+        return Long.compare(userA, userB);
+    }
+
+    /**
+     * Splits into entries ordered before (balance, userId) and the rest.
+     */
+    private static Node[] split(Node node, int balance, long userId) {
+        if (node == null) {
+            return new Node[] {null, null};
+        }
+        if (compare(node.balance, node.userId, balance, userId) < 0) {
+            Node[] parts = split(node.right, balance, userId);
+            node.right = parts[0];
+            node.update();
+            return new Node[] {node, parts[1]};
+        }
+        Node[] parts = split(node.left, balance, userId);
+        node.left = parts[1];
+        node.update();
+        return new Node[] {parts[0], node};
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    static final class Entry {
+
+        final long userId;
+        final int balance;
+
+        Entry(long userId, int balance) {
+            this.userId = userId;
+            this.balance = balance;
+        }
+    }
+
+    private static final class Node {
+
+        final long userId;
+        final int balance;
+        final int priority;
+        int size = 1;
+        Node left;
+        Node right;
+
+        Node(long userId, int balance, int priority) {
+            this.userId = userId;
+            this.balance = balance;
+            this.priority = priority;
+        }
+
+        void update() {
+            size = 1 + OrderStatisticTree.size(left) + OrderStatisticTree.size(right);
+        }
+    }
+}
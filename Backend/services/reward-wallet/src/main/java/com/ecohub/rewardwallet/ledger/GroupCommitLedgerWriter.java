@@ -0,0 +1,223 @@
+package com.ecohub.rewardwallet.ledger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.ecohub.rewardwallet.entity.RewardTransaction;
+import com.ecohub.rewardwallet.repository.RewardTransactionBatchRepository;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Appends RewardTransaction rows with group commit.
+ *
+ * Callers hand their entries to a single writer thread and block until the
+ * batch containing them has been committed. The writer takes whatever has
+ * queued up (waiting at most max-wait-ms for stragglers) and writes it as one
+ * multi-row insert, so concurrent credits/debits share a commit instead of
+ * paying for one each.
+ *
+ * Each appendAll call is one unit: its rows always land in the same commit
+ * and succeed or fail together. Units carrying a reference are inserted under
+ * their own savepoint, so a reference that already exists (a retry that raced
+ * its original on another node) fails only the request that sent it.
+ */
+@Component
+public class GroupCommitLedgerWriter {
+
+    private final RewardTransactionBatchRepository batchRepository;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+
+    private final BlockingQueue<PendingEntry> queue = new LinkedBlockingQueue<>();
+    private volatile boolean running;
+    private Thread writerThread;
+
+    private final DistributionSummary batchSize;
+    private final Timer commitTimer;
+
+    public GroupCommitLedgerWriter(
+            RewardTransactionBatchRepository batchRepository,
+            MeterRegistry meterRegistry,
+            @Value("${wallet.ledger.max-batch-size:1000}") int maxBatchSize,
+            @Value("${wallet.ledger.max-wait-ms:2}") long maxWaitMs) {
+        this.batchRepository = batchRepository;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+
+        this.batchSize = DistributionSummary.builder("wallet.ledger.batch.size")
+                .register(meterRegistry);
+        this.commitTimer = Timer.builder("wallet.ledger.commit")
+                .register(meterRegistry);
+        meterRegistry.gauge("wallet.ledger.queue", queue, BlockingQueue::size);
+    }
+
+    @PostConstruct
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        writerThread = new Thread(this::runLoop, "ledger-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        running = false;
+        if (writerThread != null) {
+            writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    public void append(RewardTransaction transaction) {
+        appendAll(List.of(transaction));
+    }
+
+    /**
+     * Queues the entries and returns once all of them are durable. The
+     * entries are committed together or not at all.
+     */
+    public void appendAll(List<RewardTransaction> transactions) {
+        if (!running) {
+            throw new RuntimeException("Ledger writer is not running");
+        }
+        if (transactions.isEmpty()) {
+            return;
+        }
+
+        PendingEntry entry = new PendingEntry(List.copyOf(transactions));
+        queue.add(entry);
+
+        try {
+            entry.committed.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for ledger commit");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Ledger write failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    int queued() {
+        return queue.size();
+    }
+
+    private void runLoop() {
+        List<PendingEntry> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingEntry first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                collect(batch);
+                commit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+
+        // nothing will commit these any more
+        PendingEntry left;
+        while ((left = queue.poll()) != null) {
+            left.committed.completeExceptionally(new IllegalStateException("Ledger writer stopped"));
+        }
+    }
+
+    // Units are never split, so a batch stops taking units once it holds
+    // max-batch-size rows rather than at exactly that many.
+    private void collect(List<PendingEntry> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + maxWaitNanos;
+        int rows = batch.get(0).transactions.size();
+        while (rows < maxBatchSize) {
+            PendingEntry next = queue.poll();
+            if (next == null) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return;
+                }
+                next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                if (next == null) {
+                    return;
+                }
+            }
+            batch.add(next);
+            rows += next.transactions.size();
+        }
+    }
+
+    private void commit(List<PendingEntry> batch) {
+        List<RewardTransaction> rows = new ArrayList<>();
+        List<List<RewardTransaction>> referencedGroups = new ArrayList<>();
+        List<PendingEntry> referencedEntries = new ArrayList<>();
+        for (PendingEntry entry : batch) {
+            if (entry.referenced()) {
+                referencedGroups.add(entry.transactions);
+                referencedEntries.add(entry);
+            } else {
+                rows.addAll(entry.transactions);
+            }
+        }
+
+        long start = System.nanoTime();
+        Set<Integer> rejected;
+        try {
+            rejected = batchRepository.insertAll(rows, referencedGroups);
+        } catch (RuntimeException e) {
+            for (PendingEntry entry : batch) {
+                entry.committed.completeExceptionally(e);
+            }
+            return;
+        }
+        commitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        batchSize.record(rows.size() + referencedGroups.stream().mapToInt(List::size).sum());
+
+        for (int i = 0; i < referencedEntries.size(); i++) {
+            if (rejected.contains(i)) {
+                referencedEntries.get(i).committed.completeExceptionally(
+                        new IllegalStateException("Reference already in the ledger"));
+            }
+        }
+        for (PendingEntry entry : batch) {
+            entry.committed.complete(null);
+        }
+    }
+
+    private static final class PendingEntry {
+
+        final List<RewardTransaction> transactions;
+        final CompletableFuture<Void> committed = new CompletableFuture<>();
+
+        PendingEntry(List<RewardTransaction> transactions) {
+            this.transactions = transactions;
+        }
+
+        boolean referenced() {
+            for (RewardTransaction transaction : transactions) {
+                if (transaction.getReference() != null) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
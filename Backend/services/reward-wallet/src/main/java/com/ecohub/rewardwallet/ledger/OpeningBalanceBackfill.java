@@ -0,0 +1,70 @@
+package com.ecohub.rewardwallet.ledger;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import com.ecohub.rewardwallet.engine.WalletBalanceEngine;
+import com.ecohub.rewardwallet.repository.RewardTransactionBatchRepository;
+import com.ecohub.rewardwallet.repository.WalletRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Gives wallets that predate the ledger an opening row.
+ *
+ * Balances were kept without any reward_transactions rows before the ledger
+ * was written, so for those wallets "sum of the ledger" is 0 and checkpoint
+ * verify/rebuild and reconciliation would treat their whole balance as
+ * drift. Every wallet without a single ledger row gets one CREDIT (DEBIT if
+ * negative) for its current balance, referenced "opening-{userId}".
+ *
+ * Runs on startup, before traffic, and after the balance engine has
+ * replayed its journal into the wallet table, so the opening row matches
+ * the last acknowledged balance. Later startups find nothing to insert.
+ */
+@Component
+public class OpeningBalanceBackfill {
+
+    public static final String SOURCE = "OPENING_BALANCE";
+    public static final String REFERENCE_PREFIX = "opening-";
+
+    private final WalletRepository walletRepository;
+    private final RewardTransactionBatchRepository batchRepository;
+    private final int chunkSize;
+
+    // the engine is injected only to order this after its journal recovery
+    public OpeningBalanceBackfill(
+            WalletRepository walletRepository,
+            RewardTransactionBatchRepository batchRepository,
+            WalletBalanceEngine balanceEngine,
+            @Value("${wallet.ledger.opening-backfill-chunk-size:5000}") int chunkSize) {
+        this.walletRepository = walletRepository;
+        this.batchRepository = batchRepository;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * @return number of opening rows written
+     */
+    @PostConstruct
+    public int backfill() {
+        int written = 0;
+        Long afterUserId = 0L;
+        while (true) {
+            List<Long> userIds = walletRepository.findUserIdsAfter(afterUserId, PageRequest.of(0, chunkSize));
+            if (userIds.isEmpty()) {
+                break;
+            }
+            Long toUserId = userIds.get(userIds.size() - 1);
+            written += batchRepository.insertOpeningBalances(afterUserId, toUserId, SOURCE, REFERENCE_PREFIX);
+            afterUserId = toUserId;
+        }
+        if (written > 0) {
+            System.out.println("Wrote opening ledger balances for " + written + " wallets");
+        }
+        return written;
+    }
+}
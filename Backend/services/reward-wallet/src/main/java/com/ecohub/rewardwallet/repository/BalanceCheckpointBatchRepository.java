@@ -0,0 +1,43 @@
+package com.ecohub.rewardwallet.repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ecohub.rewardwallet.entity.BalanceCheckpoint;
+
+@Repository
+public class BalanceCheckpointBatchRepository {
+
+    // only ever moves a checkpoint forward; balance is assigned first because
+    // MySQL evaluates the assignments left to right
+    private static final String UPSERT_SQL =
+            "INSERT INTO balance_checkpoints (user_id, balance, last_transaction_id, created_at) "
+                    + "VALUES (?, ?, ?, ?) "
+                    + "ON DUPLICATE KEY UPDATE "
+                    + "balance = IF(VALUES(last_transaction_id) > last_transaction_id, VALUES(balance), balance), "
+                    + "created_at = IF(VALUES(last_transaction_id) > last_transaction_id, VALUES(created_at), created_at), "
+                    + "last_transaction_id = GREATEST(last_transaction_id, VALUES(last_transaction_id))";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BalanceCheckpointBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Transactional
+    public void upsertAll(List<BalanceCheckpoint> checkpoints) {
+        if (checkpoints.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, checkpoints, checkpoints.size(), (ps, checkpoint) -> {
+            ps.setLong(1, checkpoint.getUserId());
+            ps.setInt(2, checkpoint.getBalance());
+            ps.setLong(3, checkpoint.getLastTransactionId());
+            ps.setTimestamp(4, Timestamp.valueOf(checkpoint.getCreatedAt()));
+        });
+    }
+}
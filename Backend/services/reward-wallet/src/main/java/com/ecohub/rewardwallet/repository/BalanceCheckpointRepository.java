@@ -0,0 +1,8 @@
+package com.ecohub.rewardwallet.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.ecohub.rewardwallet.entity.BalanceCheckpoint;
+
+public interface BalanceCheckpointRepository extends JpaRepository<BalanceCheckpoint, Long> {
+}
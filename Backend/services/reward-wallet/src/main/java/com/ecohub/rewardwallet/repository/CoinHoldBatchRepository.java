@@ -0,0 +1,88 @@
+package com.ecohub.rewardwallet.repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public class CoinHoldBatchRepository {
+
+    // SKIP LOCKED: a hold being captured or released right now is left alone.
+    // A hold with its capture debit in the ledger is captured, not expired.
+    private static final String LOCK_EXPIRED_SQL =
+            "SELECT h.id, h.user_id, h.amount FROM coin_holds h "
+                    + "WHERE h.status = 'HELD' AND h.expires_at <= ? "
+                    + "AND NOT EXISTS (SELECT 1 FROM reward_transactions t "
+                    + "WHERE t.reference = CONCAT('hold-', h.id)) "
+                    + "ORDER BY h.expires_at LIMIT ? "
+                    + "FOR UPDATE OF h SKIP LOCKED";
+
+    // holds whose capture committed its ledger debit but not its status
+    private static final String SETTLE_ALL_CAPTURED_SQL =
+            "UPDATE coin_holds h "
+                    + "JOIN reward_transactions t ON t.reference = CONCAT('hold-', h.id) "
+                    + "SET h.status = 'CAPTURED', h.updated_at = ? "
+                    + "WHERE h.status = 'HELD'";
+
+    private static final String SETTLE_CAPTURED_SQL = SETTLE_ALL_CAPTURED_SQL + " AND h.expires_at <= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CoinHoldBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Marks up to {@code limit} overdue open holds EXPIRED in one transaction
+     * and returns them, so the caller can give the coins back once it has
+     * committed.
+     */
+    @Transactional
+    public List<HeldTotal> expireDue(LocalDateTime now, int limit) {
+        List<Long> ids = new ArrayList<>();
+        List<HeldTotal> expired = jdbcTemplate.query(LOCK_EXPIRED_SQL, (rs, rowNum) -> {
+            ids.add(rs.getLong("id"));
+            return new HeldTotal(rs.getLong("user_id"), rs.getLong("amount"));
+        }, Timestamp.valueOf(now), limit);
+        if (ids.isEmpty()) {
+            return expired;
+        }
+
+        String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+        List<Object> args = new ArrayList<>(ids.size() + 1);
+        args.add(Timestamp.valueOf(now));
+        args.addAll(ids);
+        jdbcTemplate.update("UPDATE coin_holds SET status = 'EXPIRED', updated_at = ? WHERE id IN ("
+                + placeholders + ")", args.toArray());
+        return expired;
+    }
+
+    /**
+     * Marks overdue open holds CAPTURED when their capture debit is already
+     * in the ledger.
+     *
+     * @return number of holds settled
+     */
+    @Transactional
+    public int settleCaptured(LocalDateTime now) {
+        return jdbcTemplate.update(SETTLE_CAPTURED_SQL, Timestamp.valueOf(now), Timestamp.valueOf(now));
+    }
+
+    /**
+     * Marks every open hold CAPTURED whose capture debit is already in the
+     * ledger, overdue or not. Only for startup, once their engine side has
+     * been finished.
+     *
+     * @return number of holds settled
+     */
+    @Transactional
+    public int settleAllCaptured(LocalDateTime now) {
+        return jdbcTemplate.update(SETTLE_ALL_CAPTURED_SQL, Timestamp.valueOf(now));
+    }
+}
@@ -0,0 +1,56 @@
+package com.ecohub.rewardwallet.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.ecohub.rewardwallet.entity.CoinHold;
+
+import jakarta.persistence.LockModeType;
+
+public interface CoinHoldRepository extends JpaRepository<CoinHold, Long> {
+
+    Optional<CoinHold> findByUserIdAndReference(Long userId, String reference);
+
+    /**
+     * Locks the hold row until the transaction ends, so a capture, a release
+     * and the sweeper never end the same hold twice.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM CoinHold h WHERE h.id = :id")
+    Optional<CoinHold> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Coins reserved per user by open holds. A hold whose capture debit is
+     * already in the ledger is not reserved any more, whatever its status.
+     */
+    @Query("""
+            SELECT new com.ecohub.rewardwallet.repository.HeldTotal(h.userId, SUM(h.amount))
+            FROM CoinHold h
+            WHERE h.status = com.ecohub.rewardwallet.entity.HoldStatus.HELD
+              AND NOT EXISTS (
+                  SELECT t.id FROM RewardTransaction t
+                  WHERE t.reference = CONCAT('hold-', CAST(h.id AS String)))
+            GROUP BY h.userId
+            """)
+    List<HeldTotal> sumOpenHolds();
+
+    /**
+     * Per user, the holds still HELD whose capture debit is already in the
+     * ledger, i.e. captures that were interrupted before the status changed.
+     */
+    @Query("""
+            SELECT new com.ecohub.rewardwallet.repository.HeldTotal(h.userId, SUM(h.amount))
+            FROM CoinHold h
+            WHERE h.status = com.ecohub.rewardwallet.entity.HoldStatus.HELD
+              AND EXISTS (
+                  SELECT t.id FROM RewardTransaction t
+                  WHERE t.reference = CONCAT('hold-', CAST(h.id AS String)))
+            GROUP BY h.userId
+            """)
+    List<HeldTotal> sumInterruptedCaptures();
+}
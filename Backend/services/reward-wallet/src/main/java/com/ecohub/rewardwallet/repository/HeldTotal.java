@@ -0,0 +1,23 @@
+package com.ecohub.rewardwallet.repository;
+
+/**
+ * Sum of a user's open holds.
+ */
+public class HeldTotal {
+
+    private final Long userId;
+    private final long held;
+
+    public HeldTotal(Long userId, Long held) {
+        this.userId = userId;
+        this.held = held == null ? 0 : held;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public long getHeld() {
+        return held;
+    }
+}
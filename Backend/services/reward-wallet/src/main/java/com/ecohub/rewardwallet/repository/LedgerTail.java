@@ -0,0 +1,36 @@
+package com.ecohub.rewardwallet.repository;
+
+/**
+ * Net effect of a run of a user's ledger rows: credits minus debits, the
+ * highest id seen and how many rows it took.
+ */
+public class LedgerTail {
+
+    private final Long userId;
+    private final long delta;
+    private final long lastTransactionId;
+    private final long rows;
+
+    public LedgerTail(Long userId, Long delta, Long lastTransactionId, Long rows) {
+        this.userId = userId;
+        this.delta = delta == null ? 0 : delta;
+        this.lastTransactionId = lastTransactionId == null ? 0 : lastTransactionId;
+        this.rows = rows == null ? 0 : rows;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public long getDelta() {
+        return delta;
+    }
+
+    public long getLastTransactionId() {
+        return lastTransactionId;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+}
@@ -0,0 +1,8 @@
+package com.ecohub.rewardwallet.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.ecohub.rewardwallet.entity.ReconciliationProgress;
+
+public interface ReconciliationProgressRepository extends JpaRepository<ReconciliationProgress, String> {
+}
@@ -0,0 +1,101 @@
+package com.ecohub.rewardwallet.repository;
+
+import java.sql.Timestamp;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ecohub.rewardwallet.entity.RewardTransaction;
+
+/**
+ * Multi-row insert path for the ledger. RewardTransaction keeps its IDENTITY
+ * id, which stops Hibernate from batching, so the group-commit writer goes
+ * through JDBC directly and lets MySQL assign the ids.
+ */
+@Repository
+public class RewardTransactionBatchRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO reward_transactions (user_id, type, amount, source, description, created_at, reference) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    // One row per wallet in (afterUserId, toUserId] that has no ledger rows
+    // at all, carrying its current balance. The reference makes a second run
+    // (or a second node) insert nothing.
+    private static final String OPENING_BALANCE_SQL =
+            "INSERT IGNORE INTO reward_transactions "
+                    + "(user_id, type, amount, source, description, created_at, reference) "
+                    + "SELECT w.user_id, IF(w.balance < 0, 'DEBIT', 'CREDIT'), ABS(w.balance), ?, ?, NOW(), "
+                    + "CONCAT(?, w.user_id) "
+                    + "FROM wallet w "
+                    + "WHERE w.user_id > ? AND w.user_id <= ? "
+                    + "AND NOT EXISTS (SELECT 1 FROM reward_transactions t WHERE t.user_id = w.user_id)";
+
+    private static final String GROUP_SAVEPOINT = "referenced_group";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RewardTransactionBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserts one group commit in a single transaction: the unreferenced
+     * rows as one batch, then each group of rows that carries references
+     * under its own savepoint. A group that hits an existing reference (a
+     * retry racing its original, possibly on another node) is rolled back
+     * alone instead of failing the whole commit.
+     *
+     * @return indexes of the referenced groups that were rolled back
+     */
+    @Transactional
+    public Set<Integer> insertAll(List<RewardTransaction> transactions,
+                                  List<List<RewardTransaction>> referencedGroups) {
+        insertBatch(transactions);
+
+        Set<Integer> rejected = new HashSet<>();
+        for (int i = 0; i < referencedGroups.size(); i++) {
+            jdbcTemplate.execute("SAVEPOINT " + GROUP_SAVEPOINT);
+            try {
+                insertBatch(referencedGroups.get(i));
+                jdbcTemplate.execute("RELEASE SAVEPOINT " + GROUP_SAVEPOINT);
+            } catch (DataIntegrityViolationException e) {
+                jdbcTemplate.execute("ROLLBACK TO SAVEPOINT " + GROUP_SAVEPOINT);
+                rejected.add(i);
+            }
+        }
+        return rejected;
+    }
+
+    private void insertBatch(List<RewardTransaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, transactions, transactions.size(), (ps, tx) -> {
+            ps.setLong(1, tx.getUserId());
+            ps.setString(2, tx.getType().name());
+            ps.setInt(3, tx.getAmount());
+            ps.setString(4, tx.getSource());
+            ps.setString(5, tx.getDescription());
+            ps.setTimestamp(6, Timestamp.valueOf(tx.getCreatedAt()));
+            ps.setString(7, tx.getReference());
+        });
+    }
+
+    /**
+     * Writes an opening-balance row for every wallet in (afterUserId,
+     * toUserId] that has no ledger history yet.
+     *
+     * @return number of rows inserted
+     */
+    @Transactional
+    public int insertOpeningBalances(Long afterUserId, Long toUserId, String source, String referencePrefix) {
+        return jdbcTemplate.update(OPENING_BALANCE_SQL, source, "balance before the ledger was kept",
+                referencePrefix, afterUserId, toUserId);
+    }
+}
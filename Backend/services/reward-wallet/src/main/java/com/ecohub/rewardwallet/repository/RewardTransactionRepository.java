@@ -1,12 +1,136 @@
 package com.ecohub.rewardwallet.repository;
 
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import com.ecohub.rewardwallet.dto.RewardTransactionDto;
 import com.ecohub.rewardwallet.entity.RewardTransaction;
+import com.ecohub.rewardwallet.entity.TransactionType;
+
+import jakarta.persistence.QueryHint;
 
 public interface RewardTransactionRepository
         extends JpaRepository<RewardTransaction, Long> {
 
-    List<RewardTransaction> findByUserId(Long userId);
+    /**
+     * One page of a user's history, newest first, strictly after the
+     * (createdAt, id) keyset cursor. Served by idx_reward_tx_user_created_id
+     * without an OFFSET scan, however deep the page.
+     */
+    @Query("""
+            SELECT new com.ecohub.rewardwallet.dto.RewardTransactionDto(
+                t.id, t.userId, t.type, t.amount, t.source, t.description, t.createdAt)
+            FROM RewardTransaction t
+            WHERE t.userId = :userId
+              AND (:type IS NULL OR t.type = :type)
+              AND (:source IS NULL OR t.source = :source)
+              AND (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id))
+            ORDER BY t.createdAt DESC, t.id DESC
+            """)
+    List<RewardTransactionDto> findHistoryPage(
+            @Param("userId") Long userId,
+            @Param("type") TransactionType type,
+            @Param("source") String source,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable pageable);
+
+    /**
+     * Whole history as a forward-only stream. The MIN_VALUE fetch size makes
+     * MySQL Connector/J stream rows one at a time instead of buffering the
+     * result set; callers must consume it inside a transaction and close it.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            SELECT new com.ecohub.rewardwallet.dto.RewardTransactionDto(
+                t.id, t.userId, t.type, t.amount, t.source, t.description, t.createdAt)
+            FROM RewardTransaction t
+            WHERE t.userId = :userId
+              AND (:type IS NULL OR t.type = :type)
+              AND (:source IS NULL OR t.source = :source)
+            ORDER BY t.createdAt DESC, t.id DESC
+            """)
+    Stream<RewardTransactionDto> streamHistory(
+            @Param("userId") Long userId,
+            @Param("type") TransactionType type,
+            @Param("source") String source);
+
+    /**
+     * Net of a user's rows after {@code afterId}. With afterId = 0 this is a
+     * full scan of the user's ledger.
+     */
+    @Query("""
+            SELECT new com.ecohub.rewardwallet.repository.LedgerTail(
+                t.userId,
+                SUM(CASE WHEN t.type = com.ecohub.rewardwallet.entity.TransactionType.DEBIT
+                         THEN -t.amount ELSE t.amount END),
+                MAX(t.id),
+                COUNT(t))
+            FROM RewardTransaction t
+            WHERE t.userId = :userId AND t.id > :afterId
+            GROUP BY t.userId
+            """)
+    Optional<LedgerTail> sumTail(@Param("userId") Long userId, @Param("afterId") long afterId);
+
+    /**
+     * Ledger balance up to each user's newest row, for a whole chunk of
+     * users in one grouped query: the checkpoint balance plus the tail past
+     * it, with "delta" holding that sum. Base and tail come from the same
+     * statement, so overlapping checkpoint runs never add a tail onto a
+     * checkpoint that already includes it. Users without new rows are not
+     * returned.
+     */
+    @Query("""
+            SELECT new com.ecohub.rewardwallet.repository.LedgerTail(
+                t.userId,
+                COALESCE(c.balance, 0) + SUM(CASE WHEN t.type = com.ecohub.rewardwallet.entity.TransactionType.DEBIT
+                         THEN -t.amount ELSE t.amount END),
+                MAX(t.id),
+                COUNT(t))
+            FROM RewardTransaction t
+            LEFT JOIN BalanceCheckpoint c ON c.userId = t.userId
+            WHERE t.userId IN :userIds AND t.id > COALESCE(c.lastTransactionId, 0)
+            GROUP BY t.userId, c.balance
+            """)
+    List<LedgerTail> balancesSinceCheckpoint(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Net ledger per user for every user in (afterUserId, toUserId], in one
+     * grouped range scan of the covering index.
+     */
+    @Query("""
+            SELECT new com.ecohub.rewardwallet.repository.LedgerTail(
+                t.userId,
+                SUM(CASE WHEN t.type = com.ecohub.rewardwallet.entity.TransactionType.DEBIT
+                         THEN -t.amount ELSE t.amount END),
+                MAX(t.id),
+                COUNT(t))
+            FROM RewardTransaction t
+            WHERE t.userId > :afterUserId AND t.userId <= :toUserId
+            GROUP BY t.userId
+            """)
+    List<LedgerTail> sumByUserRange(@Param("afterUserId") Long afterUserId, @Param("toUserId") Long toUserId);
+
+    /**
+     * Which of the given bulk references already have a ledger row.
+     */
+    @Query("SELECT t.reference FROM RewardTransaction t WHERE t.reference IN :references")
+    List<String> findExistingReferences(@Param("references") Collection<String> references);
+
+    boolean existsByReference(String reference);
 }
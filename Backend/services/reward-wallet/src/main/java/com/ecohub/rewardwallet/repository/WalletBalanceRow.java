@@ -0,0 +1,20 @@
+package com.ecohub.rewardwallet.repository;
+
+public class WalletBalanceRow {
+
+    private final Long userId;
+    private final int balance;
+
+    public WalletBalanceRow(Long userId, int balance) {
+        this.userId = userId;
+        this.balance = balance;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public int getBalance() {
+        return balance;
+    }
+}
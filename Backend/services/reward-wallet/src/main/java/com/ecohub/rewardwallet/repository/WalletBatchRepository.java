@@ -0,0 +1,68 @@
+package com.ecohub.rewardwallet.repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Plain JDBC access to the wallet table for the write paths that have to
+ * batch. Spring Data's save() issues one statement per entity, which is
+ * exactly what the balance engine is trying to avoid.
+ */
+@Repository
+public class WalletBatchRepository {
+
+    private static final String UPDATE_BALANCE_SQL =
+            "UPDATE wallet SET balance = ?, updated_at = ? WHERE user_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public WalletBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Writes absolute balances, so replaying the same batch twice is harmless.
+     * All rows go out in one transaction.
+     */
+    @Transactional
+    public void updateBalances(List<BalanceUpdate> updates, int batchSize) {
+        if (updates.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPDATE_BALANCE_SQL, updates, batchSize, (ps, update) -> {
+            ps.setInt(1, update.getBalance());
+            ps.setTimestamp(2, Timestamp.valueOf(update.getUpdatedAt()));
+            ps.setLong(3, update.getUserId());
+        });
+    }
+
+    public static class BalanceUpdate {
+
+        private final Long userId;
+        private final int balance;
+        private final LocalDateTime updatedAt;
+
+        public BalanceUpdate(Long userId, int balance, LocalDateTime updatedAt) {
+            this.userId = userId;
+            this.balance = balance;
+            this.updatedAt = updatedAt;
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public int getBalance() {
+            return balance;
+        }
+
+        public LocalDateTime getUpdatedAt() {
+            return updatedAt;
+        }
+    }
+}
@@ -1,7 +1,28 @@
 package com.ecohub.rewardwallet.repository;
 
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
 import com.ecohub.rewardwallet.entity.Wallet;
 
 public interface WalletRepository extends JpaRepository<Wallet, Long> {
+
+    /**
+     * Next chunk of wallet owners in userId order, for jobs that walk every
+     * wallet without loading the table.
+     */
+    @Query("SELECT w.userId FROM Wallet w WHERE w.userId > :afterUserId ORDER BY w.userId")
+    List<Long> findUserIdsAfter(@Param("afterUserId") Long afterUserId, Pageable pageable);
+
+    @Query("""
+            SELECT new com.ecohub.rewardwallet.repository.WalletBalanceRow(w.userId, w.balance)
+            FROM Wallet w
+            WHERE w.userId > :afterUserId
+            ORDER BY w.userId
+            """)
+    List<WalletBalanceRow> findBalancesAfter(@Param("afterUserId") Long afterUserId, Pageable pageable);
 }
@@ -0,0 +1,12 @@
+package com.ecohub.rewardwallet.service;
+
+import com.ecohub.rewardwallet.dto.BalanceVerificationDto;
+
+public interface BalanceCheckpointService {
+
+    int checkpointAll();
+
+    BalanceVerificationDto verify(Long userId, boolean compareFullScan);
+
+    BalanceVerificationDto rebuild(Long userId);
+}
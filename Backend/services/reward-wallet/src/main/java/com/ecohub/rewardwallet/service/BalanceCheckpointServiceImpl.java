@@ -0,0 +1,194 @@
+package com.ecohub.rewardwallet.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.ecohub.rewardwallet.dto.BalanceVerificationDto;
+import com.ecohub.rewardwallet.engine.WalletBalanceEngine;
+import com.ecohub.rewardwallet.entity.BalanceCheckpoint;
+import com.ecohub.rewardwallet.repository.BalanceCheckpointBatchRepository;
+import com.ecohub.rewardwallet.repository.BalanceCheckpointRepository;
+import com.ecohub.rewardwallet.repository.LedgerTail;
+import com.ecohub.rewardwallet.repository.RewardTransactionRepository;
+import com.ecohub.rewardwallet.repository.WalletRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Maintains per-user ledger checkpoints so a balance can be rebuilt from the
+ * checkpoint plus the rows after it instead of the user's whole history.
+ *
+ * "Rows after it" is simply id > lastTransactionId: the ledger is written by
+ * a single group-commit thread, so ids become visible in order.
+ */
+@Service
+public class BalanceCheckpointServiceImpl implements BalanceCheckpointService {
+
+    private final WalletRepository walletRepository;
+    private final RewardTransactionRepository transactionRepository;
+    private final BalanceCheckpointRepository checkpointRepository;
+    private final BalanceCheckpointBatchRepository checkpointBatchRepository;
+    private final WalletBalanceEngine balanceEngine;
+    private final int chunkSize;
+    private final int parallelism;
+    private final ExecutorService pool;
+
+    private final Timer runTimer;
+    private final Counter checkpointedUsers;
+
+    public BalanceCheckpointServiceImpl(
+            WalletRepository walletRepository,
+            RewardTransactionRepository transactionRepository,
+            BalanceCheckpointRepository checkpointRepository,
+            BalanceCheckpointBatchRepository checkpointBatchRepository,
+            WalletBalanceEngine balanceEngine,
+            MeterRegistry meterRegistry,
+            @Value("${wallet.checkpoint.chunk-size:1000}") int chunkSize,
+            @Value("${wallet.checkpoint.parallelism:4}") int parallelism) {
+        this.walletRepository = walletRepository;
+        this.transactionRepository = transactionRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.checkpointBatchRepository = checkpointBatchRepository;
+        this.balanceEngine = balanceEngine;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+        this.pool = Executors.newFixedThreadPool(parallelism);
+
+        this.runTimer = Timer.builder("wallet.checkpoint.run").register(meterRegistry);
+        this.checkpointedUsers = Counter.builder("wallet.checkpoint.users").register(meterRegistry);
+    }
+
+    /**
+     * Walks every wallet in userId order and advances the checkpoints of
+     * users with new ledger rows, several chunks at a time.
+     *
+     * @return number of checkpoints written
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${wallet.checkpoint.interval-ms:3600000}",
+            initialDelayString = "${wallet.checkpoint.interval-ms:3600000}")
+    public int checkpointAll() {
+        long start = System.nanoTime();
+        // at most two chunks queued per worker
+        Semaphore inFlight = new Semaphore(parallelism * 2);
+        List<Future<Integer>> chunks = new ArrayList<>();
+
+        Long afterUserId = 0L;
+        while (true) {
+            List<Long> userIds = walletRepository.findUserIdsAfter(afterUserId, PageRequest.of(0, chunkSize));
+            if (userIds.isEmpty()) {
+                break;
+            }
+            afterUserId = userIds.get(userIds.size() - 1);
+
+            inFlight.acquireUninterruptibly();
+            chunks.add(pool.submit(() -> {
+                try {
+                    return checkpointChunk(userIds);
+                } finally {
+                    inFlight.release();
+                }
+            }));
+        }
+
+        int written = 0;
+        for (Future<Integer> chunk : chunks) {
+            try {
+                written += chunk.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Checkpoint run interrupted");
+            } catch (ExecutionException e) {
+                throw new RuntimeException("Checkpoint chunk failed: " + e.getCause().getMessage(), e.getCause());
+            }
+        }
+
+        runTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        checkpointedUsers.increment(written);
+        return written;
+    }
+
+    private int checkpointChunk(List<Long> userIds) {
+        List<LedgerTail> balances = transactionRepository.balancesSinceCheckpoint(userIds);
+        if (balances.isEmpty()) {
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<BalanceCheckpoint> advanced = new ArrayList<>(balances.size());
+        for (LedgerTail balance : balances) {
+            advanced.add(new BalanceCheckpoint(balance.getUserId(),
+                    Math.toIntExact(balance.getDelta()), balance.getLastTransactionId(), now));
+        }
+        checkpointBatchRepository.upsertAll(advanced);
+        return advanced.size();
+    }
+
+    @Override
+    public BalanceVerificationDto verify(Long userId, boolean compareFullScan) {
+        int walletBalance = balanceEngine.getBalance(userId);
+
+        long start = System.nanoTime();
+        BalanceCheckpoint checkpoint = checkpointRepository.findById(userId).orElse(null);
+        long checkpointId = checkpoint == null ? 0 : checkpoint.getLastTransactionId();
+        long checkpointBalance = checkpoint == null ? 0 : checkpoint.getBalance();
+        LedgerTail tail = transactionRepository.sumTail(userId, checkpointId)
+                .orElse(new LedgerTail(userId, 0L, checkpointId, 0L));
+        if (checkpoint == null && tail.getRows() == 0) {
+            // a wallet that predates the ledger and missed the opening backfill
+            throw new RuntimeException("Wallet of user " + userId + " has no ledger history to verify against");
+        }
+        int ledgerBalance = Math.toIntExact(checkpointBalance + tail.getDelta());
+        long checkpointMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+
+        Integer fullScanBalance = null;
+        Long fullScanMicros = null;
+        if (compareFullScan) {
+            start = System.nanoTime();
+            fullScanBalance = transactionRepository.sumTail(userId, 0)
+                    .map(full -> Math.toIntExact(full.getDelta()))
+                    .orElse(0);
+            fullScanMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+        }
+
+        return new BalanceVerificationDto(userId, walletBalance, ledgerBalance, checkpointId,
+                tail.getRows(), checkpointMicros, fullScanBalance, fullScanMicros);
+    }
+
+    /**
+     * Realigns the wallet with its ledger and advances the user's checkpoint.
+     * Credits/debits still in flight for this user can make the result off by
+     * their amount, so run it when the user is quiet. Refuses (via verify)
+     * wallets without any ledger history, which would otherwise be zeroed.
+     */
+    @Override
+    public BalanceVerificationDto rebuild(Long userId) {
+        BalanceVerificationDto before = verify(userId, false);
+        if (before.getDrift() != 0) {
+            System.out.println("Rebuilding wallet of user " + userId + ", drift " + before.getDrift());
+            balanceEngine.adjust(userId, -before.getDrift());
+        }
+        checkpointChunk(List.of(userId));
+        return verify(userId, false);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,17 @@
+package com.ecohub.rewardwallet.service;
+
+import com.ecohub.rewardwallet.dto.HoldRequestDto;
+import com.ecohub.rewardwallet.dto.HoldResponseDto;
+
+public interface CoinHoldService {
+
+    HoldResponseDto hold(HoldRequestDto request);
+
+    HoldResponseDto getHold(Long holdId);
+
+    HoldResponseDto capture(Long holdId);
+
+    HoldResponseDto release(Long holdId);
+
+    int sweepExpired();
+}
@@ -0,0 +1,323 @@
+package com.ecohub.rewardwallet.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ecohub.rewardwallet.dto.HoldRequestDto;
+import com.ecohub.rewardwallet.dto.HoldResponseDto;
+import com.ecohub.rewardwallet.engine.WalletBalanceEngine;
+import com.ecohub.rewardwallet.engine.WalletRejectedException;
+import com.ecohub.rewardwallet.entity.CoinHold;
+import com.ecohub.rewardwallet.entity.HoldStatus;
+import com.ecohub.rewardwallet.entity.RewardTransaction;
+import com.ecohub.rewardwallet.entity.TransactionType;
+import com.ecohub.rewardwallet.ledger.GroupCommitLedgerWriter;
+import com.ecohub.rewardwallet.repository.CoinHoldBatchRepository;
+import com.ecohub.rewardwallet.repository.CoinHoldRepository;
+import com.ecohub.rewardwallet.repository.HeldTotal;
+import com.ecohub.rewardwallet.repository.RewardTransactionRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Two-phase spending: coins are first held, then captured into a ledger
+ * debit or released. The held total of each wallet lives in the balance
+ * engine, so debits and new holds check the available balance without
+ * looking at the hold table; the table is the record the totals are rebuilt
+ * from on startup.
+ *
+ * A hold is captured once its ledger debit, referenced "hold-{id}", exists.
+ * That row is committed by the group-commit writer on its own connection,
+ * so it can outlive a capture transaction that then fails to commit; the
+ * hold row's status may lag behind it. A retried capture finds the row and
+ * settles the hold instead of debiting again, and the sweeper settles such
+ * holds instead of expiring them.
+ *
+ * Settling also finishes the engine side. If the engine capture itself
+ * failed, the hold is kept as owed and the next capture, release or sweep
+ * applies it. If the process died in between, startup compares the wallet
+ * with its ledger to tell whether the debit reached the journal.
+ */
+@Service
+public class CoinHoldServiceImpl implements CoinHoldService {
+
+    private static final String DEFAULT_SOURCE = "REDEEM";
+
+    private final CoinHoldRepository holdRepository;
+    private final CoinHoldBatchRepository holdBatchRepository;
+    private final WalletBalanceEngine balanceEngine;
+    private final GroupCommitLedgerWriter ledgerWriter;
+    private final RewardTransactionRepository transactionRepository;
+    private final BalanceCheckpointService checkpointService;
+    private final int defaultTtlSeconds;
+    private final int maxTtlSeconds;
+    private final int sweepBatchSize;
+
+    private final Counter expiredHolds;
+
+    // holds whose ledger debit exists but whose engine capture failed
+    private final Map<Long, CoinHold> owedCaptures = new ConcurrentHashMap<>();
+
+    public CoinHoldServiceImpl(
+            CoinHoldRepository holdRepository,
+            CoinHoldBatchRepository holdBatchRepository,
+            WalletBalanceEngine balanceEngine,
+            GroupCommitLedgerWriter ledgerWriter,
+            RewardTransactionRepository transactionRepository,
+            BalanceCheckpointService checkpointService,
+            MeterRegistry meterRegistry,
+            @Value("${wallet.holds.default-ttl-seconds:300}") int defaultTtlSeconds,
+            @Value("${wallet.holds.max-ttl-seconds:3600}") int maxTtlSeconds,
+            @Value("${wallet.holds.sweep-batch-size:1000}") int sweepBatchSize) {
+        this.holdRepository = holdRepository;
+        this.holdBatchRepository = holdBatchRepository;
+        this.balanceEngine = balanceEngine;
+        this.ledgerWriter = ledgerWriter;
+        this.transactionRepository = transactionRepository;
+        this.checkpointService = checkpointService;
+        this.defaultTtlSeconds = defaultTtlSeconds;
+        this.maxTtlSeconds = maxTtlSeconds;
+        this.sweepBatchSize = sweepBatchSize;
+        this.expiredHolds = Counter.builder("wallet.holds.expired")
+                .register(meterRegistry);
+        meterRegistry.gauge("wallet.holds.owed.captures", owedCaptures, Map::size);
+    }
+
+    /**
+     * Finishes captures the last run was interrupted in, then reserves the
+     * coins of every hold still open in the table.
+     */
+    @PostConstruct
+    public void restoreHeldTotals() {
+        finishInterruptedCaptures();
+
+        List<HeldTotal> totals = holdRepository.sumOpenHolds();
+        balanceEngine.preload(totals.stream().map(HeldTotal::getUserId).toList());
+        for (HeldTotal total : totals) {
+            balanceEngine.restoreHold(total.getUserId(), Math.toIntExact(total.getHeld()));
+        }
+        if (!totals.isEmpty()) {
+            System.out.println("Restored open holds for " + totals.size() + " wallets");
+        }
+    }
+
+    /**
+     * A hold left HELD with its ledger debit in place was being captured when
+     * the process stopped, and whether the engine debit reached the journal
+     * is unknown. The wallet's drift from its ledger tells: none means it
+     * did, a drift of exactly the captured amount means it did not.
+     */
+    private void finishInterruptedCaptures() {
+        List<HeldTotal> interrupted = holdRepository.sumInterruptedCaptures();
+        if (interrupted.isEmpty()) {
+            return;
+        }
+        for (HeldTotal total : interrupted) {
+            int amount = Math.toIntExact(total.getHeld());
+            int drift = checkpointService.verify(total.getUserId(), false).getDrift();
+            if (drift == amount) {
+                balanceEngine.adjust(total.getUserId(), -amount);
+            } else if (drift != 0) {
+                System.out.println("Wallet of user " + total.getUserId() + " drifts " + drift
+                        + " from its ledger after an interrupted capture of " + amount
+                        + ", leaving it to reconciliation");
+            }
+        }
+        int settled = holdBatchRepository.settleAllCaptured(LocalDateTime.now());
+        System.out.println("Finished " + settled + " holds whose capture was interrupted");
+    }
+
+    @Override
+    public HoldResponseDto hold(HoldRequestDto request) {
+        if (request.getUserId() == null) {
+            throw new WalletRejectedException("userId is required");
+        }
+        if (request.getAmount() <= 0) {
+            throw new WalletRejectedException("Hold amount must be positive");
+        }
+        int ttlSeconds = request.getTtlSeconds() != null ? request.getTtlSeconds() : defaultTtlSeconds;
+        if (ttlSeconds <= 0 || ttlSeconds > maxTtlSeconds) {
+            throw new WalletRejectedException("ttlSeconds must be between 1 and " + maxTtlSeconds);
+        }
+
+        if (request.getReference() != null) {
+            CoinHold existing = holdRepository
+                    .findByUserIdAndReference(request.getUserId(), request.getReference())
+                    .orElse(null);
+            if (existing != null) {
+                return new HoldResponseDto(existing);
+            }
+        }
+
+        // reserve first, so two concurrent holds cannot both pass the funds check
+        balanceEngine.hold(request.getUserId(), request.getAmount());
+
+        LocalDateTime now = LocalDateTime.now();
+        CoinHold hold = new CoinHold(null, request.getUserId(), request.getAmount(), HoldStatus.HELD,
+                request.getReference(), request.getSource() != null ? request.getSource() : DEFAULT_SOURCE,
+                now, now.plusSeconds(ttlSeconds), now);
+        try {
+            return new HoldResponseDto(holdRepository.save(hold));
+        } catch (DataIntegrityViolationException e) {
+            // lost a race with a retry carrying the same reference
+            balanceEngine.releaseHold(request.getUserId(), request.getAmount());
+            return holdRepository.findByUserIdAndReference(request.getUserId(), request.getReference())
+                    .map(HoldResponseDto::new)
+                    .orElseThrow(() -> e);
+        } catch (RuntimeException e) {
+            balanceEngine.releaseHold(request.getUserId(), request.getAmount());
+            throw e;
+        }
+    }
+
+    @Override
+    public HoldResponseDto getHold(Long holdId) {
+        return holdRepository.findById(holdId)
+                .map(HoldResponseDto::new)
+                .orElseThrow(() -> new WalletRejectedException("Hold not found"));
+    }
+
+    @Override
+    @Transactional
+    public HoldResponseDto capture(Long holdId) {
+        CoinHold hold = lockHold(holdId);
+        if (hold.getStatus() == HoldStatus.CAPTURED) {
+            return new HoldResponseDto(hold);
+        }
+        String reference = CoinHold.captureReference(hold.getId());
+        if (transactionRepository.existsByReference(reference)) {
+            // debited by an earlier attempt that did not get to the end
+            settleOwedCapture(hold.getId());
+            end(hold, HoldStatus.CAPTURED);
+            return new HoldResponseDto(hold);
+        }
+        checkOpen(hold);
+
+        // Ledger row first: once it is durable no retry debits again, even if
+        // this transaction fails to commit. The hold row stays locked until
+        // then, so nothing else can end the hold in between.
+        ledgerWriter.append(new RewardTransaction(null, hold.getUserId(), TransactionType.DEBIT,
+                hold.getAmount(), hold.getSource(), "hold " + hold.getId(), LocalDateTime.now(), reference));
+        try {
+            balanceEngine.capture(hold.getUserId(), hold.getAmount());
+        } catch (RuntimeException e) {
+            // nothing changed in the engine, but the debit is in the ledger
+            owedCaptures.put(hold.getId(), hold);
+            throw e;
+        }
+        end(hold, HoldStatus.CAPTURED);
+        return new HoldResponseDto(hold);
+    }
+
+    @Override
+    @Transactional(noRollbackFor = WalletRejectedException.class)
+    public HoldResponseDto release(Long holdId) {
+        CoinHold hold = lockHold(holdId);
+        if (hold.getStatus() == HoldStatus.RELEASED || hold.getStatus() == HoldStatus.EXPIRED) {
+            return new HoldResponseDto(hold);
+        }
+        if (hold.getStatus() == HoldStatus.CAPTURED) {
+            throw new WalletRejectedException("Hold already captured");
+        }
+        if (transactionRepository.existsByReference(CoinHold.captureReference(hold.getId()))) {
+            settleOwedCapture(hold.getId());
+            end(hold, HoldStatus.CAPTURED);
+            throw new WalletRejectedException("Hold already captured");
+        }
+
+        end(hold, HoldStatus.RELEASED);
+        balanceEngine.releaseHold(hold.getUserId(), hold.getAmount());
+        return new HoldResponseDto(hold);
+    }
+
+    /**
+     * Expires overdue holds in batches. Each batch is marked EXPIRED in one
+     * transaction and the coins are given back per wallet after it commits.
+     * Owed engine captures are retried first. Once none are left, overdue
+     * holds that already have their ledger debit are marked CAPTURED; while
+     * some are, statuses stay HELD so a restart still finds them.
+     *
+     * @return number of holds expired
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${wallet.holds.sweep-interval-ms:1000}")
+    public int sweepExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        for (Long holdId : List.copyOf(owedCaptures.keySet())) {
+            try {
+                settleOwedCapture(holdId);
+            } catch (RuntimeException e) {
+                System.out.println("Capture of hold " + holdId + " still failing: " + e.getMessage());
+            }
+        }
+        if (owedCaptures.isEmpty()) {
+            int settled = holdBatchRepository.settleCaptured(now);
+            if (settled > 0) {
+                System.out.println("Settled " + settled + " holds captured by an earlier attempt");
+            }
+        }
+        int expired = 0;
+        while (true) {
+            List<HeldTotal> batch = holdBatchRepository.expireDue(now, sweepBatchSize);
+            Map<Long, Long> byUser = batch.stream()
+                    .collect(Collectors.groupingBy(HeldTotal::getUserId, Collectors.summingLong(HeldTotal::getHeld)));
+            byUser.forEach((userId, held) -> balanceEngine.releaseHold(userId, Math.toIntExact(held)));
+
+            expired += batch.size();
+            expiredHolds.increment(batch.size());
+            if (batch.size() < sweepBatchSize) {
+                return expired;
+            }
+        }
+    }
+
+    /**
+     * Applies the engine capture of a hold whose ledger debit is in but whose
+     * engine capture failed. Removing the entry claims it, so a concurrent
+     * capture retry and the sweeper never both apply it.
+     */
+    private void settleOwedCapture(Long holdId) {
+        CoinHold owed = owedCaptures.remove(holdId);
+        if (owed == null) {
+            return;
+        }
+        try {
+            balanceEngine.capture(owed.getUserId(), owed.getAmount());
+        } catch (RuntimeException e) {
+            owedCaptures.put(holdId, owed);
+            throw e;
+        }
+    }
+
+    private CoinHold lockHold(Long holdId) {
+        return holdRepository.findByIdForUpdate(holdId)
+                .orElseThrow(() -> new WalletRejectedException("Hold not found"));
+    }
+
+    private static void checkOpen(CoinHold hold) {
+        if (hold.getStatus() != HoldStatus.HELD) {
+            throw new WalletRejectedException("Hold is " + hold.getStatus());
+        }
+        // past its expiry but not swept yet: treat it as gone
+        if (hold.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new WalletRejectedException("Hold expired");
+        }
+    }
+
+    private void end(CoinHold hold, HoldStatus status) {
+        hold.setStatus(status);
+        hold.setUpdatedAt(LocalDateTime.now());
+        holdRepository.saveAndFlush(hold);
+    }
+}
@@ -0,0 +1,14 @@
+package com.ecohub.rewardwallet.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.ecohub.rewardwallet.dto.TransactionHistoryPageDto;
+import com.ecohub.rewardwallet.entity.TransactionType;
+
+public interface TransactionHistoryService {
+
+    TransactionHistoryPageDto getHistory(Long userId, TransactionType type, String source, String cursor, int size);
+
+    void exportHistory(Long userId, TransactionType type, String source, OutputStream out) throws IOException;
+}
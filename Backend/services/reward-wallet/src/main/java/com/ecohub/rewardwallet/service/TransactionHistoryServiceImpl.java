@@ -0,0 +1,102 @@
+package com.ecohub.rewardwallet.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ecohub.rewardwallet.dto.RewardTransactionDto;
+import com.ecohub.rewardwallet.dto.TransactionHistoryPageDto;
+import com.ecohub.rewardwallet.entity.TransactionType;
+import com.ecohub.rewardwallet.repository.RewardTransactionRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@Service
+public class TransactionHistoryServiceImpl implements TransactionHistoryService {
+
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int EXPORT_FLUSH_EVERY = 1000;
+
+    // first page: everything is "older" than this
+    private static final LocalDateTime FAR_FUTURE = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    private final RewardTransactionRepository repository;
+    private final ObjectMapper objectMapper;
+
+    public TransactionHistoryServiceImpl(RewardTransactionRepository repository, ObjectMapper objectMapper) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TransactionHistoryPageDto getHistory(Long userId, TransactionType type, String source,
+            String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new RuntimeException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        LocalDateTime afterCreatedAt = FAR_FUTURE;
+        Long afterId = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] keys = decodeCursor(cursor);
+            afterCreatedAt = LocalDateTime.parse(keys[0]);
+            afterId = Long.parseLong(keys[1]);
+        }
+
+        // one extra row tells us whether there is a next page
+        List<RewardTransactionDto> rows = repository.findHistoryPage(
+                userId, type, source, afterCreatedAt, afterId, PageRequest.of(0, size + 1));
+
+        if (rows.size() <= size) {
+            return new TransactionHistoryPageDto(rows, null);
+        }
+        List<RewardTransactionDto> page = rows.subList(0, size);
+        RewardTransactionDto last = page.get(size - 1);
+        return new TransactionHistoryPageDto(page, encodeCursor(last.getCreatedAt(), last.getId()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportHistory(Long userId, TransactionType type, String source, OutputStream out)
+            throws IOException {
+        try (Stream<RewardTransactionDto> rows = repository.streamHistory(userId, type, source)) {
+            Iterator<RewardTransactionDto> it = rows.iterator();
+            int written = 0;
+            while (it.hasNext()) {
+                out.write(objectMapper.writeValueAsBytes(it.next()));
+                out.write('\n');
+                if (++written % EXPORT_FLUSH_EVERY == 0) {
+                    out.flush();
+                }
+            }
+            out.flush();
+        }
+    }
+
+    private static String encodeCursor(LocalDateTime createdAt, Long id) {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] keys = raw.split("\\|");
+            if (keys.length != 2) {
+                throw new IllegalArgumentException(raw);
+            }
+            return keys;
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+}
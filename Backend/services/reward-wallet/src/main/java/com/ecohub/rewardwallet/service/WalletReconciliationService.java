@@ -0,0 +1,10 @@
+package com.ecohub.rewardwallet.service;
+
+import com.ecohub.rewardwallet.dto.ReconciliationReportDto;
+
+public interface WalletReconciliationService {
+
+    ReconciliationReportDto start(boolean resume);
+
+    ReconciliationReportDto report();
+}
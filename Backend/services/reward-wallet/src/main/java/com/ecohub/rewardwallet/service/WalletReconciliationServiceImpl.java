@@ -0,0 +1,337 @@
+package com.ecohub.rewardwallet.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.ecohub.rewardwallet.dto.ReconciliationReportDto;
+import com.ecohub.rewardwallet.dto.WalletDriftDto;
+import com.ecohub.rewardwallet.engine.WalletBalanceEngine;
+import com.ecohub.rewardwallet.entity.ReconciliationProgress;
+import com.ecohub.rewardwallet.repository.LedgerTail;
+import com.ecohub.rewardwallet.repository.ReconciliationProgressRepository;
+import com.ecohub.rewardwallet.repository.RewardTransactionRepository;
+import com.ecohub.rewardwallet.repository.WalletBalanceRow;
+import com.ecohub.rewardwallet.repository.WalletRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Compares every wallet balance with credits minus debits in its ledger.
+ *
+ * Wallets are read in userId-ordered keyset chunks. Each chunk's ledger sums
+ * come from one grouped range query, and the chunks are compared on a small
+ * fork-join pool. The number of chunks in flight is bounded, and chunk
+ * submission is paced to max-rows-per-second so the job can run next to
+ * live traffic. Progress is saved after every chunk that completes in
+ * order, so a later run can resume after the last checked userId. The saved
+ * counts only ever include chunks up to that userId, so a resumed run does
+ * not count the chunks after it twice.
+ *
+ * A credit/debit is applied to the balance before its ledger row is
+ * committed. A mismatch is therefore re-checked once against fresh values
+ * before it is reported as drift.
+ *
+ * A wallet with no ledger rows at all predates the ledger (and missed the
+ * opening-balance backfill) or has its very first row still in flight. Its
+ * balance is not compared; it is counted and reported separately so it does
+ * not show up as drift of its whole balance.
+ */
+@Service
+public class WalletReconciliationServiceImpl implements WalletReconciliationService {
+
+    private static final String JOB_NAME = "wallet-ledger";
+    private static final int MAX_REPORTED_DRIFTS = 100;
+
+    private final WalletRepository walletRepository;
+    private final RewardTransactionRepository transactionRepository;
+    private final ReconciliationProgressRepository progressRepository;
+    private final WalletBalanceEngine balanceEngine;
+    private final int chunkSize;
+    private final int parallelism;
+    private final double nanosPerRow;
+    private final ForkJoinPool pool;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile RunState current;
+
+    private final Counter checkedRows;
+    private final Counter driftFound;
+
+    public WalletReconciliationServiceImpl(
+            WalletRepository walletRepository,
+            RewardTransactionRepository transactionRepository,
+            ReconciliationProgressRepository progressRepository,
+            WalletBalanceEngine balanceEngine,
+            MeterRegistry meterRegistry,
+            @Value("${wallet.reconcile.chunk-size:1000}") int chunkSize,
+            @Value("${wallet.reconcile.parallelism:2}") int parallelism,
+            @Value("${wallet.reconcile.max-rows-per-second:5000}") int maxRowsPerSecond) {
+        this.walletRepository = walletRepository;
+        this.transactionRepository = transactionRepository;
+        this.progressRepository = progressRepository;
+        this.balanceEngine = balanceEngine;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+        this.nanosPerRow = TimeUnit.SECONDS.toNanos(1) / (double) maxRowsPerSecond;
+        this.pool = new ForkJoinPool(parallelism);
+
+        this.checkedRows = Counter.builder("wallet.reconcile.rows").register(meterRegistry);
+        this.driftFound = Counter.builder("wallet.reconcile.drift").register(meterRegistry);
+        meterRegistry.gauge("wallet.reconcile.rows_per_second", this,
+                service -> service.current == null ? 0 : service.current.rowsPerSecond());
+    }
+
+    @Override
+    public ReconciliationReportDto start(boolean resume) {
+        if (!running.compareAndSet(false, true)) {
+            throw new RuntimeException("Reconciliation is already running");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        ReconciliationProgress progress = resume
+                ? progressRepository.findById(JOB_NAME).filter(p -> !p.isFinished()).orElse(null)
+                : null;
+        if (progress == null) {
+            progress = new ReconciliationProgress(JOB_NAME, 0L, 0, 0, 0, false, now, now);
+        }
+
+        RunState state = new RunState(progress);
+        current = state;
+        Thread runner = new Thread(() -> {
+            try {
+                run(state);
+            } catch (RuntimeException e) {
+                System.out.println("Reconciliation stopped at user " + state.progress.getLastUserId()
+                        + ": " + e.getMessage());
+            } finally {
+                running.set(false);
+            }
+        }, "wallet-reconcile");
+        runner.setDaemon(true);
+        runner.start();
+
+        return report();
+    }
+
+    @Override
+    public ReconciliationReportDto report() {
+        RunState state = current;
+        if (state != null) {
+            return state.toReport(running.get());
+        }
+        return progressRepository.findById(JOB_NAME)
+                .map(p -> new ReconciliationReportDto(false, p.isFinished(), p.getStartedAt(), p.getLastUserId(),
+                        p.getWalletsChecked(), p.getDriftCount(), p.getWalletsWithoutLedger(), 0, List.of(),
+                        List.of()))
+                .orElse(new ReconciliationReportDto(false, false, null, null, 0, 0, 0, 0, List.of(), List.of()));
+    }
+
+    private void run(RunState state) {
+        ArrayDeque<Chunk> pending = new ArrayDeque<>();
+        long nextSubmitNanos = System.nanoTime();
+        Long afterUserId = state.progress.getLastUserId();
+
+        while (true) {
+            List<WalletBalanceRow> wallets =
+                    walletRepository.findBalancesAfter(afterUserId, PageRequest.of(0, chunkSize));
+            // past the last wallet, one open-ended chunk catches ledger rows without a wallet
+            boolean last = wallets.isEmpty();
+            Long toUserId = last ? Long.MAX_VALUE : wallets.get(wallets.size() - 1).getUserId();
+
+            nextSubmitNanos = throttle(nextSubmitNanos, Math.max(wallets.size(), 1));
+            Long fromUserId = afterUserId;
+            pending.add(new Chunk(last ? null : toUserId,
+                    pool.submit(() -> compare(state, wallets, fromUserId, toUserId))));
+
+            while (!pending.isEmpty() && (pending.peek().task.isDone() || pending.size() >= parallelism * 2)) {
+                complete(state, pending.poll());
+            }
+            if (last) {
+                break;
+            }
+            afterUserId = toUserId;
+        }
+
+        while (!pending.isEmpty()) {
+            complete(state, pending.poll());
+        }
+        state.progress.setFinished(true);
+        state.progress.setUpdatedAt(LocalDateTime.now());
+        progressRepository.save(state.progress);
+    }
+
+    private long throttle(long nextSubmitNanos, int rows) {
+        long now = System.nanoTime();
+        if (nextSubmitNanos > now) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(nextSubmitNanos - now);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Reconciliation interrupted");
+            }
+        }
+        return Math.max(nextSubmitNanos, now) + (long) (rows * nanosPerRow);
+    }
+
+    /**
+     * Chunks are completed in submission order, so the saved lastUserId never
+     * skips over a chunk that is still running.
+     */
+    private void complete(RunState state, Chunk chunk) {
+        ChunkCounts counts = chunk.task.join();
+        checkedRows.increment(counts.checked);
+        state.rows.addAndGet(counts.checked);
+
+        ReconciliationProgress progress = state.progress;
+        if (chunk.toUserId != null) {
+            progress.setLastUserId(chunk.toUserId);
+        }
+        progress.setWalletsChecked(progress.getWalletsChecked() + counts.checked);
+        progress.setDriftCount(progress.getDriftCount() + counts.drifts);
+        progress.setWalletsWithoutLedger(progress.getWalletsWithoutLedger() + counts.withoutLedger);
+        progress.setUpdatedAt(LocalDateTime.now());
+        progressRepository.save(progress);
+    }
+
+    private ChunkCounts compare(RunState state, List<WalletBalanceRow> wallets, Long afterUserId, Long toUserId) {
+        ChunkCounts counts = new ChunkCounts(wallets.size());
+        Map<Long, Long> ledger = new HashMap<>();
+        for (LedgerTail sum : transactionRepository.sumByUserRange(afterUserId, toUserId)) {
+            ledger.put(sum.getUserId(), sum.getDelta());
+        }
+
+        for (WalletBalanceRow wallet : wallets) {
+            // the table lags the engine for wallets with unflushed changes
+            Integer cached = balanceEngine.cachedBalance(wallet.getUserId());
+            int walletBalance = cached != null ? cached : wallet.getBalance();
+            Long ledgerBalance = ledger.remove(wallet.getUserId());
+            if (ledgerBalance == null) {
+                state.addWithoutLedger(wallet.getUserId());
+                counts.withoutLedger++;
+                continue;
+            }
+            if (walletBalance != ledgerBalance && recheck(state, wallet.getUserId())) {
+                counts.drifts++;
+            }
+        }
+
+        for (Map.Entry<Long, Long> orphan : ledger.entrySet()) {
+            state.addDrift(new WalletDriftDto(orphan.getKey(), null, orphan.getValue()));
+            driftFound.increment();
+            counts.drifts++;
+        }
+        return counts;
+    }
+
+    /**
+     * @return whether the mismatch is still there and was reported as drift
+     */
+    private boolean recheck(RunState state, Long userId) {
+        int walletBalance = balanceEngine.getBalance(userId);
+        long ledgerBalance = transactionRepository.sumTail(userId, 0).map(LedgerTail::getDelta).orElse(0L);
+        if (walletBalance == ledgerBalance) {
+            return false;
+        }
+        state.addDrift(new WalletDriftDto(userId, walletBalance, ledgerBalance));
+        driftFound.increment();
+        return true;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private static final class Chunk {
+
+        // null for the open-ended tail chunk
+        final Long toUserId;
+        final ForkJoinTask<ChunkCounts> task;
+
+        Chunk(Long toUserId, ForkJoinTask<ChunkCounts> task) {
+            this.toUserId = toUserId;
+            this.task = task;
+        }
+    }
+
+    // what one chunk found; only its own worker writes it
+    private static final class ChunkCounts {
+
+        final int checked;
+        int drifts;
+        int withoutLedger;
+
+        ChunkCounts(int checked) {
+            this.checked = checked;
+        }
+    }
+
+    private static final class RunState {
+
+        final ReconciliationProgress progress;
+        final long startNanos = System.nanoTime();
+        final AtomicLong rows = new AtomicLong();
+        final AtomicLong driftCount;
+        final AtomicLong withoutLedgerCount;
+        final List<WalletDriftDto> drifts = new ArrayList<>();
+        final List<Long> unledgered = new ArrayList<>();
+
+        RunState(ReconciliationProgress progress) {
+            this.progress = progress;
+            this.driftCount = new AtomicLong(progress.getDriftCount());
+            this.withoutLedgerCount = new AtomicLong(progress.getWalletsWithoutLedger());
+        }
+
+        void addWithoutLedger(Long userId) {
+            withoutLedgerCount.incrementAndGet();
+            synchronized (unledgered) {
+                if (unledgered.size() < MAX_REPORTED_DRIFTS) {
+                    unledgered.add(userId);
+                }
+            }
+        }
+
+        void addDrift(WalletDriftDto drift) {
+            driftCount.incrementAndGet();
+            synchronized (drifts) {
+                if (drifts.size() < MAX_REPORTED_DRIFTS) {
+                    drifts.add(drift);
+                }
+            }
+        }
+
+        double rowsPerSecond() {
+            double seconds = (System.nanoTime() - startNanos) / 1e9;
+            return seconds <= 0 ? 0 : rows.get() / seconds;
+        }
+
+        ReconciliationReportDto toReport(boolean running) {
+            List<WalletDriftDto> snapshot;
+            synchronized (drifts) {
+                snapshot = List.copyOf(drifts);
+            }
+            List<Long> unledgeredSnapshot;
+            synchronized (unledgered) {
+                unledgeredSnapshot = List.copyOf(unledgered);
+            }
+            return new ReconciliationReportDto(running, progress.isFinished(), progress.getStartedAt(),
+                    progress.getLastUserId(), progress.getWalletsChecked(), driftCount.get(),
+                    withoutLedgerCount.get(), rowsPerSecond(), snapshot, unledgeredSnapshot);
+        }
+    }
+}
@@ -1,14 +1,22 @@
 package com.ecohub.rewardwallet.service;
 
+import java.util.List;
+
+import com.ecohub.rewardwallet.dto.BulkWalletEntryDto;
+import com.ecohub.rewardwallet.dto.BulkWalletResultDto;
 import com.ecohub.rewardwallet.dto.WalletResponseDto;
 
 public interface WalletService {
 
     WalletResponseDto createWallet(Long userId);
 
+    List<WalletResponseDto> createWallets(List<Long> userIds);
+
     WalletResponseDto getWallet(Long userId);
 
-    WalletResponseDto credit(Long userId, int amount);
+    WalletResponseDto credit(Long userId, int amount, String source);
+
+    WalletResponseDto debit(Long userId, int amount, String source);
 
-    WalletResponseDto debit(Long userId, int amount);
+    List<BulkWalletResultDto> applyBulk(List<BulkWalletEntryDto> entries);
 }
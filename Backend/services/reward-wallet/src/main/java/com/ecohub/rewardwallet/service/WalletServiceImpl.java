@@ -1,64 +1,250 @@
 package com.ecohub.rewardwallet.service;
 
 import java.time.LocalDateTime;
-
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.ecohub.rewardwallet.dto.BulkWalletEntryDto;
+import com.ecohub.rewardwallet.dto.BulkWalletResultDto;
 import com.ecohub.rewardwallet.dto.WalletResponseDto;
+import com.ecohub.rewardwallet.engine.WalletBalanceEngine;
+import com.ecohub.rewardwallet.engine.WalletRejectedException;
+import com.ecohub.rewardwallet.entity.RewardTransaction;
+import com.ecohub.rewardwallet.entity.TransactionType;
 import com.ecohub.rewardwallet.entity.Wallet;
+import com.ecohub.rewardwallet.ledger.GroupCommitLedgerWriter;
+import com.ecohub.rewardwallet.repository.RewardTransactionRepository;
 import com.ecohub.rewardwallet.repository.WalletRepository;
 
 @Service
 public class WalletServiceImpl implements WalletService {
 
-    private final WalletRepository walletRepository;
+    private static final int INITIAL_BALANCE = 200;
+    private static final String SIGNUP_SOURCE = "SIGNUP_BONUS";
+    private static final String DEFAULT_DEBIT_SOURCE = "REDEEM";
 
-    public WalletServiceImpl(WalletRepository walletRepository) {
+    private final WalletRepository walletRepository;
+    private final WalletBalanceEngine balanceEngine;
+    private final GroupCommitLedgerWriter ledgerWriter;
+    private final RewardTransactionRepository transactionRepository;
+    private final int maxBulkEntries;
+
+    // bulk references between their duplicate check and their ledger commit
+    private final Set<String> referencesInFlight = ConcurrentHashMap.newKeySet();
+
+    public WalletServiceImpl(
+            WalletRepository walletRepository,
+            WalletBalanceEngine balanceEngine,
+            GroupCommitLedgerWriter ledgerWriter,
+            RewardTransactionRepository transactionRepository,
+            @Value("${wallet.bulk.max-entries:10000}") int maxBulkEntries) {
         this.walletRepository = walletRepository;
+        this.balanceEngine = balanceEngine;
+        this.ledgerWriter = ledgerWriter;
+        this.transactionRepository = transactionRepository;
+        this.maxBulkEntries = maxBulkEntries;
     }
 
     @Override
     public WalletResponseDto createWallet(Long userId) {
-        System.out.println("Creating wallet for user: " + userId + " with balance 200");
-        Wallet wallet = new Wallet();
-        wallet.setUserId(userId);
-        wallet.setBalance(200);
-        wallet.setUpdatedAt(LocalDateTime.now());
+        if (balanceEngine.isLoaded(userId) || walletRepository.existsById(userId)) {
+            return getWallet(userId);
+        }
 
-        return new WalletResponseDto(walletRepository.save(wallet));
+        System.out.println("Creating wallet for user: " + userId + " with balance " + INITIAL_BALANCE);
+        Wallet saved = walletRepository.save(new Wallet(userId, INITIAL_BALANCE, LocalDateTime.now()));
+        balanceEngine.register(saved.getUserId(), saved.getBalance(), saved.getUpdatedAt());
+        ledgerWriter.append(ledgerEntry(userId, TransactionType.CREDIT, INITIAL_BALANCE, SIGNUP_SOURCE));
+
+        return new WalletResponseDto(saved);
     }
 
     @Override
-    public WalletResponseDto getWallet(Long userId) {
-        Wallet wallet = walletRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("Wallet not found"));
+    @Transactional
+    public List<WalletResponseDto> createWallets(List<Long> userIds) {
+        checkBulkSize(userIds.size());
+
+        List<Long> distinct = userIds.stream().filter(Objects::nonNull).distinct().toList();
+        balanceEngine.preload(distinct);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Wallet> created = distinct.stream()
+                .filter(userId -> !balanceEngine.isLoaded(userId))
+                .map(userId -> new Wallet(userId, INITIAL_BALANCE, now))
+                .toList();
+
+        // assigned ids + Persistable.isNew() let Hibernate batch these inserts
+        List<RewardTransaction> signupCredits = new ArrayList<>(created.size());
+        for (Wallet wallet : walletRepository.saveAll(created)) {
+            balanceEngine.register(wallet.getUserId(), wallet.getBalance(), wallet.getUpdatedAt());
+            signupCredits.add(ledgerEntry(wallet.getUserId(), TransactionType.CREDIT, INITIAL_BALANCE, SIGNUP_SOURCE));
+        }
+        ledgerWriter.appendAll(signupCredits);
 
-        return new WalletResponseDto(wallet);
+        return distinct.stream().map(this::getWallet).toList();
     }
 
     @Override
-    public WalletResponseDto credit(Long userId, int amount) {
-        Wallet wallet = walletRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("Wallet not found"));
+    public WalletResponseDto getWallet(Long userId) {
+        return response(userId, balanceEngine.getBalance(userId));
+    }
 
-        wallet.setBalance(wallet.getBalance() + amount);
-        wallet.setUpdatedAt(LocalDateTime.now());
+    @Override
+    public WalletResponseDto credit(Long userId, int amount, String source) {
+        int balance = balanceEngine.credit(userId, amount);
+        recordOrRevert(userId, amount, ledgerEntry(userId, TransactionType.CREDIT, amount, source));
+        return response(userId, balance);
+    }
 
-        return new WalletResponseDto(walletRepository.save(wallet));
+    @Override
+    public WalletResponseDto debit(Long userId, int amount, String source) {
+        int balance = balanceEngine.debit(userId, amount);
+        recordOrRevert(userId, -amount, ledgerEntry(userId, TransactionType.DEBIT, amount,
+                source != null ? source : DEFAULT_DEBIT_SOURCE));
+        return response(userId, balance);
     }
 
+    /**
+     * Entries carrying a reference are applied at most once: the reference is
+     * stored on the ledger row, and a reference that already has one comes
+     * back DUPLICATE. A reference still being applied by a concurrent request
+     * comes back RETRY, and its retry will see it as DUPLICATE.
+     *
+     * REJECTED is reserved for entries the wallet refuses (unknown wallet,
+     * insufficient balance, bad input). Anything that failed for a passing
+     * reason, including a failed ledger commit, is reverted and comes back
+     * RETRY so the caller resends it rather than giving up on it.
+     */
     @Override
-    public WalletResponseDto debit(Long userId, int amount) {
-        Wallet wallet = walletRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("Wallet not found"));
+    public List<BulkWalletResultDto> applyBulk(List<BulkWalletEntryDto> entries) {
+        checkBulkSize(entries.size());
+
+        Set<String> claimed = claimReferences(entries);
+        try {
+            return applyBulk(entries, claimed);
+        } finally {
+            referencesInFlight.removeAll(claimed);
+        }
+    }
+
+    private List<BulkWalletResultDto> applyBulk(List<BulkWalletEntryDto> entries, Set<String> claimed) {
+        balanceEngine.preload(entries.stream().map(BulkWalletEntryDto::getUserId).toList());
+        Set<String> applied = claimed.isEmpty()
+                ? new HashSet<>()
+                : new HashSet<>(transactionRepository.findExistingReferences(claimed));
+
+        List<BulkWalletResultDto> results = new ArrayList<>(entries.size());
+        List<Integer> appliedIndexes = new ArrayList<>();
+        List<RewardTransaction> ledgerRows = new ArrayList<>();
+        for (BulkWalletEntryDto entry : entries) {
+            try {
+                if (entry.getUserId() == null) {
+                    throw new WalletRejectedException("userId is required");
+                }
+                // a negative credit would be an unchecked debit, a negative debit would mint coins
+                if (entry.getAmount() <= 0) {
+                    throw new WalletRejectedException("Amount must be positive");
+                }
+                String reference = entry.getReference();
+                if (reference != null) {
+                    if (!claimed.contains(reference)) {
+                        throw new RuntimeException("Reference " + reference + " is already being applied");
+                    }
+                    // also catches the same reference twice in one request
+                    if (applied.contains(reference)) {
+                        results.add(BulkWalletResultDto.duplicate(entry.getUserId(),
+                                balanceEngine.getBalance(entry.getUserId())));
+                        continue;
+                    }
+                }
+                boolean isDebit = entry.getType() == TransactionType.DEBIT;
+                int balance = isDebit
+                        ? balanceEngine.debit(entry.getUserId(), entry.getAmount())
+                        : balanceEngine.credit(entry.getUserId(), entry.getAmount());
+                appliedIndexes.add(results.size());
+                RewardTransaction row = ledgerEntry(entry.getUserId(),
+                        isDebit ? TransactionType.DEBIT : TransactionType.CREDIT,
+                        entry.getAmount(), entry.getSource());
+                row.setReference(reference);
+                ledgerRows.add(row);
+                if (reference != null) {
+                    applied.add(reference);
+                }
+                results.add(BulkWalletResultDto.applied(entry.getUserId(), balance));
+            } catch (WalletRejectedException e) {
+                results.add(BulkWalletResultDto.rejected(entry.getUserId(), e.getMessage()));
+            } catch (RuntimeException e) {
+                results.add(BulkWalletResultDto.retry(entry.getUserId(), e.getMessage()));
+            }
+        }
 
-        if (wallet.getBalance() < amount) {
-            throw new RuntimeException("Insufficient balance");
+        // the whole payout shares one or two group commits
+        try {
+            ledgerWriter.appendAll(ledgerRows);
+        } catch (RuntimeException e) {
+            for (int i = 0; i < appliedIndexes.size(); i++) {
+                RewardTransaction row = ledgerRows.get(i);
+                balanceEngine.revert(row.getUserId(), signedAmount(row));
+                results.set(appliedIndexes.get(i), BulkWalletResultDto.retry(row.getUserId(), e.getMessage()));
+            }
+            return results;
         }
 
-        wallet.setBalance(wallet.getBalance() - amount);
-        wallet.setUpdatedAt(LocalDateTime.now());
+        // Write the whole payout out as one batched transaction instead of
+        // waiting for the next scheduled flush. If it fails the changes stay
+        // dirty in the engine and the flusher retries them.
+        try {
+            balanceEngine.flush();
+        } catch (RuntimeException e) {
+            System.out.println("Bulk payout flush deferred: " + e.getMessage());
+        }
+
+        return results;
+    }
+
+    private WalletResponseDto response(Long userId, int balance) {
+        return new WalletResponseDto(userId, balance, balanceEngine.getHeld(userId));
+    }
+
+    private void recordOrRevert(Long userId, int appliedDelta, RewardTransaction entry) {
+        try {
+            ledgerWriter.append(entry);
+        } catch (RuntimeException e) {
+            balanceEngine.revert(userId, appliedDelta);
+            throw e;
+        }
+    }
 
-        return new WalletResponseDto(walletRepository.save(wallet));
+    private static RewardTransaction ledgerEntry(Long userId, TransactionType type, int amount, String source) {
+        return new RewardTransaction(null, userId, type, amount, source, null, LocalDateTime.now(), null);
+    }
+
+    private static int signedAmount(RewardTransaction row) {
+        return row.getType() == TransactionType.DEBIT ? -row.getAmount() : row.getAmount();
+    }
+
+    private Set<String> claimReferences(List<BulkWalletEntryDto> entries) {
+        Set<String> claimed = new HashSet<>();
+        for (BulkWalletEntryDto entry : entries) {
+            String reference = entry.getReference();
+            if (reference != null && !claimed.contains(reference) && referencesInFlight.add(reference)) {
+                claimed.add(reference);
+            }
+        }
+        return claimed;
+    }
+
+    private void checkBulkSize(int size) {
+        if (size > maxBulkEntries) {
+            throw new WalletRejectedException("Too many entries, max is " + maxBulkEntries);
+        }
     }
 }
@@ -0,0 +1,39 @@
+package com.ecohub.rewardwallet.controller;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.ecohub.rewardwallet.engine.WalletRejectedException;
+import com.ecohub.rewardwallet.service.CoinHoldService;
+
+class WalletHoldControllerTest {
+
+    private final CoinHoldService holdService = mock(CoinHoldService.class);
+    private final MockMvc mvc = MockMvcBuilders.standaloneSetup(new WalletHoldController(holdService)).build();
+
+    @Test
+    void aDeclinedCaptureIsAConflict() throws Exception {
+        when(holdService.capture(1L)).thenThrow(new WalletRejectedException("Hold expired"));
+
+        mvc.perform(post("/holds/1/capture"))
+                .andExpect(status().isConflict())
+                .andExpect(content().string("Hold expired"));
+    }
+
+    @Test
+    void aWalletFailureIsNotReportedAsADecline() {
+        when(holdService.capture(1L)).thenThrow(new DataAccessResourceFailureException("Connection refused"));
+
+        // no handler claims it, so the container answers 500
+        assertThrows(Exception.class, () -> mvc.perform(post("/holds/1/capture")));
+    }
+}
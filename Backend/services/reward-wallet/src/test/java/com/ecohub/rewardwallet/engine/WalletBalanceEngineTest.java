@@ -0,0 +1,315 @@
+package com.ecohub.rewardwallet.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.ecohub.rewardwallet.entity.Wallet;
+import com.ecohub.rewardwallet.journal.WalletJournal;
+import com.ecohub.rewardwallet.repository.WalletBatchRepository;
+import com.ecohub.rewardwallet.repository.WalletBatchRepository.BalanceUpdate;
+import com.ecohub.rewardwallet.repository.WalletRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class WalletBalanceEngineTest {
+
+    private static final int USERS = 8;
+    private static final int INITIAL_BALANCE = 1_000;
+
+    // stands in for the wallet table
+    private final Map<Long, Integer> table = new ConcurrentHashMap<>();
+    private final AtomicInteger batches = new AtomicInteger();
+
+    @TempDir
+    Path journalDir;
+
+    private WalletRepository walletRepository;
+    private WalletBatchRepository batchRepository;
+    private WalletJournal journal;
+    private WalletBalanceEngine engine;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        for (long userId = 1; userId <= USERS; userId++) {
+            table.put(userId, INITIAL_BALANCE);
+        }
+        walletRepository = mock(WalletRepository.class);
+        when(walletRepository.findById(any())).thenAnswer(invocation -> {
+            Long userId = invocation.getArgument(0);
+            Integer balance = table.get(userId);
+            return balance == null
+                    ? Optional.empty()
+                    : Optional.of(new Wallet(userId, balance, LocalDateTime.now()));
+        });
+
+        batchRepository = mock(WalletBatchRepository.class);
+        doAnswer(invocation -> {
+            for (BalanceUpdate update : (List<BalanceUpdate>) invocation.getArgument(0)) {
+                table.put(update.getUserId(), update.getBalance());
+            }
+            batches.incrementAndGet();
+            return null;
+        }).when(batchRepository).updateBalances(anyList(), anyInt());
+
+        journal = new WalletJournal(journalDir.toString(), 64 * 1024, false, new SimpleMeterRegistry());
+        engine = newEngine(100_000, 600_000);
+    }
+
+    private WalletBalanceEngine newEngine(int cacheMaxSize, long cacheTtlMs) {
+        return new WalletBalanceEngine(walletRepository, batchRepository, journal, List.of(),
+                new SimpleMeterRegistry(), 100, cacheMaxSize, cacheTtlMs);
+    }
+
+    @Test
+    void debitRejectsOverdraftWithoutChangingBalance() {
+        RuntimeException e = assertThrows(RuntimeException.class, () -> engine.debit(1L, INITIAL_BALANCE + 1));
+
+        assertEquals("Insufficient balance", e.getMessage());
+        assertEquals(INITIAL_BALANCE, engine.getBalance(1L));
+    }
+
+    @Test
+    void unknownWalletIsRejected() {
+        RuntimeException e = assertThrows(RuntimeException.class, () -> engine.credit(99L, 10));
+
+        assertEquals("Wallet not found", e.getMessage());
+    }
+
+    @Test
+    void flushCoalescesChangesIntoOneRowPerUser() {
+        for (int i = 0; i < 50; i++) {
+            engine.credit(1L, 2);
+            engine.debit(2L, 1);
+        }
+
+        assertEquals(2, engine.flush());
+        assertEquals(1, batches.get());
+        assertEquals(INITIAL_BALANCE + 100, table.get(1L));
+        assertEquals(INITIAL_BALANCE - 50, table.get(2L));
+        assertEquals(0, engine.flush());
+    }
+
+    @Test
+    void unflushedBalancesAreReplayedFromTheJournalOnRestart() {
+        engine.credit(1L, 5);
+        engine.debit(3L, 7);
+        engine.credit(1L, 5);
+        assertEquals(INITIAL_BALANCE, table.get(1L), "nothing flushed yet");
+
+        // simulate a crash: the old engine is dropped without flushing
+        journal.close();
+        WalletJournal reopened = new WalletJournal(journalDir.toString(), 64 * 1024, false, new SimpleMeterRegistry());
+        WalletBalanceEngine restarted = new WalletBalanceEngine(
+                mock(WalletRepository.class), batchRepository, reopened, List.of(), new SimpleMeterRegistry(),
+                100, 100_000, 600_000);
+        restarted.recoverFromJournal();
+
+        assertEquals(INITIAL_BALANCE + 10, table.get(1L));
+        assertEquals(INITIAL_BALANCE - 7, table.get(3L));
+        assertEquals(1, batches.get());
+    }
+
+    @Test
+    void concurrentCreditsAndDebitsLoseNoUpdates() throws Exception {
+        int threads = 16;
+        int opsPerThread = 20_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads + 1);
+
+        // per-user net change actually applied, counted on the caller side
+        AtomicInteger[] expected = new AtomicInteger[USERS + 1];
+        for (int i = 1; i <= USERS; i++) {
+            expected[i] = new AtomicInteger(INITIAL_BALANCE);
+        }
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        Future<?> flusher = pool.submit(() -> {
+            while (running.get()) {
+                engine.flush();
+            }
+        });
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            workers.add(pool.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < opsPerThread; i++) {
+                    long userId = 1 + random.nextInt(USERS);
+                    int amount = 1 + random.nextInt(20);
+                    if (random.nextBoolean()) {
+                        engine.credit(userId, amount);
+                        expected[(int) userId].addAndGet(amount);
+                    } else {
+                        try {
+                            engine.debit(userId, amount);
+                            expected[(int) userId].addAndGet(-amount);
+                        } catch (RuntimeException insufficient) {
+                            // rejected debits must not change the balance
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        running.set(false);
+        flusher.get();
+        engine.flush();
+        pool.shutdown();
+
+        for (long userId = 1; userId <= USERS; userId++) {
+            int want = expected[(int) userId].get();
+            assertEquals(want, engine.getBalance(userId), "in-memory balance of user " + userId);
+            assertEquals(want, table.get(userId), "flushed balance of user " + userId);
+        }
+    }
+
+    @Test
+    void onlyFlushedWalletsAreEvicted() {
+        engine = newEngine(100, 0);
+        engine.credit(1L, 5);
+        engine.getBalance(2L);
+        engine.getBalance(3L);
+
+        assertEquals(2, engine.evict(), "clean wallets 2 and 3 expire");
+        assertTrue(engine.isLoaded(1L), "unflushed wallet 1 must stay");
+
+        engine.flush();
+        assertEquals(1, engine.evict());
+        assertEquals(INITIAL_BALANCE + 5, engine.getBalance(1L), "reloaded from the table");
+    }
+
+    @Test
+    void sizeLimitEvictsLeastRecentlyUsedFirst() {
+        engine = newEngine(2, 600_000);
+        engine.getBalance(1L);
+        engine.getBalance(2L);
+        engine.getBalance(1L);
+
+        // the third wallet pushes the engine over its limit and trims it on load
+        engine.getBalance(3L);
+
+        assertEquals(0, engine.evict());
+        assertTrue(engine.isLoaded(1L));
+        assertTrue(!engine.isLoaded(2L));
+        assertTrue(engine.isLoaded(3L));
+    }
+
+    @Test
+    void readsSeeTheLastAcknowledgedWriteWhileWalletsAreEvicted() throws Exception {
+        // a tiny cache with no TTL keeps every wallet churning through evict/reload
+        engine = newEngine(2, 0);
+        int threads = 8;
+        int opsPerThread = 5_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads + 1);
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        Future<?> evictor = pool.submit(() -> {
+            while (running.get()) {
+                engine.flush();
+                engine.evict();
+            }
+        });
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            workers.add(pool.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < opsPerThread; i++) {
+                    long userId = 1 + random.nextInt(USERS);
+                    // credits only, so a read may run ahead of this write but never behind it
+                    int acknowledged = engine.credit(userId, 1);
+                    int read = engine.getBalance(userId);
+                    assertTrue(read >= acknowledged,
+                            "user " + userId + " read " + read + " after writing " + acknowledged);
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        running.set(false);
+        evictor.get();
+        pool.shutdown();
+
+        engine.flush();
+        int total = 0;
+        for (long userId = 1; userId <= USERS; userId++) {
+            assertEquals(table.get(userId), engine.getBalance(userId));
+            total += table.get(userId) - INITIAL_BALANCE;
+        }
+        assertEquals(threads * opsPerThread, total, "no credit lost across evictions");
+    }
+
+    @Test
+    void heldCoinsAreNotSpendableUntilReleased() {
+        engine.hold(1L, 600);
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> engine.debit(1L, 500));
+        assertEquals("Insufficient balance", e.getMessage());
+        assertThrows(RuntimeException.class, () -> engine.hold(1L, 500));
+
+        engine.releaseHold(1L, 600);
+        assertEquals(INITIAL_BALANCE - 500, engine.debit(1L, 500));
+        assertEquals(0, engine.getHeld(1L));
+    }
+
+    @Test
+    void captureDebitsTheHeldCoins() {
+        engine.hold(1L, 300);
+
+        assertEquals(INITIAL_BALANCE - 300, engine.capture(1L, 300));
+        assertEquals(0, engine.getHeld(1L));
+
+        engine.flush();
+        assertEquals(INITIAL_BALANCE - 300, table.get(1L));
+    }
+
+    @Test
+    void walletsWithOpenHoldsAreNotEvicted() {
+        engine = newEngine(100, 0);
+        engine.hold(1L, 10);
+        engine.getBalance(2L);
+
+        assertEquals(1, engine.evict());
+        assertTrue(engine.isLoaded(1L));
+        assertEquals(10, engine.getHeld(1L));
+    }
+}
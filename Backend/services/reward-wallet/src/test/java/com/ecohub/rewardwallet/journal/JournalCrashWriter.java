@@ -0,0 +1,21 @@
+package com.ecohub.rewardwallet.journal;
+
+import java.time.LocalDateTime;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Child process for {@link WalletJournalTest}: appends records until it is
+ * killed, reporting every acknowledged append on stdout.
+ */
+public class JournalCrashWriter {
+
+    public static void main(String[] args) {
+        WalletJournal journal = new WalletJournal(args[0], Integer.parseInt(args[1]), false, new SimpleMeterRegistry());
+        for (int i = 1; ; i++) {
+            long userId = i % 100;
+            long seq = journal.append(userId, i, LocalDateTime.now());
+            System.out.println("ack " + seq + " " + userId + " " + i);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.ecohub.rewardwallet.journal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class WalletJournalTest {
+
+    private static final int SEGMENT_BYTES = WalletJournal.RECORD_BYTES * 1000;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void recoversLatestBalancePerUser() {
+        WalletJournal journal = open();
+        journal.append(1L, 100, LocalDateTime.now());
+        journal.append(2L, 50, LocalDateTime.now());
+        journal.append(1L, 120, LocalDateTime.now());
+        journal.close();
+
+        Map<Long, JournalRecord> recovered = byUser(open());
+
+        assertEquals(2, recovered.size());
+        assertEquals(120, recovered.get(1L).getBalance());
+        assertEquals(3, recovered.get(1L).getSeq());
+        assertEquals(50, recovered.get(2L).getBalance());
+    }
+
+    @Test
+    void sequenceContinuesAfterRestart() {
+        WalletJournal journal = open();
+        journal.append(1L, 1, LocalDateTime.now());
+        journal.append(1L, 2, LocalDateTime.now());
+
+        assertEquals(3, open().append(1L, 3, LocalDateTime.now()));
+    }
+
+    @Test
+    void tornRecordEndsRecovery() throws IOException {
+        WalletJournal journal = open();
+        journal.append(1L, 10, LocalDateTime.now());
+        journal.append(1L, 20, LocalDateTime.now());
+        journal.close();
+
+        // corrupt the second record as if the process died while writing it
+        try (RandomAccessFile file = new RandomAccessFile(segments().get(0).toFile(), "rw")) {
+            file.seek(WalletJournal.RECORD_BYTES + 17);
+            file.write(0x7f);
+        }
+
+        Map<Long, JournalRecord> recovered = byUser(open());
+        assertEquals(10, recovered.get(1L).getBalance());
+    }
+
+    @Test
+    void appliedSegmentsAreDeletedAfterRolling() throws IOException {
+        WalletJournal journal = open();
+        for (int i = 0; i < 2500; i++) {
+            journal.append(i % 10, i, LocalDateTime.now());
+        }
+        assertEquals(3, segments().size());
+
+        journal.markApplied(1999);
+        assertEquals(2, segments().size(), "second segment still holds seq 2000");
+
+        journal.markApplied(2000);
+        assertEquals(1, segments().size(), "only the active segment is left");
+    }
+
+    @Test
+    void acknowledgedAppendsSurviveKillingTheWriterMidSegment() throws Exception {
+        Process writer = new ProcessBuilder(
+                new File(System.getProperty("java.home"), "bin/java").getPath(),
+                "-cp", System.getProperty("java.class.path"),
+                JournalCrashWriter.class.getName(),
+                dir.toString(),
+                String.valueOf(SEGMENT_BYTES))
+                .redirectErrorStream(true)
+                .start();
+
+        Map<Long, Long> lastAckedSeqPerUser = new HashMap<>();
+        long lastAckedSeq = 0;
+        try (BufferedReader out = new BufferedReader(new InputStreamReader(writer.getInputStream()))) {
+            String line;
+            // stop somewhere inside the fourth segment
+            while ((line = out.readLine()) != null && lastAckedSeq < 3500) {
+                if (!line.startsWith("ack ")) {
+                    continue;
+                }
+                String[] parts = line.split(" ");
+                lastAckedSeq = Long.parseLong(parts[1]);
+                lastAckedSeqPerUser.put(Long.parseLong(parts[2]), lastAckedSeq);
+            }
+            writer.destroyForcibly().waitFor();
+        }
+        assertTrue(lastAckedSeq >= 3500, "writer did not get far enough");
+
+        WalletJournal recoveredJournal = open();
+        Map<Long, JournalRecord> recovered = byUser(recoveredJournal);
+
+        assertTrue(recoveredJournal.lastSeq() >= lastAckedSeq);
+        for (Map.Entry<Long, Long> acked : lastAckedSeqPerUser.entrySet()) {
+            JournalRecord record = recovered.get(acked.getKey());
+            assertNotNull(record, "lost every record of user " + acked.getKey());
+            assertTrue(record.getSeq() >= acked.getValue(), "lost an acknowledged append of user " + acked.getKey());
+            // the writer uses the loop counter as balance, so it equals the seq
+            assertEquals(record.getSeq(), record.getBalance());
+        }
+    }
+
+    private WalletJournal open() {
+        return new WalletJournal(dir.toString(), SEGMENT_BYTES, false, new SimpleMeterRegistry());
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private static Map<Long, JournalRecord> byUser(WalletJournal journal) {
+        Map<Long, JournalRecord> byUser = new HashMap<>();
+        for (JournalRecord record : journal.recoveredRecords()) {
+            byUser.put(record.getUserId(), record);
+        }
+        return byUser;
+    }
+}
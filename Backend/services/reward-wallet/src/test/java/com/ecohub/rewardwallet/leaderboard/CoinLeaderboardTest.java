@@ -0,0 +1,160 @@
+package com.ecohub.rewardwallet.leaderboard;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import com.ecohub.rewardwallet.dto.LeaderboardEntryDto;
+import com.ecohub.rewardwallet.dto.LeaderboardPositionDto;
+import com.ecohub.rewardwallet.repository.WalletBalanceRow;
+import com.ecohub.rewardwallet.repository.WalletRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CoinLeaderboardTest {
+
+    private final WalletRepository walletRepository = mock(WalletRepository.class);
+    private final CoinLeaderboard leaderboard = new CoinLeaderboard(walletRepository, new SimpleMeterRegistry());
+
+    @Test
+    void rebuildLoadsWalletsButKeepsNewerEngineBalances() {
+        when(walletRepository.findBalancesAfter(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(new WalletBalanceRow(1L, 10), new WalletBalanceRow(2L, 30)));
+        when(walletRepository.findBalancesAfter(eq(2L), any(Pageable.class))).thenReturn(List.of());
+
+        leaderboard.onBalanceChanged(1L, 50);
+        leaderboard.rebuild();
+
+        List<LeaderboardEntryDto> top = leaderboard.top(10);
+        assertEquals(2, top.size());
+        assertEquals(1L, top.get(0).getUserId());
+        assertEquals(50, top.get(0).getBalance());
+    }
+
+    @Test
+    void matchesASortedListUnderRandomUpdates() {
+        Random random = new Random(7);
+        Map<Long, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 20_000; i++) {
+            long userId = 1 + random.nextInt(2_000);
+            int balance = random.nextInt(500);
+            expected.put(userId, balance);
+            leaderboard.onBalanceChanged(userId, balance);
+        }
+
+        List<Map.Entry<Long, Integer>> sorted = new ArrayList<>(expected.entrySet());
+        sorted.sort(Comparator.<Map.Entry<Long, Integer>>comparingInt(Map.Entry::getValue).reversed()
+                .thenComparing(Map.Entry::getKey));
+
+        List<LeaderboardEntryDto> top = leaderboard.top(100);
+        for (int i = 0; i < top.size(); i++) {
+            assertEquals(sorted.get(i).getKey(), top.get(i).getUserId());
+            assertEquals(i + 1, top.get(i).getRank());
+        }
+
+        for (int i = 0; i < sorted.size(); i += 97) {
+            Long userId = sorted.get(i).getKey();
+            LeaderboardPositionDto position = leaderboard.position(userId, 2);
+            assertEquals(i + 1, position.getUser().getRank());
+            assertEquals(expected.size(), position.getTotalUsers());
+            for (LeaderboardEntryDto around : position.getAround()) {
+                assertEquals(sorted.get(around.getRank() - 1).getKey(), around.getUserId());
+            }
+        }
+    }
+
+    @Test
+    void concurrentReportsEndOnEachUsersLatestBalance() throws Exception {
+        int threads = 4;
+        ExecutorService pool = Executors.newFixedThreadPool(threads + 1);
+        AtomicBoolean reporting = new AtomicBoolean(true);
+        try {
+            // a reader keeps draining while the reporters run
+            Future<?> reader = pool.submit(() -> {
+                while (reporting.get()) {
+                    leaderboard.top(10);
+                }
+            });
+            List<Future<?>> reporters = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long userId = t + 1;
+                // each user is reported from one thread only, like under its cell lock
+                reporters.add(pool.submit(() -> {
+                    for (int balance = 1; balance <= 20_000; balance++) {
+                        leaderboard.onBalanceChanged(userId, balance * (int) userId);
+                    }
+                }));
+            }
+            for (Future<?> reporter : reporters) {
+                reporter.get(30, TimeUnit.SECONDS);
+            }
+            reporting.set(false);
+            reader.get(30, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        List<LeaderboardEntryDto> top = leaderboard.top(10);
+        assertEquals(threads, top.size());
+        for (int i = 0; i < threads; i++) {
+            assertEquals(threads - i, top.get(i).getUserId());
+            assertEquals(20_000 * (threads - i), top.get(i).getBalance());
+        }
+    }
+
+    /**
+     * Rough numbers at 1M wallets; asserts nothing about speed.
+     */
+    @Test
+    void millionWallets() {
+        int wallets = 1_000_000;
+        Random random = new Random(1);
+        long start = System.nanoTime();
+        for (long userId = 1; userId <= wallets; userId++) {
+            leaderboard.onBalanceChanged(userId, random.nextInt(100_000));
+        }
+        leaderboard.applyPending();
+        long buildNanos = System.nanoTime() - start;
+
+        int ops = 200_000;
+        start = System.nanoTime();
+        for (int i = 0; i < ops; i++) {
+            leaderboard.onBalanceChanged(1L + random.nextInt(wallets), random.nextInt(100_000));
+        }
+        leaderboard.applyPending();
+        long updateNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ops; i++) {
+            leaderboard.position(1L + random.nextInt(wallets), 0);
+        }
+        long rankNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < 10_000; i++) {
+            leaderboard.top(10);
+        }
+        long topNanos = System.nanoTime() - start;
+
+        System.out.printf("leaderboard 1M: build=%dms update=%dns/op rank=%dns/op top10=%dns/op%n",
+                buildNanos / 1_000_000, updateNanos / ops, rankNanos / ops, topNanos / 10_000);
+        assertEquals(wallets, leaderboard.size());
+    }
+}
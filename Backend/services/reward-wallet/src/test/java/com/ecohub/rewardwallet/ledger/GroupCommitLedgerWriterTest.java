@@ -0,0 +1,205 @@
+package com.ecohub.rewardwallet.ledger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.ecohub.rewardwallet.entity.RewardTransaction;
+import com.ecohub.rewardwallet.entity.TransactionType;
+import com.ecohub.rewardwallet.repository.RewardTransactionBatchRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class GroupCommitLedgerWriterTest {
+
+    // stands in for the reward_transactions table
+    private final Queue<RewardTransaction> table = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger commits = new AtomicInteger();
+    private final Set<String> references = ConcurrentHashMap.newKeySet();
+
+    private GroupCommitLedgerWriter writer;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (writer != null) {
+            writer.stop();
+        }
+    }
+
+    @Test
+    void appendReturnsOnlyOnceTheRowIsCommitted() {
+        writer = startWriter(0);
+
+        writer.append(entry(1L, 10));
+
+        assertEquals(1, table.size());
+        assertEquals(1, commits.get());
+    }
+
+    @Test
+    void failedCommitIsReportedToEveryWaiter() throws InterruptedException {
+        RewardTransactionBatchRepository failing = mock(RewardTransactionBatchRepository.class);
+        doThrow(new RuntimeException("db down")).when(failing).insertAll(anyList(), anyList());
+        writer = new GroupCommitLedgerWriter(failing, new SimpleMeterRegistry(), 100, 2);
+        writer.start();
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> writer.appendAll(List.of(entry(1L, 10), entry(2L, 20))));
+
+        assertEquals("Ledger write failed: db down", e.getMessage());
+    }
+
+    @Test
+    void aDuplicateReferenceFailsOnlyTheRequestThatSentIt() throws Exception {
+        references.add("payout-7");
+        CountDownLatch firstCommitStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstCommit = new CountDownLatch(1);
+        writer = startWriter(0, () -> {
+            if (firstCommitStarted.getCount() > 0) {
+                firstCommitStarted.countDown();
+                releaseFirstCommit.await();
+            }
+        });
+
+        // holds the writer in its first commit so the next three queue up
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        Future<?> blocker = pool.submit(() -> writer.append(entry(9L, 1)));
+        firstCommitStarted.await();
+
+        Future<?> plain = pool.submit(() -> writer.append(entry(1L, 10)));
+        Future<?> duplicate = pool.submit(() -> writer.appendAll(List.of(
+                entry(2L, 20, "payout-6"), entry(3L, 30, "payout-7"))));
+        Future<?> fresh = pool.submit(() -> writer.append(entry(4L, 40, "payout-8")));
+        while (writer.queued() < 3) {
+            Thread.sleep(1);
+        }
+        releaseFirstCommit.countDown();
+
+        blocker.get();
+        plain.get();
+        fresh.get();
+        ExecutionException e = assertThrows(ExecutionException.class, duplicate::get);
+        pool.shutdown();
+
+        assertEquals("Ledger write failed: Reference already in the ledger", e.getCause().getMessage());
+        assertEquals(2, commits.get());
+        assertEquals(List.of(9L, 1L, 4L), table.stream().map(RewardTransaction::getUserId).toList());
+    }
+
+    /**
+     * Not a hard benchmark, just the numbers at 1, 8 and 64 writers against a
+     * store with a fixed 1 ms commit cost. With one writer each append pays a
+     * full commit; with 64 they share it.
+     */
+    @Test
+    void concurrentWritersShareCommits() throws Exception {
+        int[] writerCounts = {1, 8, 64};
+        int appendsPerWriter = 50;
+
+        for (int writers : writerCounts) {
+            table.clear();
+            commits.set(0);
+            writer = startWriter(1);
+
+            ExecutorService pool = Executors.newFixedThreadPool(writers);
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                long userId = w;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < appendsPerWriter; i++) {
+                        writer.append(entry(userId, 1));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            long elapsedNanos = System.nanoTime() - start;
+            pool.shutdown();
+            writer.stop();
+
+            int rows = writers * appendsPerWriter;
+            System.out.printf("ledger group commit: writers=%d rows=%d commits=%d rows/s=%.0f%n",
+                    writers, rows, commits.get(), rows / (elapsedNanos / 1e9));
+
+            assertEquals(rows, table.size());
+            if (writers == 64) {
+                assertTrue(commits.get() * 8 < rows, "expected commits to be shared, got " + commits.get());
+            }
+        }
+        writer = null;
+    }
+
+    private GroupCommitLedgerWriter startWriter(long commitMillis) {
+        return startWriter(commitMillis, () -> { });
+    }
+
+    @SuppressWarnings("unchecked")
+    private GroupCommitLedgerWriter startWriter(long commitMillis, CommitHook hook) {
+        RewardTransactionBatchRepository repository = mock(RewardTransactionBatchRepository.class);
+        doAnswer(invocation -> {
+            hook.beforeCommit();
+            if (commitMillis > 0) {
+                Thread.sleep(commitMillis);
+            }
+            table.addAll((List<RewardTransaction>) invocation.getArgument(0));
+            // each referenced group goes in whole or not at all, like the savepoints
+            List<List<RewardTransaction>> groups = invocation.getArgument(1);
+            Set<Integer> rejected = new HashSet<>();
+            for (int i = 0; i < groups.size(); i++) {
+                List<String> refs = groups.get(i).stream()
+                        .map(RewardTransaction::getReference).filter(Objects::nonNull).toList();
+                if (refs.stream().anyMatch(references::contains)) {
+                    rejected.add(i);
+                    continue;
+                }
+                references.addAll(refs);
+                table.addAll(groups.get(i));
+            }
+            commits.incrementAndGet();
+            return rejected;
+        }).when(repository).insertAll(anyList(), anyList());
+
+        GroupCommitLedgerWriter ledgerWriter =
+                new GroupCommitLedgerWriter(repository, new SimpleMeterRegistry(), 1000, 2);
+        ledgerWriter.start();
+        return ledgerWriter;
+    }
+
+    private static RewardTransaction entry(Long userId, int amount) {
+        return entry(userId, amount, null);
+    }
+
+    private static RewardTransaction entry(Long userId, int amount, String reference) {
+        return new RewardTransaction(null, userId, TransactionType.CREDIT, amount, "DAILY_CHALLENGE", null,
+                LocalDateTime.now(), reference);
+    }
+
+    private interface CommitHook {
+        void beforeCommit() throws InterruptedException;
+    }
+}
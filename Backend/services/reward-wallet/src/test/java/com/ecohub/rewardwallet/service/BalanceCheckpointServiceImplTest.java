@@ -0,0 +1,209 @@
+package com.ecohub.rewardwallet.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import com.ecohub.rewardwallet.dto.BalanceVerificationDto;
+import com.ecohub.rewardwallet.engine.WalletBalanceEngine;
+import com.ecohub.rewardwallet.entity.BalanceCheckpoint;
+import com.ecohub.rewardwallet.repository.BalanceCheckpointBatchRepository;
+import com.ecohub.rewardwallet.repository.BalanceCheckpointRepository;
+import com.ecohub.rewardwallet.repository.LedgerTail;
+import com.ecohub.rewardwallet.repository.RewardTransactionRepository;
+import com.ecohub.rewardwallet.repository.WalletRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BalanceCheckpointServiceImplTest {
+
+    private final WalletRepository walletRepository = mock(WalletRepository.class);
+    private final RewardTransactionRepository transactionRepository = mock(RewardTransactionRepository.class);
+    private final BalanceCheckpointRepository checkpointRepository = mock(BalanceCheckpointRepository.class);
+    private final BalanceCheckpointBatchRepository checkpointBatchRepository =
+            mock(BalanceCheckpointBatchRepository.class);
+    private final WalletBalanceEngine balanceEngine = mock(WalletBalanceEngine.class);
+
+    // stand-ins for reward_transactions (id -> userId, signed amount) and balance_checkpoints
+    private final TreeMap<Long, long[]> ledger = new TreeMap<>();
+    private final Map<Long, BalanceCheckpoint> checkpoints = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> wallets = new ConcurrentHashMap<>();
+
+    private BalanceCheckpointServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        when(walletRepository.findUserIdsAfter(anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+            Long after = invocation.getArgument(0);
+            Pageable page = invocation.getArgument(1);
+            return wallets.keySet().stream().filter(userId -> userId > after).sorted()
+                    .limit(page.getPageSize()).toList();
+        });
+        when(transactionRepository.sumTail(anyLong(), anyLong())).thenAnswer(invocation ->
+                Optional.ofNullable(tail(invocation.getArgument(0), invocation.getArgument(1), 0)));
+        when(transactionRepository.balancesSinceCheckpoint(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> userIds = invocation.getArgument(0);
+            List<LedgerTail> balances = new ArrayList<>();
+            for (Long userId : userIds) {
+                BalanceCheckpoint checkpoint = checkpoints.get(userId);
+                LedgerTail tail = checkpoint == null
+                        ? tail(userId, 0, 0)
+                        : tail(userId, checkpoint.getLastTransactionId(), checkpoint.getBalance());
+                if (tail != null) {
+                    balances.add(tail);
+                }
+            }
+            return balances;
+        });
+        when(checkpointRepository.findById(anyLong()))
+                .thenAnswer(invocation -> Optional.ofNullable(checkpoints.get(invocation.getArgument(0))));
+        doAnswer(invocation -> {
+            List<BalanceCheckpoint> advanced = invocation.getArgument(0);
+            for (BalanceCheckpoint checkpoint : advanced) {
+                checkpoints.merge(checkpoint.getUserId(), checkpoint, (current, next) ->
+                        next.getLastTransactionId() > current.getLastTransactionId() ? next : current);
+            }
+            return null;
+        }).when(checkpointBatchRepository).upsertAll(anyList());
+        when(balanceEngine.getBalance(anyLong())).thenAnswer(invocation -> wallets.get(invocation.getArgument(0)));
+        doAnswer(invocation -> {
+            wallets.merge(invocation.getArgument(0), invocation.<Integer>getArgument(1), Integer::sum);
+            return null;
+        }).when(balanceEngine).adjust(anyLong(), anyInt());
+
+        service = new BalanceCheckpointServiceImpl(walletRepository, transactionRepository, checkpointRepository,
+                checkpointBatchRepository, balanceEngine, new SimpleMeterRegistry(), 2, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    private LedgerTail tail(long userId, long afterId, long base) {
+        long delta = 0;
+        long last = 0;
+        long rows = 0;
+        for (Map.Entry<Long, long[]> row : ledger.tailMap(afterId, false).entrySet()) {
+            if (row.getValue()[0] == userId) {
+                delta += row.getValue()[1];
+                last = row.getKey();
+                rows++;
+            }
+        }
+        return rows == 0 ? null : new LedgerTail(userId, base + delta, last, rows);
+    }
+
+    private void post(long userId, long signedAmount) {
+        ledger.put(ledger.isEmpty() ? 1 : ledger.lastKey() + 1, new long[] {userId, signedAmount});
+        wallets.merge(userId, (int) signedAmount, Integer::sum);
+    }
+
+    @Test
+    void checkpointsAccumulateOnlyTheRowsPastThePreviousOne() {
+        post(1, 200);
+        post(2, 200);
+        post(1, -50);
+        post(3, 200);
+
+        assertEquals(3, service.checkpointAll());
+        assertEquals(150, checkpoints.get(1L).getBalance());
+        assertEquals(3, checkpoints.get(1L).getLastTransactionId());
+
+        post(1, 20);
+        post(1, -5);
+
+        // only user 1 has new rows
+        assertEquals(1, service.checkpointAll());
+        assertEquals(165, checkpoints.get(1L).getBalance());
+        assertEquals(6, checkpoints.get(1L).getLastTransactionId());
+        assertEquals(200, checkpoints.get(2L).getBalance());
+
+        // nothing new, nothing written, and a repeated run does not add the tail twice
+        assertEquals(0, service.checkpointAll());
+        assertEquals(165, checkpoints.get(1L).getBalance());
+    }
+
+    @Test
+    void verifyReportsDriftAgainstCheckpointPlusTail() {
+        post(1, 200);
+        post(1, -40);
+        service.checkpointAll();
+        post(1, 15);
+        wallets.merge(1L, 7, Integer::sum);
+
+        BalanceVerificationDto verification = service.verify(1L, true);
+
+        assertEquals(182, verification.getWalletBalance());
+        assertEquals(175, verification.getLedgerBalance());
+        assertEquals(7, verification.getDrift());
+        assertEquals(2, verification.getCheckpointTransactionId());
+        assertEquals(1, verification.getTailTransactions());
+        assertEquals(175, verification.getFullScanBalance());
+    }
+
+    @Test
+    void rebuildRealignsTheWalletAndAdvancesTheCheckpoint() {
+        post(1, 200);
+        post(1, -40);
+        wallets.merge(1L, -30, Integer::sum);
+
+        BalanceVerificationDto rebuilt = service.rebuild(1L);
+
+        verify(balanceEngine).adjust(1L, 30);
+        assertEquals(0, rebuilt.getDrift());
+        assertEquals(160, rebuilt.getWalletBalance());
+        assertEquals(160, checkpoints.get(1L).getBalance());
+        assertEquals(0, rebuilt.getTailTransactions());
+    }
+
+    @Test
+    void refusesWalletsWithoutLedgerHistory() {
+        // predates the ledger: a balance but no rows and no checkpoint
+        wallets.put(9L, 500);
+
+        assertThrows(RuntimeException.class, () -> service.verify(9L, false));
+        assertThrows(RuntimeException.class, () -> service.rebuild(9L));
+        verify(balanceEngine, never()).adjust(anyLong(), anyInt());
+        assertEquals(500, wallets.get(9L));
+    }
+
+    @Test
+    void keepsACheckpointWrittenMeanwhileByAnotherRun() {
+        post(1, 200);
+        post(1, -40);
+        service.checkpointAll();
+        post(1, 10);
+        LocalDateTime now = LocalDateTime.now();
+        // an overlapping run already advanced the checkpoint past row 3
+        checkpoints.put(1L, new BalanceCheckpoint(1L, 170, 3, now));
+
+        service.checkpointAll();
+
+        assertEquals(170, checkpoints.get(1L).getBalance());
+        assertEquals(0, service.verify(1L, false).getDrift());
+    }
+}
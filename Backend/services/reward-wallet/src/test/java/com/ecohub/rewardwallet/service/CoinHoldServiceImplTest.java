@@ -0,0 +1,276 @@
+package com.ecohub.rewardwallet.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.ecohub.rewardwallet.dto.BalanceVerificationDto;
+import com.ecohub.rewardwallet.dto.HoldRequestDto;
+import com.ecohub.rewardwallet.dto.HoldResponseDto;
+import com.ecohub.rewardwallet.engine.WalletBalanceEngine;
+import com.ecohub.rewardwallet.entity.CoinHold;
+import com.ecohub.rewardwallet.entity.HoldStatus;
+import com.ecohub.rewardwallet.entity.RewardTransaction;
+import com.ecohub.rewardwallet.entity.TransactionType;
+import com.ecohub.rewardwallet.ledger.GroupCommitLedgerWriter;
+import com.ecohub.rewardwallet.repository.CoinHoldBatchRepository;
+import com.ecohub.rewardwallet.repository.CoinHoldRepository;
+import com.ecohub.rewardwallet.repository.HeldTotal;
+import com.ecohub.rewardwallet.repository.RewardTransactionRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CoinHoldServiceImplTest {
+
+    private final CoinHoldRepository holdRepository = mock(CoinHoldRepository.class);
+    private final CoinHoldBatchRepository holdBatchRepository = mock(CoinHoldBatchRepository.class);
+    private final WalletBalanceEngine balanceEngine = mock(WalletBalanceEngine.class);
+    private final GroupCommitLedgerWriter ledgerWriter = mock(GroupCommitLedgerWriter.class);
+    private final RewardTransactionRepository transactionRepository = mock(RewardTransactionRepository.class);
+    private final BalanceCheckpointService checkpointService = mock(BalanceCheckpointService.class);
+
+    // stand-ins for coin_holds and reward_transactions.reference
+    private final Map<Long, CoinHold> holds = new ConcurrentHashMap<>();
+    private final Set<String> ledgerReferences = ConcurrentHashMap.newKeySet();
+    private final AtomicLong ids = new AtomicLong();
+
+    private CoinHoldServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        when(holdRepository.save(any(CoinHold.class))).thenAnswer(invocation -> {
+            CoinHold hold = invocation.getArgument(0);
+            if (hold.getId() == null) {
+                hold.setId(ids.incrementAndGet());
+            }
+            holds.put(hold.getId(), hold);
+            return hold;
+        });
+        when(holdRepository.saveAndFlush(any(CoinHold.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(holdRepository.findByIdForUpdate(anyLong()))
+                .thenAnswer(invocation -> Optional.ofNullable(holds.get(invocation.<Long>getArgument(0))));
+        when(holdRepository.findByUserIdAndReference(anyLong(), anyString())).thenAnswer(invocation ->
+                holds.values().stream()
+                        .filter(h -> h.getUserId().equals(invocation.getArgument(0))
+                                && invocation.getArgument(1).equals(h.getReference()))
+                        .findFirst());
+        when(transactionRepository.existsByReference(anyString()))
+                .thenAnswer(invocation -> ledgerReferences.contains(invocation.<String>getArgument(0)));
+        doAnswer(invocation -> {
+            ledgerReferences.add(invocation.<RewardTransaction>getArgument(0).getReference());
+            return null;
+        }).when(ledgerWriter).append(any(RewardTransaction.class));
+
+        service = new CoinHoldServiceImpl(holdRepository, holdBatchRepository, balanceEngine, ledgerWriter,
+                transactionRepository, checkpointService, new SimpleMeterRegistry(), 300, 3600, 2);
+    }
+
+    private static HoldRequestDto request(long userId, int amount, String reference, Integer ttlSeconds) {
+        HoldRequestDto request = new HoldRequestDto();
+        request.setUserId(userId);
+        request.setAmount(amount);
+        request.setReference(reference);
+        request.setTtlSeconds(ttlSeconds);
+        return request;
+    }
+
+    @Test
+    void aRetriedHoldWithTheSameReferenceReservesOnce() {
+        HoldResponseDto first = service.hold(request(7, 40, "order-1", null));
+        HoldResponseDto retry = service.hold(request(7, 40, "order-1", null));
+
+        assertEquals(first.getHoldId(), retry.getHoldId());
+        assertEquals(HoldStatus.HELD, retry.getStatus());
+        verify(balanceEngine, times(1)).hold(7L, 40);
+    }
+
+    @Test
+    void validatesAmountAndTtlBeforeReserving() {
+        assertThrows(RuntimeException.class, () -> service.hold(request(7, 0, null, null)));
+        assertThrows(RuntimeException.class, () -> service.hold(request(7, -5, null, null)));
+        assertThrows(RuntimeException.class, () -> service.hold(request(7, 10, null, 0)));
+        assertThrows(RuntimeException.class, () -> service.hold(request(7, 10, null, 3601)));
+        verifyNoInteractions(balanceEngine);
+
+        HoldResponseDto hold = service.hold(request(7, 10, null, 3600));
+        assertEquals(HoldStatus.HELD, hold.getStatus());
+    }
+
+    @Test
+    void givesTheReservationBackWhenTheHoldRowCannotBeSaved() {
+        doThrow(new RuntimeException("db down")).when(holdRepository).save(any(CoinHold.class));
+
+        assertThrows(RuntimeException.class, () -> service.hold(request(7, 40, null, null)));
+        verify(balanceEngine).releaseHold(7L, 40);
+    }
+
+    @Test
+    void captureWritesAReferencedDebitOnce() {
+        Long holdId = service.hold(request(7, 40, "order-1", null)).getHoldId();
+
+        HoldResponseDto captured = service.capture(holdId);
+        HoldResponseDto retry = service.capture(holdId);
+
+        assertEquals(HoldStatus.CAPTURED, captured.getStatus());
+        assertEquals(HoldStatus.CAPTURED, retry.getStatus());
+        verify(ledgerWriter, times(1)).append(argThat(row ->
+                row.getType() == TransactionType.DEBIT && row.getAmount() == 40
+                        && ("hold-" + holdId).equals(row.getReference())));
+        verify(balanceEngine, times(1)).capture(7L, 40);
+    }
+
+    @Test
+    void aCaptureWhoseStatusNeverCommittedIsNotDebitedAgain() {
+        Long holdId = service.hold(request(7, 40, null, null)).getHoldId();
+        // the debit is durable but the transaction that marked the hold rolled back
+        ledgerReferences.add("hold-" + holdId);
+
+        HoldResponseDto retry = service.capture(holdId);
+
+        assertEquals(HoldStatus.CAPTURED, retry.getStatus());
+        verify(ledgerWriter, never()).append(any(RewardTransaction.class));
+        verify(balanceEngine, never()).capture(anyLong(), anyInt());
+        assertThrows(RuntimeException.class, () -> service.release(holdId));
+    }
+
+    @Test
+    void anEngineFailureAfterTheLedgerDebitIsFinishedByTheRetry() {
+        Long holdId = service.hold(request(7, 40, null, null)).getHoldId();
+        when(balanceEngine.capture(7L, 40)).thenThrow(new RuntimeException("Journal write failed")).thenReturn(60);
+
+        assertThrows(RuntimeException.class, () -> service.capture(holdId));
+        assertEquals(HoldStatus.HELD, holds.get(holdId).getStatus());
+
+        HoldResponseDto retry = service.capture(holdId);
+        service.capture(holdId);
+
+        assertEquals(HoldStatus.CAPTURED, retry.getStatus());
+        verify(ledgerWriter, times(1)).append(any(RewardTransaction.class));
+        // the failed call changed nothing, the retry debits and frees the reservation once
+        verify(balanceEngine, times(2)).capture(7L, 40);
+    }
+
+    @Test
+    void sweeperFinishesOwedCapturesBeforeSettlingStatuses() {
+        Long holdId = service.hold(request(7, 40, null, null)).getHoldId();
+        when(balanceEngine.capture(7L, 40))
+                .thenThrow(new RuntimeException("Journal write failed"))
+                .thenThrow(new RuntimeException("Journal write failed"))
+                .thenReturn(60);
+        assertThrows(RuntimeException.class, () -> service.capture(holdId));
+
+        // still failing: the status stays HELD so a restart would find the hold
+        service.sweepExpired();
+        verify(holdBatchRepository, never()).settleCaptured(any(LocalDateTime.class));
+
+        service.sweepExpired();
+        verify(holdBatchRepository).settleCaptured(any(LocalDateTime.class));
+        verify(balanceEngine, times(3)).capture(7L, 40);
+
+        service.capture(holdId);
+        verify(balanceEngine, times(3)).capture(7L, 40);
+    }
+
+    @Test
+    void startupDebitsInterruptedCapturesTheJournalNeverSaw() {
+        when(holdRepository.sumInterruptedCaptures())
+                .thenReturn(List.of(new HeldTotal(7L, 40L), new HeldTotal(8L, 15L)));
+        when(checkpointService.verify(7L, false)).thenReturn(verification(7L, 140, 100));
+        when(checkpointService.verify(8L, false)).thenReturn(verification(8L, 85, 85));
+
+        service.restoreHeldTotals();
+
+        verify(balanceEngine).adjust(7L, -40);
+        verify(balanceEngine, never()).adjust(eq(8L), anyInt());
+        verify(holdBatchRepository).settleAllCaptured(any(LocalDateTime.class));
+    }
+
+    private static BalanceVerificationDto verification(long userId, int walletBalance, int ledgerBalance) {
+        return new BalanceVerificationDto(userId, walletBalance, ledgerBalance, 0, 1, 0, null, null);
+    }
+
+    @Test
+    void aFailedLedgerWriteLeavesTheHoldOpen() {
+        Long holdId = service.hold(request(7, 40, null, null)).getHoldId();
+        doThrow(new RuntimeException("Ledger write failed")).when(ledgerWriter).append(any(RewardTransaction.class));
+
+        assertThrows(RuntimeException.class, () -> service.capture(holdId));
+
+        assertEquals(HoldStatus.HELD, holds.get(holdId).getStatus());
+        verify(balanceEngine, never()).capture(anyLong(), anyInt());
+    }
+
+    @Test
+    void captureRefusesExpiredAndEndedHolds() {
+        Long expired = service.hold(request(7, 40, null, 60)).getHoldId();
+        holds.get(expired).setExpiresAt(LocalDateTime.now().minusSeconds(1));
+        Long released = service.hold(request(7, 10, null, null)).getHoldId();
+        service.release(released);
+
+        assertThrows(RuntimeException.class, () -> service.capture(expired));
+        assertThrows(RuntimeException.class, () -> service.capture(released));
+        assertThrows(RuntimeException.class, () -> service.capture(999L));
+        verify(ledgerWriter, never()).append(any(RewardTransaction.class));
+    }
+
+    @Test
+    void releaseGivesTheCoinsBackOnceAndRefusesCapturedHolds() {
+        Long holdId = service.hold(request(7, 40, null, null)).getHoldId();
+        Long capturedId = service.hold(request(7, 15, null, null)).getHoldId();
+        service.capture(capturedId);
+
+        assertEquals(HoldStatus.RELEASED, service.release(holdId).getStatus());
+        assertEquals(HoldStatus.RELEASED, service.release(holdId).getStatus());
+        assertThrows(RuntimeException.class, () -> service.release(capturedId));
+        verify(balanceEngine, times(1)).releaseHold(7L, 40);
+        verify(balanceEngine, never()).releaseHold(7L, 15);
+    }
+
+    @Test
+    void sweeperSettlesCapturedHoldsAndReleasesExpiredOnesPerWallet() {
+        when(holdBatchRepository.expireDue(any(LocalDateTime.class), eq(2)))
+                .thenReturn(List.of(new HeldTotal(7L, 10L), new HeldTotal(7L, 5L)))
+                .thenReturn(List.of(new HeldTotal(8L, 20L)));
+
+        assertEquals(3, service.sweepExpired());
+
+        verify(holdBatchRepository).settleCaptured(any(LocalDateTime.class));
+        verify(balanceEngine).releaseHold(7L, 15);
+        verify(balanceEngine).releaseHold(8L, 20);
+    }
+
+    @Test
+    void restoresTheReservationsOfOpenHoldsOnStartup() {
+        when(holdRepository.sumOpenHolds()).thenReturn(List.of(new HeldTotal(7L, 55L), new HeldTotal(8L, 10L)));
+
+        service.restoreHeldTotals();
+
+        verify(balanceEngine).preload(List.of(7L, 8L));
+        verify(balanceEngine).restoreHold(7L, 55);
+        verify(balanceEngine).restoreHold(8L, 10);
+    }
+}
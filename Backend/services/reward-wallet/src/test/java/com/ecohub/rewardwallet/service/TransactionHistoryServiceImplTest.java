@@ -0,0 +1,80 @@
+package com.ecohub.rewardwallet.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+
+import com.ecohub.rewardwallet.dto.RewardTransactionDto;
+import com.ecohub.rewardwallet.dto.TransactionHistoryPageDto;
+import com.ecohub.rewardwallet.entity.TransactionType;
+import com.ecohub.rewardwallet.repository.RewardTransactionRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+class TransactionHistoryServiceImplTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 1, 20, 10, 0, 0, 123_456_000);
+
+    private final RewardTransactionRepository repository = mock(RewardTransactionRepository.class);
+    private final TransactionHistoryServiceImpl service =
+            new TransactionHistoryServiceImpl(repository, new ObjectMapper().registerModule(new JavaTimeModule()));
+
+    @Test
+    void nextCursorPointsAtTheLastRowOfThePage() {
+        when(repository.findHistoryPage(eq(7L), isNull(), isNull(), any(), any(), eq(PageRequest.of(0, 3))))
+                .thenReturn(rows(3));
+
+        TransactionHistoryPageDto first = service.getHistory(7L, null, null, null, 2);
+        assertEquals(2, first.getItems().size());
+
+        when(repository.findHistoryPage(7L, null, null, T0.minusSeconds(2), 2L, PageRequest.of(0, 3)))
+                .thenReturn(rows(1));
+
+        TransactionHistoryPageDto second = service.getHistory(7L, null, null, first.getNextCursor(), 2);
+        assertEquals(1, second.getItems().size());
+        assertNull(second.getNextCursor());
+        verify(repository).findHistoryPage(7L, null, null, T0.minusSeconds(2), 2L, PageRequest.of(0, 3));
+    }
+
+    @Test
+    void garbageCursorIsRejected() {
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> service.getHistory(7L, null, null, "not-a-cursor", 10));
+
+        assertEquals("Invalid cursor", e.getMessage());
+    }
+
+    @Test
+    void exportWritesOneJsonObjectPerLine() throws Exception {
+        when(repository.streamHistory(7L, TransactionType.CREDIT, null)).thenReturn(rows(3).stream());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.exportHistory(7L, TransactionType.CREDIT, null, out);
+
+        String[] lines = out.toString().split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":1,"));
+    }
+
+    private static List<RewardTransactionDto> rows(int count) {
+        return LongStream.rangeClosed(1, count)
+                .mapToObj(id -> new RewardTransactionDto(id, 7L, TransactionType.CREDIT, 10, "WORKSHOP", null,
+                        T0.minusSeconds(id)))
+                .toList();
+    }
+}
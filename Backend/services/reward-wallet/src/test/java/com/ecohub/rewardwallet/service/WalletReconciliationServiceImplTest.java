@@ -0,0 +1,157 @@
+package com.ecohub.rewardwallet.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import com.ecohub.rewardwallet.dto.ReconciliationReportDto;
+import com.ecohub.rewardwallet.dto.WalletDriftDto;
+import com.ecohub.rewardwallet.engine.WalletBalanceEngine;
+import com.ecohub.rewardwallet.entity.ReconciliationProgress;
+import com.ecohub.rewardwallet.repository.LedgerTail;
+import com.ecohub.rewardwallet.repository.ReconciliationProgressRepository;
+import com.ecohub.rewardwallet.repository.RewardTransactionRepository;
+import com.ecohub.rewardwallet.repository.WalletBalanceRow;
+import com.ecohub.rewardwallet.repository.WalletRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class WalletReconciliationServiceImplTest {
+
+    private final WalletRepository walletRepository = mock(WalletRepository.class);
+    private final RewardTransactionRepository transactionRepository = mock(RewardTransactionRepository.class);
+    private final ReconciliationProgressRepository progressRepository = mock(ReconciliationProgressRepository.class);
+    private final WalletBalanceEngine balanceEngine = mock(WalletBalanceEngine.class);
+
+    private final WalletReconciliationServiceImpl service = new WalletReconciliationServiceImpl(
+            walletRepository, transactionRepository, progressRepository, balanceEngine,
+            new SimpleMeterRegistry(), 2, 2, 1_000_000);
+
+    @Test
+    void reportsDriftedWalletsAndLedgerRowsWithoutAWallet() throws Exception {
+        // wallets 1..4 in chunks of two; user 3 is off by 5, user 4 has no ledger rows, user 9 has no wallet
+        when(walletRepository.findBalancesAfter(any(), any(Pageable.class))).thenAnswer(invocation -> {
+            long after = invocation.getArgument(0);
+            if (after == 0) {
+                return List.of(new WalletBalanceRow(1L, 100), new WalletBalanceRow(2L, 50));
+            }
+            if (after == 2) {
+                return List.of(new WalletBalanceRow(3L, 75), new WalletBalanceRow(4L, 120));
+            }
+            return List.of();
+        });
+        when(transactionRepository.sumByUserRange(0L, 2L))
+                .thenReturn(List.of(tail(1L, 100), tail(2L, 50)));
+        when(transactionRepository.sumByUserRange(2L, 4L))
+                .thenReturn(List.of(tail(3L, 70)));
+        when(transactionRepository.sumByUserRange(4L, Long.MAX_VALUE))
+                .thenReturn(List.of(tail(9L, 30)));
+        when(transactionRepository.sumTail(3L, 0)).thenReturn(Optional.of(tail(3L, 70)));
+        when(balanceEngine.getBalance(3L)).thenReturn(75);
+
+        service.start(false);
+        ReconciliationReportDto report = awaitFinished();
+
+        assertEquals(4, report.getWalletsChecked());
+        assertEquals(2, report.getDriftCount());
+        assertEquals(4L, report.getLastUserId());
+        assertEquals(1, report.getWalletsWithoutLedger());
+        assertEquals(List.of(4L), report.getUnledgeredUserIds());
+        verify(transactionRepository, never()).sumTail(eq(4L), anyLong());
+
+        WalletDriftDto drifted = report.getDrifts().stream().filter(d -> d.getUserId() == 3L).findFirst().get();
+        assertEquals(75, drifted.getWalletBalance());
+        assertEquals(70, drifted.getLedgerBalance());
+        WalletDriftDto orphan = report.getDrifts().stream().filter(d -> d.getUserId() == 9L).findFirst().get();
+        assertNull(orphan.getWalletBalance());
+    }
+
+    @Test
+    void savedCountsOnlyCoverChunksUpToTheSavedUser() throws Exception {
+        // user 3 drifts; its chunk finishes while the first chunk is still running
+        when(walletRepository.findBalancesAfter(any(), any(Pageable.class))).thenAnswer(invocation -> {
+            long after = invocation.getArgument(0);
+            if (after == 0) {
+                return List.of(new WalletBalanceRow(1L, 100), new WalletBalanceRow(2L, 50));
+            }
+            if (after == 2) {
+                return List.of(new WalletBalanceRow(3L, 75), new WalletBalanceRow(4L, 120));
+            }
+            return List.of();
+        });
+        CountDownLatch secondChunkDone = new CountDownLatch(1);
+        when(transactionRepository.sumByUserRange(0L, 2L)).thenAnswer(invocation -> {
+            secondChunkDone.await(5, TimeUnit.SECONDS);
+            return List.of(tail(1L, 100), tail(2L, 50));
+        });
+        when(transactionRepository.sumByUserRange(2L, 4L)).thenReturn(List.of(tail(3L, 70)));
+        when(transactionRepository.sumByUserRange(4L, Long.MAX_VALUE)).thenReturn(List.of());
+        when(balanceEngine.getBalance(3L)).thenReturn(75);
+        when(transactionRepository.sumTail(3L, 0)).thenAnswer(invocation -> {
+            secondChunkDone.countDown();
+            return Optional.of(tail(3L, 70));
+        });
+        List<String> saves = new CopyOnWriteArrayList<>();
+        when(progressRepository.save(any(ReconciliationProgress.class))).thenAnswer(invocation -> {
+            ReconciliationProgress progress = invocation.getArgument(0);
+            saves.add(progress.getLastUserId() + ":" + progress.getWalletsChecked() + ":"
+                    + progress.getDriftCount() + ":" + progress.getWalletsWithoutLedger());
+            return progress;
+        });
+
+        service.start(false);
+        ReconciliationReportDto report = awaitFinished();
+
+        // lastUserId:checked:drifts:withoutLedger; user 4 has no ledger rows
+        assertEquals(List.of("2:2:0:0", "4:4:1:1", "4:4:1:1", "4:4:1:1"), saves);
+        assertEquals(1, report.getDriftCount());
+    }
+
+    @Test
+    void resumesAfterTheLastCheckedUser() throws Exception {
+        ReconciliationProgress saved = new ReconciliationProgress("wallet-ledger", 2L, 2, 0, 0, false,
+                LocalDateTime.now(), LocalDateTime.now());
+        when(progressRepository.findById("wallet-ledger")).thenReturn(Optional.of(saved));
+        when(walletRepository.findBalancesAfter(any(), any(Pageable.class))).thenReturn(List.of());
+        when(transactionRepository.sumByUserRange(anyLong(), anyLong())).thenReturn(List.of());
+
+        service.start(true);
+        ReconciliationReportDto report = awaitFinished();
+
+        assertTrue(report.isFinished());
+        verify(walletRepository).findBalancesAfter(any(), any(Pageable.class));
+        verify(walletRepository, never()).findBalancesAfter(eq(0L), any(Pageable.class));
+    }
+
+    private ReconciliationReportDto awaitFinished() throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            ReconciliationReportDto report = service.report();
+            if (!report.isRunning()) {
+                return report;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("reconciliation did not finish");
+    }
+
+    private static LedgerTail tail(Long userId, long delta) {
+        return new LedgerTail(userId, delta, 1L, 1L);
+    }
+}
@@ -0,0 +1,240 @@
+package com.ecohub.rewardwallet.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+
+import com.ecohub.rewardwallet.dto.BulkWalletEntryDto;
+import com.ecohub.rewardwallet.dto.BulkWalletResultDto;
+import com.ecohub.rewardwallet.dto.WalletResponseDto;
+import com.ecohub.rewardwallet.engine.WalletBalanceEngine;
+import com.ecohub.rewardwallet.engine.WalletRejectedException;
+import com.ecohub.rewardwallet.entity.RewardTransaction;
+import com.ecohub.rewardwallet.entity.TransactionType;
+import com.ecohub.rewardwallet.entity.Wallet;
+import com.ecohub.rewardwallet.ledger.GroupCommitLedgerWriter;
+import com.ecohub.rewardwallet.repository.RewardTransactionRepository;
+import com.ecohub.rewardwallet.repository.WalletRepository;
+
+class WalletServiceImplTest {
+
+    private final WalletBalanceEngine balanceEngine = mock(WalletBalanceEngine.class);
+    private final GroupCommitLedgerWriter ledgerWriter = mock(GroupCommitLedgerWriter.class);
+    private final RewardTransactionRepository transactionRepository = mock(RewardTransactionRepository.class);
+    private final WalletRepository walletRepository = mock(WalletRepository.class);
+
+    // stands in for reward_transactions.reference
+    private final Set<String> committedReferences = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger balance = new AtomicInteger();
+
+    private WalletServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        when(balanceEngine.credit(anyLong(), anyInt()))
+                .thenAnswer(invocation -> balance.addAndGet(invocation.getArgument(1)));
+        when(balanceEngine.getBalance(anyLong())).thenAnswer(invocation -> balance.get());
+        when(transactionRepository.findExistingReferences(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> references = invocation.getArgument(0);
+            return references.stream().filter(committedReferences::contains).toList();
+        });
+        doAnswer(invocation -> {
+            List<RewardTransaction> rows = invocation.getArgument(0);
+            rows.stream().map(RewardTransaction::getReference).filter(Objects::nonNull).forEach(committedReferences::add);
+            return null;
+        }).when(ledgerWriter).appendAll(anyList());
+        service = new WalletServiceImpl(walletRepository, balanceEngine, ledgerWriter,
+                transactionRepository, 10_000);
+    }
+
+    private static BulkWalletEntryDto credit(long userId, int amount, String reference) {
+        BulkWalletEntryDto entry = new BulkWalletEntryDto();
+        entry.setUserId(userId);
+        entry.setAmount(amount);
+        entry.setSource("DAILY_CHALLENGE");
+        entry.setReference(reference);
+        return entry;
+    }
+
+    private static BulkWalletEntryDto debit(long userId, int amount) {
+        BulkWalletEntryDto entry = credit(userId, amount, null);
+        entry.setType(TransactionType.DEBIT);
+        return entry;
+    }
+
+    @Test
+    void appliesValidEntriesAndRejectsTheRestIndividually() {
+        when(balanceEngine.debit(eq(8L), anyInt())).thenThrow(new WalletRejectedException("Insufficient balance"));
+        BulkWalletEntryDto noUser = credit(0, 10, null);
+        noUser.setUserId(null);
+
+        List<BulkWalletResultDto> results = service.applyBulk(List.of(
+                credit(7, 30, null), noUser, credit(7, -50, null), debit(7, -50), debit(8, 10), credit(7, 0, null),
+                credit(7, 5, null)));
+
+        assertEquals(List.of(BulkWalletResultDto.APPLIED, BulkWalletResultDto.REJECTED, BulkWalletResultDto.REJECTED,
+                BulkWalletResultDto.REJECTED, BulkWalletResultDto.REJECTED, BulkWalletResultDto.REJECTED,
+                BulkWalletResultDto.APPLIED), results.stream().map(BulkWalletResultDto::getStatus).toList());
+        assertEquals("Amount must be positive", results.get(2).getMessage());
+        assertEquals("Insufficient balance", results.get(4).getMessage());
+        assertEquals(35, balance.get());
+        verify(balanceEngine, never()).credit(7L, -50);
+        verify(balanceEngine, never()).debit(7L, -50);
+        verify(ledgerWriter).appendAll(argThat(rows -> rows.size() == 2));
+    }
+
+    @Test
+    void rejectsOversizedRequestsWithoutTouchingBalances() {
+        WalletServiceImpl small = new WalletServiceImpl(walletRepository, balanceEngine, ledgerWriter,
+                transactionRepository, 2);
+
+        assertThrows(RuntimeException.class,
+                () -> small.applyBulk(List.of(credit(1, 1, null), credit(2, 1, null), credit(3, 1, null))));
+        assertThrows(RuntimeException.class, () -> small.createWallets(List.of(1L, 2L, 3L)));
+        verifyNoInteractions(balanceEngine, ledgerWriter);
+    }
+
+    @Test
+    void createWalletsOnlyInsertsWalletsThatDoNotExistYet() {
+        Set<Long> loaded = ConcurrentHashMap.newKeySet();
+        loaded.add(2L);
+        when(balanceEngine.isLoaded(anyLong())).thenAnswer(invocation -> loaded.contains(invocation.getArgument(0)));
+        doAnswer(invocation -> {
+            loaded.add(invocation.getArgument(0));
+            return null;
+        }).when(balanceEngine).register(anyLong(), anyInt(), any());
+        when(walletRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        List<List<RewardTransaction>> ledger = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(invocation -> ledger.add(invocation.getArgument(0))).when(ledgerWriter).appendAll(anyList());
+
+        List<WalletResponseDto> wallets = service.createWallets(Arrays.asList(1L, 2L, null, 1L, 3L));
+
+        assertEquals(List.of(1L, 2L, 3L), wallets.stream().map(WalletResponseDto::getUserId).toList());
+        verify(walletRepository).saveAll(ArgumentMatchers.<List<Wallet>>argThat(saved ->
+                saved.stream().map(Wallet::getUserId).toList().equals(List.of(1L, 3L))));
+        assertEquals(1, ledger.size());
+        assertEquals(List.of(1L, 3L), ledger.get(0).stream().map(RewardTransaction::getUserId).toList());
+        assertTrue(ledger.get(0).stream().allMatch(row -> row.getType() == TransactionType.CREDIT));
+    }
+
+    @Test
+    void aRetriedReferenceIsAppliedOnce() {
+        List<BulkWalletResultDto> first = service.applyBulk(List.of(credit(7, 30, "payout-1-7")));
+        List<BulkWalletResultDto> retry = service.applyBulk(List.of(credit(7, 30, "payout-1-7")));
+
+        assertEquals(BulkWalletResultDto.APPLIED, first.get(0).getStatus());
+        assertEquals(BulkWalletResultDto.DUPLICATE, retry.get(0).getStatus());
+        assertEquals(30, retry.get(0).getBalance());
+        verify(balanceEngine, times(1)).credit(7L, 30);
+    }
+
+    @Test
+    void theSameReferenceTwiceInOneRequestIsAppliedOnce() {
+        List<BulkWalletResultDto> results = service.applyBulk(List.of(
+                credit(7, 30, "payout-1-7"), credit(7, 30, "payout-1-7"), credit(7, 5, null), credit(7, 5, null)));
+
+        assertEquals(BulkWalletResultDto.APPLIED, results.get(0).getStatus());
+        assertEquals(BulkWalletResultDto.DUPLICATE, results.get(1).getStatus());
+        assertEquals(BulkWalletResultDto.APPLIED, results.get(2).getStatus());
+        assertEquals(BulkWalletResultDto.APPLIED, results.get(3).getStatus());
+        assertEquals(40, balance.get());
+    }
+
+    @Test
+    void unexpectedFailuresComeBackAsRetryNotRejected() {
+        when(balanceEngine.debit(eq(8L), anyInt())).thenThrow(new RuntimeException("Lock wait timeout exceeded"));
+
+        List<BulkWalletResultDto> results = service.applyBulk(List.of(debit(8, 10), credit(7, 5, null)));
+
+        assertEquals(BulkWalletResultDto.RETRY, results.get(0).getStatus());
+        assertEquals("Lock wait timeout exceeded", results.get(0).getMessage());
+        assertEquals(BulkWalletResultDto.APPLIED, results.get(1).getStatus());
+    }
+
+    @Test
+    void aReferenceIsNotStoredWhenItsLedgerCommitFails() {
+        doAnswer(invocation -> {
+            throw new RuntimeException("db down");
+        }).doAnswer(invocation -> {
+            List<RewardTransaction> rows = invocation.getArgument(0);
+            rows.stream().map(RewardTransaction::getReference).filter(Objects::nonNull).forEach(committedReferences::add);
+            return null;
+        }).when(ledgerWriter).appendAll(anyList());
+
+        List<BulkWalletResultDto> failed = service.applyBulk(List.of(credit(7, 30, "payout-1-7")));
+        List<BulkWalletResultDto> retry = service.applyBulk(List.of(credit(7, 30, "payout-1-7")));
+
+        assertEquals(BulkWalletResultDto.RETRY, failed.get(0).getStatus());
+        verify(balanceEngine).revert(7L, 30);
+        assertEquals(BulkWalletResultDto.APPLIED, retry.get(0).getStatus());
+    }
+
+    @Test
+    void concurrentRequestsWithTheSameReferenceNeverBothApply() throws Exception {
+        CountDownLatch committing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            committing.countDown();
+            release.await();
+            List<RewardTransaction> rows = invocation.getArgument(0);
+            rows.stream().map(RewardTransaction::getReference).filter(Objects::nonNull).forEach(committedReferences::add);
+            return null;
+        }).doAnswer(invocation -> {
+            List<RewardTransaction> rows = invocation.getArgument(0);
+            rows.stream().map(RewardTransaction::getReference).filter(Objects::nonNull).forEach(committedReferences::add);
+            return null;
+        }).when(ledgerWriter).appendAll(anyList());
+
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<List<BulkWalletResultDto>> slow =
+                    pool.submit(() -> service.applyBulk(List.of(credit(7, 30, "payout-1-7"))));
+            assertTrue(committing.await(5, TimeUnit.SECONDS));
+
+            List<BulkWalletResultDto> racing = service.applyBulk(List.of(credit(7, 30, "payout-1-7")));
+            release.countDown();
+
+            assertEquals(BulkWalletResultDto.RETRY, racing.get(0).getStatus());
+            assertEquals(BulkWalletResultDto.APPLIED, slow.get().get(0).getStatus());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        List<BulkWalletResultDto> retry = service.applyBulk(List.of(credit(7, 30, "payout-1-7")));
+        assertEquals(BulkWalletResultDto.DUPLICATE, retry.get(0).getStatus());
+        assertEquals(30, balance.get());
+    }
+}
@@ -0,0 +1,25 @@
+package com.ecohub.shop.admission;
+
+/**
+ * A purchase turned away before it reached the order path, with the status
+ * and Retry-After the client should get.
+ */
+public class AdmissionRejectedException extends RuntimeException {
+
+    private final int status;
+    private final int retryAfterSeconds;
+
+    public AdmissionRejectedException(int status, int retryAfterSeconds, String message) {
+        super(message);
+        this.status = status;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,193 @@
+package com.ecohub.shop.admission;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.ecohub.shop.dto.OrderResponseDto;
+import com.ecohub.shop.service.PurchaseService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Front door for purchases during drops.
+ *
+ * Each product has a bounded queue. A purchase that does not fit is refused
+ * at once with 429, and one that waited longer than max-wait gets a 503, so
+ * overload turns into fast refusals instead of a growing pile of request
+ * threads. Admitted purchases are handed to a small worker pool, which takes
+ * up to batch-size of them for one product at a time and places their
+ * orders in a single transaction.
+ *
+ * Callers get a future; the controller returns it as an async result, so no
+ * servlet thread waits in the queue.
+ */
+@Component
+public class PurchaseAdmission {
+
+    private final PurchaseService purchaseService;
+    private final int queueCapacity;
+    private final int batchSize;
+    private final long maxWaitNanos;
+    private final int retryAfterSeconds;
+    private final ExecutorService workers;
+
+    private final Map<Long, Lane> lanes = new ConcurrentHashMap<>();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private final Timer waitTime;
+    private final DistributionSummary batchSizes;
+    private final Counter rejectedFull;
+    private final Counter rejectedExpired;
+
+    public PurchaseAdmission(
+            PurchaseService purchaseService,
+            MeterRegistry meterRegistry,
+            @Value("${shop.admission.queue-capacity:200}") int queueCapacity,
+            @Value("${shop.admission.batch-size:50}") int batchSize,
+            @Value("${shop.admission.max-wait-ms:2000}") long maxWaitMs,
+            @Value("${shop.admission.retry-after-seconds:1}") int retryAfterSeconds,
+            @Value("${shop.admission.workers:4}") int workers) {
+        this.purchaseService = purchaseService;
+        this.queueCapacity = queueCapacity;
+        this.batchSize = batchSize;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.workers = Executors.newFixedThreadPool(workers);
+
+        meterRegistry.gauge("shop.admission.queued", queued);
+        this.waitTime = Timer.builder("shop.admission.wait")
+                .description("Time an admitted purchase spent queued")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("shop.admission.batch.size")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejectedFull = Counter.builder("shop.admission.rejected").tag("reason", "queue_full")
+                .register(meterRegistry);
+        this.rejectedExpired = Counter.builder("shop.admission.rejected").tag("reason", "wait_exceeded")
+                .register(meterRegistry);
+    }
+
+    public CompletableFuture<OrderResponseDto> submit(Long productId, Long userId) {
+        Lane lane = lanes.computeIfAbsent(productId, id -> new Lane(id, queueCapacity));
+        PendingPurchase purchase = new PendingPurchase(userId);
+        if (!lane.queue.offer(purchase)) {
+            rejectedFull.increment();
+            throw new AdmissionRejectedException(429, retryAfterSeconds, "Too many purchases for this product");
+        }
+        queued.incrementAndGet();
+        schedule(lane);
+        return purchase.result;
+    }
+
+    // at most one batch per product in flight, so batches of a hot product
+    // cannot starve the others of workers
+    private void schedule(Lane lane) {
+        if (lane.scheduled.compareAndSet(false, true)) {
+            workers.execute(() -> drain(lane));
+        }
+    }
+
+    private void drain(Lane lane) {
+        try {
+            List<PendingPurchase> batch = new ArrayList<>(batchSize);
+            lane.queue.drainTo(batch, batchSize);
+            queued.addAndGet(-batch.size());
+            process(lane.productId, batch);
+        } finally {
+            lane.scheduled.set(false);
+            if (!lane.queue.isEmpty()) {
+                schedule(lane);
+            } else {
+                lanes.remove(lane.productId, lane);
+            }
+        }
+    }
+
+    private void process(Long productId, List<PendingPurchase> batch) {
+        long now = System.nanoTime();
+        List<PendingPurchase> live = new ArrayList<>(batch.size());
+        for (PendingPurchase purchase : batch) {
+            long waited = now - purchase.enqueuedAt;
+            waitTime.record(waited, TimeUnit.NANOSECONDS);
+            if (waited > maxWaitNanos) {
+                rejectedExpired.increment();
+                purchase.result.completeExceptionally(
+                        new AdmissionRejectedException(503, retryAfterSeconds, "Purchase queue wait exceeded"));
+            } else {
+                live.add(purchase);
+            }
+        }
+        if (live.isEmpty()) {
+            return;
+        }
+        batchSizes.record(live.size());
+
+        try {
+            List<OrderResponseDto> orders = purchaseService.purchaseBatch(
+                    productId, live.stream().map(purchase -> purchase.userId).toList());
+            for (int i = 0; i < live.size(); i++) {
+                OrderResponseDto order = orders.get(i);
+                if (order == null) {
+                    live.get(i).result.completeExceptionally(new RuntimeException("Out of stock"));
+                } else {
+                    live.get(i).result.complete(order);
+                }
+            }
+        } catch (RuntimeException e) {
+            for (PendingPurchase purchase : live) {
+                purchase.result.completeExceptionally(e);
+            }
+        }
+    }
+
+    public int queued() {
+        return queued.get();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        workers.shutdown();
+        workers.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private static final class Lane {
+
+        final Long productId;
+        final BlockingQueue<PendingPurchase> queue;
+        final AtomicBoolean scheduled = new AtomicBoolean();
+
+        Lane(Long productId, int capacity) {
+            this.productId = productId;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+    }
+
+    private static final class PendingPurchase {
+
+        final Long userId;
+        final long enqueuedAt = System.nanoTime();
+        final CompletableFuture<OrderResponseDto> result = new CompletableFuture<>();
+
+        PendingPurchase(Long userId) {
+            this.userId = userId;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.ecohub.shop.catalog;
+
+import org.springframework.util.DigestUtils;
+
+/**
+ * One immutable rendering of the product list, as the JSON bytes sent to
+ * clients.
+ */
+public final class CatalogSnapshot {
+
+    private final long version;
+    private final byte[] json;
+    private final String etag;
+
+    CatalogSnapshot(long version, byte[] json) {
+        this.version = version;
+        this.json = json;
+        // derived from the bytes, so it means the same thing across restarts and nodes
+        this.etag = "\"" + DigestUtils.md5DigestAsHex(json) + "\"";
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    // shared between requests, callers must not modify it
+    public byte[] getJson() {
+        return json;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+}
@@ -0,0 +1,98 @@
+package com.ecohub.shop.catalog;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.ecohub.shop.dto.ProductResponseDto;
+import com.ecohub.shop.entity.Product;
+import com.ecohub.shop.repository.ShopRepository;
+import com.ecohub.shop.stock.StockEngine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Serves GET /api/products from a pre-serialized snapshot instead of
+ * loading and mapping every product per page view.
+ *
+ * Product edits rebuild the snapshot right away. Stock moves with every
+ * sale, so while it does the snapshot is refreshed at most once per
+ * stock-refresh-ms; between refreshes clients may see stock that is that
+ * old. A rebuild that renders the same bytes keeps the old snapshot.
+ * Each rebuild also hands the stock to the search index.
+ */
+@Component
+public class CatalogSnapshotHolder {
+
+    private final ShopRepository repository;
+    private final StockEngine stockEngine;
+    private final JsonMapper jsonMapper;
+    private final ProductSearchIndex searchIndex;
+
+    private final Counter rebuilds;
+
+    private volatile CatalogSnapshot current;
+
+    // guarded by this
+    private long seenStockChanges = -1;
+
+    public CatalogSnapshotHolder(
+            ShopRepository repository,
+            StockEngine stockEngine,
+            JsonMapper jsonMapper,
+            ProductSearchIndex searchIndex,
+            MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.stockEngine = stockEngine;
+        this.jsonMapper = jsonMapper;
+        this.searchIndex = searchIndex;
+        this.rebuilds = Counter.builder("shop.catalog.rebuilds").register(meterRegistry);
+        meterRegistry.gauge("shop.catalog.version", this, holder -> holder.current().getVersion());
+    }
+
+    public CatalogSnapshot current() {
+        CatalogSnapshot snapshot = current;
+        return snapshot != null ? snapshot : rebuild();
+    }
+
+    @PostConstruct
+    public void init() {
+        rebuild();
+    }
+
+    public synchronized CatalogSnapshot rebuild() {
+        seenStockChanges = stockEngine.changes();
+        List<ProductResponseDto> products = repository.findAll().stream()
+                .map(this::toDto)
+                .toList();
+        byte[] json = jsonMapper.writeValueAsBytes(products);
+        searchIndex.updateStock(products);
+        rebuilds.increment();
+
+        CatalogSnapshot previous = current;
+        if (previous != null && Arrays.equals(previous.getJson(), json)) {
+            return previous;
+        }
+        CatalogSnapshot snapshot = new CatalogSnapshot(previous == null ? 1 : previous.getVersion() + 1, json);
+        current = snapshot;
+        return snapshot;
+    }
+
+    @Scheduled(fixedDelayString = "${shop.catalog.stock-refresh-ms:1000}")
+    public synchronized void refreshStock() {
+        if (stockEngine.changes() != seenStockChanges) {
+            rebuild();
+        }
+    }
+
+    private ProductResponseDto toDto(Product product) {
+        ProductResponseDto dto = new ProductResponseDto(product);
+        dto.setStock(product.getStock() + stockEngine.leased(product.getProductId()));
+        return dto;
+    }
+}
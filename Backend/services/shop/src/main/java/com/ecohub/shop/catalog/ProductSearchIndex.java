@@ -0,0 +1,360 @@
+package com.ecohub.shop.catalog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.stereotype.Component;
+
+import com.ecohub.shop.dto.ProductResponseDto;
+import com.ecohub.shop.entity.Product;
+import com.ecohub.shop.repository.ShopRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * In-memory inverted index over product name and description.
+ *
+ * Every token maps to a sorted array of the product ids containing it, and
+ * query terms match any token they are a prefix of ("bott" finds "bottle").
+ * Results come back in productId order so the last id of a page is the
+ * cursor for the next one.
+ *
+ * Product edits go through {@link #put} / {@link #remove}; stock is pushed in
+ * by the catalog snapshot refresh, so the in-stock filter is exactly as fresh
+ * as GET /api/products.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private final ShopRepository repository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // all guarded by lock
+    private final TreeMap<Long, Doc> docs = new TreeMap<>();
+    private final TreeMap<String, Postings> tokens = new TreeMap<>();
+
+    public ProductSearchIndex(ShopRepository repository) {
+        this.repository = repository;
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        List<Product> products = repository.findAll();
+        lock.writeLock().lock();
+        try {
+            docs.clear();
+            tokens.clear();
+            for (Product product : products) {
+                add(new Doc(new ProductResponseDto(product)));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        System.out.println("Product search index built: " + products.size() + " products, "
+                + tokens.size() + " tokens");
+    }
+
+    public void put(ProductResponseDto product) {
+        Doc doc = new Doc(product);
+        lock.writeLock().lock();
+        try {
+            Doc previous = docs.get(product.getProductId());
+            if (previous != null) {
+                drop(previous);
+            }
+            add(doc);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            Doc previous = docs.get(productId);
+            if (previous != null) {
+                drop(previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Takes the current stock of each product. Only the stock changes, so
+     * the postings stay untouched.
+     */
+    public void updateStock(Collection<ProductResponseDto> products) {
+        lock.readLock().lock();
+        try {
+            for (ProductResponseDto product : products) {
+                Doc doc = docs.get(product.getProductId());
+                if (doc != null) {
+                    doc.stock = product.getStock();
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Up to {@code limit} products with an id above {@code afterId} matching
+     * every term of the query and the filters, in productId order.
+     * A blank query matches every product.
+     */
+    public List<ProductResponseDto> search(String query, Integer minPrice, Integer maxPrice,
+                                           boolean inStockOnly, long afterId, int limit) {
+        String[] terms = tokenize(query);
+        List<ProductResponseDto> hits = new ArrayList<>(Math.min(limit, 64));
+
+        lock.readLock().lock();
+        try {
+            if (terms.length == 0) {
+                for (Doc doc : docs.tailMap(afterId, false).values()) {
+                    if (matches(doc, terms, -1, minPrice, maxPrice, inStockOnly)) {
+                        hits.add(doc.toDto());
+                        if (hits.size() == limit) {
+                            break;
+                        }
+                    }
+                }
+                return hits;
+            }
+
+            // walk the rarest term's postings; check the other terms on the doc itself
+            int driver = 0;
+            long driverSize = Long.MAX_VALUE;
+            for (int i = 0; i < terms.length; i++) {
+                long size = 0;
+                for (Postings postings : withPrefix(terms[i]).values()) {
+                    size += postings.size;
+                }
+                if (size == 0) {
+                    return hits;
+                }
+                if (size < driverSize) {
+                    driver = i;
+                    driverSize = size;
+                }
+            }
+
+            PostingsMerge merge = new PostingsMerge(withPrefix(terms[driver]).values(), afterId);
+            long productId;
+            while (hits.size() < limit && (productId = merge.next()) >= 0) {
+                Doc doc = docs.get(productId);
+                if (matches(doc, terms, driver, minPrice, maxPrice, inStockOnly)) {
+                    hits.add(doc.toDto());
+                }
+            }
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private NavigableMap<String, Postings> withPrefix(String prefix) {
+        return tokens.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private static boolean matches(Doc doc, String[] terms, int skipTerm,
+                                   Integer minPrice, Integer maxPrice, boolean inStockOnly) {
+        if (minPrice != null && doc.price < minPrice) {
+            return false;
+        }
+        if (maxPrice != null && doc.price > maxPrice) {
+            return false;
+        }
+        if (inStockOnly && doc.stock <= 0) {
+            return false;
+        }
+        for (int i = 0; i < terms.length; i++) {
+            if (i != skipTerm && !doc.hasPrefix(terms[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void add(Doc doc) {
+        docs.put(doc.productId, doc);
+        for (String token : doc.tokens) {
+            tokens.computeIfAbsent(token, t -> new Postings()).add(doc.productId);
+        }
+    }
+
+    private void drop(Doc doc) {
+        docs.remove(doc.productId);
+        for (String token : doc.tokens) {
+            Postings postings = tokens.get(token);
+            if (postings != null && postings.remove(doc.productId) && postings.size == 0) {
+                tokens.remove(token);
+            }
+        }
+    }
+
+    /**
+     * Lower-cased runs of letters and digits, so "Eco-Bottle 500ml" becomes
+     * eco, bottle, 500ml.
+     */
+    static String[] tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return new String[0];
+        }
+        TreeSet<String> unique = new TreeSet<>();
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                unique.add(token);
+            }
+        }
+        return unique.toArray(new String[0]);
+    }
+
+    private static final class Doc {
+
+        final long productId;
+        final String name;
+        final String description;
+        final int price;
+        // sorted, for the prefix check
+        final String[] tokens;
+
+        volatile int stock;
+
+        Doc(ProductResponseDto product) {
+            this.productId = product.getProductId();
+            this.name = product.getName();
+            this.description = product.getDescription();
+            this.price = product.getPrice();
+            this.stock = product.getStock();
+            this.tokens = tokenize(name + " " + (description == null ? "" : description));
+        }
+
+        boolean hasPrefix(String term) {
+            int at = Arrays.binarySearch(tokens, term);
+            if (at >= 0) {
+                return true;
+            }
+            int next = -at - 1;
+            return next < tokens.length && tokens[next].startsWith(term);
+        }
+
+        ProductResponseDto toDto() {
+            return new ProductResponseDto(productId, name, description, price, stock);
+        }
+    }
+
+    /** Sorted, duplicate-free product ids. */
+    private static final class Postings {
+
+        long[] ids = new long[2];
+        int size;
+
+        void add(long id) {
+            // ids are mostly added in ascending order, so check the end first
+            if (size > 0 && ids[size - 1] >= id) {
+                int at = Arrays.binarySearch(ids, 0, size, id);
+                if (at >= 0) {
+                    return;
+                }
+                insert(-at - 1, id);
+                return;
+            }
+            insert(size, id);
+        }
+
+        private void insert(int at, long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            ids[at] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at < 0) {
+                return false;
+            }
+            System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+            size--;
+            return true;
+        }
+
+        // first position holding an id above afterId
+        int after(long afterId) {
+            int at = Arrays.binarySearch(ids, 0, size, afterId);
+            return at >= 0 ? at + 1 : -at - 1;
+        }
+    }
+
+    /**
+     * Streams the union of several postings in ascending id order, starting
+     * after the cursor, without materialising it.
+     */
+    private static final class PostingsMerge {
+
+        private final PriorityQueue<Head> heads =
+                new PriorityQueue<>((a, b) -> Long.compare(a.id(), b.id()));
+        private long last = -1;
+
+        PostingsMerge(Collection<Postings> lists, long afterId) {
+            for (Postings postings : lists) {
+                int at = postings.after(afterId);
+                if (at < postings.size) {
+                    heads.add(new Head(postings, at));
+                }
+            }
+        }
+
+        /** Next distinct id, or -1 when every list is used up. */
+        long next() {
+            while (!heads.isEmpty()) {
+                Head head = heads.poll();
+                long id = head.id();
+                if (++head.at < head.postings.size) {
+                    heads.add(head);
+                }
+                if (id != last) {
+                    last = id;
+                    return id;
+                }
+            }
+            return -1;
+        }
+
+        private static final class Head {
+
+            final Postings postings;
+            int at;
+
+            Head(Postings postings, int at) {
+                this.postings = postings;
+                this.at = at;
+            }
+
+            long id() {
+                return postings.ids[at];
+            }
+        }
+    }
+}
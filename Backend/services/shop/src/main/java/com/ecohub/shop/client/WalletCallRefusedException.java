@@ -0,0 +1,14 @@
+package com.ecohub.shop.client;
+
+/**
+ * The wallet answered with a 4xx other than 409: it did not look at the
+ * order at all (unknown path, malformed request, auth). That points at the
+ * shop or its configuration rather than the buyer, so the call is retried
+ * once that is fixed instead of being treated as a decline.
+ */
+public class WalletCallRefusedException extends RuntimeException {
+
+    public WalletCallRefusedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,145 @@
+package com.ecohub.shop.client;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import com.ecohub.shop.dto.WalletAmountRequestDto;
+import com.ecohub.shop.dto.WalletHoldDto;
+import com.ecohub.shop.dto.WalletHoldRequestDto;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * The shop's only way to reach reward-wallet.
+ *
+ * Calls go through a pooled, timeout-bounded RestTemplate, a bulkhead that
+ * caps how many shop threads can be waiting on the wallet at once, and a
+ * circuit breaker that stops calling a wallet which keeps failing. Either
+ * guard refuses a call immediately instead of letting it queue.
+ *
+ * A 409 answer (e.g. insufficient balance) is the wallet working correctly:
+ * it does not count against the breaker and surfaces as a
+ * {@link WalletRejectedException}. Any other 4xx means the wallet never
+ * considered the call (wrong path, bad request) and surfaces as a
+ * {@link WalletCallRefusedException}. Everything else is a plain
+ * RuntimeException and may succeed on retry.
+ */
+@Component
+public class WalletClient {
+
+    private final RestTemplate restTemplate;
+    private final CircuitBreaker circuitBreaker;
+    private final MeterRegistry meterRegistry;
+    private final String baseUrl;
+    private final Semaphore bulkhead;
+    private final long bulkheadWaitMs;
+
+    public WalletClient(
+            RestTemplate walletRestTemplate,
+            CircuitBreaker walletCircuitBreaker,
+            MeterRegistry meterRegistry,
+            @Value("${shop.wallet.base-url:http://localhost:8084}") String baseUrl,
+            @Value("${shop.wallet.max-concurrent-calls:20}") int maxConcurrentCalls,
+            @Value("${shop.wallet.bulkhead-wait-ms:50}") long bulkheadWaitMs) {
+        this.restTemplate = walletRestTemplate;
+        this.circuitBreaker = walletCircuitBreaker;
+        this.meterRegistry = meterRegistry;
+        this.baseUrl = baseUrl;
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+        this.bulkheadWaitMs = bulkheadWaitMs;
+
+        meterRegistry.gauge("shop.wallet.client.in.flight", bulkhead,
+                b -> maxConcurrentCalls - b.availablePermits());
+        meterRegistry.gauge("shop.wallet.client.breaker.open", circuitBreaker,
+                b -> b.state() == CircuitBreaker.State.CLOSED ? 0 : 1);
+    }
+
+    public void debit(Long userId, int amount) {
+        WalletAmountRequestDto request = new WalletAmountRequestDto();
+        request.setAmount(amount);
+        post("debit", "/" + userId + "/debit", request, Void.class);
+    }
+
+    /**
+     * Reserves coins under {@code reference}. Repeating the call with the
+     * same reference returns the hold created the first time.
+     */
+    public WalletHoldDto hold(Long userId, int amount, String reference, int ttlSeconds, String source) {
+        WalletHoldRequestDto request = new WalletHoldRequestDto(userId, amount, ttlSeconds, reference, source);
+        return post("hold", "/holds", request, WalletHoldDto.class);
+    }
+
+    /**
+     * Turns a hold into a debit. Capturing an already captured hold is a
+     * no-op, so this is safe to retry.
+     */
+    public WalletHoldDto capture(Long holdId) {
+        return post("capture", "/holds/" + holdId + "/capture", null, WalletHoldDto.class);
+    }
+
+    private <T> T post(String operation, String path, Object body, Class<T> responseType) {
+        if (!circuitBreaker.tryAcquire()) {
+            count(operation, "short_circuited");
+            throw new RuntimeException("Wallet service unavailable");
+        }
+
+        boolean admitted;
+        try {
+            admitted = bulkhead.tryAcquire(bulkheadWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        }
+        if (!admitted) {
+            // says nothing about the wallet itself, so frees a half-open trial
+            circuitBreaker.onIgnored();
+            count(operation, "rejected");
+            throw new RuntimeException("Wallet service busy");
+        }
+
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            T response = restTemplate.postForEntity(baseUrl + path, body, responseType).getBody();
+            outcome = "success";
+            circuitBreaker.onSuccess();
+            return response;
+        } catch (HttpClientErrorException e) {
+            circuitBreaker.onIgnored();
+            if (e.getStatusCode().isSameCodeAs(HttpStatus.CONFLICT)) {
+                outcome = "client_error";
+                throw new WalletRejectedException("Wallet rejected " + operation + ": " + e.getResponseBodyAsString());
+            }
+            outcome = "refused";
+            System.out.println("Wallet refused " + operation + " " + path + " with " + e.getStatusCode()
+                    + ", check shop.wallet.base-url");
+            throw new WalletCallRefusedException("Wallet refused " + operation + " with " + e.getStatusCode());
+        } catch (RestClientException e) {
+            circuitBreaker.onFailure();
+            throw new RuntimeException("Wallet service failed: " + e.getMessage());
+        } finally {
+            bulkhead.release();
+            timer(operation, outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(String operation, String outcome) {
+        return Timer.builder("shop.wallet.client.requests")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private void count(String operation, String outcome) {
+        meterRegistry.counter("shop.wallet.client.refused", "operation", operation, "outcome", outcome)
+                .increment();
+    }
+}
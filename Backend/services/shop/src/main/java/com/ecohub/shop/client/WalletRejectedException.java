@@ -0,0 +1,12 @@
+package com.ecohub.shop.client;
+
+/**
+ * The wallet answered and said no (e.g. insufficient balance). Retrying the
+ * same call will not help, unlike a timeout or an open breaker.
+ */
+public class WalletRejectedException extends RuntimeException {
+
+    public WalletRejectedException(String message) {
+        super(message);
+    }
+}
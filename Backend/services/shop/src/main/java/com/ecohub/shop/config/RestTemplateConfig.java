@@ -1,14 +1,72 @@
 package com.ecohub.shop.config;
 
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import com.ecohub.shop.client.CircuitBreaker;
+
 @Configuration
 public class RestTemplateConfig {
 
+    /**
+     * RestTemplate for calls to reward-wallet: kept-alive pooled connections
+     * and hard timeouts, so a slow wallet costs a bounded amount of time per
+     * request instead of a stuck thread.
+     */
+    @Bean
+    public RestTemplate walletRestTemplate(
+            @Value("${shop.wallet.pool.max-total:100}") int maxTotal,
+            @Value("${shop.wallet.pool.max-per-route:50}") int maxPerRoute,
+            @Value("${shop.wallet.pool.acquire-timeout-ms:200}") long acquireTimeoutMs,
+            @Value("${shop.wallet.connect-timeout-ms:500}") long connectTimeoutMs,
+            @Value("${shop.wallet.read-timeout-ms:2000}") long readTimeoutMs) {
+        return pooledRestTemplate(maxTotal, maxPerRoute, acquireTimeoutMs, connectTimeoutMs, readTimeoutMs);
+    }
+
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public CircuitBreaker walletCircuitBreaker(
+            @Value("${shop.wallet.breaker.window-size:20}") int windowSize,
+            @Value("${shop.wallet.breaker.minimum-calls:10}") int minimumCalls,
+            @Value("${shop.wallet.breaker.failure-rate-percent:50}") int failureRatePercent,
+            @Value("${shop.wallet.breaker.open-ms:5000}") long openMs) {
+        return new CircuitBreaker(windowSize, minimumCalls, failureRatePercent, openMs);
+    }
+
+    public static RestTemplate pooledRestTemplate(
+            int maxTotal, int maxPerRoute, long acquireTimeoutMs, long connectTimeoutMs, long readTimeoutMs) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        // re-check connections the wallet may have closed while idle
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .setTimeToLive(TimeValue.ofMinutes(5))
+                        .build())
+                .build();
+
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(acquireTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build())
+                .evictIdleConnections(TimeValue.ofSeconds(30))
+                .evictExpiredConnections()
+                .build();
+
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
     }
 }
@@ -1,10 +1,19 @@
 	package com.ecohub.shop.controller;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import com.ecohub.shop.catalog.CatalogSnapshot;
+import com.ecohub.shop.catalog.CatalogSnapshotHolder;
 import com.ecohub.shop.dto.*;
+import com.ecohub.shop.service.ProductImportService;
 import com.ecohub.shop.service.ProductService;
 
 @RestController
@@ -12,9 +21,14 @@ import com.ecohub.shop.service.ProductService;
 public class ProductController {
 
     private final ProductService service;
+    private final CatalogSnapshotHolder catalog;
+    private final ProductImportService importService;
 
-    public ProductController(ProductService service) {
+    public ProductController(ProductService service, CatalogSnapshotHolder catalog,
+                             ProductImportService importService) {
         this.service = service;
+        this.catalog = catalog;
+        this.importService = importService;
     }
 
     @PostMapping
@@ -22,9 +36,42 @@ public class ProductController {
         return service.create(dto);
     }
 
+    // CSV (with a header row) or NDJSON, read as it arrives; bad rows are reported, not fatal
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ProductImportReportDto importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) throws IOException {
+        boolean csv = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType("text/csv"));
+        ProductImportService.Format format = csv
+                ? ProductImportService.Format.CSV
+                : ProductImportService.Format.NDJSON;
+        return importService.importProducts(body, format);
+    }
+
+    // pre-serialized snapshot; clients revalidate with If-None-Match
     @GetMapping
-    public List<ProductResponseDto> getAll() {
-        return service.getAll();
+    public ResponseEntity<byte[]> getAll(WebRequest request) {
+        CatalogSnapshot snapshot = catalog.current();
+        if (request.checkNotModified(snapshot.getEtag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(snapshot.getEtag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(snapshot.getJson());
+    }
+
+    // name/description prefix search; follow nextCursor for the next page
+    @GetMapping("/search")
+    public ProductSearchPageDto search(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Integer minPrice,
+            @RequestParam(required = false) Integer maxPrice,
+            @RequestParam(defaultValue = "false") boolean inStock,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return service.search(q, minPrice, maxPrice, inStock, cursor, size);
     }
 
     @GetMapping("/{id}")
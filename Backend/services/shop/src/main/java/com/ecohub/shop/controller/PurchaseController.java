@@ -1,24 +1,79 @@
 package com.ecohub.shop.controller;
 
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.ecohub.shop.admission.AdmissionRejectedException;
+import com.ecohub.shop.admission.PurchaseAdmission;
+import com.ecohub.shop.dto.CheckoutRequestDto;
+import com.ecohub.shop.dto.CheckoutResponseDto;
+import com.ecohub.shop.dto.OrderHistoryPageDto;
+import com.ecohub.shop.dto.OrderResponseDto;
+import com.ecohub.shop.service.OrderHistoryService;
 import com.ecohub.shop.service.PurchaseService;
 
 @RestController	
 @RequestMapping("/api/purchase")
 public class PurchaseController {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final PurchaseService purchaseService;
+    private final OrderHistoryService historyService;
+    private final PurchaseAdmission admission;
 
-    public PurchaseController(PurchaseService purchaseService) {
+    public PurchaseController(PurchaseService purchaseService, OrderHistoryService historyService,
+                              PurchaseAdmission admission) {
         this.purchaseService = purchaseService;
+        this.historyService = historyService;
+        this.admission = admission;
     }
 
+    // answers once the order is recorded; status stays PENDING until the wallet is debited
     @PostMapping("/{productId}")
-    public void purchase(
+    public CompletableFuture<OrderResponseDto> purchase(
             @PathVariable Long productId,
             @RequestParam Long userId
     ) {
-        purchaseService.purchaseProduct(productId, userId);
+        return admission.submit(productId, userId);
+    }
+
+    // whole cart in one call: one product query, one order transaction, one wallet debit
+    @PostMapping("/checkout")
+    public CheckoutResponseDto checkout(@RequestBody CheckoutRequestDto dto) {
+        return purchaseService.checkout(dto.getUserId(), dto.getItems());
+    }
+
+    @GetMapping("/orders/{orderId}")
+    public OrderResponseDto getOrder(@PathVariable Long orderId) {
+        return purchaseService.getOrder(orderId);
+    }
+
+    // Newest first; follow nextCursor for older pages
+    @GetMapping("/users/{userId}/orders")
+    public OrderHistoryPageDto getOrderHistory(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return historyService.getHistory(userId, cursor, size);
+    }
+
+    // Full order history as NDJSON, streamed row by row
+    @GetMapping("/users/{userId}/orders/export")
+    public ResponseEntity<StreamingResponseBody> exportOrderHistory(@PathVariable Long userId) {
+        StreamingResponseBody body = out -> historyService.exportHistory(userId, out);
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    @ExceptionHandler(AdmissionRejectedException.class)
+    public ResponseEntity<String> rejected(AdmissionRejectedException e) {
+        return ResponseEntity.status(e.getStatus())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(e.getMessage());
     }
 }
@@ -0,0 +1,47 @@
+package com.ecohub.shop.controller;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import com.ecohub.shop.dto.SalesBucketDto;
+import com.ecohub.shop.service.SalesAnalyticsService;
+
+@RestController
+@RequestMapping("/api/analytics/sales")
+public class SalesAnalyticsController {
+
+    private final SalesAnalyticsService service;
+
+    public SalesAnalyticsController(SalesAnalyticsService service) {
+        this.service = service;
+    }
+
+    // shop-wide orders and coins per hour in [from, to]
+    @GetMapping("/hours")
+    public List<SalesBucketDto> getHourly(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return service.getHourly(from, to);
+    }
+
+    @GetMapping("/products")
+    public List<SalesBucketDto> getProductTotals() {
+        return service.getProductTotals();
+    }
+
+    @GetMapping("/products/{productId}")
+    public SalesBucketDto getProductTotal(@PathVariable Long productId) {
+        return service.getProductTotal(productId);
+    }
+
+    @GetMapping("/products/{productId}/hours")
+    public List<SalesBucketDto> getProductHourly(
+            @PathVariable Long productId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return service.getProductHourly(productId, from, to);
+    }
+}
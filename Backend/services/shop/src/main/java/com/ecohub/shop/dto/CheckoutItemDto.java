@@ -0,0 +1,12 @@
+package com.ecohub.shop.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckoutItemDto {
+    private Long productId;
+    private int quantity = 1;
+}
@@ -0,0 +1,14 @@
+package com.ecohub.shop.dto;
+
+import java.util.List;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckoutRequestDto {
+    private Long userId;
+    private List<CheckoutItemDto> items;
+}
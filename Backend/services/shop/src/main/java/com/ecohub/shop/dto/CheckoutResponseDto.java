@@ -0,0 +1,32 @@
+package com.ecohub.shop.dto;
+
+import java.util.List;
+
+import com.ecohub.shop.entity.Order;
+import com.ecohub.shop.entity.OrderStatus;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class CheckoutResponseDto {
+
+    // id of the cart's first order; the wallet debit is recorded against it
+    private Long checkoutId;
+    private Long userId;
+    private int total;
+    private OrderStatus status;
+    private List<OrderResponseDto> orders;
+
+    public CheckoutResponseDto(List<Order> orders) {
+        Order first = orders.get(0);
+        this.checkoutId = first.getId();
+        this.userId = first.getUserId();
+        this.status = first.getStatus();
+        this.orders = orders.stream().map(OrderResponseDto::new).toList();
+        this.total = orders.stream().mapToInt(Order::getPricePaid).sum();
+    }
+}
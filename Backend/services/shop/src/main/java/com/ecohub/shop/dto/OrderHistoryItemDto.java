@@ -0,0 +1,64 @@
+package com.ecohub.shop.dto;
+
+import java.time.LocalDateTime;
+
+import com.ecohub.shop.entity.OrderStatus;
+
+/**
+ * One row of a user's order history. Built straight from the query, with
+ * the product name filled in afterwards from one lookup per page.
+ */
+public class OrderHistoryItemDto {
+
+    private final Long orderId;
+    private final Long productId;
+    private final int pricePaid;
+    private final OrderStatus status;
+    private final LocalDateTime purchasedAt;
+    private final Long checkoutId;
+
+    // null once the product is deleted
+    private String productName;
+
+    public OrderHistoryItemDto(Long orderId, Long productId, int pricePaid, OrderStatus status,
+            LocalDateTime purchasedAt, Long checkoutId) {
+        this.orderId = orderId;
+        this.productId = productId;
+        this.pricePaid = pricePaid;
+        this.status = status;
+        this.purchasedAt = purchasedAt;
+        this.checkoutId = checkoutId;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public void setProductName(String productName) {
+        this.productName = productName;
+    }
+
+    public int getPricePaid() {
+        return pricePaid;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getPurchasedAt() {
+        return purchasedAt;
+    }
+
+    public Long getCheckoutId() {
+        return checkoutId;
+    }
+}
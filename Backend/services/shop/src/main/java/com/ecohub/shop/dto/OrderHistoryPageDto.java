@@ -0,0 +1,24 @@
+package com.ecohub.shop.dto;
+
+import java.util.List;
+
+public class OrderHistoryPageDto {
+
+    private final List<OrderHistoryItemDto> items;
+
+    // pass back as ?cursor= to get the next (older) page; null on the last page
+    private final String nextCursor;
+
+    public OrderHistoryPageDto(List<OrderHistoryItemDto> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<OrderHistoryItemDto> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
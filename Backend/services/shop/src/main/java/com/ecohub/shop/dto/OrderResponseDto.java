@@ -0,0 +1,34 @@
+package com.ecohub.shop.dto;
+
+import java.time.LocalDateTime;
+
+import com.ecohub.shop.entity.Order;
+import com.ecohub.shop.entity.OrderStatus;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class OrderResponseDto {
+
+    private Long orderId;
+    private Long userId;
+    private Long productId;
+    private int pricePaid;
+    private OrderStatus status;
+    private String failureReason;
+    private LocalDateTime purchasedAt;
+
+    public OrderResponseDto(Order order) {
+        this.orderId = order.getId();
+        this.userId = order.getUserId();
+        this.productId = order.getProductId();
+        this.pricePaid = order.getPricePaid();
+        this.status = order.getStatus();
+        this.failureReason = order.getFailureReason();
+        this.purchasedAt = order.getPurchasedAt();
+    }
+}
@@ -0,0 +1,21 @@
+package com.ecohub.shop.dto;
+
+public class ProductImportErrorDto {
+
+    // 1-based line of the input, header included
+    private final long line;
+    private final String message;
+
+    public ProductImportErrorDto(long line, String message) {
+        this.line = line;
+        this.message = message;
+    }
+
+    public long getLine() {
+        return line;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,49 @@
+package com.ecohub.shop.dto;
+
+import java.util.List;
+
+public class ProductImportReportDto {
+
+    private final long rowsRead;
+    private final long imported;
+    private final long rejected;
+    private final long elapsedMs;
+    private final long rowsPerSecond;
+
+    // the first rejected rows only, so a bad file cannot blow up the response
+    private final List<ProductImportErrorDto> errors;
+
+    public ProductImportReportDto(long rowsRead, long imported, long rejected, long elapsedMs,
+                                  List<ProductImportErrorDto> errors) {
+        this.rowsRead = rowsRead;
+        this.imported = imported;
+        this.rejected = rejected;
+        this.elapsedMs = elapsedMs;
+        this.rowsPerSecond = elapsedMs == 0 ? rowsRead * 1000 : rowsRead * 1000 / elapsedMs;
+        this.errors = errors;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    public long getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public List<ProductImportErrorDto> getErrors() {
+        return errors;
+    }
+}
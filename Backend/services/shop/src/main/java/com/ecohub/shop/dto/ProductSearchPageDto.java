@@ -0,0 +1,24 @@
+package com.ecohub.shop.dto;
+
+import java.util.List;
+
+public class ProductSearchPageDto {
+
+    private final List<ProductResponseDto> items;
+
+    // pass back as ?cursor= to get the next page; null on the last page
+    private final String nextCursor;
+
+    public ProductSearchPageDto(List<ProductResponseDto> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<ProductResponseDto> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,18 @@
+package com.ecohub.shop.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesBucketDto {
+    // null on shop-wide buckets
+    private Long productId;
+    // start of the hour; null on all-time totals
+    private LocalDateTime hour;
+    private long orders;
+    private long coins;
+}
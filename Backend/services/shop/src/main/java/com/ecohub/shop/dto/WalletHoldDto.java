@@ -0,0 +1,15 @@
+package com.ecohub.shop.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// the parts of reward-wallet's hold response the shop needs
+@Getter
+@Setter
+@NoArgsConstructor
+public class WalletHoldDto {
+
+    private Long holdId;
+    private String status;
+}
@@ -0,0 +1,22 @@
+package com.ecohub.shop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class WalletHoldRequestDto {
+
+    private Long userId;
+    private Integer amount;
+    private Integer ttlSeconds;
+
+    // makes a retried hold return the same hold
+    private String reference;
+
+    private String source;
+}
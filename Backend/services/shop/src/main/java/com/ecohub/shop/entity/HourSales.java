@@ -0,0 +1,29 @@
+package com.ecohub.shop.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Orders and coins across the whole shop in one clock hour.
+ */
+@Entity
+@Table(name = "sales_hour")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class HourSales {
+
+    // start of the hour
+    @Id
+    private LocalDateTime bucketHour;
+
+    private long orders;
+
+    private long coins;
+}
@@ -9,15 +9,25 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        // order history: keyset seek on (user_id, purchased_at, id), covering the listed columns
+        @Index(name = "idx_orders_user_history",
+                columnList = "user_id, purchased_at, id, product_id, price_paid, status, checkout_id"),
+        // settling a cart's debit finds its other orders
+        @Index(name = "idx_orders_checkout", columnList = "checkout_id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 public class Order {
 
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // not IDENTITY: ids are known before the insert, so a checkout's orders go out as one JDBC batch
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_seq")
+    @SequenceGenerator(name = "order_seq", sequenceName = "order_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     private Long userId;
@@ -27,4 +37,19 @@ public class Order {
     private int pricePaid;
 
     private LocalDateTime purchasedAt;
+
+    // null on orders placed before the outbox, which were debited inline
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private OrderStatus status;
+
+    private String failureReason;
+
+    // id of the first order of the cart this one was checked out with; null on that order itself
+    @Column(name = "checkout_id")
+    private Long checkoutId;
+
+    // counted in the sales rollups; set on insert, afterwards only flipped by SalesRollupRepository
+    @Column(name = "rolled_up", updatable = false)
+    private Boolean rolledUp;
 }
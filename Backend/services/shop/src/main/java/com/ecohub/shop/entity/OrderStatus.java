@@ -0,0 +1,7 @@
+package com.ecohub.shop.entity;
+
+public enum OrderStatus {
+    PENDING,     // saved, coins not taken yet
+    CONFIRMED,   // wallet debited
+    FAILED       // wallet refused, stock given back
+}
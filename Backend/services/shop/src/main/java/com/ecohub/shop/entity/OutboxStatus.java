@@ -0,0 +1,7 @@
+package com.ecohub.shop.entity;
+
+public enum OutboxStatus {
+    PENDING,
+    SENT,
+    FAILED
+}
@@ -0,0 +1,46 @@
+package com.ecohub.shop.entity;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Orders and coins of one product in one clock hour. Maintained by
+ * {@link com.ecohub.shop.repository.SalesRollupRepository}, never by JPA.
+ */
+@Entity
+@Table(name = "sales_product_hour")
+@IdClass(ProductHourSales.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductHourSales {
+
+    @Id
+    private Long productId;
+
+    // start of the hour
+    @Id
+    private LocalDateTime bucketHour;
+
+    private long orders;
+
+    private long coins;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Long productId;
+        private LocalDateTime bucketHour;
+    }
+}
@@ -0,0 +1,26 @@
+package com.ecohub.shop.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * All-time orders and coins of one product.
+ */
+@Entity
+@Table(name = "sales_product")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSales {
+
+    @Id
+    private Long productId;
+
+    private long orders;
+
+    private long coins;
+}
@@ -0,0 +1,29 @@
+package com.ecohub.shop.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * How far the sales rollup catch-up has scanned the orders table.
+ */
+@Entity
+@Table(name = "sales_rollup_watermark")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesRollupWatermark {
+
+    @Id
+    private String jobName;
+
+    // every order up to and including this id has been looked at
+    private long lastOrderId;
+
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,55 @@
+package com.ecohub.shop.outbox;
+
+import com.ecohub.shop.entity.WalletOutboxMessage;
+
+/**
+ * What happened when the relay tried to deliver one outbox message.
+ */
+public class OutboxDelivery {
+
+    public enum Result {
+        CONFIRMED,
+        FAILED,
+        RETRY
+    }
+
+    private final WalletOutboxMessage message;
+    private final Result result;
+    private final Long holdId;
+    private final String error;
+
+    private OutboxDelivery(WalletOutboxMessage message, Result result, Long holdId, String error) {
+        this.message = message;
+        this.result = result;
+        this.holdId = holdId;
+        this.error = error;
+    }
+
+    public static OutboxDelivery confirmed(WalletOutboxMessage message, Long holdId) {
+        return new OutboxDelivery(message, Result.CONFIRMED, holdId, null);
+    }
+
+    public static OutboxDelivery failed(WalletOutboxMessage message, Long holdId, String error) {
+        return new OutboxDelivery(message, Result.FAILED, holdId, error);
+    }
+
+    public static OutboxDelivery retry(WalletOutboxMessage message, Long holdId, String error) {
+        return new OutboxDelivery(message, Result.RETRY, holdId, error);
+    }
+
+    public WalletOutboxMessage getMessage() {
+        return message;
+    }
+
+    public Result getResult() {
+        return result;
+    }
+
+    public Long getHoldId() {
+        return holdId;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,218 @@
+package com.ecohub.shop.outbox;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.ecohub.shop.client.WalletCallRefusedException;
+import com.ecohub.shop.client.WalletClient;
+import com.ecohub.shop.client.WalletRejectedException;
+import com.ecohub.shop.entity.Order;
+import com.ecohub.shop.entity.OutboxStatus;
+import com.ecohub.shop.entity.WalletOutboxMessage;
+import com.ecohub.shop.repository.WalletOutboxRepository;
+import com.ecohub.shop.service.OrderOutboxService;
+import com.ecohub.shop.stock.StockEngine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Delivers the wallet debits purchases leave in the outbox.
+ *
+ * Each debit is a wallet hold keyed by the order ("order-{id}"; for a cart,
+ * its first order) followed by a capture of that hold. Both calls are idempotent on the wallet side, so
+ * a message whose outcome was lost in a timeout is simply sent again.
+ * Declines (a 409 from the wallet) fail the order and give its stock back;
+ * anything else is retried with exponential backoff. A call the wallet
+ * refused outright (any other 4xx) is never given up on: it means the shop
+ * is calling it wrongly, so it counts on shop.outbox.refused and waits for
+ * the fix.
+ *
+ * A message is only given up on while no hold is known for it: a hold the
+ * relay never learned about expires on the wallet without being captured.
+ * Once a hold id is recorded the capture may already have happened, so the
+ * relay keeps retrying until the wallet gives a definite answer (it will,
+ * at the latest when the hold expires).
+ *
+ * Runs on a single shop node: messages are not claimed between relays.
+ */
+@Component
+public class WalletDebitRelay {
+
+    private static final String LEDGER_SOURCE = "REDEEM";
+
+    private final OrderOutboxService outboxService;
+    private final WalletOutboxRepository outboxRepository;
+    private final WalletClient walletClient;
+    private final StockEngine stockEngine;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final int holdTtlSeconds;
+    private final long backoffMs;
+    private final long maxBackoffMs;
+    private final ExecutorService senders;
+
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicLong oldestPendingSeconds = new AtomicLong();
+    private final Timer lag;
+    private final Counter confirmed;
+    private final Counter failed;
+    private final Counter retries;
+    private final Counter refused;
+
+    public WalletDebitRelay(
+            OrderOutboxService outboxService,
+            WalletOutboxRepository outboxRepository,
+            WalletClient walletClient,
+            StockEngine stockEngine,
+            MeterRegistry meterRegistry,
+            @Value("${shop.outbox.batch-size:200}") int batchSize,
+            @Value("${shop.outbox.parallelism:8}") int parallelism,
+            @Value("${shop.outbox.max-attempts:10}") int maxAttempts,
+            @Value("${shop.outbox.hold-ttl-seconds:600}") int holdTtlSeconds,
+            @Value("${shop.outbox.backoff-ms:500}") long backoffMs,
+            @Value("${shop.outbox.max-backoff-ms:60000}") long maxBackoffMs) {
+        this.outboxService = outboxService;
+        this.outboxRepository = outboxRepository;
+        this.walletClient = walletClient;
+        this.stockEngine = stockEngine;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.holdTtlSeconds = holdTtlSeconds;
+        this.backoffMs = backoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.senders = Executors.newFixedThreadPool(parallelism);
+
+        meterRegistry.gauge("shop.outbox.backlog", backlog);
+        meterRegistry.gauge("shop.outbox.oldest.pending.seconds", oldestPendingSeconds);
+        this.lag = Timer.builder("shop.outbox.lag")
+                .description("Time from placing an order to its debit being settled")
+                .register(meterRegistry);
+        this.confirmed = Counter.builder("shop.outbox.settled").tag("result", "confirmed")
+                .register(meterRegistry);
+        this.failed = Counter.builder("shop.outbox.settled").tag("result", "failed")
+                .register(meterRegistry);
+        this.retries = Counter.builder("shop.outbox.retries").register(meterRegistry);
+        this.refused = Counter.builder("shop.outbox.refused")
+                .description("Wallet calls answered with a 4xx other than 409")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Drains every due message, one batch at a time.
+     *
+     * @return number of messages settled (confirmed or failed)
+     */
+    @Scheduled(fixedDelayString = "${shop.outbox.poll-interval-ms:200}")
+    public int relay() {
+        int settled = 0;
+        while (true) {
+            LocalDateTime now = LocalDateTime.now();
+            List<WalletOutboxMessage> batch = outboxService.findDue(now, batchSize);
+            if (!batch.isEmpty()) {
+                settled += deliver(batch);
+            }
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+        refreshBacklog();
+        return settled;
+    }
+
+    private int deliver(List<WalletOutboxMessage> batch) {
+        List<Callable<OutboxDelivery>> sends = new ArrayList<>(batch.size());
+        for (WalletOutboxMessage message : batch) {
+            sends.add(() -> send(message));
+        }
+
+        List<OutboxDelivery> deliveries = new ArrayList<>(batch.size());
+        try {
+            for (Future<OutboxDelivery> future : senders.invokeAll(sends)) {
+                deliveries.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Outbox relay interrupted");
+        } catch (ExecutionException e) {
+            // send() catches everything itself
+            throw new RuntimeException("Outbox relay failed: " + e.getCause().getMessage());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int settled = 0;
+        for (OutboxDelivery delivery : deliveries) {
+            if (delivery.getResult() == OutboxDelivery.Result.RETRY) {
+                WalletOutboxMessage message = delivery.getMessage();
+                message.setAttempts(message.getAttempts() + 1);
+                message.setNextAttemptAt(now.plus(backoff(message.getAttempts())));
+                retries.increment();
+            } else {
+                settled++;
+                lag.record(Duration.between(delivery.getMessage().getCreatedAt(), now));
+                (delivery.getResult() == OutboxDelivery.Result.CONFIRMED ? confirmed : failed).increment();
+            }
+        }
+
+        // stock goes back only once the order is durably marked failed
+        for (Order order : outboxService.settle(deliveries)) {
+            stockEngine.release(order.getProductId(), 1);
+        }
+        return settled;
+    }
+
+    private OutboxDelivery send(WalletOutboxMessage message) {
+        Long holdId = message.getHoldId();
+        try {
+            if (holdId == null) {
+                holdId = walletClient.hold(message.getUserId(), message.getAmount(),
+                        "order-" + message.getOrderId(), holdTtlSeconds, LEDGER_SOURCE).getHoldId();
+            }
+            walletClient.capture(holdId);
+            return OutboxDelivery.confirmed(message, holdId);
+        } catch (WalletRejectedException e) {
+            return OutboxDelivery.failed(message, holdId, e.getMessage());
+        } catch (WalletCallRefusedException e) {
+            refused.increment();
+            return OutboxDelivery.retry(message, holdId, e.getMessage());
+        } catch (RuntimeException e) {
+            if (holdId == null && message.getAttempts() + 1 >= maxAttempts) {
+                return OutboxDelivery.failed(message, null, e.getMessage());
+            }
+            return OutboxDelivery.retry(message, holdId, e.getMessage());
+        }
+    }
+
+    private Duration backoff(int attempts) {
+        long delay = backoffMs << Math.min(attempts - 1, 20);
+        return Duration.ofMillis(Math.min(delay, maxBackoffMs));
+    }
+
+    private void refreshBacklog() {
+        backlog.set(outboxRepository.countByStatus(OutboxStatus.PENDING));
+        oldestPendingSeconds.set(outboxRepository.findFirstByStatusOrderByCreatedAtAsc(OutboxStatus.PENDING)
+                .map(message -> Duration.between(message.getCreatedAt(), LocalDateTime.now()).getSeconds())
+                .orElse(0L));
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        senders.shutdown();
+        senders.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
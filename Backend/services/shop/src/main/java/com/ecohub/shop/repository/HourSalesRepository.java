@@ -0,0 +1,13 @@
+package com.ecohub.shop.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.ecohub.shop.entity.HourSales;
+
+public interface HourSalesRepository extends JpaRepository<HourSales, LocalDateTime> {
+
+    List<HourSales> findByBucketHourBetweenOrderByBucketHour(LocalDateTime from, LocalDateTime to);
+}
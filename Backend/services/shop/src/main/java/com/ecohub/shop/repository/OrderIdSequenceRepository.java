@@ -0,0 +1,40 @@
+package com.ecohub.shop.repository;
+
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.ecohub.shop.entity.Order;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Keeps the order id sequence ahead of the orders table.
+ *
+ * Orders used to take IDENTITY ids; MySQL has no sequences, so Hibernate
+ * keeps order_seq as a one-row table that starts at 1 when it is first
+ * created. Moving it past the existing ids, plus one allocation block,
+ * stops the first pooled block from reusing them.
+ */
+@Repository
+@DependsOn("entityManagerFactory")
+public class OrderIdSequenceRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OrderIdSequenceRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void alignWithOrders() {
+        int moved = jdbcTemplate.update("""
+                UPDATE order_seq
+                SET next_val = (SELECT COALESCE(MAX(id), 0) FROM orders) + ?
+                WHERE next_val <= (SELECT COALESCE(MAX(id), 0) FROM orders) + ?
+                """, Order.ID_ALLOCATION_SIZE + 1, Order.ID_ALLOCATION_SIZE);
+        if (moved > 0) {
+            System.out.println("Moved order_seq past the existing order ids");
+        }
+    }
+}
@@ -1,9 +1,75 @@
 package com.ecohub.shop.repository;
 
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.ecohub.shop.dto.OrderHistoryItemDto;
 import com.ecohub.shop.entity.Order;
+
+import jakarta.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
+
+    /**
+     * The given orders plus every other order checked out in the same cart.
+     */
+    @Query("SELECT o FROM Order o WHERE o.id IN :ids OR o.checkoutId IN :ids")
+    List<Order> findWithCheckouts(@Param("ids") Collection<Long> ids);
+
+    /**
+     * One page of a user's orders, newest first, strictly after the
+     * (purchasedAt, id) keyset cursor. Every selected column is in
+     * idx_orders_user_history, so the page is read from the index alone.
+     */
+    @Query("""
+            SELECT new com.ecohub.shop.dto.OrderHistoryItemDto(
+                o.id, o.productId, o.pricePaid, o.status, o.purchasedAt, o.checkoutId)
+            FROM Order o
+            WHERE o.userId = :userId
+              AND (o.purchasedAt < :purchasedAt OR (o.purchasedAt = :purchasedAt AND o.id < :id))
+            ORDER BY o.purchasedAt DESC, o.id DESC
+            """)
+    List<OrderHistoryItemDto> findHistoryPage(
+            @Param("userId") Long userId,
+            @Param("purchasedAt") LocalDateTime purchasedAt,
+            @Param("id") Long id,
+            Pageable pageable);
+
+    /**
+     * Every product the user has ordered, for labelling an export before
+     * its stream is opened.
+     */
+    @Query("SELECT DISTINCT o.productId FROM Order o WHERE o.userId = :userId")
+    List<Long> findProductIds(@Param("userId") Long userId);
+
+    /**
+     * Whole history as a forward-only stream, row by row from MySQL (see
+     * the wallet's transaction export). Consume inside a transaction and
+     * close it.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            SELECT new com.ecohub.shop.dto.OrderHistoryItemDto(
+                o.id, o.productId, o.pricePaid, o.status, o.purchasedAt, o.checkoutId)
+            FROM Order o
+            WHERE o.userId = :userId
+            ORDER BY o.purchasedAt DESC, o.id DESC
+            """)
+    Stream<OrderHistoryItemDto> streamHistory(@Param("userId") Long userId);
 }
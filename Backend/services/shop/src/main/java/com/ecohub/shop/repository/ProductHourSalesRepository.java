@@ -0,0 +1,15 @@
+package com.ecohub.shop.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.ecohub.shop.entity.ProductHourSales;
+
+public interface ProductHourSalesRepository extends JpaRepository<ProductHourSales, ProductHourSales.Key> {
+
+    // a primary key range: (product_id, bucket_hour)
+    List<ProductHourSales> findByProductIdAndBucketHourBetweenOrderByBucketHour(
+            Long productId, LocalDateTime from, LocalDateTime to);
+}
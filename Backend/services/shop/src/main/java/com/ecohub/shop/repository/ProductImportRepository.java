@@ -0,0 +1,56 @@
+package com.ecohub.shop.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public class ProductImportRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO products (name, description, price, stock) VALUES (?, ?, ?, ?)";
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO products (product_id, name, description, price, stock) VALUES (?, ?, ?, ?, ?) "
+                    + "ON DUPLICATE KEY UPDATE name = VALUES(name), description = VALUES(description), "
+                    + "price = VALUES(price), stock = VALUES(stock)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductImportRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Writes one import batch in one transaction: new products as one JDBC
+     * batch, products with an id as another.
+     */
+    @Transactional
+    public void upsertBatch(List<ProductImportRow> rows) {
+        List<ProductImportRow> inserts = new ArrayList<>();
+        List<ProductImportRow> upserts = new ArrayList<>();
+        for (ProductImportRow row : rows) {
+            (row.getProductId() == null ? inserts : upserts).add(row);
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, inserts, inserts.size(), (ps, row) -> {
+                ps.setString(1, row.getName());
+                ps.setString(2, row.getDescription());
+                ps.setInt(3, row.getPrice());
+                ps.setInt(4, row.getStock());
+            });
+        }
+        if (!upserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, upserts, upserts.size(), (ps, row) -> {
+                ps.setLong(1, row.getProductId());
+                ps.setString(2, row.getName());
+                ps.setString(3, row.getDescription());
+                ps.setInt(4, row.getPrice());
+                ps.setInt(5, row.getStock());
+            });
+        }
+    }
+}
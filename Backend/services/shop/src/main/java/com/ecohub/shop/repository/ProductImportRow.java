@@ -0,0 +1,49 @@
+package com.ecohub.shop.repository;
+
+/**
+ * One validated product from a bulk import. Without a productId it becomes
+ * a new product; with one it replaces that product or creates it under
+ * that id.
+ */
+public class ProductImportRow {
+
+    private final long line;
+    private final Long productId;
+    private final String name;
+    private final String description;
+    private final int price;
+    private final int stock;
+
+    public ProductImportRow(long line, Long productId, String name, String description, int price, int stock) {
+        this.line = line;
+        this.productId = productId;
+        this.name = name;
+        this.description = description;
+        this.price = price;
+        this.stock = stock;
+    }
+
+    public long getLine() {
+        return line;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public int getPrice() {
+        return price;
+    }
+
+    public int getStock() {
+        return stock;
+    }
+}
@@ -0,0 +1,23 @@
+package com.ecohub.shop.repository;
+
+/**
+ * Just the name of a product, for labelling order history rows.
+ */
+public class ProductName {
+
+    private final Long productId;
+    private final String name;
+
+    public ProductName(Long productId, String name) {
+        this.productId = productId;
+        this.name = name;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
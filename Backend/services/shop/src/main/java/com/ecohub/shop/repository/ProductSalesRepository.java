@@ -0,0 +1,8 @@
+package com.ecohub.shop.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.ecohub.shop.entity.ProductSales;
+
+public interface ProductSalesRepository extends JpaRepository<ProductSales, Long> {
+}
@@ -0,0 +1,50 @@
+package com.ecohub.shop.repository;
+
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Moves stock between the products table and a node's in-memory lease.
+ * products.stock is the stock no node has leased yet.
+ */
+@Repository
+public class ProductStockRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductStockRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Takes up to {@code max} units out of the table.
+     *
+     * @return units actually taken, 0 when sold out
+     */
+    @Transactional
+    public int claim(Long productId, int max) {
+        List<Integer> stock = jdbcTemplate.queryForList(
+                "SELECT stock FROM products WHERE product_id = ? FOR UPDATE", Integer.class, productId);
+        if (stock.isEmpty()) {
+            throw new RuntimeException("Product not found");
+        }
+        int claimed = Math.min(max, stock.get(0));
+        if (claimed > 0) {
+            jdbcTemplate.update("UPDATE products SET stock = stock - ? WHERE product_id = ?", claimed, productId);
+        }
+        return claimed;
+    }
+
+    @Transactional
+    public void giveBack(Long productId, int quantity) {
+        jdbcTemplate.update("UPDATE products SET stock = stock + ? WHERE product_id = ?", quantity, productId);
+    }
+
+    @Transactional
+    public void setStock(Long productId, int stock) {
+        jdbcTemplate.update("UPDATE products SET stock = ? WHERE product_id = ?", stock, productId);
+    }
+}
@@ -0,0 +1,156 @@
+package com.ecohub.shop.repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ecohub.shop.entity.Order;
+
+/**
+ * Keeps the sales rollups (sales_product_hour, sales_hour, sales_product) in
+ * step with the orders table.
+ *
+ * An order counts while it is not FAILED, and orders.rolled_up says whether
+ * it is counted. The order writes add their own orders in the same
+ * transaction; the catch-up folds in whatever was written any other way.
+ */
+@Repository
+public class SalesRollupRepository {
+
+    public static final String CATCH_UP_JOB = "sales-rollup";
+
+    private static final String PRODUCT_HOUR_SQL =
+            "INSERT INTO sales_product_hour (product_id, bucket_hour, orders, coins) VALUES (?, ?, ?, ?) "
+                    + "ON DUPLICATE KEY UPDATE orders = orders + VALUES(orders), coins = coins + VALUES(coins)";
+    private static final String HOUR_SQL =
+            "INSERT INTO sales_hour (bucket_hour, orders, coins) VALUES (?, ?, ?) "
+                    + "ON DUPLICATE KEY UPDATE orders = orders + VALUES(orders), coins = coins + VALUES(coins)";
+    private static final String PRODUCT_SQL =
+            "INSERT INTO sales_product (product_id, orders, coins) VALUES (?, ?, ?) "
+                    + "ON DUPLICATE KEY UPDATE orders = orders + VALUES(orders), coins = coins + VALUES(coins)";
+
+    // orders in (afterId, toId] that should count but do not yet
+    private static final String MISSED_WHERE =
+            "WHERE id > ? AND id <= ? AND purchased_at IS NOT NULL "
+                    + "AND (rolled_up IS NULL OR rolled_up = FALSE) "
+                    + "AND (status IS NULL OR status <> 'FAILED')";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SalesRollupRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Counts freshly placed orders. Call in the transaction that inserts
+     * them, with rolledUp already set on each.
+     */
+    @Transactional
+    public void add(Collection<Order> orders) {
+        apply(orders, 1);
+    }
+
+    /**
+     * Takes a failed order back out of the rollups if it was counted.
+     * The conditional update also waits out a catch-up chunk holding the row.
+     */
+    @Transactional
+    public void uncount(Order order) {
+        int counted = jdbcTemplate.update(
+                "UPDATE orders SET rolled_up = FALSE WHERE id = ? AND rolled_up = TRUE", order.getId());
+        if (counted == 1) {
+            apply(List.of(order), -1);
+        }
+    }
+
+    /**
+     * Folds the missed orders in (afterId, toId] into the rollups, marks them
+     * counted and moves the watermark to toId, all in one transaction.
+     *
+     * @return orders folded in
+     */
+    @Transactional
+    public int foldMissed(long afterId, long toId) {
+        // FOR UPDATE: an order failing meanwhile waits, then sees it counted and takes it back out
+        List<Order> missed = jdbcTemplate.query(
+                "SELECT id, product_id, price_paid, purchased_at FROM orders " + MISSED_WHERE + " FOR UPDATE",
+                (rs, rowNum) -> {
+                    Order order = new Order();
+                    order.setId(rs.getLong("id"));
+                    order.setProductId(rs.getLong("product_id"));
+                    order.setPricePaid(rs.getInt("price_paid"));
+                    order.setPurchasedAt(rs.getTimestamp("purchased_at").toLocalDateTime());
+                    return order;
+                },
+                afterId, toId);
+        if (!missed.isEmpty()) {
+            apply(missed, 1);
+            jdbcTemplate.update("UPDATE orders SET rolled_up = TRUE " + MISSED_WHERE, afterId, toId);
+        }
+        jdbcTemplate.update(
+                "INSERT INTO sales_rollup_watermark (job_name, last_order_id, updated_at) VALUES (?, ?, ?) "
+                        + "ON DUPLICATE KEY UPDATE last_order_id = GREATEST(last_order_id, VALUES(last_order_id)), "
+                        + "updated_at = VALUES(updated_at)",
+                CATCH_UP_JOB, toId, Timestamp.valueOf(LocalDateTime.now()));
+        return missed.size();
+    }
+
+    public long watermark() {
+        List<Long> last = jdbcTemplate.queryForList(
+                "SELECT last_order_id FROM sales_rollup_watermark WHERE job_name = ?", Long.class, CATCH_UP_JOB);
+        return last.isEmpty() ? 0 : last.get(0);
+    }
+
+    public long maxOrderId() {
+        Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM orders", Long.class);
+        return max == null ? 0 : max;
+    }
+
+    /*
+     * Pre-aggregates in memory so each touched rollup row gets one upsert.
+     * Rows are upserted in key order, so concurrent order transactions lock
+     * them in the same order and cannot deadlock on each other.
+     */
+    private void apply(Collection<Order> orders, int sign) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        Map<Long, Map<LocalDateTime, long[]>> byProductHour = new TreeMap<>();
+        Map<LocalDateTime, long[]> byHour = new TreeMap<>();
+        Map<Long, long[]> byProduct = new TreeMap<>();
+        for (Order order : orders) {
+            LocalDateTime hour = order.getPurchasedAt().truncatedTo(ChronoUnit.HOURS);
+            long coins = (long) sign * order.getPricePaid();
+            accumulate(byProductHour.computeIfAbsent(order.getProductId(), id -> new TreeMap<>())
+                    .computeIfAbsent(hour, h -> new long[2]), sign, coins);
+            accumulate(byHour.computeIfAbsent(hour, h -> new long[2]), sign, coins);
+            accumulate(byProduct.computeIfAbsent(order.getProductId(), id -> new long[2]), sign, coins);
+        }
+
+        List<Object[]> productHourRows = new ArrayList<>();
+        byProductHour.forEach((productId, hours) -> hours.forEach((hour, totals) ->
+                productHourRows.add(new Object[] {productId, Timestamp.valueOf(hour), totals[0], totals[1]})));
+        List<Object[]> hourRows = new ArrayList<>(byHour.size());
+        byHour.forEach((hour, totals) -> hourRows.add(new Object[] {Timestamp.valueOf(hour), totals[0], totals[1]}));
+        List<Object[]> productRows = new ArrayList<>(byProduct.size());
+        byProduct.forEach((productId, totals) -> productRows.add(new Object[] {productId, totals[0], totals[1]}));
+
+        jdbcTemplate.batchUpdate(PRODUCT_HOUR_SQL, productHourRows);
+        jdbcTemplate.batchUpdate(HOUR_SQL, hourRows);
+        jdbcTemplate.batchUpdate(PRODUCT_SQL, productRows);
+    }
+
+    private static void accumulate(long[] totals, long orders, long coins) {
+        totals[0] += orders;
+        totals[1] += coins;
+    }
+}
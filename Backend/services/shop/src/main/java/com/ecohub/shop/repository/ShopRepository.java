@@ -1,9 +1,23 @@
 package com.ecohub.shop.repository;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.ecohub.shop.entity.Product;
 
 public interface ShopRepository extends JpaRepository<Product, Long> {
 
+    /**
+     * Names of many products in one query, without loading the entities.
+     */
+    @Query("""
+            SELECT new com.ecohub.shop.repository.ProductName(p.productId, p.name)
+            FROM Product p
+            WHERE p.productId IN :ids
+            """)
+    List<ProductName> findNames(@Param("ids") Collection<Long> ids);
 }
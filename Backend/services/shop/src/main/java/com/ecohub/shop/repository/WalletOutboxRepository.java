@@ -0,0 +1,28 @@
+package com.ecohub.shop.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.ecohub.shop.entity.OutboxStatus;
+import com.ecohub.shop.entity.WalletOutboxMessage;
+
+public interface WalletOutboxRepository extends JpaRepository<WalletOutboxMessage, Long> {
+
+    @Query("""
+            SELECT m FROM WalletOutboxMessage m
+            WHERE m.status = com.ecohub.shop.entity.OutboxStatus.PENDING
+              AND m.nextAttemptAt <= :now
+            ORDER BY m.nextAttemptAt, m.id
+            """)
+    List<WalletOutboxMessage> findDue(@Param("now") LocalDateTime now, Pageable pageable);
+
+    long countByStatus(OutboxStatus status);
+
+    Optional<WalletOutboxMessage> findFirstByStatusOrderByCreatedAtAsc(OutboxStatus status);
+}
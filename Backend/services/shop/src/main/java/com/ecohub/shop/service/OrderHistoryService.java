@@ -0,0 +1,13 @@
+package com.ecohub.shop.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.ecohub.shop.dto.OrderHistoryPageDto;
+
+public interface OrderHistoryService {
+
+    OrderHistoryPageDto getHistory(Long userId, String cursor, int size);
+
+    void exportHistory(Long userId, OutputStream out) throws IOException;
+}
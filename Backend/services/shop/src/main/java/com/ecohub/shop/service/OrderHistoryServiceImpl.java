@@ -0,0 +1,150 @@
+package com.ecohub.shop.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ecohub.shop.dto.OrderHistoryItemDto;
+import com.ecohub.shop.dto.OrderHistoryPageDto;
+import com.ecohub.shop.repository.OrderRepository;
+import com.ecohub.shop.repository.ProductName;
+import com.ecohub.shop.repository.ShopRepository;
+
+import tools.jackson.databind.json.JsonMapper;
+
+@Service
+public class OrderHistoryServiceImpl implements OrderHistoryService {
+
+    private static final int MAX_PAGE_SIZE = 500;
+    // export rows written per flush
+    private static final int EXPORT_CHUNK = 1000;
+    // product ids per name lookup, keeps the IN list at a sane size
+    private static final int NAME_LOOKUP_CHUNK = 1000;
+
+    // first page: everything is "older" than this
+    private static final LocalDateTime FAR_FUTURE = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    private final OrderRepository orderRepository;
+    private final ShopRepository productRepository;
+    private final JsonMapper jsonMapper;
+
+    public OrderHistoryServiceImpl(OrderRepository orderRepository, ShopRepository productRepository,
+            JsonMapper jsonMapper) {
+        this.orderRepository = orderRepository;
+        this.productRepository = productRepository;
+        this.jsonMapper = jsonMapper;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OrderHistoryPageDto getHistory(Long userId, String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new RuntimeException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        LocalDateTime afterPurchasedAt = FAR_FUTURE;
+        Long afterId = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] keys = decodeCursor(cursor);
+            afterPurchasedAt = LocalDateTime.parse(keys[0]);
+            afterId = Long.parseLong(keys[1]);
+        }
+
+        // one extra row tells us whether there is a next page
+        List<OrderHistoryItemDto> rows = orderRepository.findHistoryPage(
+                userId, afterPurchasedAt, afterId, PageRequest.of(0, size + 1));
+
+        List<OrderHistoryItemDto> page = rows.size() <= size ? rows : rows.subList(0, size);
+        labelProducts(page, new HashMap<>());
+        if (rows.size() <= size) {
+            return new OrderHistoryPageDto(page, null);
+        }
+        OrderHistoryItemDto last = page.get(size - 1);
+        return new OrderHistoryPageDto(page, encodeCursor(last.getPurchasedAt(), last.getOrderId()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportHistory(Long userId, OutputStream out) throws IOException {
+        // Names are looked up before the stream opens: while a streaming
+        // result set is open, Connector/J refuses every other statement on
+        // the connection. Both reads see the transaction's snapshot, so every
+        // product in the stream is in the map.
+        Map<Long, String> names = new HashMap<>();
+        List<Long> productIds = orderRepository.findProductIds(userId);
+        for (int from = 0; from < productIds.size(); from += NAME_LOOKUP_CHUNK) {
+            lookUpNames(productIds.subList(from, Math.min(from + NAME_LOOKUP_CHUNK, productIds.size())), names);
+        }
+
+        try (Stream<OrderHistoryItemDto> rows = orderRepository.streamHistory(userId)) {
+            Iterator<OrderHistoryItemDto> it = rows.iterator();
+            int written = 0;
+            while (it.hasNext()) {
+                OrderHistoryItemDto row = it.next();
+                row.setProductName(names.get(row.getProductId()));
+                out.write(jsonMapper.writeValueAsBytes(row));
+                out.write('\n');
+                if (++written % EXPORT_CHUNK == 0) {
+                    out.flush();
+                }
+            }
+            out.flush();
+        }
+    }
+
+    // one query for every product name the rows need that is not known yet
+    private void labelProducts(List<OrderHistoryItemDto> rows, Map<Long, String> names) {
+        Set<Long> missing = rows.stream()
+                .map(OrderHistoryItemDto::getProductId)
+                .filter(productId -> !names.containsKey(productId))
+                .collect(Collectors.toSet());
+        if (!missing.isEmpty()) {
+            lookUpNames(missing, names);
+        }
+        for (OrderHistoryItemDto row : rows) {
+            row.setProductName(names.get(row.getProductId()));
+        }
+    }
+
+    private void lookUpNames(Collection<Long> productIds, Map<Long, String> names) {
+        for (ProductName product : productRepository.findNames(productIds)) {
+            names.put(product.getProductId(), product.getName());
+        }
+        // deleted products: remember them as unnamed instead of asking again
+        for (Long productId : productIds) {
+            names.putIfAbsent(productId, null);
+        }
+    }
+
+    private static String encodeCursor(LocalDateTime purchasedAt, Long id) {
+        String raw = purchasedAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] keys = raw.split("\\|");
+            if (keys.length != 2) {
+                throw new IllegalArgumentException(raw);
+            }
+            return keys;
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+}
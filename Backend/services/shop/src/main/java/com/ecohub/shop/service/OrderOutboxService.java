@@ -0,0 +1,20 @@
+package com.ecohub.shop.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.ecohub.shop.entity.Order;
+import com.ecohub.shop.entity.Product;
+import com.ecohub.shop.entity.WalletOutboxMessage;
+import com.ecohub.shop.outbox.OutboxDelivery;
+
+public interface OrderOutboxService {
+
+    List<Order> placeOrders(Long productId, int price, List<Long> userIds);
+
+    List<Order> placeCheckout(Long userId, List<Product> units);
+
+    List<WalletOutboxMessage> findDue(LocalDateTime now, int limit);
+
+    List<Order> settle(List<OutboxDelivery> deliveries);
+}
@@ -0,0 +1,200 @@
+package com.ecohub.shop.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ecohub.shop.entity.Order;
+import com.ecohub.shop.entity.OrderStatus;
+import com.ecohub.shop.entity.OutboxStatus;
+import com.ecohub.shop.entity.Product;
+import com.ecohub.shop.entity.WalletOutboxMessage;
+import com.ecohub.shop.outbox.OutboxDelivery;
+import com.ecohub.shop.repository.OrderRepository;
+import com.ecohub.shop.repository.SalesRollupRepository;
+import com.ecohub.shop.repository.WalletOutboxRepository;
+
+/**
+ * Order and outbox writes. Placing orders and recording the debits they owe
+ * commit together, and so do a delivery's effect on the message and on the
+ * order.
+ */
+@Service
+public class OrderOutboxServiceImpl implements OrderOutboxService {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final OrderRepository orderRepository;
+    private final WalletOutboxRepository outboxRepository;
+    private final SalesRollupRepository salesRollups;
+
+    public OrderOutboxServiceImpl(OrderRepository orderRepository, WalletOutboxRepository outboxRepository,
+                                  SalesRollupRepository salesRollups) {
+        this.orderRepository = orderRepository;
+        this.outboxRepository = outboxRepository;
+        this.salesRollups = salesRollups;
+    }
+
+    /**
+     * Records one order per user, each with the debit it owes, in a single
+     * transaction.
+     */
+    @Override
+    @Transactional
+    public List<Order> placeOrders(Long productId, int price, List<Long> userIds) {
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Order> orders = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            Order order = new Order();
+            order.setUserId(userId);
+            order.setProductId(productId);
+            order.setPricePaid(price);
+            order.setPurchasedAt(now);
+            order.setStatus(OrderStatus.PENDING);
+            order.setRolledUp(true);
+            orders.add(order);
+        }
+        List<Order> saved = orderRepository.saveAll(orders);
+
+        List<WalletOutboxMessage> messages = new ArrayList<>(saved.size());
+        for (Order order : saved) {
+            WalletOutboxMessage message = new WalletOutboxMessage();
+            message.setOrderId(order.getId());
+            message.setUserId(order.getUserId());
+            message.setAmount(price);
+            message.setStatus(OutboxStatus.PENDING);
+            message.setNextAttemptAt(now);
+            message.setCreatedAt(now);
+            messages.add(message);
+        }
+        outboxRepository.saveAll(messages);
+
+        countSales(saved);
+        return saved;
+    }
+
+    /**
+     * Records one order per unit bought and a single debit for the cart's
+     * total, in one transaction. The first order stands for the cart: the
+     * debit points at it and the other orders carry its id as checkoutId.
+     */
+    @Override
+    @Transactional
+    public List<Order> placeCheckout(Long userId, List<Product> units) {
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Order> orders = new ArrayList<>(units.size());
+        int total = 0;
+        Long checkoutId = null;
+        for (Product product : units) {
+            Order order = new Order();
+            order.setUserId(userId);
+            order.setProductId(product.getProductId());
+            order.setPricePaid(product.getPrice());
+            order.setPurchasedAt(now);
+            order.setStatus(OrderStatus.PENDING);
+            order.setCheckoutId(checkoutId);
+            order.setRolledUp(true);
+            // ids come from the sequence on save; the inserts wait for the flush and go out batched
+            orders.add(orderRepository.save(order));
+            if (checkoutId == null) {
+                checkoutId = order.getId();
+            }
+            total += product.getPrice();
+        }
+
+        WalletOutboxMessage message = new WalletOutboxMessage();
+        message.setOrderId(checkoutId);
+        message.setUserId(userId);
+        message.setAmount(total);
+        message.setStatus(OutboxStatus.PENDING);
+        message.setNextAttemptAt(now);
+        message.setCreatedAt(now);
+        outboxRepository.save(message);
+
+        countSales(orders);
+        return orders;
+    }
+
+    /*
+     * Every order shares its hour's sales_hour row, so the rollups go last:
+     * flush the inserts first and hold that row lock only until the commit.
+     */
+    private void countSales(List<Order> orders) {
+        orderRepository.flush();
+        salesRollups.add(orders);
+    }
+
+    @Override
+    public List<WalletOutboxMessage> findDue(LocalDateTime now, int limit) {
+        return outboxRepository.findDue(now, PageRequest.of(0, limit));
+    }
+
+    /**
+     * Applies a batch of delivery results to the messages and their orders.
+     *
+     * @return orders that failed, whose stock the caller should give back
+     */
+    @Override
+    @Transactional
+    public List<Order> settle(List<OutboxDelivery> deliveries) {
+        List<Long> orderIds = deliveries.stream()
+                .filter(delivery -> delivery.getResult() != OutboxDelivery.Result.RETRY)
+                .map(delivery -> delivery.getMessage().getOrderId())
+                .toList();
+        List<Order> loaded = orderIds.isEmpty() ? List.of() : orderRepository.findWithCheckouts(orderIds);
+        // a message pays for its order and, for a cart, every order checked out with it
+        Map<Long, List<Order>> orders = loaded.stream()
+                .collect(Collectors.groupingBy(order -> order.getCheckoutId() != null
+                        ? order.getCheckoutId() : order.getId()));
+
+        List<WalletOutboxMessage> messages = new ArrayList<>(deliveries.size());
+        List<Order> failed = new ArrayList<>();
+        for (OutboxDelivery delivery : deliveries) {
+            WalletOutboxMessage message = delivery.getMessage();
+            message.setHoldId(delivery.getHoldId());
+            message.setLastError(truncate(delivery.getError()));
+            messages.add(message);
+
+            List<Order> paidFor = orders.getOrDefault(message.getOrderId(), List.of());
+            switch (delivery.getResult()) {
+                case CONFIRMED -> {
+                    message.setStatus(OutboxStatus.SENT);
+                    for (Order order : paidFor) {
+                        order.setStatus(OrderStatus.CONFIRMED);
+                    }
+                }
+                case FAILED -> {
+                    message.setStatus(OutboxStatus.FAILED);
+                    for (Order order : paidFor) {
+                        order.setStatus(OrderStatus.FAILED);
+                        order.setFailureReason(truncate(delivery.getError()));
+                        salesRollups.uncount(order);
+                        failed.add(order);
+                    }
+                }
+                default -> {
+                    // attempts and nextAttemptAt were set by the relay
+                }
+            }
+        }
+
+        outboxRepository.saveAll(messages);
+        orderRepository.saveAll(loaded);
+        return failed;
+    }
+
+    private static String truncate(String error) {
+        if (error == null || error.length() <= MAX_ERROR_LENGTH) {
+            return error;
+        }
+        return error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
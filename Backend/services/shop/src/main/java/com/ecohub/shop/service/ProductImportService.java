@@ -0,0 +1,13 @@
+package com.ecohub.shop.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.ecohub.shop.dto.ProductImportReportDto;
+
+public interface ProductImportService {
+
+    enum Format { CSV, NDJSON }
+
+    ProductImportReportDto importProducts(InputStream in, Format format) throws IOException;
+}
@@ -0,0 +1,276 @@
+package com.ecohub.shop.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.ecohub.shop.catalog.CatalogSnapshotHolder;
+import com.ecohub.shop.catalog.ProductSearchIndex;
+import com.ecohub.shop.dto.ProductImportErrorDto;
+import com.ecohub.shop.dto.ProductImportReportDto;
+import com.ecohub.shop.repository.ProductImportRepository;
+import com.ecohub.shop.repository.ProductImportRow;
+import com.ecohub.shop.stock.StockEngine;
+
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Loads products from a CSV or NDJSON stream.
+ *
+ * The input is read line by line and written in batches of batch-size rows,
+ * each batch in its own transaction, so memory holds one batch and at most
+ * MAX_REPORTED_ERRORS error lines whatever the size of the file. Invalid
+ * rows are skipped and reported; the rest of the file still goes in.
+ */
+@Service
+public class ProductImportServiceImpl implements ProductImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final int MAX_NAME_LENGTH = 255;
+    private static final int MAX_DESCRIPTION_LENGTH = 500;
+
+    private final ProductImportRepository importRepository;
+    private final StockEngine stockEngine;
+    private final ProductSearchIndex searchIndex;
+    private final CatalogSnapshotHolder catalog;
+    private final JsonMapper jsonMapper;
+    private final int batchSize;
+
+    public ProductImportServiceImpl(
+            ProductImportRepository importRepository,
+            StockEngine stockEngine,
+            ProductSearchIndex searchIndex,
+            CatalogSnapshotHolder catalog,
+            JsonMapper jsonMapper,
+            @Value("${shop.import.batch-size:1000}") int batchSize) {
+        this.importRepository = importRepository;
+        this.stockEngine = stockEngine;
+        this.searchIndex = searchIndex;
+        this.catalog = catalog;
+        this.jsonMapper = jsonMapper;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public ProductImportReportDto importProducts(InputStream in, Format format) throws IOException {
+        long start = System.nanoTime();
+        Run run = new Run();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+
+        Map<String, Integer> columns = null;
+        long lineNo = 0;
+        if (format == Format.CSV) {
+            lineNo++;
+            columns = readHeader(reader.readLine());
+        }
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            if (line.isBlank()) {
+                continue;
+            }
+            run.rowsRead++;
+            try {
+                run.batch.add(format == Format.CSV ? parseCsv(lineNo, line, columns) : parseJson(lineNo, line));
+            } catch (RuntimeException e) {
+                run.reject(lineNo, e.getMessage());
+            }
+            if (run.batch.size() == batchSize) {
+                write(run);
+            }
+        }
+        write(run);
+
+        if (run.imported > 0) {
+            searchIndex.rebuild();
+            catalog.rebuild();
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("Product import: " + run.imported + " of " + run.rowsRead + " rows in " + elapsedMs + " ms");
+        return new ProductImportReportDto(run.rowsRead, run.imported, run.rejected, elapsedMs, run.errors);
+    }
+
+    private void write(Run run) {
+        if (run.batch.isEmpty()) {
+            return;
+        }
+        try {
+            importRepository.upsertBatch(run.batch);
+            run.imported += run.batch.size();
+
+            // the stock of existing products was overwritten underneath any lease
+            List<Long> replaced = new ArrayList<>();
+            for (ProductImportRow row : run.batch) {
+                if (row.getProductId() != null) {
+                    replaced.add(row.getProductId());
+                }
+            }
+            stockEngine.dropLeases(replaced);
+        } catch (RuntimeException e) {
+            for (ProductImportRow row : run.batch) {
+                run.reject(row.getLine(), "Batch failed: " + e.getMessage());
+            }
+        }
+        run.batch.clear();
+    }
+
+    private static Map<String, Integer> readHeader(String header) {
+        if (header == null) {
+            throw new RuntimeException("CSV is empty");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = splitCsv(header);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey("name") || !columns.containsKey("price") || !columns.containsKey("stock")) {
+            throw new RuntimeException("CSV header must have name, price and stock columns");
+        }
+        return columns;
+    }
+
+    private static ProductImportRow parseCsv(long lineNo, String line, Map<String, Integer> columns) {
+        List<String> fields = splitCsv(line);
+        return validate(lineNo,
+                field(fields, columns, "productid"),
+                field(fields, columns, "name"),
+                field(fields, columns, "description"),
+                field(fields, columns, "price"),
+                field(fields, columns, "stock"));
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private ProductImportRow parseJson(long lineNo, String line) {
+        Map<String, Object> fields;
+        try {
+            fields = jsonMapper.readValue(line, Map.class);
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Not a JSON object");
+        }
+        return validate(lineNo, fields.get("productId"), fields.get("name"), fields.get("description"),
+                fields.get("price"), fields.get("stock"));
+    }
+
+    private static ProductImportRow validate(long lineNo, Object productId, Object name, Object description,
+                                             Object price, Object stock) {
+        Long id = productId == null ? null : (long) toInt(productId, "productId");
+        if (id != null && id < 1) {
+            throw new RuntimeException("productId must be positive");
+        }
+        if (!(name instanceof String) || ((String) name).isBlank()) {
+            throw new RuntimeException("name is required");
+        }
+        if (((String) name).length() > MAX_NAME_LENGTH) {
+            throw new RuntimeException("name is longer than " + MAX_NAME_LENGTH);
+        }
+        if (description != null && !(description instanceof String)) {
+            throw new RuntimeException("description must be text");
+        }
+        if (description != null && ((String) description).length() > MAX_DESCRIPTION_LENGTH) {
+            throw new RuntimeException("description is longer than " + MAX_DESCRIPTION_LENGTH);
+        }
+        if (price == null) {
+            throw new RuntimeException("price is required");
+        }
+        if (stock == null) {
+            throw new RuntimeException("stock is required");
+        }
+        int coins = toInt(price, "price");
+        int units = toInt(stock, "stock");
+        if (coins < 0) {
+            throw new RuntimeException("price must not be negative");
+        }
+        if (units < 0) {
+            throw new RuntimeException("stock must not be negative");
+        }
+        return new ProductImportRow(lineNo, id, ((String) name).trim(), (String) description, coins, units);
+    }
+
+    private static int toInt(Object value, String field) {
+        try {
+            if (value instanceof Integer number) {
+                return number;
+            }
+            if (value instanceof Long number) {
+                return Math.toIntExact(number);
+            }
+            if (value instanceof String text) {
+                return Integer.parseInt(text.trim());
+            }
+        } catch (NumberFormatException | ArithmeticException e) {
+            // fall through
+        }
+        throw new RuntimeException(field + " must be a whole number");
+    }
+
+    /**
+     * Splits one CSV line: commas separate fields, double quotes wrap fields
+     * that contain commas or quotes, and "" inside quotes is a quote.
+     */
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new RuntimeException("Unterminated quote");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private final class Run {
+
+        final List<ProductImportRow> batch = new ArrayList<>(batchSize);
+        final List<ProductImportErrorDto> errors = new ArrayList<>();
+        long rowsRead;
+        long imported;
+        long rejected;
+
+        void reject(long line, String message) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ProductImportErrorDto(line, message));
+            }
+        }
+    }
+}
@@ -9,6 +9,9 @@ public interface ProductService {
 
     List<ProductResponseDto> getAll();
 
+    ProductSearchPageDto search(String query, Integer minPrice, Integer maxPrice,
+                                boolean inStockOnly, String cursor, int size);
+
     ProductResponseDto getById(Long id);
 
     ProductResponseDto update(Long id, ProductRequestDto dto);
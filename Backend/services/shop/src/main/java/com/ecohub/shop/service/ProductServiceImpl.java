@@ -4,17 +4,29 @@ import java.util.List;
 
 import org.springframework.stereotype.Service;
 
+import com.ecohub.shop.catalog.CatalogSnapshotHolder;
+import com.ecohub.shop.catalog.ProductSearchIndex;
 import com.ecohub.shop.dto.*;
 import com.ecohub.shop.entity.Product;
 import com.ecohub.shop.repository.ShopRepository;
+import com.ecohub.shop.stock.StockEngine;
 
 @Service
 public class ProductServiceImpl implements ProductService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final ShopRepository repository;
+    private final StockEngine stockEngine;
+    private final CatalogSnapshotHolder catalog;
+    private final ProductSearchIndex searchIndex;
 
-    public ProductServiceImpl(ShopRepository repository) {
+    public ProductServiceImpl(ShopRepository repository, StockEngine stockEngine,
+                              CatalogSnapshotHolder catalog, ProductSearchIndex searchIndex) {
         this.repository = repository;
+        this.stockEngine = stockEngine;
+        this.catalog = catalog;
+        this.searchIndex = searchIndex;
     }
 
     @Override
@@ -25,23 +37,50 @@ public class ProductServiceImpl implements ProductService {
         product.setPrice(dto.getPrice());
         product.setStock(dto.getStock());
 
-        return new ProductResponseDto(repository.save(product));
+        ProductResponseDto saved = toDto(repository.save(product));
+        searchIndex.put(saved);
+        catalog.rebuild();
+        return saved;
     }
 
     @Override
     public List<ProductResponseDto> getAll() {
         return repository.findAll()
                 .stream()
-                .map(ProductResponseDto::new)
+                .map(this::toDto)
                 .toList();
     }
 
+    @Override
+    public ProductSearchPageDto search(String query, Integer minPrice, Integer maxPrice,
+                                       boolean inStockOnly, String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new RuntimeException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        long afterId = 0;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                afterId = Long.parseLong(cursor);
+            } catch (NumberFormatException e) {
+                throw new RuntimeException("Invalid cursor");
+            }
+        }
+
+        // one extra hit tells us whether there is a next page
+        List<ProductResponseDto> hits = searchIndex.search(query, minPrice, maxPrice, inStockOnly, afterId, size + 1);
+        if (hits.size() <= size) {
+            return new ProductSearchPageDto(hits, null);
+        }
+        List<ProductResponseDto> page = hits.subList(0, size);
+        return new ProductSearchPageDto(page, String.valueOf(page.get(size - 1).getProductId()));
+    }
+
     @Override
     public ProductResponseDto getById(Long id) {
         Product product = repository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found"));
 
-        return new ProductResponseDto(product);
+        return toDto(product);
     }
 
     @Override
@@ -54,11 +93,27 @@ public class ProductServiceImpl implements ProductService {
         product.setPrice(dto.getPrice());
         product.setStock(dto.getStock());
 
-        return new ProductResponseDto(repository.save(product));
+        Product saved = repository.save(product);
+        // any stock this node leased came from the old value
+        stockEngine.resetStock(id, dto.getStock());
+        ProductResponseDto result = toDto(saved);
+        searchIndex.put(result);
+        catalog.rebuild();
+        return result;
     }
 
     @Override
     public void delete(Long id) {
         repository.deleteById(id);
+        stockEngine.forget(id);
+        searchIndex.remove(id);
+        catalog.rebuild();
+    }
+
+    // the table only holds stock no node has leased yet
+    private ProductResponseDto toDto(Product product) {
+        ProductResponseDto dto = new ProductResponseDto(product);
+        dto.setStock(product.getStock() + stockEngine.leased(product.getProductId()));
+        return dto;
     }
 }
@@ -1,7 +1,27 @@
 package com.ecohub.shop.service;
 
+import java.util.List;
+
+import com.ecohub.shop.dto.CheckoutItemDto;
+import com.ecohub.shop.dto.CheckoutResponseDto;
+import com.ecohub.shop.dto.OrderResponseDto;
+
 public interface PurchaseService {
 
-    void purchaseProduct(Long productId, Long userId);
+    OrderResponseDto purchaseProduct(Long productId, Long userId);
+
+    /**
+     * Buys one unit of the product for each user. The result lines up with
+     * userIds; a null entry means that user got no stock.
+     */
+    List<OrderResponseDto> purchaseBatch(Long productId, List<Long> userIds);
+
+    /**
+     * Buys a whole cart for one user: every item or none, paid with a
+     * single wallet debit for the total.
+     */
+    CheckoutResponseDto checkout(Long userId, List<CheckoutItemDto> items);
+
+    OrderResponseDto getOrder(Long orderId);
 
 }
@@ -1,61 +1,144 @@
 package com.ecohub.shop.service;
 
-import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
-import com.ecohub.shop.dto.WalletAmountRequestDto;
+import com.ecohub.shop.dto.CheckoutItemDto;
+import com.ecohub.shop.dto.CheckoutResponseDto;
+import com.ecohub.shop.dto.OrderResponseDto;
 import com.ecohub.shop.entity.Order;
 import com.ecohub.shop.entity.Product;
 import com.ecohub.shop.repository.OrderRepository;
 import com.ecohub.shop.repository.ShopRepository;
+import com.ecohub.shop.stock.StockEngine;
 
+/**
+ * Purchases take the stock and record the order together with the wallet
+ * debit it owes; {@link com.ecohub.shop.outbox.WalletDebitRelay} takes the
+ * coins afterwards. The returned order is PENDING until then.
+ */
 @Service
 public class PurchaseServiceImpl implements PurchaseService {
 
+    // one JDBC batch of orders, one block of order ids
+    private static final int MAX_CHECKOUT_UNITS = Order.ID_ALLOCATION_SIZE;
+
     private final ShopRepository productRepository;
     private final OrderRepository orderRepository;
-    private final RestTemplate restTemplate;
+    private final OrderOutboxService outboxService;
+    private final StockEngine stockEngine;
 
     public PurchaseServiceImpl(
             ShopRepository productRepository,
             OrderRepository orderRepository,
-            RestTemplate restTemplate
+            OrderOutboxService outboxService,
+            StockEngine stockEngine
     ) {
         this.productRepository = productRepository;
         this.orderRepository = orderRepository;
-        this.restTemplate = restTemplate;
+        this.outboxService = outboxService;
+        this.stockEngine = stockEngine;
+    }
+
+    @Override
+    public OrderResponseDto purchaseProduct(Long productId, Long userId) {
+        OrderResponseDto order = purchaseBatch(productId, List.of(userId)).get(0);
+        if (order == null) {
+            throw new RuntimeException("Out of stock");
+        }
+        return order;
     }
 
     @Override
-    public void purchaseProduct(Long productId, Long userId) {
+    public List<OrderResponseDto> purchaseBatch(Long productId, List<Long> userIds) {
 
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new RuntimeException("Product not found"));
 
-        WalletAmountRequestDto request = new WalletAmountRequestDto();
-        request.setAmount(product.getPrice());
+        List<Long> buyers = new ArrayList<>(userIds.size());
+        OrderResponseDto[] results = new OrderResponseDto[userIds.size()];
+        List<Integer> positions = new ArrayList<>(userIds.size());
+        for (int i = 0; i < userIds.size(); i++) {
+            if (stockEngine.reserve(productId, 1)) {
+                buyers.add(userIds.get(i));
+                positions.add(i);
+            }
+        }
+        if (buyers.isEmpty()) {
+            return Arrays.asList(results);
+        }
 
+        List<Order> orders;
         try {
-            restTemplate.postForEntity(
-                "http://localhost:8084/wallet/" + userId + "/debit",
-                request,
-                Void.class
-            );
-        } catch (Exception e) {
-            throw new RuntimeException("Wallet service failed: " + e.getMessage());
-        }
-
-        Order order = new Order();
-        order.setUserId(userId);
-        order.setProductId(productId);
-        order.setPricePaid(product.getPrice());
-        order.setPurchasedAt(LocalDateTime.now());
-
-        orderRepository.save(order);
+            orders = outboxService.placeOrders(productId, product.getPrice(), buyers);
+        } catch (RuntimeException e) {
+            stockEngine.release(productId, buyers.size());
+            throw e;
+        }
+        for (int i = 0; i < orders.size(); i++) {
+            results[positions.get(i)] = new OrderResponseDto(orders.get(i));
+        }
+        return Arrays.asList(results);
+    }
+
+    @Override
+    public CheckoutResponseDto checkout(Long userId, List<CheckoutItemDto> items) {
+        if (items == null || items.isEmpty()) {
+            throw new RuntimeException("Cart is empty");
+        }
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        int units = 0;
+        for (CheckoutItemDto item : items) {
+            if (item.getQuantity() < 1) {
+                throw new RuntimeException("Quantity must be at least 1");
+            }
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+            units += item.getQuantity();
+        }
+        if (units > MAX_CHECKOUT_UNITS) {
+            throw new RuntimeException("A cart holds at most " + MAX_CHECKOUT_UNITS + " items");
+        }
+
+        Map<Long, Product> products = productRepository.findAllById(quantities.keySet()).stream()
+                .collect(Collectors.toMap(Product::getProductId, Function.identity()));
+        for (Long productId : quantities.keySet()) {
+            if (!products.containsKey(productId)) {
+                throw new RuntimeException("Product not found: " + productId);
+            }
+        }
+
+        Map<Long, Integer> reserved = new LinkedHashMap<>();
+        List<Order> orders;
+        try {
+            List<Product> bought = new ArrayList<>(units);
+            for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+                if (!stockEngine.reserve(line.getKey(), line.getValue())) {
+                    throw new RuntimeException("Out of stock: product " + line.getKey());
+                }
+                reserved.put(line.getKey(), line.getValue());
+                for (int i = 0; i < line.getValue(); i++) {
+                    bought.add(products.get(line.getKey()));
+                }
+            }
+            orders = outboxService.placeCheckout(userId, bought);
+        } catch (RuntimeException e) {
+            reserved.forEach(stockEngine::release);
+            throw e;
+        }
+        return new CheckoutResponseDto(orders);
+    }
+
+    @Override
+    public OrderResponseDto getOrder(Long orderId) {
+        return orderRepository.findById(orderId)
+                .map(OrderResponseDto::new)
+                .orElseThrow(() -> new RuntimeException("Order not found"));
     }
 }
\ No newline at end of file
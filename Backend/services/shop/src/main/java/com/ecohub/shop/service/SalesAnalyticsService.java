@@ -0,0 +1,17 @@
+package com.ecohub.shop.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.ecohub.shop.dto.SalesBucketDto;
+
+public interface SalesAnalyticsService {
+
+    List<SalesBucketDto> getHourly(LocalDateTime from, LocalDateTime to);
+
+    List<SalesBucketDto> getProductHourly(Long productId, LocalDateTime from, LocalDateTime to);
+
+    List<SalesBucketDto> getProductTotals();
+
+    SalesBucketDto getProductTotal(Long productId);
+}
@@ -0,0 +1,82 @@
+package com.ecohub.shop.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+
+import com.ecohub.shop.dto.SalesBucketDto;
+import com.ecohub.shop.repository.HourSalesRepository;
+import com.ecohub.shop.repository.ProductHourSalesRepository;
+import com.ecohub.shop.repository.ProductSalesRepository;
+
+/**
+ * Reads the sales rollups. Every bucket is one primary-key row, so a query
+ * costs the number of buckets asked for, never the number of orders.
+ * Hours without sales have no row and are left out.
+ */
+@Service
+public class SalesAnalyticsServiceImpl implements SalesAnalyticsService {
+
+    // about three months of hourly buckets per request
+    private static final long MAX_RANGE_HOURS = 24 * 92;
+
+    private final HourSalesRepository hourRepository;
+    private final ProductHourSalesRepository productHourRepository;
+    private final ProductSalesRepository productRepository;
+
+    public SalesAnalyticsServiceImpl(HourSalesRepository hourRepository,
+                                     ProductHourSalesRepository productHourRepository,
+                                     ProductSalesRepository productRepository) {
+        this.hourRepository = hourRepository;
+        this.productHourRepository = productHourRepository;
+        this.productRepository = productRepository;
+    }
+
+    @Override
+    public List<SalesBucketDto> getHourly(LocalDateTime from, LocalDateTime to) {
+        checkRange(from, to);
+        return hourRepository.findByBucketHourBetweenOrderByBucketHour(from.truncatedTo(ChronoUnit.HOURS), to)
+                .stream()
+                .map(row -> new SalesBucketDto(null, row.getBucketHour(), row.getOrders(), row.getCoins()))
+                .toList();
+    }
+
+    @Override
+    public List<SalesBucketDto> getProductHourly(Long productId, LocalDateTime from, LocalDateTime to) {
+        checkRange(from, to);
+        return productHourRepository
+                .findByProductIdAndBucketHourBetweenOrderByBucketHour(productId, from.truncatedTo(ChronoUnit.HOURS), to)
+                .stream()
+                .map(row -> new SalesBucketDto(productId, row.getBucketHour(), row.getOrders(), row.getCoins()))
+                .toList();
+    }
+
+    // best sellers first
+    @Override
+    public List<SalesBucketDto> getProductTotals() {
+        return productRepository.findAll().stream()
+                .map(row -> new SalesBucketDto(row.getProductId(), null, row.getOrders(), row.getCoins()))
+                .sorted(Comparator.comparingLong(SalesBucketDto::getCoins).reversed())
+                .toList();
+    }
+
+    @Override
+    public SalesBucketDto getProductTotal(Long productId) {
+        return productRepository.findById(productId)
+                .map(row -> new SalesBucketDto(productId, null, row.getOrders(), row.getCoins()))
+                .orElse(new SalesBucketDto(productId, null, 0, 0));
+    }
+
+    private static void checkRange(LocalDateTime from, LocalDateTime to) {
+        if (from.isAfter(to)) {
+            throw new RuntimeException("from must not be after to");
+        }
+        if (Duration.between(from, to).toHours() > MAX_RANGE_HOURS) {
+            throw new RuntimeException("Range must be at most " + MAX_RANGE_HOURS + " hours");
+        }
+    }
+}
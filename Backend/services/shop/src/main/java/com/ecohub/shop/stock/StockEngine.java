@@ -0,0 +1,187 @@
+package com.ecohub.shop.stock;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.ecohub.shop.repository.ProductStockRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Sells stock without a database round trip per purchase.
+ *
+ * Each product's stock is leased from the products table in blocks: one
+ * locked claim moves up to lease-size units into an in-memory counter, and
+ * purchases take units off that counter with a compare-and-set. A hot
+ * product therefore costs one row lock per block instead of one per sale,
+ * and since units leave the table before they are sold, no number of shop
+ * nodes can sell more than the table held.
+ *
+ * Unsold leased units go back to the table on shutdown. If the process
+ * dies they are lost, so a crash can undersell by at most one lease per
+ * product but never oversell.
+ */
+@Component
+public class StockEngine {
+
+    private final ProductStockRepository stockRepository;
+    private final int leaseSize;
+
+    private final Map<Long, Lease> leases = new ConcurrentHashMap<>();
+
+    // bumped whenever visible stock moves, lets readers notice cheaply
+    private final AtomicLong changes = new AtomicLong();
+
+    private final Counter reserved;
+    private final Counter soldOut;
+    private final Timer claims;
+
+    public StockEngine(
+            ProductStockRepository stockRepository,
+            MeterRegistry meterRegistry,
+            @Value("${shop.stock.lease-size:50}") int leaseSize) {
+        this.stockRepository = stockRepository;
+        this.leaseSize = leaseSize;
+        this.reserved = Counter.builder("shop.stock.reserved").register(meterRegistry);
+        this.soldOut = Counter.builder("shop.stock.sold.out").register(meterRegistry);
+        this.claims = Timer.builder("shop.stock.lease.claims")
+                .description("Locked claims of a block of stock from the products table")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes {@code quantity} units of the product, or none of them.
+     *
+     * @return false when the product does not have that many left
+     */
+    public boolean reserve(Long productId, int quantity) {
+        if (quantity <= 0) {
+            throw new RuntimeException("Quantity must be positive");
+        }
+        Lease lease = leases.computeIfAbsent(productId, id -> new Lease());
+        if (lease.tryTake(quantity)) {
+            reserved.increment(quantity);
+            changes.incrementAndGet();
+            return true;
+        }
+
+        // Lease ran dry: refill under the lease's lock so only one thread
+        // per product goes to the table.
+        synchronized (lease) {
+            if (lease.tryTake(quantity)) {
+                reserved.increment(quantity);
+                changes.incrementAndGet();
+                return true;
+            }
+            long start = System.nanoTime();
+            int claimed = stockRepository.claim(productId, Math.max(leaseSize, quantity));
+            claims.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            lease.available.addAndGet(claimed);
+
+            if (lease.tryTake(quantity)) {
+                reserved.increment(quantity);
+                changes.incrementAndGet();
+                return true;
+            }
+        }
+        soldOut.increment();
+        return false;
+    }
+
+    /**
+     * Puts back units whose purchase did not go through.
+     */
+    public void release(Long productId, int quantity) {
+        leases.computeIfAbsent(productId, id -> new Lease()).available.addAndGet(quantity);
+        changes.incrementAndGet();
+    }
+
+    /**
+     * Units this node holds on top of what the table shows.
+     */
+    public int leased(Long productId) {
+        Lease lease = leases.get(productId);
+        return lease == null ? 0 : lease.available.get();
+    }
+
+    /**
+     * Overwrites the product's stock, e.g. from an admin edit. This node's
+     * lease is dropped first since it was taken from the old stock.
+     */
+    public void resetStock(Long productId, int stock) {
+        Lease lease = leases.computeIfAbsent(productId, id -> new Lease());
+        synchronized (lease) {
+            lease.available.set(0);
+            stockRepository.setStock(productId, stock);
+        }
+        changes.incrementAndGet();
+    }
+
+    /**
+     * For stock overwritten in the table directly, e.g. by a bulk import:
+     * this node's leases came from the old stock and are dropped.
+     */
+    public void dropLeases(Collection<Long> productIds) {
+        for (Long productId : productIds) {
+            Lease lease = leases.get(productId);
+            if (lease != null) {
+                synchronized (lease) {
+                    lease.available.set(0);
+                }
+            }
+        }
+        if (!productIds.isEmpty()) {
+            changes.incrementAndGet();
+        }
+    }
+
+    /**
+     * Count of stock movements so far; only ever grows.
+     */
+    public long changes() {
+        return changes.get();
+    }
+
+    public void forget(Long productId) {
+        leases.remove(productId);
+    }
+
+    @PreDestroy
+    public void returnLeases() {
+        leases.forEach((productId, lease) -> {
+            synchronized (lease) {
+                int unsold = lease.available.getAndSet(0);
+                if (unsold > 0) {
+                    stockRepository.giveBack(productId, unsold);
+                }
+            }
+        });
+    }
+
+    private static final class Lease {
+
+        final AtomicInteger available = new AtomicInteger();
+
+        boolean tryTake(int quantity) {
+            while (true) {
+                int current = available.get();
+                if (current < quantity) {
+                    return false;
+                }
+                if (available.compareAndSet(current, current - quantity)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.ecohub.shop.admission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.ecohub.shop.dto.CheckoutItemDto;
+import com.ecohub.shop.dto.CheckoutResponseDto;
+import com.ecohub.shop.dto.OrderResponseDto;
+import com.ecohub.shop.service.PurchaseService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PurchaseAdmissionTest {
+
+    /**
+     * Places orders at a fixed cost per batch plus a cost per order, like one
+     * transaction against MySQL. Optionally runs out of stock.
+     */
+    private static final class SlowPurchases implements PurchaseService {
+
+        final long batchCostMs;
+        final long orderCostMicros;
+        final AtomicInteger stock;
+        final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+
+        SlowPurchases(long batchCostMs, long orderCostMicros, int stock) {
+            this.batchCostMs = batchCostMs;
+            this.orderCostMicros = orderCostMicros;
+            this.stock = new AtomicInteger(stock);
+        }
+
+        @Override
+        public List<OrderResponseDto> purchaseBatch(Long productId, List<Long> userIds) {
+            batchSizes.add(userIds.size());
+            try {
+                TimeUnit.MICROSECONDS.sleep(batchCostMs * 1000 + orderCostMicros * userIds.size());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            List<OrderResponseDto> orders = new ArrayList<>(userIds.size());
+            for (Long userId : userIds) {
+                if (stock.getAndDecrement() > 0) {
+                    OrderResponseDto order = new OrderResponseDto();
+                    order.setUserId(userId);
+                    order.setProductId(productId);
+                    orders.add(order);
+                } else {
+                    orders.add(null);
+                }
+            }
+            return orders;
+        }
+
+        @Override
+        public OrderResponseDto purchaseProduct(Long productId, Long userId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CheckoutResponseDto checkout(Long userId, List<CheckoutItemDto> items) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public OrderResponseDto getOrder(Long orderId) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    @Test
+    void queuedPurchasesOfOneProductShareABatch() throws Exception {
+        SlowPurchases purchases = new SlowPurchases(50, 0, 1_000);
+        PurchaseAdmission admission = new PurchaseAdmission(purchases, new SimpleMeterRegistry(), 100, 50, 5_000, 1, 1);
+
+        List<CompletableFuture<OrderResponseDto>> results = new ArrayList<>();
+        for (long userId = 1; userId <= 30; userId++) {
+            results.add(admission.submit(1L, userId));
+        }
+        for (CompletableFuture<OrderResponseDto> result : results) {
+            result.get(5, TimeUnit.SECONDS);
+        }
+        admission.shutdown();
+
+        // the first purchase goes alone, the 29 queued behind it go together
+        assertTrue(purchases.batchSizes.size() <= 3, "batches: " + purchases.batchSizes);
+    }
+
+    @Test
+    void fullQueueIsRefusedImmediately() {
+        SlowPurchases purchases = new SlowPurchases(200, 0, 1_000);
+        PurchaseAdmission admission = new PurchaseAdmission(purchases, new SimpleMeterRegistry(), 5, 5, 5_000, 2, 1);
+
+        // one batch in flight plus five queued, the next one has no room
+        AdmissionRejectedException e = null;
+        for (long userId = 1; userId <= 20 && e == null; userId++) {
+            try {
+                admission.submit(1L, userId);
+            } catch (AdmissionRejectedException rejected) {
+                e = rejected;
+            }
+        }
+        assertEquals(429, e.getStatus());
+        assertEquals(2, e.getRetryAfterSeconds());
+    }
+
+    @Test
+    void soldOutPurchasesFailIndividually() throws Exception {
+        SlowPurchases purchases = new SlowPurchases(0, 0, 1);
+        PurchaseAdmission admission = new PurchaseAdmission(purchases, new SimpleMeterRegistry(), 10, 10, 5_000, 1, 1);
+
+        CompletableFuture<OrderResponseDto> first = admission.submit(1L, 1L);
+        first.get(5, TimeUnit.SECONDS);
+        CompletableFuture<OrderResponseDto> second = admission.submit(1L, 2L);
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+        assertEquals("Out of stock", e.getCause().getMessage());
+    }
+
+    /**
+     * Offers ten times what the order path can take for one hot product and
+     * checks that admitted purchases keep a bounded p99 while the excess is
+     * refused fast. Prints the numbers.
+     */
+    @Test
+    void p99StaysBoundedUnderTenTimesOverload() throws Exception {
+        // 10ms + 0.5ms per order: a batch of 50 takes 35ms, ~1400 orders/s
+        SlowPurchases purchases = new SlowPurchases(10, 500, Integer.MAX_VALUE);
+        PurchaseAdmission admission = new PurchaseAdmission(purchases, new SimpleMeterRegistry(), 200, 50, 2_000, 1, 4);
+
+        int offeredPerSecond = 14_000;
+        int seconds = 3;
+        int perTick = offeredPerSecond / 1000;
+        ConcurrentLinkedQueue<Long> admittedNanos = new ConcurrentLinkedQueue<>();
+        ConcurrentLinkedQueue<Long> refusedNanos = new ConcurrentLinkedQueue<>();
+        AtomicInteger failed = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(offeredPerSecond * seconds);
+
+        ScheduledExecutorService load = Executors.newScheduledThreadPool(2);
+        AtomicInteger ticks = new AtomicInteger();
+        load.scheduleAtFixedRate(() -> {
+            if (ticks.incrementAndGet() > seconds * 1000) {
+                return;
+            }
+            for (int i = 0; i < perTick; i++) {
+                long start = System.nanoTime();
+                try {
+                    admission.submit(1L, (long) i).whenComplete((order, error) -> {
+                        if (error == null) {
+                            admittedNanos.add(System.nanoTime() - start);
+                        } else {
+                            failed.incrementAndGet();
+                        }
+                        done.countDown();
+                    });
+                } catch (AdmissionRejectedException e) {
+                    refusedNanos.add(System.nanoTime() - start);
+                    done.countDown();
+                }
+            }
+        }, 0, 1, TimeUnit.MILLISECONDS);
+
+        assertTrue(done.await(seconds + 20, TimeUnit.SECONDS));
+        load.shutdownNow();
+        admission.shutdown();
+
+        long admittedP99 = p99(admittedNanos);
+        long refusedP99 = p99(refusedNanos);
+        System.out.printf("admission at 10x: %d admitted (p99 %dms), %d refused (p99 %dus), %d timed out%n",
+                admittedNanos.size(), admittedP99 / 1_000_000, refusedNanos.size(), refusedP99 / 1_000,
+                failed.get());
+
+        // a full queue of 200 drains in four 35ms batches, well under max-wait
+        assertTrue(admittedP99 < TimeUnit.MILLISECONDS.toNanos(1_000), "admitted p99 " + admittedP99 / 1_000_000 + "ms");
+        assertTrue(refusedP99 < TimeUnit.MILLISECONDS.toNanos(5), "refused p99 " + refusedP99 / 1_000 + "us");
+        assertTrue(refusedNanos.size() > admittedNanos.size(), "most of a 10x overload is refused");
+    }
+
+    private static long p99(ConcurrentLinkedQueue<Long> samples) {
+        List<Long> sorted = new ArrayList<>(samples);
+        Collections.sort(sorted);
+        return sorted.isEmpty() ? 0 : sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1);
+    }
+}
@@ -0,0 +1,48 @@
+package com.ecohub.shop.analytics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import com.ecohub.shop.repository.SalesRollupRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SalesRollupCatchUpTest {
+
+    private final SalesRollupRepository rollups = mock(SalesRollupRepository.class);
+    private final SalesRollupCatchUp catchUp = new SalesRollupCatchUp(rollups, new SimpleMeterRegistry(), 5_000);
+
+    @Test
+    void walksFromTheWatermarkToTheLastOrderInChunks() {
+        when(rollups.watermark()).thenReturn(1_000L);
+        when(rollups.maxOrderId()).thenReturn(12_000L);
+        when(rollups.foldMissed(1_000, 6_000)).thenReturn(40);
+        when(rollups.foldMissed(6_000, 11_000)).thenReturn(0);
+        when(rollups.foldMissed(11_000, 12_000)).thenReturn(2);
+
+        assertEquals(42, catchUp.catchUp());
+
+        InOrder chunks = inOrder(rollups);
+        chunks.verify(rollups).foldMissed(1_000, 6_000);
+        chunks.verify(rollups).foldMissed(6_000, 11_000);
+        chunks.verify(rollups).foldMissed(11_000, 12_000);
+    }
+
+    @Test
+    void aFailedChunkEndsTheRunWithoutSkippingIt() {
+        when(rollups.watermark()).thenReturn(0L);
+        when(rollups.maxOrderId()).thenReturn(20_000L);
+        when(rollups.foldMissed(0, 5_000)).thenReturn(7);
+        when(rollups.foldMissed(5_000, 10_000)).thenThrow(new RuntimeException("Deadlock found"));
+
+        assertEquals(7, catchUp.catchUp());
+        verify(rollups, never()).foldMissed(10_000, 15_000);
+    }
+}
@@ -0,0 +1,121 @@
+package com.ecohub.shop.catalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.ecohub.shop.dto.ProductResponseDto;
+import com.ecohub.shop.entity.Product;
+import com.ecohub.shop.repository.ShopRepository;
+import com.ecohub.shop.stock.StockEngine;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import tools.jackson.databind.json.JsonMapper;
+
+class CatalogSnapshotHolderTest {
+
+    private static final int PRODUCTS = 500;
+
+    private final List<Product> table = new ArrayList<>();
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    private ShopRepository repository;
+    private StockEngine stockEngine;
+    private CatalogSnapshotHolder holder;
+
+    @BeforeEach
+    void setUp() {
+        for (long id = 1; id <= PRODUCTS; id++) {
+            table.add(new Product(id, "Product " + id, "Reusable item number " + id, 100, 20));
+        }
+        repository = mock(ShopRepository.class);
+        when(repository.findAll()).thenAnswer(invocation -> new ArrayList<>(table));
+        stockEngine = mock(StockEngine.class);
+        when(stockEngine.leased(any())).thenReturn(0);
+
+        holder = new CatalogSnapshotHolder(repository, stockEngine, jsonMapper,
+                new ProductSearchIndex(repository), new SimpleMeterRegistry());
+        holder.init();
+    }
+
+    @Test
+    void unchangedCatalogKeepsItsEtag() {
+        CatalogSnapshot first = holder.current();
+
+        assertSame(first, holder.rebuild(), "same bytes, same snapshot");
+        assertEquals(1, first.getVersion());
+    }
+
+    @Test
+    void editsAndStockMovesChangeTheEtag() {
+        CatalogSnapshot first = holder.current();
+
+        table.get(0).setPrice(150);
+        CatalogSnapshot edited = holder.rebuild();
+        assertNotEquals(first.getEtag(), edited.getEtag());
+        assertEquals(2, edited.getVersion());
+
+        // a sale only shows up once the stock refresh notices it
+        when(stockEngine.leased(1L)).thenReturn(5);
+        holder.refreshStock();
+        assertSame(edited, holder.current());
+
+        when(stockEngine.changes()).thenReturn(1L);
+        holder.refreshStock();
+        assertNotEquals(edited.getEtag(), holder.current().getEtag());
+    }
+
+    /**
+     * Not a JMH benchmark: a rough comparison of the old per-request path
+     * (findAll, map, serialize) against handing out the snapshot bytes.
+     */
+    @Test
+    void snapshotIsCheaperThanSerializingPerRequest() {
+        int requests = 2_000;
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+
+        long perRequestBytes = 0;
+        for (int warm = 0; warm < 2; warm++) {
+            long allocated = threads.getThreadAllocatedBytes(thread);
+            long start = System.nanoTime();
+            for (int i = 0; i < requests; i++) {
+                List<ProductResponseDto> products = repository.findAll().stream()
+                        .map(ProductResponseDto::new)
+                        .toList();
+                perRequestBytes += jsonMapper.writeValueAsBytes(products).length;
+            }
+            long nanos = System.nanoTime() - start;
+            if (warm == 1) {
+                System.out.printf("per-request serialize: %.0f req/s, %d bytes allocated/req%n",
+                        requests * 1e9 / nanos, (threads.getThreadAllocatedBytes(thread) - allocated) / requests);
+            }
+        }
+
+        long snapshotBytes = 0;
+        long allocated = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            snapshotBytes += holder.current().getJson().length;
+        }
+        long nanos = System.nanoTime() - start;
+        long snapshotAllocated = (threads.getThreadAllocatedBytes(thread) - allocated) / requests;
+        System.out.printf("snapshot: %.0f req/s, %d bytes allocated/req%n",
+                requests * 1e9 / nanos, snapshotAllocated);
+
+        assertEquals(perRequestBytes / 2, snapshotBytes, "both paths render the same catalog");
+        assertTrue(snapshotAllocated < 64, "serving the snapshot allocates next to nothing");
+    }
+}
@@ -0,0 +1,168 @@
+package com.ecohub.shop.catalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.ecohub.shop.dto.ProductResponseDto;
+import com.ecohub.shop.entity.Product;
+import com.ecohub.shop.repository.ShopRepository;
+
+class ProductSearchIndexTest {
+
+    private static final String[] WORDS = {
+            "bamboo", "bottle", "bag", "compost", "cotton", "cup", "eco", "glass", "jar", "kit",
+            "lamp", "linen", "mug", "notebook", "organic", "paper", "plant", "recycled", "reusable",
+            "seed", "solar", "steel", "straw", "tote", "towel", "wax", "wooden", "wrap"
+    };
+
+    private static ProductSearchIndex indexOf(List<Product> products) {
+        ShopRepository repository = mock(ShopRepository.class);
+        when(repository.findAll()).thenReturn(products);
+        ProductSearchIndex index = new ProductSearchIndex(repository);
+        index.rebuild();
+        return index;
+    }
+
+    private static List<Long> ids(List<ProductResponseDto> hits) {
+        return hits.stream().map(ProductResponseDto::getProductId).toList();
+    }
+
+    @Test
+    void everyTermMustPrefixATokenOfNameOrDescription() {
+        ProductSearchIndex index = indexOf(List.of(
+                new Product(1L, "Eco-Bottle 500ml", "Reusable steel bottle", 120, 5),
+                new Product(2L, "Bamboo Toothbrush", "Compostable handle", 40, 0),
+                new Product(3L, "Steel Straw Kit", null, 60, 10)));
+
+        assertEquals(List.of(1L, 3L), ids(index.search("steel", null, null, false, 0, 10)));
+        assertEquals(List.of(1L), ids(index.search("BOTT st", null, null, false, 0, 10)));
+        assertEquals(List.of(2L), ids(index.search("compost", null, null, false, 0, 10)));
+        assertEquals(List.of(), ids(index.search("steel bamboo", null, null, false, 0, 10)));
+        assertEquals(List.of(1L, 2L, 3L), ids(index.search("  ", null, null, false, 0, 10)));
+    }
+
+    @Test
+    void filtersAndCursorCombine() {
+        ProductSearchIndex index = indexOf(List.of(
+                new Product(1L, "Cotton tote", "", 100, 3),
+                new Product(2L, "Cotton tote XL", "", 150, 0),
+                new Product(3L, "Cotton towel", "", 200, 8),
+                new Product(4L, "Cotton wrap", "", 250, 1)));
+
+        assertEquals(List.of(3L, 4L), ids(index.search("cotton", 150, null, true, 0, 10)));
+        assertEquals(List.of(1L, 2L), ids(index.search("cotton", null, 200, false, 0, 2)));
+        assertEquals(List.of(3L, 4L), ids(index.search("cotton", null, null, false, 2, 2)));
+        assertEquals(List.of(2L, 3L), ids(index.search("to", 150, 200, false, 0, 10)));
+    }
+
+    @Test
+    void editsAndStockUpdatesAreVisibleToSearch() {
+        ProductSearchIndex index = indexOf(new ArrayList<>(List.of(
+                new Product(1L, "Glass jar", "", 50, 0),
+                new Product(2L, "Glass cup", "", 30, 2))));
+
+        index.put(new ProductResponseDto(1L, "Wooden jar", "", 50, 0));
+        assertEquals(List.of(2L), ids(index.search("glass", null, null, false, 0, 10)));
+        assertEquals(List.of(1L), ids(index.search("wood", null, null, false, 0, 10)));
+
+        index.remove(2L);
+        assertEquals(List.of(), ids(index.search("glass", null, null, false, 0, 10)));
+
+        assertEquals(List.of(), ids(index.search("jar", null, null, true, 0, 10)));
+        index.updateStock(List.of(new ProductResponseDto(1L, "Wooden jar", "", 50, 4)));
+        assertEquals(List.of(1L), ids(index.search("jar", null, null, true, 0, 10)));
+    }
+
+    /**
+     * Not a JMH benchmark: times index lookups against filtering the full
+     * list in memory, the way clients do today, over 100k products.
+     */
+    @Test
+    void searchesOneHundredThousandProducts() {
+        int count = 100_000;
+        Random random = new Random(7);
+        List<Product> products = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+            String description = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                    + " item " + id;
+            products.add(new Product(id, name, description, 10 + random.nextInt(500), random.nextInt(3)));
+        }
+
+        long start = System.nanoTime();
+        ProductSearchIndex index = indexOf(products);
+        System.out.printf("search index: built %d products in %d ms%n",
+                index.size(), (System.nanoTime() - start) / 1_000_000);
+
+        String[] queries = {"bamboo", "steel st", "reus bott", "sol", "organic cotton tote"};
+        int rounds = 2_000;
+        for (int warm = 0; warm < 2; warm++) {
+            int hits = 0;
+            start = System.nanoTime();
+            for (int i = 0; i < rounds; i++) {
+                hits += index.search(queries[i % queries.length], 100, 400, true, 0, 20).size();
+            }
+            long indexNanos = System.nanoTime() - start;
+
+            int scanned = 0;
+            start = System.nanoTime();
+            for (int i = 0; i < rounds / 20; i++) {
+                scanned += scan(products, queries[i % queries.length], 100, 400, 20).size();
+            }
+            long scanNanos = (System.nanoTime() - start) * 20;
+
+            if (warm == 1) {
+                System.out.printf("search index: %.0f searches/s indexed vs %.0f/s scanning the list%n",
+                        rounds * 1e9 / indexNanos, rounds * 1e9 / scanNanos);
+                assertTrue(hits > 0 && scanned > 0);
+                assertTrue(indexNanos < scanNanos, "the index beats a full scan");
+            }
+        }
+
+        // the index and a scan agree on the first page
+        for (String query : queries) {
+            assertEquals(ids(scan(products, query, 100, 400, 20)),
+                    ids(index.search(query, 100, 400, true, 0, 20)), query);
+        }
+    }
+
+    // what a client of getAll() has to do
+    private static List<ProductResponseDto> scan(List<Product> products, String query,
+                                                 int minPrice, int maxPrice, int limit) {
+        String[] terms = query.toLowerCase(Locale.ROOT).split(" ");
+        List<ProductResponseDto> hits = new ArrayList<>();
+        for (Product product : products) {
+            if (product.getPrice() < minPrice || product.getPrice() > maxPrice || product.getStock() <= 0) {
+                continue;
+            }
+            String[] tokens = ProductSearchIndex.tokenize(product.getName() + " " + product.getDescription());
+            boolean all = true;
+            for (String term : terms) {
+                boolean found = false;
+                for (String token : tokens) {
+                    if (token.startsWith(term)) {
+                        found = true;
+                        break;
+                    }
+                }
+                all &= found;
+            }
+            if (all) {
+                hits.add(new ProductResponseDto(product));
+                if (hits.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return hits;
+    }
+}
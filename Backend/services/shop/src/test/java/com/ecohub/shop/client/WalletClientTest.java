@@ -0,0 +1,186 @@
+package com.ecohub.shop.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.ecohub.shop.config.RestTemplateConfig;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class WalletClientTest {
+
+    private static final long READ_TIMEOUT_MS = 200;
+
+    // what the stub wallet does with the next requests
+    private volatile long delayMs;
+    private volatile int status = 200;
+    private final AtomicInteger hits = new AtomicInteger();
+    private final List<String> paths = new CopyOnWriteArrayList<>();
+
+    private HttpServer stubWallet;
+    private CircuitBreaker breaker;
+    private SimpleMeterRegistry meterRegistry;
+    private WalletClient client;
+
+    @BeforeEach
+    void startStubWallet() throws IOException {
+        stubWallet = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        stubWallet.createContext("/", this::handle);
+        stubWallet.setExecutor(Executors.newCachedThreadPool());
+        stubWallet.start();
+
+        breaker = new CircuitBreaker(10, 5, 50, 300);
+        meterRegistry = new SimpleMeterRegistry();
+        client = newClient(4, 20);
+    }
+
+    @AfterEach
+    void stopStubWallet() {
+        stubWallet.stop(0);
+    }
+
+    private WalletClient newClient(int maxConcurrentCalls, long bulkheadWaitMs) {
+        String baseUrl = "http://127.0.0.1:" + stubWallet.getAddress().getPort();
+        return new WalletClient(RestTemplateConfig.pooledRestTemplate(10, 10, 100, 200, READ_TIMEOUT_MS),
+                breaker, meterRegistry, baseUrl, maxConcurrentCalls, bulkheadWaitMs);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        hits.incrementAndGet();
+        paths.add(exchange.getRequestURI().getPath());
+        try {
+            Thread.sleep(delayMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        exchange.getRequestBody().readAllBytes();
+        byte[] body = (status == 200 ? "{}" : "Insufficient balance").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", status == 200 ? "application/json" : "text/plain");
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+
+    @Test
+    void debitReachesTheWallet() {
+        client.debit(7L, 30);
+
+        assertEquals(1, hits.get());
+        assertEquals(List.of("/7/debit"), paths);
+        assertEquals(1, meterRegistry.get("shop.wallet.client.requests")
+                .tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void slowWalletTimesOutInsteadOfHoldingTheThread() {
+        delayMs = 1_000;
+
+        long start = System.nanoTime();
+        RuntimeException e = assertThrows(RuntimeException.class, () -> client.debit(7L, 30));
+        long tookMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(e.getMessage().startsWith("Wallet service failed"), e.getMessage());
+        assertTrue(tookMs < 800, "took " + tookMs + "ms");
+    }
+
+    @Test
+    void repeatedFailuresOpenTheBreakerAndATrialCallClosesIt() throws Exception {
+        delayMs = 1_000;
+        for (int i = 0; i < 5; i++) {
+            assertThrows(RuntimeException.class, () -> client.debit(7L, 30));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+
+        int hitsWhenOpened = hits.get();
+        RuntimeException e = assertThrows(RuntimeException.class, () -> client.debit(7L, 30));
+        assertEquals("Wallet service unavailable", e.getMessage());
+        assertEquals(hitsWhenOpened, hits.get(), "an open breaker must not call the wallet");
+
+        delayMs = 0;
+        Thread.sleep(350);
+        client.debit(7L, 30);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void holdsGoToTheWalletsOwnPaths() {
+        client.hold(7L, 30, "order-1", 600, "REDEEM");
+        client.capture(55L);
+
+        // reward-wallet has no /wallet prefix, only the gateway does
+        assertEquals(List.of("/holds", "/holds/55/capture"), paths);
+    }
+
+    @Test
+    void rejectedDebitsDoNotTripTheBreaker() {
+        status = 409;
+        for (int i = 0; i < 10; i++) {
+            RuntimeException e = assertThrows(RuntimeException.class, () -> client.debit(7L, 30));
+            assertEquals("Wallet rejected debit: Insufficient balance", e.getMessage());
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void otherClientErrorsAreNotDeclines() {
+        status = 404;
+
+        RuntimeException e = assertThrows(WalletCallRefusedException.class, () -> client.debit(7L, 30));
+
+        assertTrue(e.getMessage().startsWith("Wallet refused debit with 404"), e.getMessage());
+        assertEquals(1, meterRegistry.get("shop.wallet.client.requests")
+                .tag("outcome", "refused").timer().count());
+    }
+
+    @Test
+    void bulkheadTurnsAwayCallsBeyondItsLimit() throws Exception {
+        delayMs = 150;
+        client = newClient(2, 10);
+        ExecutorService callers = Executors.newFixedThreadPool(6);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            results.add(callers.submit(() -> {
+                try {
+                    client.debit(7L, 1);
+                    return "ok";
+                } catch (RuntimeException e) {
+                    return e.getMessage();
+                }
+            }));
+        }
+
+        int ok = 0;
+        int busy = 0;
+        for (Future<String> result : results) {
+            String outcome = result.get();
+            if (outcome.equals("ok")) {
+                ok++;
+            } else if (outcome.equals("Wallet service busy")) {
+                busy++;
+            }
+        }
+        callers.shutdown();
+
+        assertEquals(2, ok);
+        assertEquals(4, busy);
+        assertEquals(2, hits.get());
+    }
+}
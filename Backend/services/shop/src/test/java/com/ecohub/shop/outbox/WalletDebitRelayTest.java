@@ -0,0 +1,165 @@
+package com.ecohub.shop.outbox;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.ecohub.shop.client.WalletCallRefusedException;
+import com.ecohub.shop.client.WalletClient;
+import com.ecohub.shop.client.WalletRejectedException;
+import com.ecohub.shop.dto.WalletHoldDto;
+import com.ecohub.shop.entity.Order;
+import com.ecohub.shop.entity.OutboxStatus;
+import com.ecohub.shop.entity.WalletOutboxMessage;
+import com.ecohub.shop.repository.WalletOutboxRepository;
+import com.ecohub.shop.service.OrderOutboxService;
+import com.ecohub.shop.stock.StockEngine;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class WalletDebitRelayTest {
+
+    private final OrderOutboxService outboxService = mock(OrderOutboxService.class);
+    private final WalletClient walletClient = mock(WalletClient.class);
+    private final StockEngine stockEngine = mock(StockEngine.class);
+    private final List<OutboxDelivery> settled = new ArrayList<>();
+
+    private WalletDebitRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        when(outboxService.settle(anyList())).thenAnswer(invocation -> {
+            List<OutboxDelivery> deliveries = invocation.getArgument(0);
+            settled.addAll(deliveries);
+            List<Order> failed = new ArrayList<>();
+            for (OutboxDelivery delivery : deliveries) {
+                if (delivery.getResult() == OutboxDelivery.Result.FAILED) {
+                    Order order = new Order();
+                    order.setId(delivery.getMessage().getOrderId());
+                    order.setProductId(100L);
+                    failed.add(order);
+                }
+            }
+            return failed;
+        });
+        relay = new WalletDebitRelay(outboxService, mock(WalletOutboxRepository.class), walletClient,
+                stockEngine, new SimpleMeterRegistry(), 10, 4, 3, 600, 500, 60_000);
+    }
+
+    private static WalletOutboxMessage message(long orderId) {
+        WalletOutboxMessage message = new WalletOutboxMessage();
+        message.setId(orderId);
+        message.setOrderId(orderId);
+        message.setUserId(7L);
+        message.setAmount(40);
+        message.setStatus(OutboxStatus.PENDING);
+        message.setCreatedAt(LocalDateTime.now());
+        message.setNextAttemptAt(LocalDateTime.now());
+        return message;
+    }
+
+    private static WalletHoldDto hold(long holdId) {
+        WalletHoldDto hold = new WalletHoldDto();
+        hold.setHoldId(holdId);
+        return hold;
+    }
+
+    private void due(WalletOutboxMessage... messages) {
+        when(outboxService.findDue(any(), anyInt())).thenReturn(List.of(messages)).thenReturn(List.of());
+    }
+
+    @Test
+    void holdsAndCapturesUnderTheOrderReference() {
+        due(message(1L));
+        when(walletClient.hold(7L, 40, "order-1", 600, "REDEEM")).thenReturn(hold(55L));
+
+        assertEquals(1, relay.relay());
+
+        verify(walletClient).capture(55L);
+        assertEquals(OutboxDelivery.Result.CONFIRMED, settled.get(0).getResult());
+        assertEquals(55L, settled.get(0).getHoldId());
+    }
+
+    @Test
+    void declinedDebitFailsTheOrderAndReturnsTheStock() {
+        due(message(2L));
+        when(walletClient.hold(anyLong(), anyInt(), anyString(), anyInt(), anyString()))
+                .thenThrow(new WalletRejectedException("Wallet rejected hold: Insufficient balance"));
+
+        relay.relay();
+
+        assertEquals(OutboxDelivery.Result.FAILED, settled.get(0).getResult());
+        verify(stockEngine).release(100L, 1);
+    }
+
+    @Test
+    void lostCaptureIsRetriedOnTheSameHold() {
+        WalletOutboxMessage message = message(3L);
+        due(message);
+        when(walletClient.hold(anyLong(), anyInt(), anyString(), anyInt(), anyString())).thenReturn(hold(56L));
+        when(walletClient.capture(56L)).thenThrow(new RuntimeException("Wallet service failed: Read timed out"));
+
+        assertEquals(0, relay.relay());
+
+        OutboxDelivery delivery = settled.get(0);
+        assertEquals(OutboxDelivery.Result.RETRY, delivery.getResult());
+        assertEquals(56L, delivery.getHoldId());
+        assertEquals(1, message.getAttempts());
+        assertTrue(message.getNextAttemptAt().isAfter(LocalDateTime.now()));
+        verify(stockEngine, never()).release(any(), anyInt());
+    }
+
+    @Test
+    void givesUpOnlyWhileNoHoldIsKnown() {
+        WalletOutboxMessage noHold = message(4L);
+        noHold.setAttempts(2);
+        WalletOutboxMessage withHold = message(5L);
+        withHold.setAttempts(2);
+        withHold.setHoldId(57L);
+        due(noHold, withHold);
+        when(walletClient.hold(anyLong(), anyInt(), anyString(), anyInt(), anyString()))
+                .thenThrow(new RuntimeException("Wallet service unavailable"));
+        when(walletClient.capture(57L)).thenThrow(new RuntimeException("Wallet service unavailable"));
+
+        relay.relay();
+
+        OutboxDelivery first = settled.stream().filter(d -> d.getMessage() == noHold).findFirst().orElseThrow();
+        OutboxDelivery second = settled.stream().filter(d -> d.getMessage() == withHold).findFirst().orElseThrow();
+        assertEquals(OutboxDelivery.Result.FAILED, first.getResult());
+        assertNull(first.getHoldId());
+        assertEquals(OutboxDelivery.Result.RETRY, second.getResult());
+        verify(walletClient, never()).hold(eq(7L), anyInt(), eq("order-5"), anyInt(), anyString());
+    }
+
+    @Test
+    void aRefusedCallIsRetriedEvenPastMaxAttempts() {
+        WalletOutboxMessage message = message(6L);
+        message.setAttempts(5);
+        due(message);
+        when(walletClient.hold(anyLong(), anyInt(), anyString(), anyInt(), anyString()))
+                .thenThrow(new WalletCallRefusedException("Wallet refused hold with 404 NOT_FOUND"));
+
+        assertEquals(0, relay.relay());
+
+        assertEquals(OutboxDelivery.Result.RETRY, settled.get(0).getResult());
+        assertEquals(6, message.getAttempts());
+        verify(stockEngine, never()).release(any(), anyInt());
+    }
+}
@@ -0,0 +1,92 @@
+package com.ecohub.shop.repository;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.ecohub.shop.entity.Order;
+
+class SalesRollupRepositoryTest {
+
+    private static final LocalDateTime NINE = LocalDateTime.of(2026, 3, 1, 9, 0);
+
+    private JdbcTemplate jdbcTemplate;
+    private SalesRollupRepository rollups;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        rollups = new SalesRollupRepository(jdbcTemplate);
+    }
+
+    private static Order order(long id, long productId, int price, LocalDateTime purchasedAt) {
+        Order order = new Order();
+        order.setId(id);
+        order.setProductId(productId);
+        order.setPricePaid(price);
+        order.setPurchasedAt(purchasedAt);
+        return order;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> upserted(String table) {
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(argThat(sql -> sql.startsWith("INSERT INTO " + table + " ")), rows.capture());
+        return rows.getValue();
+    }
+
+    @Test
+    void ordersAreAggregatedToOneUpsertPerRollupRow() {
+        rollups.add(List.of(
+                order(1, 2, 30, NINE.plusMinutes(5)),
+                order(2, 1, 10, NINE.plusMinutes(59)),
+                order(3, 2, 30, NINE.plusMinutes(40)),
+                order(4, 2, 30, NINE.plusHours(1))));
+
+        List<Object[]> productHours = upserted("sales_product_hour");
+        assertEquals(3, productHours.size());
+        // key order: product 1 first, then product 2's hours in order
+        assertArrayEquals(new Object[] {1L, Timestamp.valueOf(NINE), 1L, 10L}, productHours.get(0));
+        assertArrayEquals(new Object[] {2L, Timestamp.valueOf(NINE), 2L, 60L}, productHours.get(1));
+        assertArrayEquals(new Object[] {2L, Timestamp.valueOf(NINE.plusHours(1)), 1L, 30L}, productHours.get(2));
+
+        List<Object[]> hours = upserted("sales_hour");
+        assertArrayEquals(new Object[] {Timestamp.valueOf(NINE), 3L, 70L}, hours.get(0));
+        assertArrayEquals(new Object[] {Timestamp.valueOf(NINE.plusHours(1)), 1L, 30L}, hours.get(1));
+
+        List<Object[]> products = upserted("sales_product");
+        assertArrayEquals(new Object[] {1L, 1L, 10L}, products.get(0));
+        assertArrayEquals(new Object[] {2L, 3L, 90L}, products.get(1));
+    }
+
+    @Test
+    void aFailedOrderIsTakenOutOnlyIfItWasCounted() {
+        Order counted = order(1, 5, 40, NINE);
+        when(jdbcTemplate.update(anyString(), eq(1L))).thenReturn(1);
+        rollups.uncount(counted);
+        assertArrayEquals(new Object[] {5L, -1L, -40L}, upserted("sales_product").get(0));
+
+        Order neverCounted = order(2, 5, 40, NINE);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        rollups = new SalesRollupRepository(jdbcTemplate);
+        when(jdbcTemplate.update(anyString(), eq(2L))).thenReturn(0);
+        rollups.uncount(neverCounted);
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), any(List.class));
+    }
+}
@@ -0,0 +1,198 @@
+package com.ecohub.shop.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import com.ecohub.shop.dto.OrderHistoryItemDto;
+import com.ecohub.shop.dto.OrderHistoryPageDto;
+import com.ecohub.shop.entity.OrderStatus;
+import com.ecohub.shop.repository.OrderRepository;
+import com.ecohub.shop.repository.ProductName;
+import com.ecohub.shop.repository.ShopRepository;
+
+import tools.jackson.databind.json.JsonMapper;
+
+class OrderHistoryServiceImplTest {
+
+    private static final Long USER = 7L;
+    private static final int PRODUCTS = 40;
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 1, 20, 10, 0, 0, 123_456_000);
+    private static final Comparator<OrderHistoryItemDto> NEWEST_FIRST = Comparator
+            .comparing(OrderHistoryItemDto::getPurchasedAt)
+            .thenComparing(OrderHistoryItemDto::getOrderId)
+            .reversed();
+
+    // the user's orders, newest first as idx_orders_user_history returns them
+    private final List<OrderHistoryItemDto> table = new ArrayList<>();
+    private final AtomicInteger nameQueries = new AtomicInteger();
+    // like Connector/J: no other statement while a streaming result set is open
+    private final AtomicBoolean streaming = new AtomicBoolean();
+
+    private OrderRepository orderRepository;
+    private OrderHistoryServiceImpl service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        orderRepository = mock(OrderRepository.class);
+        when(orderRepository.findHistoryPage(eq(USER), any(), any(), any())).thenAnswer(invocation -> {
+            LocalDateTime purchasedAt = invocation.getArgument(1);
+            Long id = invocation.getArgument(2);
+            Pageable page = invocation.getArgument(3);
+            // seek like the index would: first row strictly after the cursor
+            int from = Collections.binarySearch(table,
+                    new OrderHistoryItemDto(id, 0L, 0, null, purchasedAt, null), NEWEST_FIRST);
+            from = from >= 0 ? from + 1 : -from - 1;
+            List<OrderHistoryItemDto> rows = new ArrayList<>();
+            for (int i = from; i < table.size() && rows.size() < page.getPageSize(); i++) {
+                rows.add(copy(table.get(i)));
+            }
+            return rows;
+        });
+        when(orderRepository.streamHistory(USER)).thenAnswer(invocation -> {
+            streaming.set(true);
+            return table.stream().map(this::copy).onClose(() -> streaming.set(false));
+        });
+        when(orderRepository.findProductIds(USER)).thenAnswer(invocation ->
+                table.stream().map(OrderHistoryItemDto::getProductId).distinct().toList());
+
+        ShopRepository productRepository = mock(ShopRepository.class);
+        when(productRepository.findNames(any())).thenAnswer(invocation -> {
+            if (streaming.get()) {
+                throw new IllegalStateException("Streaming result set is still active");
+            }
+            nameQueries.incrementAndGet();
+            List<ProductName> names = new ArrayList<>();
+            for (Long productId : (Collection<Long>) invocation.getArgument(0)) {
+                // ids past the catalog belong to deleted products
+                if (productId <= PRODUCTS) {
+                    names.add(new ProductName(productId, "Product " + productId));
+                }
+            }
+            return names;
+        });
+
+        service = new OrderHistoryServiceImpl(orderRepository, productRepository, JsonMapper.builder().build());
+    }
+
+    private void fill(int orders) {
+        // two orders per second, so the keyset has to break purchasedAt ties on id
+        for (long id = orders; id >= 1; id--) {
+            table.add(new OrderHistoryItemDto(id, 1 + id % (PRODUCTS + 2), 10, OrderStatus.CONFIRMED,
+                    T0.plusSeconds(id / 2), null));
+        }
+    }
+
+    private OrderHistoryItemDto copy(OrderHistoryItemDto row) {
+        return new OrderHistoryItemDto(row.getOrderId(), row.getProductId(), row.getPricePaid(),
+                row.getStatus(), row.getPurchasedAt(), row.getCheckoutId());
+    }
+
+    @Test
+    void pagesWalkBackwardsWithoutGapsOrRepeats() {
+        fill(7);
+
+        OrderHistoryPageDto first = service.getHistory(USER, null, 3);
+        OrderHistoryPageDto second = service.getHistory(USER, first.getNextCursor(), 3);
+        OrderHistoryPageDto last = service.getHistory(USER, second.getNextCursor(), 3);
+
+        assertEquals(List.of(7L, 6L, 5L), first.getItems().stream().map(OrderHistoryItemDto::getOrderId).toList());
+        assertEquals(List.of(4L, 3L, 2L), second.getItems().stream().map(OrderHistoryItemDto::getOrderId).toList());
+        assertEquals(List.of(1L), last.getItems().stream().map(OrderHistoryItemDto::getOrderId).toList());
+        assertNull(last.getNextCursor());
+        assertEquals("Product 8", first.getItems().get(0).getProductName());
+        assertEquals(3, nameQueries.get(), "one name lookup per page");
+    }
+
+    @Test
+    void garbageCursorIsRejected() {
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> service.getHistory(USER, "not-a-cursor", 10));
+
+        assertEquals("Invalid cursor", e.getMessage());
+    }
+
+    @Test
+    void exportWritesOneJsonObjectPerLine() throws Exception {
+        fill(3);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.exportHistory(USER, out);
+
+        String[] lines = out.toString().split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("{\"orderId\":3,"), lines[0]);
+        assertTrue(lines[0].contains("\"productName\":\"Product 4\""), lines[0]);
+    }
+
+    /**
+     * No MySQL here: this measures the service side of reading a 100k-order
+     * history (paging, labelling, serializing) over an in-memory table, and
+     * counts the product lookups a per-row fetch would have turned into N+1.
+     */
+    @Test
+    void walksOneHundredThousandOrders() throws Exception {
+        fill(100_000);
+
+        long start = System.nanoTime();
+        int pages = 0;
+        int rows = 0;
+        String cursor = null;
+        do {
+            OrderHistoryPageDto page = service.getHistory(USER, cursor, 500);
+            rows += page.getItems().size();
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+        long pagedMs = (System.nanoTime() - start) / 1_000_000;
+        assertEquals(100_000, rows);
+        assertEquals(pages, nameQueries.get());
+        System.out.printf("order history: %d pages of 500 in %d ms, %d name queries (per-row fetch: %d)%n",
+                pages, pagedMs, nameQueries.get(), rows);
+
+        nameQueries.set(0);
+        AtomicInteger lines = new AtomicInteger();
+        OutputStream counting = new OutputStream() {
+            @Override
+            public void write(int b) {
+                if (b == '\n') {
+                    lines.incrementAndGet();
+                }
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                for (int i = off; i < off + len; i++) {
+                    write(b[i]);
+                }
+            }
+        };
+        start = System.nanoTime();
+        service.exportHistory(USER, counting);
+        System.out.printf("order history: exported %d rows in %d ms, %d name queries%n",
+                lines.get(), (System.nanoTime() - start) / 1_000_000, nameQueries.get());
+        assertEquals(100_000, lines.get());
+        assertEquals(1, nameQueries.get(), "every product is looked up once per export");
+    }
+}
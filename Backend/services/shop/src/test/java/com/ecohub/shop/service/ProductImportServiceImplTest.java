@@ -0,0 +1,231 @@
+package com.ecohub.shop.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.withSettings;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.ecohub.shop.catalog.CatalogSnapshotHolder;
+import com.ecohub.shop.catalog.ProductSearchIndex;
+import com.ecohub.shop.dto.ProductImportErrorDto;
+import com.ecohub.shop.dto.ProductImportReportDto;
+import com.ecohub.shop.repository.ProductImportRepository;
+import com.ecohub.shop.repository.ProductImportRow;
+import com.ecohub.shop.stock.StockEngine;
+
+import tools.jackson.databind.json.JsonMapper;
+
+class ProductImportServiceImplTest {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final List<ProductImportRow> written = new ArrayList<>();
+    private boolean keepRows = true;
+    private int batches;
+    private long peakHeapAfterGc;
+
+    private ProductImportRepository importRepository;
+    private StockEngine stockEngine;
+    private ProductSearchIndex searchIndex;
+    private ProductImportServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        // stub-only: the mocks must not hold on to every batch they were called with
+        importRepository = mock(ProductImportRepository.class, withSettings().stubOnly());
+        doAnswer(invocation -> {
+            List<ProductImportRow> batch = invocation.getArgument(0);
+            assertTrue(batch.size() <= BATCH_SIZE);
+            if (keepRows) {
+                written.addAll(batch);
+            }
+            if (batch.stream().anyMatch(row -> "explode".equals(row.getName()))) {
+                throw new RuntimeException("Duplicate entry");
+            }
+            if (++batches % 100 == 0) {
+                peakHeapAfterGc = Math.max(peakHeapAfterGc, usedHeapAfterGc());
+            }
+            return null;
+        }).when(importRepository).upsertBatch(anyList());
+
+        stockEngine = mock(StockEngine.class);
+        searchIndex = mock(ProductSearchIndex.class);
+        service = new ProductImportServiceImpl(importRepository, stockEngine, searchIndex,
+                mock(CatalogSnapshotHolder.class), JsonMapper.builder().build(), BATCH_SIZE);
+    }
+
+    private static InputStream text(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<String> describe(List<ProductImportErrorDto> errors) {
+        return errors.stream().map(error -> error.getLine() + ": " + error.getMessage()).toList();
+    }
+
+    private static long usedHeapAfterGc() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    @Test
+    void csvRowsAreValidatedAndBadOnesReported() throws Exception {
+        ProductImportReportDto report = service.importProducts(text(
+                "name,description,price,stock,productId\n"
+                        + "Bamboo brush,\"Soft, compostable\",120,40,\n"
+                        + "Jar,\"Says \"\"hi\"\"\",80,5,12\n"
+                        + "\n"
+                        + ",no name,10,1,\n"
+                        + "Bag,,-1,3,\n"
+                        + "Cup,,ten,3,\n"
+                        + "Tote,\"unterminated,5,5,\n"),
+                ProductImportService.Format.CSV);
+
+        assertEquals(6, report.getRowsRead());
+        assertEquals(2, report.getImported());
+        assertEquals(4, report.getRejected());
+        assertEquals(List.of(
+                        "5: name is required",
+                        "6: price must not be negative",
+                        "7: price must be a whole number",
+                        "8: Unterminated quote"),
+                describe(report.getErrors()));
+
+        assertEquals("Soft, compostable", written.get(0).getDescription());
+        assertEquals(null, written.get(0).getProductId());
+        assertEquals("Says \"hi\"", written.get(1).getDescription());
+        assertEquals(12L, written.get(1).getProductId());
+        verify(stockEngine).dropLeases(List.of(12L));
+        verify(searchIndex).rebuild();
+    }
+
+    @Test
+    void ndjsonRowsAreValidatedAndBadOnesReported() throws Exception {
+        ProductImportReportDto report = service.importProducts(text(
+                "{\"name\":\"Bottle\",\"price\":300,\"stock\":12}\n"
+                        + "{\"productId\":4,\"name\":\"Straw\",\"description\":\"Steel\",\"price\":25,\"stock\":0}\n"
+                        + "{\"name\":\"Mug\",\"price\":2.5,\"stock\":1}\n"
+                        + "{\"name\":\"Lid\"\n"
+                        + "{\"productId\":0,\"name\":\"Pot\",\"price\":1,\"stock\":1}\n"),
+                ProductImportService.Format.NDJSON);
+
+        assertEquals(5, report.getRowsRead());
+        assertEquals(2, report.getImported());
+        assertEquals(List.of(
+                        "3: price must be a whole number",
+                        "4: Not a JSON object",
+                        "5: productId must be positive"),
+                describe(report.getErrors()));
+        assertEquals("Straw", written.get(1).getName());
+    }
+
+    @Test
+    void aFailedBatchRejectsItsRowsAndTheImportGoesOn() throws Exception {
+        StringBuilder csv = new StringBuilder("name,price,stock\n");
+        for (int i = 1; i <= 2500; i++) {
+            csv.append(i == 1500 ? "explode" : "Item " + i).append(",1,1\n");
+        }
+
+        ProductImportReportDto report = service.importProducts(text(csv.toString()), ProductImportService.Format.CSV);
+
+        assertEquals(1500, report.getImported());
+        assertEquals(1000, report.getRejected());
+        assertEquals("1002: Batch failed: Duplicate entry", describe(report.getErrors()).get(0));
+    }
+
+    @Test
+    void aCsvWithoutTheRequiredColumnsIsRefused() {
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> service.importProducts(text("title,cost\nJar,3\n"), ProductImportService.Format.CSV));
+
+        assertEquals("CSV header must have name, price and stock columns", e.getMessage());
+    }
+
+    /**
+     * No MySQL here: the repository is a stub, so this measures parsing,
+     * validation and batching of a million-row CSV read straight from a
+     * generated stream, and checks the heap stays flat while it runs.
+     */
+    @Test
+    void importsOneMillionRowsInBoundedMemory() throws Exception {
+        int rows = 1_000_000;
+        keepRows = false;
+        service = new ProductImportServiceImpl(importRepository, mock(StockEngine.class, withSettings().stubOnly()),
+                searchIndex, mock(CatalogSnapshotHolder.class), JsonMapper.builder().build(), BATCH_SIZE);
+        long baseline = usedHeapAfterGc();
+
+        ProductImportReportDto report = service.importProducts(new GeneratedCsv(rows),
+                ProductImportService.Format.CSV);
+
+        long growthKb = (peakHeapAfterGc - baseline) / 1024;
+        System.out.printf("product import: %d rows in %d ms (%d rows/s), %d batches, heap growth %d KB "
+                        + "(input is about %d MB)%n",
+                report.getImported(), report.getElapsedMs(), report.getRowsPerSecond(), batches, growthKb,
+                GeneratedCsv.bytes(rows) / (1024 * 1024));
+        assertEquals(rows, report.getImported());
+        assertEquals(rows / BATCH_SIZE, batches);
+        assertTrue(growthKb < 16 * 1024, "heap grew by " + growthKb + " KB");
+    }
+
+    /**
+     * A CSV produced line by line as it is read, so the test itself never
+     * holds the file.
+     */
+    private static final class GeneratedCsv extends InputStream {
+
+        private final int rows;
+        private int next;
+        private byte[] line = "productId,name,description,price,stock\n".getBytes(StandardCharsets.UTF_8);
+        private int pos;
+
+        GeneratedCsv(int rows) {
+            this.rows = rows;
+        }
+
+        static String row(int i) {
+            return i + ",Eco product " + i + ",\"Reusable, item " + i + "\"," + (i % 500) + "," + (i % 90) + "\n";
+        }
+
+        static long bytes(int rows) {
+            long total = 0;
+            for (int i = 1; i <= rows; i += 1000) {
+                total += 1000L * row(i).length();
+            }
+            return total;
+        }
+
+        @Override
+        public int read() {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0];
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (pos == line.length) {
+                if (next == rows) {
+                    return -1;
+                }
+                line = row(++next).getBytes(StandardCharsets.UTF_8);
+                pos = 0;
+            }
+            int n = Math.min(len, line.length - pos);
+            System.arraycopy(line, pos, b, off, n);
+            pos += n;
+            return n;
+        }
+    }
+}
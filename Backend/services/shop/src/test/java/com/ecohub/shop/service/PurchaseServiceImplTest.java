@@ -0,0 +1,188 @@
+package com.ecohub.shop.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.ecohub.shop.dto.CheckoutItemDto;
+import com.ecohub.shop.dto.CheckoutResponseDto;
+import com.ecohub.shop.entity.Order;
+import com.ecohub.shop.entity.OrderStatus;
+import com.ecohub.shop.entity.Product;
+import com.ecohub.shop.repository.OrderRepository;
+import com.ecohub.shop.repository.ShopRepository;
+import com.ecohub.shop.stock.StockEngine;
+
+class PurchaseServiceImplTest {
+
+    private static final Long USER = 7L;
+
+    private final AtomicLong ids = new AtomicLong();
+    // wallet debits left in the outbox, one hold + capture each for the relay
+    private final AtomicInteger debits = new AtomicInteger();
+
+    private ShopRepository productRepository;
+    private OrderOutboxService outboxService;
+    private StockEngine stockEngine;
+    private PurchaseServiceImpl service;
+
+    /**
+     * Stands in for one database round trip, as in StockEngineTest.
+     */
+    private static void roundTrip() {
+        try {
+            Thread.sleep(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Product product(long id) {
+        return new Product(id, "Product " + id, "", 10 * (int) id, 100);
+    }
+
+    private Order order(Long productId, int price, Long checkoutId) {
+        Order order = new Order();
+        order.setId(ids.incrementAndGet());
+        order.setUserId(USER);
+        order.setProductId(productId);
+        order.setPricePaid(price);
+        order.setStatus(OrderStatus.PENDING);
+        order.setCheckoutId(checkoutId);
+        return order;
+    }
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        productRepository = mock(ShopRepository.class);
+        when(productRepository.findById(any())).thenAnswer(invocation -> {
+            roundTrip();
+            return Optional.of(product(invocation.getArgument(0)));
+        });
+        when(productRepository.findAllById(any())).thenAnswer(invocation -> {
+            roundTrip();
+            List<Product> found = new ArrayList<>();
+            for (Long id : (Collection<Long>) invocation.getArgument(0)) {
+                if (id <= 100) {
+                    found.add(product(id));
+                }
+            }
+            return found;
+        });
+
+        outboxService = mock(OrderOutboxService.class);
+        when(outboxService.placeOrders(anyLong(), anyInt(), anyList())).thenAnswer(invocation -> {
+            roundTrip();
+            List<Order> orders = new ArrayList<>();
+            for (Long userId : (List<Long>) invocation.getArgument(2)) {
+                orders.add(order(invocation.getArgument(0), invocation.getArgument(1), null));
+                debits.incrementAndGet();
+            }
+            return orders;
+        });
+        when(outboxService.placeCheckout(anyLong(), anyList())).thenAnswer(invocation -> {
+            roundTrip();
+            List<Order> orders = new ArrayList<>();
+            Long checkoutId = null;
+            for (Product product : (List<Product>) invocation.getArgument(1)) {
+                Order order = order(product.getProductId(), product.getPrice(), checkoutId);
+                if (checkoutId == null) {
+                    checkoutId = order.getId();
+                }
+                orders.add(order);
+            }
+            debits.incrementAndGet();
+            return orders;
+        });
+
+        stockEngine = mock(StockEngine.class);
+        when(stockEngine.reserve(anyLong(), anyInt())).thenReturn(true);
+
+        service = new PurchaseServiceImpl(productRepository, mock(OrderRepository.class), outboxService, stockEngine);
+    }
+
+    @Test
+    void checkoutBuysEveryUnitWithOneDebit() {
+        CheckoutResponseDto checkout = service.checkout(USER, List.of(
+                new CheckoutItemDto(1L, 2), new CheckoutItemDto(3L, 1), new CheckoutItemDto(1L, 1)));
+
+        assertEquals(4, checkout.getOrders().size());
+        assertEquals(3 * 10 + 30, checkout.getTotal());
+        assertEquals(checkout.getOrders().get(0).getOrderId(), checkout.getCheckoutId());
+        assertEquals(1, debits.get());
+        verify(stockEngine).reserve(1L, 3);
+        verify(stockEngine).reserve(3L, 1);
+    }
+
+    @Test
+    void anItemOutOfStockReleasesTheRestOfTheCart() {
+        when(stockEngine.reserve(2L, 1)).thenReturn(false);
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> service.checkout(USER, List.of(
+                new CheckoutItemDto(1L, 2), new CheckoutItemDto(2L, 1), new CheckoutItemDto(3L, 1))));
+
+        assertEquals("Out of stock: product 2", e.getMessage());
+        verify(stockEngine).release(1L, 2);
+        verify(stockEngine, never()).reserve(3L, 1);
+        verify(outboxService, never()).placeCheckout(anyLong(), anyList());
+    }
+
+    @Test
+    void unknownProductsAndOversizedCartsAreRefused() {
+        assertEquals("Product not found: 404", assertThrows(RuntimeException.class,
+                () -> service.checkout(USER, List.of(new CheckoutItemDto(404L, 1)))).getMessage());
+        assertThrows(RuntimeException.class,
+                () -> service.checkout(USER, List.of(new CheckoutItemDto(1L, Order.ID_ALLOCATION_SIZE + 1))));
+        verify(stockEngine, never()).reserve(anyLong(), anyInt());
+    }
+
+    /**
+     * Latency of a cart bought item by item versus in one checkout, with
+     * every product query and order transaction costing a simulated 1 ms
+     * round trip. The wallet is debited asynchronously by the relay, so its
+     * cost shows up as the number of debits left in the outbox.
+     */
+    @Test
+    void checkoutLatencyStaysFlatWithCartSize() {
+        for (int size : new int[] {1, 2, 5, 10, 20}) {
+            debits.set(0);
+            long start = System.nanoTime();
+            for (long productId = 1; productId <= size; productId++) {
+                service.purchaseProduct(productId, USER);
+            }
+            long singleMicros = (System.nanoTime() - start) / 1_000;
+            int singleDebits = debits.getAndSet(0);
+
+            List<CheckoutItemDto> cart = new ArrayList<>();
+            for (long productId = 1; productId <= size; productId++) {
+                cart.add(new CheckoutItemDto(productId, 1));
+            }
+            start = System.nanoTime();
+            service.checkout(USER, cart);
+            long checkoutMicros = (System.nanoTime() - start) / 1_000;
+
+            System.out.printf("cart of %2d: item by item %6d us, %2d debits; checkout %5d us, %d debit%n",
+                    size, singleMicros, singleDebits, checkoutMicros, debits.get());
+            assertEquals(size, singleDebits);
+            assertEquals(1, debits.get());
+        }
+    }
+}
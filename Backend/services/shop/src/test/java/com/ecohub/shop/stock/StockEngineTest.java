@@ -0,0 +1,171 @@
+package com.ecohub.shop.stock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.ecohub.shop.repository.ProductStockRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class StockEngineTest {
+
+    private static final Long PRODUCT = 1L;
+
+    /**
+     * Stands in for the products table, with a sleep per claim roughly the
+     * cost of a locked round trip to MySQL.
+     */
+    private static final class TableStub extends ProductStockRepository {
+
+        int stock;
+        final AtomicInteger claims = new AtomicInteger();
+
+        TableStub(int stock) {
+            super(null);
+            this.stock = stock;
+        }
+
+        @Override
+        public synchronized int claim(Long productId, int max) {
+            claims.incrementAndGet();
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            int claimed = Math.min(max, stock);
+            stock -= claimed;
+            return claimed;
+        }
+
+        @Override
+        public synchronized void giveBack(Long productId, int quantity) {
+            stock += quantity;
+        }
+
+        @Override
+        public synchronized void setStock(Long productId, int stock) {
+            this.stock = stock;
+        }
+    }
+
+    @Test
+    void refusesOnceTheStockIsGone() {
+        TableStub table = new TableStub(3);
+        StockEngine engine = new StockEngine(table, new SimpleMeterRegistry(), 50);
+
+        assertTrue(engine.reserve(PRODUCT, 2));
+        assertFalse(engine.reserve(PRODUCT, 2), "only one unit left");
+        assertTrue(engine.reserve(PRODUCT, 1));
+        assertFalse(engine.reserve(PRODUCT, 1));
+
+        engine.release(PRODUCT, 1);
+        assertTrue(engine.reserve(PRODUCT, 1), "a released unit can be sold again");
+    }
+
+    @Test
+    void unsoldLeasesGoBackToTheTable() {
+        TableStub table = new TableStub(100);
+        StockEngine engine = new StockEngine(table, new SimpleMeterRegistry(), 50);
+
+        engine.reserve(PRODUCT, 1);
+        assertEquals(50, table.stock);
+        assertEquals(49, engine.leased(PRODUCT));
+
+        engine.returnLeases();
+        assertEquals(99, table.stock);
+        assertEquals(0, engine.leased(PRODUCT));
+    }
+
+    @Test
+    void concurrentBuyersNeverOversell() throws Exception {
+        int stock = 10_000;
+        TableStub table = new TableStub(stock);
+        StockEngine engine = new StockEngine(table, new SimpleMeterRegistry(), 50);
+
+        int threads = 32;
+        AtomicInteger sold = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> buyers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            buyers.add(pool.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 2_000; i++) {
+                    int quantity = 1 + random.nextInt(3);
+                    if (!engine.reserve(PRODUCT, quantity)) {
+                        continue;
+                    }
+                    // roughly one in ten wallet debits fails and gives the units back
+                    if (random.nextInt(10) == 0) {
+                        engine.release(PRODUCT, quantity);
+                    } else {
+                        sold.addAndGet(quantity);
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> buyer : buyers) {
+            buyer.get();
+        }
+        pool.shutdown();
+
+        engine.returnLeases();
+        assertTrue(sold.get() <= stock, "sold " + sold.get() + " of " + stock);
+        assertEquals(stock, sold.get() + table.stock, "every unit is either sold or back in the table");
+    }
+
+    /**
+     * One hot product, many buyers. Prints purchases per second; asserts
+     * only that the stock adds up.
+     */
+    @Test
+    void hotProductThroughput() throws Exception {
+        int stock = 200_000;
+        TableStub table = new TableStub(stock);
+        StockEngine engine = new StockEngine(table, new SimpleMeterRegistry(), 50);
+
+        int threads = 16;
+        AtomicInteger sold = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> buyers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            buyers.add(pool.submit(() -> {
+                start.await();
+                int mine = 0;
+                while (engine.reserve(PRODUCT, 1)) {
+                    mine++;
+                }
+                sold.addAndGet(mine);
+                return null;
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> buyer : buyers) {
+            buyer.get();
+        }
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        pool.shutdown();
+
+        System.out.printf("stock engine: %d threads sold %d units in %.2fs (%.0f/s), %d table claims%n",
+                threads, sold.get(), seconds, sold.get() / seconds, table.claims.get());
+        assertEquals(stock, sold.get());
+    }
+}